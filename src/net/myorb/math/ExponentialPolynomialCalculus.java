@@ -99,6 +99,11 @@ public class ExponentialPolynomialCalculus<T> extends PolynomialCalculus<T>
 	public Value<T> evaluatePolynomialV (Coefficients<T> coefficients, Value<T> x)
 	{ return forValue (evaluatePolynomial (coefficients, x.getUnderlying ())); }
 
+	/* (non-Javadoc)
+	 * @see net.myorb.math.Polynomial#usesPowerBasis()
+	 */
+	public boolean usesPowerBasis () { return false; }
+
 	/* (non-Javadoc)
 	 * @see net.myorb.math.Polynomial#evaluatePolynomial(net.myorb.math.GeneratingFunctions.Coefficients, java.lang.Object)
 	 */
@@ -3,6 +3,7 @@ package net.myorb.math;
 
 import net.myorb.math.polynomial.PolynomialSpaceManager;
 import net.myorb.math.polynomial.PolynomialFunctionWrapper;
+import net.myorb.math.polynomial.PrimitivePolynomial;
 import net.myorb.math.expressions.managers.ExpressionFloatingFieldManager;
 
 /**
@@ -96,11 +97,24 @@ public class Polynomial<T> extends MathSupport<T>
 	 * @return the computed result
 	 */
 	public T evaluatePolynomial (Coefficients<T> coefficients, T x)
-	{ return evaluatePolynomialV (coefficients, forValue (x)).getUnderlying (); }
+	{
+		T value;
+		if (usesPowerBasis () && (value = PrimitivePolynomial.evaluate (coefficients, x)) != null) return value;
+		return evaluatePolynomialV (coefficients, forValue (x)).getUnderlying ();
+	}
 	public Value<T> evaluatePolynomialV (Coefficients<T> coefficients, Value<T> x)
 	{ return ordinary (coefficients, x); }
 
 
+	/**
+	 * identify evaluation as the ordinary sum c0 + c1*X + c2*x^2 + ...
+	 *  which allows primitive evaluation for Double and ComplexValue of Double;
+	 *  families that override the evaluation of the coefficients must return FALSE
+	 * @return TRUE for ordinary power series evaluation
+	 */
+	public boolean usesPowerBasis () { return true; }
+
+
 	/**
 	 * a set of coefficients uniquely identify a function
 	 * @param coefficients the Coefficients object holding the ordered list of values of type T
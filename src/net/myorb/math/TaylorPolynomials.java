@@ -515,6 +515,11 @@ class ExponentialPolynomial<T> extends Polynomial<T>
 	(Coefficients<T> coefficients, Value<T> x)
 	{ return exponential (coefficients, x); }
 
+	/* (non-Javadoc)
+	 * @see net.myorb.math.Polynomial#usesPowerBasis()
+	 */
+	public boolean usesPowerBasis () { return false; }
+
 }
 
 
@@ -33,11 +33,12 @@ public class Tolerances<T> extends ListOperations<T>
 	public void setToleranceDefaultParameters ()
 	{
 		this.TEN = forValue (10);
-		this.epsilon = TEN.pow (-14);
-		this.tolerance = TEN.pow (-8);
+		this.epsilon = TEN.pow (-DEFAULT_EPSILON_SCALE);
+		this.tolerance = TEN.pow (-DEFAULT_TOLERANCE_SCALE);
 		this.inflectionOffset = TEN.pow (-1);
 		this.maxIterations = 50;
 	}
+	public static final int DEFAULT_EPSILON_SCALE = 14, DEFAULT_TOLERANCE_SCALE = 8;
 	protected Value<T> epsilon, tolerance, inflectionOffset;
 	protected int maxIterations;
 	protected Value<T> TEN;
@@ -17,11 +17,24 @@ public class ADSplineReal2DSegmentManager
 	static final boolean
 		TRACE_INTEGRALS = false,														// display intervals for each requested approximation
 		USE_GENERIC = true, USE_CCQ = false, USE_TSQ = false;							// selection criteria for type of integration to be used
-	static MultiDimensionalIntegralEngineFactory<Double> INTEGRATION_ENGINE_FACTORY =
+	static final MultiDimensionalIntegralEngineFactory<Double> DEFAULT_ENGINE_FACTORY =
 		USE_TSQ ? TSQIntegration.newFactoryInstance () :								// TSQ specific - quadrature hybrid N-Dimensional Integral (fastest by far)
 		USE_GENERIC ? MultiDimensionalRealIntegral.newFactoryInstance () :				// Generic N-Dimensional Integral implementation (slowest, teaching aid only)
 		USE_CCQ ? CCQIntegration.newFactoryInstance () :								// CCQ specific - quadrature hybrid N-Dimensional Integral (using DCT)
 		DoubleIntegral.newFactoryInstance ();											// non-generic, 2D only, slower than QUAD versions
+	static MultiDimensionalIntegralEngineFactory<Double> INTEGRATION_ENGINE_FACTORY = DEFAULT_ENGINE_FACTORY;
+
+	/**
+	 * @param factory the integration engine used by segment managers constructed after the call
+	 */
+	public static void setIntegrationEngineFactory
+	(MultiDimensionalIntegralEngineFactory<Double> factory) { INTEGRATION_ENGINE_FACTORY = factory; }
+
+	/**
+	 * @return the integration engine selected by the static criteria
+	 */
+	public static MultiDimensionalIntegralEngineFactory<Double>
+	getDefaultIntegrationEngineFactory () { return DEFAULT_ENGINE_FACTORY; }
 
 	/**
 	 * spline definition must present HI and LO tables
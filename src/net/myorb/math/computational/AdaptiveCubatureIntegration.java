@@ -0,0 +1,484 @@
+package net.myorb.math.computational;
+
+import net.myorb.math.MultiDimensional;
+import net.myorb.math.Function;
+
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.ForkJoinPool;
+
+import java.util.PriorityQueue;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * adaptive cubature over hyper-rectangles.
+ *  each subregion is evaluated with the Genz-Malik degree 7 rule and its
+ *  embedded degree 5 rule giving the error estimate (Gauss-Kronrod 7/15 for a
+ *  single dimension); the regions with the largest errors are bisected along
+ *  the dimension with the largest fourth difference until the total error
+ *  meets the requested precision.  the children of each round of bisection
+ *  are evaluated on a fork/join pool when the integrand declares that it allows
+ *  concurrent calls (see ConcurrentEvaluation), otherwise on the calling thread.  the deltas of the
+ *  uniform grid implementations are accepted but not used
+ * @author Michael Druckman
+ */
+public class AdaptiveCubatureIntegration
+		extends MultiDimensionalRealIntegralSupport
+	implements MultiDimensionalIntegral<Double>
+{
+
+
+	/**
+	 * @param integrand the function to be integrated
+	 */
+	public AdaptiveCubatureIntegration (MultiDimensional.Function<Double> integrand) { super (integrand); }
+
+	/**
+	 * @param integrand the function to be integrated
+	 */
+	public AdaptiveCubatureIntegration (Function<Double> integrand) { super (integrand); }
+
+
+	/**
+	 * @param parallel FALSE to evaluate on the calling thread only, TRUE to use the fork/join pool
+	 */
+	public void setParallel (boolean parallel) { this.parallel = parallel; }
+	protected Boolean parallel = null;
+
+	/**
+	 * @return TRUE when the integrand is to be evaluated on the fork/join pool,
+	 *  unless set explicitly only integrands that allow concurrent calls are
+	 */
+	public boolean isParallel ()
+	{
+		if (parallel != null) return parallel;
+		return ConcurrentEvaluation.isAllowed (integrand != null ? integrand : integrand1D);
+	}
+
+	/**
+	 * @param maximumEvaluations limit on count of integrand evaluations
+	 */
+	public void setMaximumEvaluations (long maximumEvaluations) { this.maximumEvaluations = maximumEvaluations; }
+	protected long maximumEvaluations = MAXIMUM_EVALUATIONS;
+	public static final long MAXIMUM_EVALUATIONS = 5000000;
+
+	/**
+	 * @return the error estimate of the most recent approximation
+	 */
+	public double getErrorEstimate () { return errorEstimate; }
+	protected double errorEstimate;
+
+	/**
+	 * @return the count of integrand evaluations of the most recent approximation
+	 */
+	public long getEvaluationCount () { return evaluations; }
+	protected long evaluations;
+
+
+	/* (non-Javadoc)
+	 * @see net.myorb.math.computational.MultiDimensionalRealIntegralSupport#computeApproximation(java.util.List, java.util.List)
+	 */
+	public Double computeApproximation (List<Double> lo, List<Double> hi)
+	{
+		if (lo.size () != hi.size ()) throw new RuntimeException (VERIFY_FAIL_MSG);
+		if (integrand == null && lo.size () == 1) return computeApproximation (lo.get (0), hi.get (0));
+		return integrate (toArray (lo), toArray (hi), samplerFor (integrand));
+	}
+
+	/* (non-Javadoc)
+	 * @see net.myorb.math.computational.MultiDimensionalRealIntegralSupport#computeApproximation(java.lang.Double, java.lang.Double)
+	 */
+	public Double computeApproximation (Double lo, Double hi)
+	{
+		if (integrand1D == null) throw new RuntimeException ("No support for dimension = 1");
+		return integrate (new double[]{lo}, new double[]{hi}, samplerFor (integrand1D));
+	}
+
+
+	/*
+	 * integrand access
+	 */
+
+
+	/**
+	 * primitive view of the integrand
+	 */
+	public interface Sampler
+	{
+		/**
+		 * @param x the point of evaluation
+		 * @return the integrand value at the point
+		 */
+		double at (double [] x);
+	}
+
+	static Sampler samplerFor (final MultiDimensional.Function<Double> f)
+	{
+		return new Sampler ()
+		{
+			public double at (double [] x)
+			{
+				Double [] parameters = new Double [x.length];
+				for (int i = 0; i < x.length; i++) parameters[i] = x[i];
+				return f.f (parameters);
+			}
+		};
+	}
+
+	static Sampler samplerFor (final Function<Double> f)
+	{
+		return new Sampler () { public double at (double [] x) { return f.eval (x[0]); } };
+	}
+
+	static double [] toArray (List<Double> values)
+	{
+		double [] a = new double [values.size ()];
+		for (int i = 0; i < a.length; i++) a[i] = values.get (i);
+		return a;
+	}
+
+
+	/*
+	 * adaptive driver
+	 */
+
+
+	/**
+	 * @param lo the LO of the interval for each dimension
+	 * @param hi the HI of the interval for each dimension
+	 * @param f the integrand
+	 * @return the computed approximation
+	 */
+	public double integrate (double [] lo, double [] hi, Sampler f)
+	{
+		int n = lo.length; double sign = 1;
+		double [] center = new double [n], halfWidth = new double [n];
+
+		for (int i = 0; i < n; i++)
+		{
+			double a = lo[i], b = hi[i];
+			if (a == b) { errorEstimate = 0; evaluations = 0; return 0; }
+			if (a > b) { sign = -sign; double t = a; a = b; b = t; }
+			center[i] = (a + b) / 2; halfWidth[i] = (b - a) / 2;
+		}
+
+		Rule rule = n == 1 ? new KronrodRule (f) : new GenzMalikRule (n, f);
+		double tolerance = Math.pow (10, -level.doubleValue ());
+		ForkJoinPool pool = ForkJoinPool.commonPool (); boolean parallel = isParallel ();
+		int batchSize = parallel ? Math.max (1, pool.getParallelism ()) * BATCH_PER_THREAD : 1;
+
+		Region whole = new Region (center, halfWidth); rule.apply (whole);
+		CompensatedSum value = new CompensatedSum (whole.value), error = new CompensatedSum (whole.error);
+		PriorityQueue<Region> regions = new PriorityQueue<Region> (); regions.add (whole);
+		evaluations = rule.points ();
+
+		while
+		(
+			error.value () > Math.max (tolerance, tolerance * Math.abs (value.value ())) &&
+			evaluations + 2L * rule.points () <= maximumEvaluations
+		)
+		{
+			List<Region> parents = new ArrayList<Region> (), children = new ArrayList<Region> ();
+			while (parents.size () < batchSize && !regions.isEmpty () &&
+				evaluations + 2L * rule.points () * (parents.size () + 1) <= maximumEvaluations)
+			{
+				Region r = regions.poll (); parents.add (r);
+				r.bisect (children);
+			}
+
+			if (parallel && children.size () > 2)
+				pool.invoke (new Evaluation (rule, children, 0, children.size ()));
+			else for (Region r : children) rule.apply (r);
+			evaluations += (long) children.size () * rule.points ();
+
+			for (Region r : parents) { value.add (-r.value); error.add (-r.error); }
+			for (Region r : children) { value.add (r.value); error.add (r.error); regions.add (r); }
+		}
+
+		CompensatedSum finalError = new CompensatedSum ();			// re-total to remove drift of the running error
+		for (Region r : regions) finalError.add (r.error);
+		errorEstimate = finalError.value ();
+
+		return sign * value.value ();
+	}
+	public static final int BATCH_PER_THREAD = 4;
+
+
+	/**
+	 * a hyper-rectangle given by center and half widths
+	 */
+	static class Region implements Comparable<Region>
+	{
+
+		Region (double [] center, double [] halfWidth)
+		{ this.center = center; this.halfWidth = halfWidth; }
+		protected double [] center, halfWidth;
+		protected double value, error;
+		protected int splitDimension;
+
+		/**
+		 * @param children list to receive the two halves
+		 */
+		void bisect (List<Region> children)
+		{
+			int d = splitDimension;
+			double [] h = halfWidth.clone (); h[d] /= 2;
+			double [] left = center.clone (), right = center.clone ();
+			left[d] -= h[d]; right[d] += h[d];
+			children.add (new Region (left, h)); children.add (new Region (right, h.clone ()));
+		}
+
+		/* (non-Javadoc)
+		 * @see java.lang.Comparable#compareTo(java.lang.Object)
+		 */
+		public int compareTo (Region other) { return Double.compare (other.error, error); }		// largest error first
+
+		/**
+		 * @return the volume of the region
+		 */
+		double volume ()
+		{
+			double v = 1;
+			for (double h : halfWidth) v *= 2 * h;
+			return v;
+		}
+
+	}
+
+
+	/**
+	 * range of regions evaluated as one task
+	 */
+	static class Evaluation extends RecursiveAction
+	{
+
+		Evaluation (Rule rule, List<Region> regions, int lo, int hi)
+		{ this.rule = rule; this.regions = regions; this.lo = lo; this.hi = hi; }
+		protected List<Region> regions; protected Rule rule;
+		protected int lo, hi;
+
+		/* (non-Javadoc)
+		 * @see java.util.concurrent.RecursiveAction#compute()
+		 */
+		protected void compute ()
+		{
+			if (hi - lo == 1 || (hi - lo) * rule.points () <= TASK_POINTS)
+			{
+				for (int i = lo; i < hi; i++) rule.apply (regions.get (i));
+				return;
+			}
+			int mid = (lo + hi) >>> 1;
+			invokeAll (new Evaluation (rule, regions, lo, mid), new Evaluation (rule, regions, mid, hi));
+		}
+
+		private static final long serialVersionUID = -3322487386061364585L;
+	}
+	public static final int TASK_POINTS = 128;
+
+
+	/*
+	 * rules
+	 */
+
+
+	/**
+	 * cubature rule with embedded error estimate
+	 */
+	static abstract class Rule
+	{
+
+		Rule (Sampler f) { this.f = f; }
+		protected Sampler f;
+
+		/**
+		 * set value, error and split dimension of a region
+		 * @param r the region to evaluate
+		 */
+		abstract void apply (Region r);
+
+		/**
+		 * @return count of integrand evaluations for one region
+		 */
+		abstract int points ();
+
+	}
+
+
+	/**
+	 * Genz-Malik degree 7 rule with embedded degree 5 rule.
+	 *  A.C. Genz and A.A. Malik, "An adaptive algorithm for numerical integration
+	 *  over an N-dimensional rectangular region", J. Comput. Appl. Math. 6 (1980)
+	 */
+	static class GenzMalikRule extends Rule
+	{
+
+		static final double
+			LAMBDA2 = Math.sqrt (9.0 / 70.0), LAMBDA4 = Math.sqrt (9.0 / 10.0), LAMBDA5 = Math.sqrt (9.0 / 19.0),
+			RATIO = (LAMBDA2 * LAMBDA2) / (LAMBDA4 * LAMBDA4), W2 = 980.0 / 6561.0, W4 = 200.0 / 19683.0,
+			E2 = 245.0 / 486.0, E4 = 25.0 / 729.0;
+
+		GenzMalikRule (int n, Sampler f)
+		{
+			super (f); this.n = n;
+			if (n > MAXIMUM_DIMENSION) throw new RuntimeException ("Cubature dimension exceeds " + MAXIMUM_DIMENSION);
+			this.w1 = (12824.0 - 9120.0 * n + 400.0 * n * n) / 19683.0; this.w3 = (1820.0 - 400.0 * n) / 19683.0;
+			this.w5 = 6859.0 / 19683.0 / (1 << n);
+			this.e1 = (729.0 - 950.0 * n + 50.0 * n * n) / 729.0; this.e3 = (265.0 - 100.0 * n) / 1458.0;
+		}
+		protected double w1, w3, w5, e1, e3;
+		protected int n;
+
+		/* (non-Javadoc)
+		 * @see net.myorb.math.computational.AdaptiveCubatureIntegration.Rule#points()
+		 */
+		int points () { return 1 + 4 * n + 2 * n * (n - 1) + (1 << n); }
+
+		/* (non-Javadoc)
+		 * @see net.myorb.math.computational.AdaptiveCubatureIntegration.Rule#apply(net.myorb.math.computational.AdaptiveCubatureIntegration.Region)
+		 */
+		void apply (Region r)
+		{
+			double [] c = r.center, h = r.halfWidth, x = c.clone ();
+			double f0 = f.at (x), maxDifference = -1;
+			CompensatedSum sum2 = new CompensatedSum (), sum3 = new CompensatedSum (),
+				sum4 = new CompensatedSum (), sum5 = new CompensatedSum ();
+			int split = 0;
+
+			for (int i = 0; i < n; i++)
+			{
+				double d2 = LAMBDA2 * h[i], d4 = LAMBDA4 * h[i];
+				x[i] = c[i] - d2; double a2 = f.at (x); x[i] = c[i] + d2; double b2 = f.at (x);
+				x[i] = c[i] - d4; double a4 = f.at (x); x[i] = c[i] + d4; double b4 = f.at (x);
+				x[i] = c[i];
+				sum2.add (a2).add (b2); sum3.add (a4).add (b4);
+
+				double difference = Math.abs (a2 + b2 - 2 * f0 - RATIO * (a4 + b4 - 2 * f0));
+				if (difference > maxDifference * (1 + SPLIT_TIE)) { maxDifference = difference; split = i; }
+				else if (difference >= maxDifference * (1 - SPLIT_TIE) && h[i] > h[split]) split = i;	// nearly equal: split the wider
+			}
+
+			for (int i = 0; i < n; i++)
+			{
+				for (int j = i + 1; j < n; j++)
+				{
+					for (int s = 0; s < 4; s++)
+					{
+						x[i] = c[i] + ((s & 1) == 0 ? -LAMBDA4 : LAMBDA4) * h[i];
+						x[j] = c[j] + ((s & 2) == 0 ? -LAMBDA4 : LAMBDA4) * h[j];
+						sum4.add (f.at (x));
+					}
+					x[i] = c[i]; x[j] = c[j];
+				}
+			}
+
+			for (int corner = 0; corner < (1 << n); corner++)
+			{
+				for (int i = 0; i < n; i++) x[i] = c[i] + (((corner >> i) & 1) == 0 ? -LAMBDA5 : LAMBDA5) * h[i];
+				sum5.add (f.at (x));
+			}
+
+			double volume = r.volume (), s2 = sum2.value (), s3 = sum3.value (), s4 = sum4.value ();
+			double degree7 = volume * CompensatedSum.of (w1 * f0, W2 * s2, w3 * s3, W4 * s4, w5 * sum5.value ());
+			double degree5 = volume * CompensatedSum.of (e1 * f0, E2 * s2, e3 * s3, E4 * s4);
+			r.value = degree7; r.error = Math.abs (degree5 - degree7); r.splitDimension = split;
+		}
+		static final double SPLIT_TIE = 1E-10;
+
+	}
+	public static final int MAXIMUM_DIMENSION = 20;
+
+
+	/**
+	 * Gauss-Kronrod 15 point rule with embedded 7 point Gauss rule
+	 */
+	static class KronrodRule extends Rule
+	{
+
+		static final double [] NODES =
+		{
+			0.991455371120812639206854697526329, 0.949107912342758524526189684047851,
+			0.864864423359769072789712788640926, 0.741531185599394439863864773280788,
+			0.586087235467691130294144845693013, 0.405845151377397166906606412076961,
+			0.207784955007898467600689403773245, 0.000000000000000000000000000000000
+		};
+		static final double [] KRONROD_WEIGHTS =
+		{
+			0.022935322010529224963732008058970, 0.063092092629978553290700663189204,
+			0.104790010322250183839876322541518, 0.140653259715525918745189590510238,
+			0.169004726639267902826583426598550, 0.190350578064785409913256402421014,
+			0.204432940075298892414161999234649, 0.209482141084727828012999174891714
+		};
+		static final double [] GAUSS_WEIGHTS =							// at the odd Kronrod nodes
+		{
+			0.129484966168869693270611432679082, 0.279705391489276667901467771423780,
+			0.381830050505118944950369775488975, 0.417959183673469387755102040816327
+		};
+
+		KronrodRule (Sampler f) { super (f); }
+
+		/* (non-Javadoc)
+		 * @see net.myorb.math.computational.AdaptiveCubatureIntegration.Rule#points()
+		 */
+		int points () { return 15; }
+
+		/* (non-Javadoc)
+		 * @see net.myorb.math.computational.AdaptiveCubatureIntegration.Rule#apply(net.myorb.math.computational.AdaptiveCubatureIntegration.Region)
+		 */
+		void apply (Region r)
+		{
+			double c = r.center[0], h = r.halfWidth[0], x [] = new double [1];
+			x[0] = c; double fc = f.at (x);
+			CompensatedSum kronrod = new CompensatedSum (KRONROD_WEIGHTS[7] * fc),
+				gauss = new CompensatedSum (GAUSS_WEIGHTS[3] * fc);
+
+			for (int k = 0; k < 7; k++)
+			{
+				x[0] = c - h * NODES[k]; double pair = f.at (x);
+				x[0] = c + h * NODES[k]; pair += f.at (x);
+				kronrod.add (KRONROD_WEIGHTS[k] * pair);
+				if (k % 2 == 1) gauss.add (GAUSS_WEIGHTS[k / 2] * pair);
+			}
+
+			r.value = h * kronrod.value ();
+			r.error = Math.abs (h * gauss.value () - r.value);
+			r.splitDimension = 0;
+		}
+
+	}
+
+
+	/**
+	 * @return new factory instance for objects of this integral implementation
+	 */
+	public static MultiDimensionalIntegralEngineFactory<Double> newFactoryInstance ()
+	{
+		return new MultiDimensionalIntegralEngineFactory<Double>()
+			{
+
+				/* (non-Javadoc)
+				 * @see net.myorb.math.computational.MultiDimensionalIntegralEngineFactory#newMultiDimensionalIntegral(net.myorb.math.MultiDimensional.Function)
+				 */
+				public MultiDimensionalIntegral<Double> newMultiDimensionalIntegral (MultiDimensional.Function<Double> integrand) { return newInstance (integrand); }
+
+				/* (non-Javadoc)
+				 * @see net.myorb.math.computational.MultiDimensionalIntegralEngineFactory#newMultiDimensionalIntegral(net.myorb.math.Function)
+				 */
+				public MultiDimensionalIntegral<Double> newMultiDimensionalIntegral (Function<Double> integrand) { return newInstance (integrand); }
+
+			};
+	}
+
+	/**
+	 * @param integrand the function to be integrated
+	 * @return a new instance of this integral implementation
+	 */
+	public static MultiDimensionalIntegral<Double> newInstance (MultiDimensional.Function<Double> integrand) { return new AdaptiveCubatureIntegration (integrand); }
+
+	/**
+	 * @param integrand the function to be integrated
+	 * @return a new instance of this integral implementation
+	 */
+	public static MultiDimensionalIntegral<Double> newInstance (Function<Double> integrand) { return new AdaptiveCubatureIntegration (integrand); }
+
+
+}
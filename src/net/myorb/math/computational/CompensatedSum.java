@@ -0,0 +1,69 @@
+package net.myorb.math.computational;
+
+/**
+ * running sum of primitive values with Kahan-Babuska (Neumaier) compensation.
+ *  the low order bits lost by each addition are kept in a separate
+ *  term so the error does not grow with the number of terms added.
+ *  once the sum is not finite the compensation is left as it is so
+ *  infinite terms give an infinite sum as plain addition would
+ * @author Michael Druckman
+ */
+public class CompensatedSum
+{
+
+
+	public CompensatedSum () {}
+
+	/**
+	 * @param initial the starting value of the sum
+	 */
+	public CompensatedSum (double initial) { this.sum = initial; }
+
+
+	/**
+	 * @param value the term to be added
+	 * @return THIS sum
+	 */
+	public CompensatedSum add (double value)
+	{
+		double t = sum + value;
+		if (Double.isInfinite (t) || Double.isNaN (t))
+		{ sum = t; return this; }										// Inf - Inf would make the compensation NaN
+		if (Math.abs (sum) >= Math.abs (value))
+			compensation += (sum - t) + value;
+		else compensation += (value - t) + sum;
+		sum = t;
+		return this;
+	}
+
+	/**
+	 * @param other a sum to be added into this one
+	 * @return THIS sum
+	 */
+	public CompensatedSum add (CompensatedSum other)
+	{
+		add (other.sum); add (other.compensation);
+		return this;
+	}
+
+
+	/**
+	 * @return the compensated value of the sum
+	 */
+	public double value () { return sum + compensation; }
+	protected double sum = 0, compensation = 0;
+
+
+	/**
+	 * @param values terms to be added
+	 * @return the compensated sum of the terms
+	 */
+	public static double of (double... values)
+	{
+		CompensatedSum s = new CompensatedSum ();
+		for (double v : values) s.add (v);
+		return s.value ();
+	}
+
+
+}
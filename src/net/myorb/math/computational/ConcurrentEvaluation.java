@@ -0,0 +1,27 @@
+package net.myorb.math.computational;
+
+/**
+ * marker for functions that may be evaluated on several threads at once.
+ *  interpreted functions share evaluation state so integration engines
+ *  evaluate on the calling thread unless the function declares this support
+ * @author Michael Druckman
+ */
+public interface ConcurrentEvaluation
+{
+
+	/**
+	 * @return TRUE when concurrent calls are safe
+	 */
+	boolean allowsConcurrentEvaluation ();
+
+	/**
+	 * @param function a function object of any kind
+	 * @return TRUE when the object declares concurrent calls safe
+	 */
+	static boolean isAllowed (Object function)
+	{
+		return function instanceof ConcurrentEvaluation &&
+			((ConcurrentEvaluation) function).allowsConcurrentEvaluation ();
+	}
+
+}
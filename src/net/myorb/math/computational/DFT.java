@@ -5,6 +5,9 @@ import net.myorb.math.complexnumbers.*;
 import net.myorb.math.realnumbers.DoubleFloatingFieldManager;
 import net.myorb.math.matrices.*;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * implementation of discrete Fourier transform
  * as documented at https://en.wikipedia.org/wiki/DFT_matrix
@@ -45,4 +48,47 @@ public class DFT extends ComplexLibrary<Double>
 	}
 
 
+
+	/**
+	 * the product of the Vandermonde matrix with a vector,
+	 *  computed by the FFT engine rather than the matrix product
+	 * @param x the vector to be transformed
+	 * @return the transform, normalized as the Vandermonde matrix
+	 */
+	public List<ComplexValue<Double>> transform (List<ComplexValue<Double>> x)
+	{
+		return transform (x, false);
+	}
+
+	/**
+	 * the inverse of transform
+	 * @param X the transformed vector
+	 * @return the vector that produces the transform
+	 */
+	public List<ComplexValue<Double>> inverse (List<ComplexValue<Double>> X)
+	{
+		return transform (X, true);
+	}
+
+	/**
+	 * @param x the vector to be transformed
+	 * @param inverse TRUE for the inverse transform
+	 * @return the unitary transform of the vector
+	 */
+	List<ComplexValue<Double>> transform (List<ComplexValue<Double>> x, boolean inverse)
+	{
+		int N = x.size ();
+		double [] re = new double [N], im = new double [N];
+		for (int i = 0; i < N; i++) { re[i] = x.get (i).Re (); im[i] = x.get (i).Im (); }
+
+		FFTEngine.Plan plan = FFTEngine.planFor (N);
+		if (inverse) plan.inverse (re, im); else plan.forward (re, im);
+		double normalization = inverse ? Math.sqrt (N) : 1 / Math.sqrt (N);
+
+		List<ComplexValue<Double>> result = new ArrayList<ComplexValue<Double>> (N);
+		for (int i = 0; i < N; i++) result.add (C (re[i] * normalization, im[i] * normalization));
+		return result;
+	}
+
+
 }
@@ -20,35 +20,22 @@ public class FFT extends Fourier
 
 
 	/**
-	 * perform FFT analysis
+	 * perform FFT analysis.
+	 *  the transform is computed by the plan cached
+	 *  in FFTEngine for the length so any length is accepted
 	 * @param AVal series of values to be analyzed
-	 * @param FTvl the resulting analysis series
+	 * @param FTvl the resulting analysis series, magnitudes written for 1 &lt;= i &lt; FTvl.size()
 	 */
 	public static void analysis (TimeSeries AVal, List<Double> FTvl) 
 	{
-		int Nvl = AVal.size(), n = Nvl * 2;
-		double Tmvl[] = loadTempArray (AVal, n);
-		int i = 1, j = 1;
+		int Nvl = AVal.size(), Nft = FTvl.size ();
+		if (Nvl == 0) return;
 
-		while (i <n)
-		{
-			if (j> i)
-			{
-				double Tmpr = Tmvl[i]; Tmvl[i] = Tmvl[j]; Tmvl[j] = Tmpr;
-				Tmpr = Tmvl[i+1]; Tmvl[i+1] = Tmvl[j+1]; Tmvl[j+1] = Tmpr;
-			}
-
-			i = i + 2; 
-			int m = Nvl;
-			while ((m>= 2) && (j> m))
-			{
-				j = j - m; m = m>> 2;
-			}
-
-			j = j + m;
-		}
+		double values[] = new double[Nvl];
+		for (int i = 0; i < Nvl; i++) values[i] = AVal.get(i);
 
-		new FFT ().iterateOver (Tmvl, FTvl, n);
+		double magnitudes[] = FFTEngine.magnitudes (values, Nft);
+		for (int i = 1; i < Nft; i++) FTvl.set (i, magnitudes[i]);
 	}
 
 
@@ -0,0 +1,495 @@
+package net.myorb.math.computational;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * fast Fourier transform engine on arrays of real and imaginary parts.
+ *  a plan holds the twiddle factors and permutation for one length and
+ *  plans are cached by length so repeated transforms compute them once.
+ *  power of two lengths use radix-4 passes (with one radix-2 pass for odd
+ *  powers), any other length uses the Bluestein chirp-z convolution.
+ *  forward is X[k] = SIGMA [0 &lt;= n &lt; N] ( x[n] * exp (-2 pi i n k / N) ),
+ *  inverse includes the 1/N scaling so inverse (forward (x)) = x
+ * @author Michael Druckman
+ */
+public class FFTEngine
+{
+
+
+	/**
+	 * the precomputed tables for transforms of one length
+	 */
+	public static abstract class Plan
+	{
+
+		Plan (int N)
+		{
+			this.N = N; int half = N / 2;
+			this.cos = new double [half]; this.sin = new double [half];
+			for (int k = 0; k < half; k++)
+			{ double angle = 2 * Math.PI * k / N; cos [k] = Math.cos (angle); sin [k] = -Math.sin (angle); }
+		}
+		protected double [] cos, sin;							// W[k] = exp (-2 pi i k / N) for k < N/2
+
+		/**
+		 * @return the length of transforms done by this plan
+		 */
+		public int length () { return N; }
+		protected int N;
+
+		/**
+		 * forward transform in place
+		 * @param re the real parts
+		 * @param im the imaginary parts
+		 */
+		public abstract void forward (double [] re, double [] im);
+
+		/**
+		 * inverse transform in place, scaled by 1/N
+		 * @param re the real parts
+		 * @param im the imaginary parts
+		 */
+		public void inverse (double [] re, double [] im)
+		{
+			negate (im, N); forward (re, im); negate (im, N);		// conj (F (conj (x)))
+			scale (re, im, N, 1.0 / N);
+		}
+
+		/**
+		 * @param re the real parts
+		 * @param im the imaginary parts
+		 */
+		void check (double [] re, double [] im)
+		{
+			if (re.length < N || im.length < N)
+				throw new RuntimeException ("Transform arrays shorter than plan length " + N);
+		}
+
+	}
+
+
+	/*
+	 * plan cache
+	 */
+
+
+	/**
+	 * @param N the length of the transform
+	 * @return the cached plan for the length
+	 */
+	public static Plan planFor (int N)
+	{
+		if (N < 1) throw new RuntimeException ("Transform length must be positive");
+		Plan plan = PLANS.get (N);
+		if (plan != null) return plan;
+		plan = isPowerOfTwo (N) ? new PowerOfTwoPlan (N) : new BluesteinPlan (N);
+		Plan prior = PLANS.putIfAbsent (N, plan);
+		return prior == null ? plan : prior;
+	}
+	static final ConcurrentHashMap<Integer, Plan> PLANS = new ConcurrentHashMap<Integer, Plan> ();
+
+	/**
+	 * release all cached plans
+	 */
+	public static void clearPlans () { PLANS.clear (); }
+
+	/**
+	 * @param N a length
+	 * @return TRUE for a power of two
+	 */
+	public static boolean isPowerOfTwo (int N) { return (N & (N - 1)) == 0; }
+
+
+	/*
+	 * complex transforms
+	 */
+
+
+	/**
+	 * forward transform in place
+	 * @param re the real parts
+	 * @param im the imaginary parts
+	 */
+	public static void forward (double [] re, double [] im)
+	{
+		planFor (re.length).forward (re, im);
+	}
+
+	/**
+	 * inverse transform in place, scaled by 1/N
+	 * @param re the real parts
+	 * @param im the imaginary parts
+	 */
+	public static void inverse (double [] re, double [] im)
+	{
+		planFor (re.length).inverse (re, im);
+	}
+
+
+	/*
+	 * real transforms
+	 */
+
+
+	/**
+	 * transform of real data.
+	 *  even lengths are done as a complex transform of half length
+	 * @param x the real data, length N
+	 * @param re the real parts of X[0..N/2], length at least N/2+1
+	 * @param im the imaginary parts of X[0..N/2], length at least N/2+1
+	 */
+	public static void realForward (double [] x, double [] re, double [] im)
+	{
+		int N = x.length, half = N / 2;
+
+		if (N % 2 == 1 || N < 4)
+		{
+			double [] zr = x.clone (), zi = new double [N];
+			planFor (N).forward (zr, zi);
+			System.arraycopy (zr, 0, re, 0, half + 1);
+			System.arraycopy (zi, 0, im, 0, half + 1);
+			return;
+		}
+
+		double [] zr = new double [half], zi = new double [half];
+		for (int n = 0; n < half; n++) { zr [n] = x [2*n]; zi [n] = x [2*n+1]; }
+		planFor (half).forward (zr, zi);
+		Plan plan = planFor (N);
+
+		re [0] = zr [0] + zi [0]; im [0] = 0;
+		re [half] = zr [0] - zi [0]; im [half] = 0;
+
+		for (int k = 1; k < half; k++)
+		{
+			int j = half - k;
+			double er = (zr [k] + zr [j]) / 2, ei = (zi [k] - zi [j]) / 2;		// even samples
+			double or = (zi [k] + zi [j]) / 2, oi = (zr [j] - zr [k]) / 2;		// odd samples
+			double wr = plan.cos [k], wi = plan.sin [k];
+			re [k] = er + wr * or - wi * oi;
+			im [k] = ei + wr * oi + wi * or;
+		}
+	}
+
+	/**
+	 * inverse of realForward
+	 * @param re the real parts of X[0..N/2]
+	 * @param im the imaginary parts of X[0..N/2]
+	 * @param x the real data computed, length N
+	 */
+	public static void realInverse (double [] re, double [] im, double [] x)
+	{
+		int N = x.length, half = N / 2;
+
+		if (N % 2 == 1 || N < 4)
+		{
+			double [] zr = new double [N], zi = new double [N];
+			for (int k = 0; k <= half; k++) { zr [k] = re [k]; zi [k] = im [k]; }
+			for (int k = half + 1; k < N; k++) { zr [k] = re [N - k]; zi [k] = -im [N - k]; }
+			planFor (N).inverse (zr, zi);
+			System.arraycopy (zr, 0, x, 0, N);
+			return;
+		}
+
+		double [] zr = new double [half], zi = new double [half];
+		Plan plan = planFor (N);
+
+		for (int k = 0; k < half; k++)
+		{
+			int j = half - k;
+			double er = (re [k] + re [j]) / 2, ei = (im [k] - im [j]) / 2;
+			double dr = (re [k] - re [j]) / 2, di = (im [k] + im [j]) / 2;
+			double wr = plan.cos [k], wi = -plan.sin [k];							// conjugate twiddle
+			double or = dr * wr - di * wi, oi = dr * wi + di * wr;
+			zr [k] = er - oi; zi [k] = ei + or;
+		}
+
+		planFor (half).inverse (zr, zi);
+		for (int n = 0; n < half; n++) { x [2*n] = zr [n]; x [2*n+1] = zi [n]; }
+	}
+
+	/**
+	 * magnitudes of the transform of real data
+	 * @param x the real data
+	 * @param count the number of magnitudes, |X[0]| .. |X[count-1]|
+	 * @return the magnitudes, reflected about N/2 when count exceeds N/2+1
+	 */
+	public static double [] magnitudes (double [] x, int count)
+	{
+		int N = x.length, half = N / 2;
+		double [] re = new double [half + 1], im = new double [half + 1], m = new double [count];
+		realForward (x, re, im);
+
+		for (int k = 0; k < count; k++)
+		{
+			int j = k % N; if (j > half) j = N - j;
+			m [k] = Math.hypot (re [j], im [j]);
+		}
+
+		return m;
+	}
+
+
+	/*
+	 * batched transforms
+	 */
+
+
+	/**
+	 * forward transform of many series of equal length
+	 * @param re the real parts, one array for each series
+	 * @param im the imaginary parts, one array for each series
+	 */
+	public static void forward (double [][] re, double [][] im)
+	{
+		batch (re, im, false);
+	}
+
+	/**
+	 * inverse transform of many series of equal length
+	 * @param re the real parts, one array for each series
+	 * @param im the imaginary parts, one array for each series
+	 */
+	public static void inverse (double [][] re, double [][] im)
+	{
+		batch (re, im, true);
+	}
+
+	/**
+	 * @param re the real parts, one array for each series
+	 * @param im the imaginary parts, one array for each series
+	 * @param inverse TRUE for inverse transforms
+	 */
+	static void batch (double [][] re, double [][] im, boolean inverse)
+	{
+		if (re.length == 0) return;
+		if (im.length != re.length) throw new RuntimeException ("Batch part counts do not agree");
+		Plan plan = planFor (re[0].length);
+		ForkJoinPool.commonPool ().invoke (new Series (plan, re, im, inverse, 0, re.length));
+	}
+
+	/**
+	 * range of series split until it is small enough for one task
+	 */
+	static class Series extends RecursiveAction
+	{
+
+		Series (Plan plan, double [][] re, double [][] im, boolean inverse, int lo, int hi)
+		{ this.plan = plan; this.re = re; this.im = im; this.inverse = inverse; this.lo = lo; this.hi = hi; }
+		protected double [][] re, im; protected boolean inverse;
+		protected int lo, hi;
+		protected Plan plan;
+
+		/* (non-Javadoc)
+		 * @see java.util.concurrent.RecursiveAction#compute()
+		 */
+		protected void compute ()
+		{
+			if ((long) (hi - lo) * plan.N <= BATCH_CELLS || hi - lo == 1)
+			{
+				for (int s = lo; s < hi; s++)
+				{
+					if (re[s].length != plan.N) throw new RuntimeException ("Batch series lengths do not agree");
+					if (inverse) plan.inverse (re[s], im[s]); else plan.forward (re[s], im[s]);
+				}
+				return;
+			}
+			int mid = (lo + hi) >>> 1;
+			invokeAll
+			(
+				new Series (plan, re, im, inverse, lo, mid),
+				new Series (plan, re, im, inverse, mid, hi)
+			);
+		}
+
+		private static final long serialVersionUID = 6016473620925306874L;
+	}
+
+	/**
+	 * count of cells transformed by a single task of a batch
+	 */
+	public static final int BATCH_CELLS = 1 << 14;
+
+
+	/*
+	 * power of two lengths
+	 */
+
+
+	/**
+	 * decimation in time with bit reversed input.
+	 *  pairs of radix-2 passes are fused into radix-4 passes
+	 *  so the data is swept half as many times
+	 */
+	static class PowerOfTwoPlan extends Plan
+	{
+
+		PowerOfTwoPlan (int N)
+		{
+			super (N);
+			int bits = Integer.numberOfTrailingZeros (N);
+			this.reversed = new int [N];
+			for (int i = 1; i < N; i++)
+			{ reversed [i] = (reversed [i >> 1] >> 1) | ((i & 1) << (bits - 1)); }
+			this.leadingRadix2 = bits % 2 == 1;
+		}
+		protected boolean leadingRadix2;
+		protected int [] reversed;
+
+		/* (non-Javadoc)
+		 * @see net.myorb.math.computational.FFTEngine.Plan#forward(double[], double[])
+		 */
+		public void forward (double [] re, double [] im)
+		{
+			check (re, im);
+			if (N == 1) return;
+
+			for (int i = 0; i < N; i++)
+			{
+				int j = reversed [i];
+				if (j > i)
+				{
+					double t = re [i]; re [i] = re [j]; re [j] = t;
+					t = im [i]; im [i] = im [j]; im [j] = t;
+				}
+			}
+
+			int h = 1;
+
+			if (leadingRadix2)
+			{
+				for (int i = 0; i < N; i += 2)
+				{
+					double ar = re [i], ai = im [i], br = re [i+1], bi = im [i+1];
+					re [i] = ar + br; im [i] = ai + bi;
+					re [i+1] = ar - br; im [i+1] = ai - bi;
+				}
+				h = 2;
+			}
+
+			for (; h < N; h *= 4) radix4 (re, im, h);
+		}
+
+		/**
+		 * the passes of span h and 2h done as one
+		 * @param re the real parts
+		 * @param im the imaginary parts
+		 * @param h the span of the first of the fused passes
+		 */
+		void radix4 (double [] re, double [] im, int h)
+		{
+			int block = 4 * h, stride = N / block;
+
+			for (int j = 0; j < h; j++)
+			{
+				double w2r = cos [j * stride], w2i = sin [j * stride],				// W(4h)^j
+					w1r = cos [2 * j * stride], w1i = sin [2 * j * stride];		// W(2h)^j
+
+				for (int base = j; base < N; base += block)
+				{
+					int a = base, b = a + h, c = b + h, d = c + h;
+
+					double tr = w1r * re [b] - w1i * im [b], ti = w1r * im [b] + w1i * re [b];
+					double ar = re [a] + tr, ai = im [a] + ti, br = re [a] - tr, bi = im [a] - ti;
+
+					tr = w1r * re [d] - w1i * im [d]; ti = w1r * im [d] + w1i * re [d];
+					double cr = re [c] + tr, ci = im [c] + ti, dr = re [c] - tr, di = im [c] - ti;
+
+					tr = w2r * cr - w2i * ci; ti = w2r * ci + w2i * cr;				// W(4h)^j * c
+					re [a] = ar + tr; im [a] = ai + ti; re [c] = ar - tr; im [c] = ai - ti;
+
+					double ur = w2r * dr - w2i * di, ui = w2r * di + w2i * dr;
+					tr = ui; ti = -ur;													// W(4h)^(j+h) * d = -i W(4h)^j * d
+					re [b] = br + tr; im [b] = bi + ti; re [d] = br - tr; im [d] = bi - ti;
+				}
+			}
+		}
+
+	}
+
+
+	/*
+	 * arbitrary lengths
+	 */
+
+
+	/**
+	 * Bluestein chirp-z: the transform is expressed as a
+	 *  convolution computed with a power of two plan of length M &gt;= 2N-1
+	 */
+	static class BluesteinPlan extends Plan
+	{
+
+		BluesteinPlan (int N)
+		{
+			super (N);
+			this.chirpRe = new double [N]; this.chirpIm = new double [N];
+			for (int k = 0; k < N; k++)
+			{
+				long kk = (long) k * k % (2L * N);								// exact reduction of k^2 mod 2N
+				double angle = Math.PI * kk / N;
+				chirpRe [k] = Math.cos (angle); chirpIm [k] = -Math.sin (angle);
+			}
+
+			this.convolution = (PowerOfTwoPlan) planFor (Integer.highestOneBit (2 * N - 1) << 1);
+			int M = convolution.N;
+
+			this.filterRe = new double [M]; this.filterIm = new double [M];
+			filterRe [0] = chirpRe [0]; filterIm [0] = -chirpIm [0];
+			for (int k = 1; k < N; k++)
+			{
+				filterRe [k] = filterRe [M - k] = chirpRe [k];
+				filterIm [k] = filterIm [M - k] = -chirpIm [k];
+			}
+			convolution.forward (filterRe, filterIm);
+		}
+		protected double [] chirpRe, chirpIm, filterRe, filterIm;
+		protected PowerOfTwoPlan convolution;
+
+		/* (non-Javadoc)
+		 * @see net.myorb.math.computational.FFTEngine.Plan#forward(double[], double[])
+		 */
+		public void forward (double [] re, double [] im)
+		{
+			check (re, im);
+			int M = convolution.N;
+			double [] ar = new double [M], ai = new double [M];
+
+			for (int k = 0; k < N; k++)
+			{
+				ar [k] = re [k] * chirpRe [k] - im [k] * chirpIm [k];
+				ai [k] = re [k] * chirpIm [k] + im [k] * chirpRe [k];
+			}
+
+			convolution.forward (ar, ai);
+			for (int k = 0; k < M; k++)
+			{
+				double r = ar [k] * filterRe [k] - ai [k] * filterIm [k];
+				ai [k] = ar [k] * filterIm [k] + ai [k] * filterRe [k]; ar [k] = r;
+			}
+			convolution.inverse (ar, ai);
+
+			for (int k = 0; k < N; k++)
+			{
+				re [k] = ar [k] * chirpRe [k] - ai [k] * chirpIm [k];
+				im [k] = ar [k] * chirpIm [k] + ai [k] * chirpRe [k];
+			}
+		}
+
+	}
+
+
+	/*
+	 * array helpers
+	 */
+
+
+	static void negate (double [] values, int N)
+	{ for (int i = 0; i < N; i++) values [i] = -values [i]; }
+
+	static void scale (double [] re, double [] im, int N, double factor)
+	{ for (int i = 0; i < N; i++) { re [i] *= factor; im [i] *= factor; } }
+
+
+}
@@ -110,6 +110,35 @@ public class FourierSeriesCalculus<T> extends Fourier implements TransformCalcul
 	}
 
 
+
+	/**
+	 * build function for the harmonic series of samples taken
+	 *  at equal steps over one period, t#n = n * 2pi / (omega * N).
+	 *  the coefficients are computed by one real FFT of the samples;
+	 *  the series has no constant term so the mean of the samples is not represented
+	 * @param omega the period multiplier for the cyclic function terms
+	 * @param samples the function values over one period
+	 * @return a function that evaluates the series
+	 */
+	public Function<T> sampledFunctionInstance (T omega, List<T> samples)
+	{
+		int N = samples.size (), half = N / 2;
+		double [] x = new double [N], re = new double [half + 1], im = new double [half + 1];
+		for (int n = 0; n < N; n++) x[n] = manager.convertToDouble (samples.get (n));
+		FFTEngine.realForward (x, re, im);
+
+		SeriesCoefficients cos = new SeriesCoefficients (), sin = new SeriesCoefficients ();
+		for (int k = 1; k <= half; k++)
+		{
+			double weight = 2 * k == N ? 1.0 / N : 2.0 / N;					// Nyquist term is not doubled
+			cos.add (re[k] * weight); sin.add (-im[k] * weight);
+		}
+
+		Series s = buildMixedPhaseSeries (manager.convertToDouble (omega), cos, sin);
+		return new TransformedSeries<T>(s, manager);
+	}
+
+
 }
 
 
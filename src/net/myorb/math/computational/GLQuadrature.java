@@ -2,7 +2,7 @@
 package net.myorb.math.computational;
 
 import net.myorb.math.expressions.managers.ExpressionFloatingFieldManager;
-import net.myorb.math.polynomial.families.LaguerrePolynomial;
+import net.myorb.math.polynomial.RecurrenceTables;
 import net.myorb.math.polynomial.PolynomialFamilyManager;
 
 import net.myorb.data.abstractions.SpaceDescription;
@@ -101,13 +101,14 @@ public class GLQuadrature
 
 
 	/**
-	 * build Laguerre polynomials to be used in approximation
+	 * build Laguerre polynomials to be used in approximation,
+	 *  coefficients are taken from the shared recurrence table
 	 * @param upTo the highest order of polynomial required
 	 * @return a list of polynomial functions
 	 */
 	public static PolynomialFamilyManager.PowerFunctionList <Double> getLaguerrePolynomials (int upTo)
 	{
-		return new LaguerrePolynomial <> (new ExpressionFloatingFieldManager ()).recurrence (upTo);
+		return RecurrenceTables.laguerre (0).functions (upTo, new ExpressionFloatingFieldManager ());
 	}
 
 
@@ -182,6 +183,18 @@ public class GLQuadrature
 	}
 
 
+	/**
+	 * @param forOrder the order of the table
+	 * @param alpha the generalized Laguerre parameter, 0 for exp (-x) alone
+	 * @return the Laguerre weights table taken from the shared Golub-Welsch rules
+	 */
+	public static LaguerreLists computeRule (int forOrder, double alpha)
+	{
+		GaussRules.Rule rule = GaussRules.laguerre (forOrder, alpha);
+		return new LaguerreLists (new Laguerre (rule.getNodes (), rule.getWeights ()));
+	}
+
+
 	/**
 	 * use GLQ for approximation of integral
 	 * @param f the function being integrated
@@ -0,0 +1,435 @@
+package net.myorb.math.computational;
+
+import net.myorb.math.polynomial.RecurrenceTables;
+import net.myorb.math.specialfunctions.Library;
+import net.myorb.math.Function;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.Arrays;
+import java.util.Map;
+
+import java.io.*;
+
+/**
+ * node and weight provider for Gaussian quadrature rules.
+ *  rules are computed by the Golub-Welsch method: the nodes are the eigenvalues of the
+ *  symmetric tridiagonal (Jacobi) matrix of the family recurrence, found by implicit QL,
+ *  then polished by Newton steps on the orthonormal recurrence which also yields the
+ *  Christoffel weights.  rules are shared in memory keyed by family, order and parameters
+ *  and optionally kept in a directory so later runs read rather than solve
+ * @author Michael Druckman
+ */
+public class GaussRules
+{
+
+
+	/**
+	 * nodes and weights of one rule
+	 */
+	public static class Rule
+	{
+
+		Rule (String key, double [] nodes, double [] weights)
+		{
+			this.key = key; this.nodes = nodes; this.weights = weights;
+		}
+		protected double [] nodes, weights;
+		protected String key;
+
+		/**
+		 * @return the nodes in ascending order (shared, not to be modified)
+		 */
+		public double [] getNodes () { return nodes; }
+
+		/**
+		 * @return the weight of each node (shared, not to be modified)
+		 */
+		public double [] getWeights () { return weights; }
+
+		/**
+		 * @return the number of nodes
+		 */
+		public int getOrder () { return nodes.length; }
+		public String getKey () { return key; }
+
+		/**
+		 * @param f the function to be integrated against the weight of the family
+		 * @return SIGMA w#i * f(x#i)
+		 */
+		public double integrate (Function <Double> f)
+		{
+			double sum = 0.0;
+			for (int i = 0; i < nodes.length; i++) sum += weights[i] * f.eval (nodes[i]);
+			return sum;
+		}
+
+		/**
+		 * @param f the function to be integrated against the weight of the family
+		 * @return SIGMA w#i * f(x#i) with all nodes passed in one call
+		 */
+		public double integrate (TanhSinhQuadratureEngine.VectorIntegrand f)
+		{
+			double [] fx = f.eval (nodes);
+			CompensatedSum sum = new CompensatedSum ();
+			for (int i = 0; i < nodes.length; i++) sum.add (weights[i] * fx[i]);
+			return sum.value ();
+		}
+
+	}
+
+
+	/*
+	 * the classical families
+	 */
+
+
+	/**
+	 * weight 1 on [-1,1]
+	 * @param n the number of nodes
+	 * @return the Gauss-Legendre rule
+	 */
+	public static Rule legendre (int n)
+	{
+		return ruleFor ("Legendre", n, RecurrenceTables.legendre (), 2);
+	}
+
+	/**
+	 * weight x^alpha * exp(-x) on [0,INFINITY)
+	 * @param n the number of nodes
+	 * @param alpha the generalized Laguerre parameter
+	 * @return the Gauss-Laguerre rule
+	 */
+	public static Rule laguerre (int n, double alpha)
+	{
+		return ruleFor ("Laguerre(" + alpha + ")", n, RecurrenceTables.laguerre (alpha), Library.gamma (alpha + 1));
+	}
+
+	/**
+	 * weight exp(-x^2) on (-INFINITY,INFINITY)
+	 * @param n the number of nodes
+	 * @return the Gauss-Hermite rule
+	 */
+	public static Rule hermite (int n)
+	{
+		return ruleFor ("Hermite", n, RecurrenceTables.hermite (), Math.sqrt (Math.PI));
+	}
+
+	/**
+	 * weight (1-x)^alpha * (1+x)^beta on [-1,1]
+	 * @param n the number of nodes
+	 * @param alpha the first Jacobi parameter
+	 * @param beta the second Jacobi parameter
+	 * @return the Gauss-Jacobi rule
+	 */
+	public static Rule jacobi (int n, double alpha, double beta)
+	{
+		double mu0 = Math.pow (2, alpha + beta + 1) * Library.gamma (alpha + 1) *
+				Library.gamma (beta + 1) / Library.gamma (alpha + beta + 2);
+		return ruleFor ("Jacobi(" + alpha + "," + beta + ")", n, RecurrenceTables.jacobi (alpha, beta), mu0);
+	}
+
+	/**
+	 * weight (1-x^2)^(lambda-1/2) on [-1,1], lambda=0 is Chebyshev T
+	 * @param n the number of nodes
+	 * @param lambda the Gegenbauer parameter
+	 * @return the Gauss-Gegenbauer rule
+	 */
+	public static Rule gegenbauer (int n, double lambda)
+	{
+		double mu0 = lambda == 0 ? Math.PI :
+			Math.sqrt (Math.PI) * Library.gamma (lambda + 0.5) / Library.gamma (lambda + 1);
+		return ruleFor ("Gegenbauer(" + lambda + ")", n, RecurrenceTables.gegenbauer (lambda), mu0);
+	}
+
+	/**
+	 * select a rule by family name
+	 * @param family LEGENDRE, LAGUERRE, HERMITE, JACOBI, GEGENBAUER or CHEBYSHEV
+	 * @param n the number of nodes
+	 * @param alpha first parameter of the family (Laguerre alpha, Jacobi alpha, Gegenbauer lambda)
+	 * @param beta second parameter of the family (Jacobi beta)
+	 * @return the rule for the family
+	 */
+	public static Rule ruleFor (String family, int n, double alpha, double beta)
+	{
+		switch (family.toUpperCase ())
+		{
+			case "LEGENDRE":	return legendre (n);
+			case "LAGUERRE":	return laguerre (n, alpha);
+			case "HERMITE":		return hermite (n);
+			case "JACOBI":		return jacobi (n, alpha, beta);
+			case "GEGENBAUER":	return gegenbauer (n, alpha);
+			case "CHEBYSHEV":	return gegenbauer (n, 0);
+		}
+		throw new RuntimeException ("Gauss rule family not recognized: " + family);
+	}
+
+
+	/*
+	 * cache
+	 */
+
+
+	/**
+	 * @param name the family name with its parameters
+	 * @param n the number of nodes
+	 * @param recurrence the recurrence table of the family
+	 * @param mu0 the integral of the weight function
+	 * @return the rule from memory, the directory, or a new solution
+	 */
+	static Rule ruleFor (String name, int n, RecurrenceTables.Table recurrence, double mu0)
+	{
+		if (n < 1) throw new RuntimeException ("Gauss rule order must be positive");
+		String key = name + "-" + n;
+		Rule rule = rules.get (key);
+		if (rule != null) return rule;
+
+		if ((rule = load (key)) == null)
+		{ save (rule = compute (key, n, recurrence, mu0)); }
+		Rule held = rules.putIfAbsent (key, rule);
+		return held == null ? rule : held;
+	}
+	static Map <String, Rule> rules = new ConcurrentHashMap <> ();
+
+	/**
+	 * @param directory the directory holding computed rules, NULL for none
+	 */
+	public static void setDirectory (File directory) { GaussRules.directory = directory; }
+	static volatile File directory = null;
+
+	/**
+	 * @param key the key of a rule to drop from memory
+	 */
+	public static void forget (String key) { rules.remove (key); }
+
+
+	/*
+	 * Golub-Welsch
+	 */
+
+
+	/**
+	 * @param key the key identifying the rule
+	 * @param n the number of nodes
+	 * @param recurrence the recurrence table of the family
+	 * @param mu0 the integral of the weight function
+	 * @return the computed rule
+	 */
+	public static Rule compute (String key, int n, RecurrenceTables.Table recurrence, double mu0)
+	{
+		double [] alpha = new double [n], beta = new double [n];						// beta[k] couples k-1 and k
+		double previousA = 0;
+
+		for (int k = 0; k < n; k++)
+		{
+			double [] abc = recurrence.getRecurrenceCoefficients (k);
+			alpha[k] = - abc[1] / abc[0];
+			beta[k] = k == 0 ? 0 : Math.sqrt (abc[2] / (previousA * abc[0]));
+			previousA = abc[0];
+		}
+
+		double [] nodes = alpha.clone (), sub = new double [n];
+		for (int k = 1; k < n; k++) sub[k-1] = beta[k];
+		eigenvalues (nodes, sub);
+		Arrays.sort (nodes);
+
+		double [] weights = new double [n];
+		polish (nodes, weights, alpha, beta, mu0);
+		return new Rule (key, nodes, weights);
+	}
+
+	/**
+	 * implicit QL with Wilkinson shifts, eigenvalues only
+	 * @param d the diagonal, replaced by the eigenvalues
+	 * @param e the sub-diagonal with e[i] coupling i and i+1, destroyed
+	 */
+	public static void eigenvalues (double [] d, double [] e)
+	{
+		int n = d.length;
+
+		for (int l = 0; l < n; l++)
+		{
+			for (int iteration = 0; ; iteration++)
+			{
+				int m = l;
+				for ( ; m < n - 1; m++)
+				{ if (Math.abs (e[m]) <= EPSILON * (Math.abs (d[m]) + Math.abs (d[m+1]))) break; }
+				if (m == l) break;
+				if (iteration == MAXIMUM_ITERATIONS) throw new RuntimeException ("Gauss rule eigenvalues did not converge");
+
+				double g = (d[l+1] - d[l]) / (2 * e[l]), r = Math.hypot (g, 1);
+				g = d[m] - d[l] + e[l] / (g + Math.copySign (r, g));
+				double s = 1, c = 1, p = 0;
+				boolean deflated = false;
+
+				for (int i = m - 1; i >= l; i--)
+				{
+					double f = s * e[i], b = c * e[i];
+					e[i+1] = r = Math.hypot (f, g);
+					if (r == 0) { d[i+1] -= p; e[m] = 0; deflated = true; break; }
+					s = f / r; c = g / r; g = d[i+1] - p;
+					r = (d[i] - g) * s + 2 * c * b;
+					d[i+1] = g + (p = s * r);
+					g = c * r - b;
+				}
+
+				if (deflated) continue;
+				d[l] -= p; e[l] = g; e[m] = 0;
+			}
+		}
+	}
+	static final double EPSILON = Math.ulp (1.0);
+	static final int MAXIMUM_ITERATIONS = 60, NEWTON_STEPS = 2;
+
+	/**
+	 * Newton steps on the orthonormal polynomial of order n at each node,
+	 *  then w = mu0 / SIGMA [0 <= k < n] p#k(x)^2 with p#0 = 1;
+	 *  values are rescaled by powers of 2 so families whose polynomials
+	 *  grow quickly (Laguerre, Hermite) do not overflow
+	 * @param nodes the eigenvalues, refined in place
+	 * @param weights the weights computed for the nodes
+	 * @param alpha the diagonal of the Jacobi matrix
+	 * @param beta the off-diagonal of the Jacobi matrix
+	 * @param mu0 the integral of the weight function
+	 */
+	static void polish (double [] nodes, double [] weights, double [] alpha, double [] beta, double mu0)
+	{
+		int n = nodes.length;
+		double [] state = new double [4];
+
+		for (int i = 0; i < n; i++)
+		{
+			double x = nodes[i];
+			double gap = Math.min
+				(
+					i > 0 ? x - nodes[i-1] : Double.POSITIVE_INFINITY,
+					i < n - 1 ? nodes[i+1] - x : Double.POSITIVE_INFINITY
+				);
+
+			for (int step = 0; step < NEWTON_STEPS; step++)
+			{
+				orthonormal (x, alpha, beta, state);
+				double delta = state[0] / state[1];
+				if (!(Math.abs (delta) < gap / 4)) break;						// stay with the eigenvalue
+				x -= delta;
+			}
+
+			nodes[i] = x;
+			int exponent = orthonormal (x, alpha, beta, state);
+			weights[i] = Math.scalb (mu0 / state[2], - exponent);
+		}
+	}
+
+	/**
+	 * run the orthonormal recurrence
+	 *
+	 * 		beta[k+1] p[k+1] = (x - alpha[k]) p[k] - beta[k] p[k-1]
+	 *
+	 * @param x the parameter
+	 * @param alpha the diagonal of the Jacobi matrix
+	 * @param beta the off-diagonal of the Jacobi matrix
+	 * @param state receives p[n](x), p'[n](x), SIGMA [0 <= k < n] p[k](x)^2
+	 * @return the binary exponent of the scaling applied to the sum
+	 */
+	static int orthonormal (double x, double [] alpha, double [] beta, double [] state)
+	{
+		int n = alpha.length, exponent = 0;
+		double p = 1, previous = 0, dp = 0, dPrevious = 0, sum = 0;
+
+		for (int k = 0; k < n; k++)
+		{
+			sum += p * p;
+			double next = (k + 1 < n) ? beta[k+1] : 1;									// p[n] is left unnormalized
+			double q = ((x - alpha[k]) * p - beta[k] * previous) / next;
+			double dq = ((x - alpha[k]) * dp + p - beta[k] * dPrevious) / next;
+			previous = p; p = q; dPrevious = dp; dp = dq;
+
+			if (Math.abs (p) > RESCALE_LIMIT)
+			{
+				p = Math.scalb (p, -RESCALE_BITS); previous = Math.scalb (previous, -RESCALE_BITS);
+				dp = Math.scalb (dp, -RESCALE_BITS); dPrevious = Math.scalb (dPrevious, -RESCALE_BITS);
+				sum = Math.scalb (sum, -2 * RESCALE_BITS); exponent += 2 * RESCALE_BITS;
+			}
+		}
+
+		state[0] = p; state[1] = dp; state[2] = sum;
+		return exponent;
+	}
+	static final int RESCALE_BITS = 256;
+	static final double RESCALE_LIMIT = Math.scalb (1.0, 256);
+
+
+	/*
+	 * persistence
+	 */
+
+
+	/**
+	 * @param key the key identifying the rule
+	 * @return the file holding the rule, NULL when no directory is set
+	 */
+	public static File fileFor (String key)
+	{
+		File directory = GaussRules.directory;
+		if (directory == null) return null;
+		return new File (directory, key.replaceAll ("[^A-Za-z0-9._,-]", "_") + ".rule");
+	}
+
+	/**
+	 * a rule that cannot be written is left to be computed again when next required
+	 * @param rule a rule to be written
+	 */
+	static void save (Rule rule)
+	{
+		File file = fileFor (rule.getKey ());
+		if (file == null) return;
+
+		try
+		{
+			DataOutputStream out = new DataOutputStream
+				(new BufferedOutputStream (new FileOutputStream (file), 1 << 16));
+
+			try
+			{
+				out.writeLong (MAGIC); out.writeUTF (rule.getKey ());
+				out.writeInt (rule.getOrder ());
+				for (double x : rule.nodes) out.writeDouble (x);
+				for (double w : rule.weights) out.writeDouble (w);
+			}
+			finally { out.close (); }
+		}
+		catch (IOException e) { file.delete (); }				// a partial file would be read as corrupt
+	}
+	static final long MAGIC = 0x4761757373526C31L;			// GaussRl1
+
+	/**
+	 * a file that cannot be read (empty, truncated or corrupt) is treated as absent
+	 * @param key the key identifying the rule
+	 * @return the rule held in the directory, NULL when absent
+	 */
+	static Rule load (String key)
+	{
+		File file = fileFor (key);
+		if (file == null || !file.exists ()) return null;
+
+		try
+		{
+			DataInputStream in = new DataInputStream
+				(new BufferedInputStream (new FileInputStream (file), 1 << 16));
+
+			try
+			{
+				if (in.readLong () != MAGIC || !key.equals (in.readUTF ())) return null;
+				int n = in.readInt ();
+				if (n < 1 || 16L * n > file.length ()) return null;
+				double [] nodes = new double [n], weights = new double [n];
+				for (int i = 0; i < n; i++) nodes[i] = in.readDouble ();
+				for (int i = 0; i < n; i++) weights[i] = in.readDouble ();
+				return new Rule (key, nodes, weights);
+			}
+			finally { in.close (); }
+		}
+		catch (IOException e) { return null; }					// the rule is computed and saved again
+	}
+
+
+}
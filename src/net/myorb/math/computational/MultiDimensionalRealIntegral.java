@@ -63,6 +63,12 @@ public class MultiDimensionalRealIntegral
 	 */
 	public Double computeApproximation (List<Double> lo, List<Double> hi)
 	{
+		if (adaptive)										// Genz-Malik subregions evaluated on fork/join pool
+		{
+			if (TRACE_INTEGRAL_USE) System.out.println ("Adaptive Integral");
+			return newAdaptiveIntegral ().computeApproximation (lo, hi);
+		}
+
 		forceDeltaSet (lo.size ());
 
 		if (highestDimension == 0 && integrand1D != null)	// single dimensional and 1-D function specified
@@ -90,6 +96,31 @@ public class MultiDimensionalRealIntegral
 	boolean optimized = false;								// generic is looking faster now ???
 
 
+	/**
+	 * @param adaptive TRUE selects adaptive cubature in place of the uniform grid
+	 */
+	public void setAdaptive (boolean adaptive) { this.adaptive = adaptive; }
+	protected boolean adaptive = adaptiveDefault;
+
+	/**
+	 * @param adaptive TRUE selects adaptive cubature for integrals constructed after the call
+	 */
+	public static void setAdaptiveDefault (boolean adaptive) { adaptiveDefault = adaptive; }
+	public static boolean isAdaptiveDefault () { return adaptiveDefault; }
+	static boolean adaptiveDefault = false;
+
+	/**
+	 * @return an adaptive cubature engine for the integrand at the requested precision
+	 */
+	AdaptiveCubatureIntegration newAdaptiveIntegral ()
+	{
+		AdaptiveCubatureIntegration integral = integrand != null ?
+			new AdaptiveCubatureIntegration (integrand) : new AdaptiveCubatureIntegration (integrand1D);
+		integral.setRequestedPrecision (level);
+		return integral;
+	}
+
+
 	/**
 	 * @return new factory instance for objects of this integral implementation
 	 */
@@ -4,6 +4,7 @@ package net.myorb.math.computational;
 import net.myorb.math.*;
 import net.myorb.math.complexnumbers.FunctionAnalyzer;
 import net.myorb.math.polynomial.OrdinaryPolynomialCalculus;
+import net.myorb.math.polynomial.PrimitivePolynomial;
 
 import java.math.BigInteger;
 import java.util.List;
@@ -106,12 +107,14 @@ public class PolynomialRoots<T> extends OrdinaryPolynomialCalculus<T>
 			polynomialD2 = getFunctionDerivative (polynomialD1);
 		Value<T> x = forValue (starting), n = forValue (polynomial.getDegree ()), nm1 = n.minus (forValue (1));
 		T xT = starting; Value<T> p, pPrime, pPrime2, G, G2, H, sqrt, a, a1, a2;
+		boolean primitive = PrimitivePolynomial.isPowerSeries (polynomial.getPolynomial ()); List<T> pd = null;
 		for (int i = getMaxIterations (); i > 0; i--)
 		{
-			if ((p = forValue (polynomial.eval (xT))).isZero ()) return xT;	// compute polynomial value, return if root found
+			if (primitive) pd = PrimitivePolynomial.valueAndDerivatives (polynomial.getCoefficients (), xT, 2);
+			if ((p = forValue (pd != null? pd.get (0): polynomial.eval (xT))).isZero ()) return xT;	// compute polynomial value, return if root found
 
-			 pPrime  = forValue (polynomialD1.eval (xT));					// value of first derivative
-			pPrime2  = forValue (polynomialD2.eval (xT));					// value of second derivative
+			 pPrime  = forValue (pd != null? pd.get (1): polynomialD1.eval (xT));	// value of first derivative
+			pPrime2  = forValue (pd != null? pd.get (2): polynomialD2.eval (xT));	// value of second derivative
 			      G  = pPrime.over (p); G2 = G.squared ();					// value of G per Laguerre
 			      H  = G2.minus (pPrime2.over (p));							// value of H per Laguerre
 			   sqrt  = sqrt (nm1.times (n.times (H).minus (G2)));
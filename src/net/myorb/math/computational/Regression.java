@@ -11,6 +11,7 @@ import net.myorb.math.polynomial.families.ChebyshevPolynomial;
 
 import net.myorb.math.polynomial.OrdinaryPolynomialCalculus;
 import net.myorb.math.polynomial.PolynomialSpaceManager;
+import net.myorb.math.polynomial.PrimitivePolynomial;
 
 import net.myorb.data.abstractions.DataSequence2D;
 import net.myorb.data.abstractions.DataSequence;
@@ -19,6 +20,7 @@ import net.myorb.data.abstractions.Function;
 import net.myorb.math.*;
 
 import java.io.PrintStream;
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -421,9 +423,10 @@ class ModelWrapper<T> extends Statistics<T> implements Regression.Model<T>
 	{
 		DataSequence<T> x = data.xAxis, y = data.yAxis;
 		T yMean = mean (y), yDev2Sum = manager.getZero ();
+		List<T> fitted = fittedValues (x);
 		for (int i = 0; i < y.size(); i++)
 		{
-			T yHat = function.eval (x.get(i)),
+			T yHat = fitted.get (i),
 				yDev = subtract (yHat, yMean);
 			yDev2Sum = sumOf (yDev2Sum, squared (yDev));
 		}
@@ -438,15 +441,34 @@ class ModelWrapper<T> extends Statistics<T> implements Regression.Model<T>
 	{
 		T yDev2Sum = manager.getZero ();
 		DataSequence<T> x = data.xAxis, y = data.yAxis;
+		List<T> fitted = fittedValues (x);
 		for (int i = 0; i < y.size (); i++)
 		{
-			T yHat = function.eval (x.get (i)),
+			T yHat = fitted.get (i),
 				yDev = subtract (y.get (i), yHat);
 			yDev2Sum = sumOf (yDev2Sum, squared (yDev));
 		}
 		return yDev2Sum;
 	}
 
+	/**
+	 * model values for the data points,
+	 *  computed as a primitive batch for real power series models
+	 * @param x the X axis of the data set
+	 * @return the value of the model function at each point
+	 */
+	public List<T> fittedValues (DataSequence<T> x)
+	{
+		List<T> fitted = null;
+		if (PrimitivePolynomial.isPowerSeries (function.getPolynomial ()))
+		{ fitted = PrimitivePolynomial.evaluateAll (function.getCoefficients (), x); }
+		if (fitted != null) return fitted;
+
+		fitted = new ArrayList<T> ();
+		for (int i = 0; i < x.size (); i++) fitted.add (function.eval (x.get (i)));
+		return fitted;
+	}
+
 	/* (non-Javadoc)
 	 * @see net.myorb.math.computational.Regression.Model#rSquared()
 	 */
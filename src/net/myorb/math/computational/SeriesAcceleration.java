@@ -0,0 +1,403 @@
+package net.myorb.math.computational;
+
+import net.myorb.data.abstractions.SpaceConversion;
+
+import net.myorb.math.SpaceManager;
+import net.myorb.math.Tolerances;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * convergence acceleration of a series presented one term at a time.
+ *  each term updates a transform of the partial sums and the accelerated estimate
+ *  is compared with the previous one; the series is complete when successive estimates
+ *  agree to the epsilon of Tolerances twice in a row.  transforms that run out of order
+ *  without reaching epsilon keep the best estimate when it agreed to the tolerance,
+ *  otherwise acceleration is abandoned and the plain partial sum is the result.
+ *  Wynn epsilon suits alternating and linearly convergent series, Levin u also handles
+ *  logarithmic convergence (zeta and polylog at |z| near 1), Richardson extrapolates
+ *  partial sums taken at doubling term counts for remainders in powers of 1/N
+ * @param <T> data type of terms
+ * @author Michael Druckman
+ */
+public abstract class SeriesAcceleration<T>
+{
+
+
+	/**
+	 * the available transforms
+	 */
+	public enum Method {WYNN, LEVIN, RICHARDSON}
+
+
+	/**
+	 * @param method the transform to apply
+	 * @param manager the manager for the data type of terms
+	 * @return a new accelerator
+	 * @param <T> data type of terms
+	 */
+	public static <T> SeriesAcceleration<T> forMethod (Method method, SpaceManager<T> manager)
+	{
+		switch (method)
+		{
+			case WYNN:			return new Wynn<T> (manager);
+			case LEVIN:			return new Levin<T> (manager);
+			case RICHARDSON:	return new Richardson<T> (manager);
+			default: throw new RuntimeException ("Internal Error");
+		}
+	}
+
+
+	protected SeriesAcceleration (SpaceManager<T> manager)
+	{
+		this.manager = manager;
+		this.epsilon = Math.pow (10, -Tolerances.DEFAULT_EPSILON_SCALE);
+		this.tolerance = Math.pow (10, -Tolerances.DEFAULT_TOLERANCE_SCALE);
+		reset ();
+	}
+	protected SpaceManager<T> manager;
+
+
+	/**
+	 * @param tolerances tolerance parameters to use in place of the defaults
+	 */
+	public void useTolerances (Tolerances<T> tolerances)
+	{
+		setTolerances (magnitude (tolerances.getEpsilon ()), magnitude (tolerances.getTolerance ()));
+	}
+
+	/**
+	 * @param epsilon relative agreement of successive estimates that completes the series
+	 * @param tolerance relative agreement accepted when the transform runs out of order
+	 */
+	public void setTolerances (double epsilon, double tolerance)
+	{
+		this.epsilon = epsilon; this.tolerance = tolerance;
+	}
+	protected double epsilon, tolerance;
+
+
+	/**
+	 * prepare for a new series
+	 */
+	public void reset ()
+	{
+		sum = manager.getZero (); estimate = best = null;
+		bestChange = Double.POSITIVE_INFINITY; agreements = 0;
+		converged = abandoned = false; termsConsumed = 0;
+		resetTransform ();
+	}
+	protected boolean converged, abandoned;
+	protected double bestChange;
+	protected long termsConsumed;
+	protected int agreements;
+	protected T sum;
+
+
+	/**
+	 * @param term the next term of the series
+	 */
+	public void accept (T term)
+	{
+		termsConsumed++; sum = manager.add (sum, term);
+		if (converged || abandoned) return;
+
+		T next = transform (term, sum);
+		if (next != null) compare (next);
+
+		if (!converged && isSaturated ())
+		{
+			if (bestChange <= tolerance) converged = true;
+			else abandoned = true;
+		}
+	}
+
+	/**
+	 * @param next the newest accelerated estimate
+	 */
+	void compare (T next)
+	{
+		double size = magnitude (next);
+		if (Double.isNaN (size) || Double.isInfinite (size)) return;
+
+		if (estimate != null)
+		{
+			double change = magnitude (subtract (next, estimate)) / Math.max (size, Double.MIN_NORMAL);
+			if (change < bestChange) { best = next; bestChange = change; }
+			agreements = change <= epsilon ? agreements + 1 : 0;
+			converged = agreements >= 2;
+		}
+
+		estimate = next;
+	}
+	protected T estimate, best;
+
+
+	/**
+	 * @return the accelerated value of the series, the partial sum when acceleration was abandoned
+	 */
+	public T getEstimate ()
+	{
+		if (abandoned) return sum;
+		if (agreements >= 2) return estimate;
+		if (best != null) return best;
+		return estimate == null ? sum : estimate;
+	}
+
+	/**
+	 * @return the plain sum of the terms consumed
+	 */
+	public T getPartialSum () { return sum; }
+
+	/**
+	 * @return TRUE when further terms will not change the estimate
+	 */
+	public boolean isComplete () { return converged; }
+
+	/**
+	 * @return TRUE when the transform failed to converge and the partial sum is the result
+	 */
+	public boolean isAbandoned () { return abandoned; }
+
+	/**
+	 * @return the number of terms presented
+	 */
+	public long getTermsConsumed () { return termsConsumed; }
+
+	/**
+	 * @return relative change between the best estimate and its predecessor
+	 */
+	public double getErrorEstimate () { return bestChange; }
+
+
+	/**
+	 * @param termsRequested number of terms in the range, negative when not known
+	 * @return description of the outcome
+	 */
+	public String getReport (long termsRequested)
+	{
+		String requested = termsRequested < 0 ? "" : " of " + termsRequested;
+		String outcome = abandoned ? "not accelerated, partial sum" :
+			(converged ? "converged" : "incomplete") + ", estimated relative error " + bestChange;
+		return toString () + ": " + termsConsumed + requested + " terms, " + outcome;
+	}
+
+
+	/*
+	 * transform implementations
+	 */
+
+
+	/**
+	 * clear the state of the transform
+	 */
+	protected abstract void resetTransform ();
+
+	/**
+	 * @param term the newest term
+	 * @param partialSum the sum including the newest term
+	 * @return the new estimate, NULL when the transform has none for this term
+	 */
+	protected abstract T transform (T term, T partialSum);
+
+	/**
+	 * @return TRUE when the transform has reached its maximum order
+	 */
+	protected abstract boolean isSaturated ();
+
+
+	/*
+	 * arithmetic
+	 */
+
+
+	T subtract (T left, T right) { return manager.add (left, manager.negate (right)); }
+	T divide (T numerator, T denominator) { return manager.multiply (numerator, manager.invert (denominator)); }
+	T scalar (long value) { return manager.newScalar ((int) value); }
+
+	/**
+	 * @param value a value of the data type
+	 * @return the absolute value (modulus for complex) as double
+	 */
+	@SuppressWarnings("unchecked")
+	double magnitude (T value)
+	{
+		if (manager instanceof SpaceConversion)
+		{ return Math.abs (((SpaceConversion<T>) manager).convertToDouble (value)); }
+		Number n = manager.toNumber (value);
+		return n == null ? Double.NaN : Math.abs (n.doubleValue ());
+	}
+
+
+}
+
+
+/**
+ * Wynn epsilon algorithm, the table is kept as its last ascending diagonal
+ * @param <T> data type of terms
+ */
+class Wynn<T> extends SeriesAcceleration<T>
+{
+
+	Wynn (SpaceManager<T> manager) { super (manager); }
+
+	/* (non-Javadoc)
+	 * @see net.myorb.math.computational.SeriesAcceleration#resetTransform()
+	 */
+	protected void resetTransform () { diagonal = new ArrayList<T> (); }
+	protected List<T> diagonal;		// NULL entries stand for infinity
+
+	/* (non-Javadoc)
+	 * @see net.myorb.math.computational.SeriesAcceleration#transform(java.lang.Object, java.lang.Object)
+	 */
+	protected T transform (T term, T partialSum)
+	{
+		diagonal.add (partialSum);
+		int n = diagonal.size () - 1;
+		if (n == 0) return partialSum;
+
+		T previous = manager.getZero (), current;
+		for (int j = n; j >= 1; j--)
+		{
+			current = previous; previous = diagonal.get (j - 1);
+			T inverse = inverseDifference (diagonal.get (j), previous);
+			diagonal.set (j - 1, inverse == null || current == null ? null : manager.add (current, inverse));
+		}
+
+		return diagonal.get (n % 2);
+	}
+
+	/**
+	 * @param left the left side of the difference, NULL for infinity
+	 * @param right the right side of the difference, NULL for infinity
+	 * @return inverse of the difference, NULL for infinity
+	 */
+	T inverseDifference (T left, T right)
+	{
+		if (left == null || right == null) return manager.getZero ();
+		T difference = subtract (left, right);
+		if (manager.isZero (difference)) return null;
+		return manager.invert (difference);
+	}
+
+	/* (non-Javadoc)
+	 * @see net.myorb.math.computational.SeriesAcceleration#isSaturated()
+	 */
+	protected boolean isSaturated () { return diagonal.size () >= MAXIMUM_ORDER; }
+	static final int MAXIMUM_ORDER = 60;
+
+	/* (non-Javadoc)
+	 * @see java.lang.Object#toString()
+	 */
+	public String toString () { return "WYNN"; }
+
+}
+
+
+/**
+ * Levin u transform, numerator and denominator tables updated by the
+ *  recursion of Fessler, Ford and Smith with remainder estimate (n+1) a[n]
+ * @param <T> data type of terms
+ */
+class Levin<T> extends SeriesAcceleration<T>
+{
+
+	Levin (SpaceManager<T> manager) { super (manager); }
+
+	/* (non-Javadoc)
+	 * @see net.myorb.math.computational.SeriesAcceleration#resetTransform()
+	 */
+	protected void resetTransform () { numerator = new ArrayList<T> (); denominator = new ArrayList<T> (); }
+	protected List<T> numerator, denominator;
+
+	/* (non-Javadoc)
+	 * @see net.myorb.math.computational.SeriesAcceleration#transform(java.lang.Object, java.lang.Object)
+	 */
+	protected T transform (T term, T partialSum)
+	{
+		if (manager.isZero (term)) return null;
+		int n = numerator.size ();
+
+		T reciprocal = manager.invert (scalar (n + 1));
+		T d = manager.invert (manager.multiply (scalar (n + 1), manager.multiply (term, scalar (n + 1))));
+		denominator.add (d); numerator.add (manager.multiply (partialSum, d));
+
+		if (n > 0)
+		{
+			T ratio = manager.multiply (scalar (n), reciprocal), power = reciprocal;
+			for (int j = 1; j <= n; j++)
+			{
+				T factor = manager.multiply (scalar (n - j + 1), power);
+				numerator.set (n - j, subtract (numerator.get (n - j + 1), manager.multiply (factor, numerator.get (n - j))));
+				denominator.set (n - j, subtract (denominator.get (n - j + 1), manager.multiply (factor, denominator.get (n - j))));
+				power = manager.multiply (power, ratio);
+			}
+		}
+
+		if (manager.isZero (denominator.get (0))) return null;
+		return divide (numerator.get (0), denominator.get (0));
+	}
+
+	/* (non-Javadoc)
+	 * @see net.myorb.math.computational.SeriesAcceleration#isSaturated()
+	 */
+	protected boolean isSaturated () { return numerator.size () >= MAXIMUM_ORDER; }
+	static final int MAXIMUM_ORDER = 40;
+
+	/* (non-Javadoc)
+	 * @see java.lang.Object#toString()
+	 */
+	public String toString () { return "LEVIN"; }
+
+}
+
+
+/**
+ * Richardson extrapolation of the partial sums at N = 1, 2, 4, 8, ... terms
+ *  to N infinite, assuming a remainder in powers of 1/N
+ * @param <T> data type of terms
+ */
+class Richardson<T> extends SeriesAcceleration<T>
+{
+
+	Richardson (SpaceManager<T> manager) { super (manager); }
+
+	/* (non-Javadoc)
+	 * @see net.myorb.math.computational.SeriesAcceleration#resetTransform()
+	 */
+	protected void resetTransform () { row = new ArrayList<T> (); }
+	protected List<T> row;
+
+	/* (non-Javadoc)
+	 * @see net.myorb.math.computational.SeriesAcceleration#transform(java.lang.Object, java.lang.Object)
+	 */
+	protected T transform (T term, T partialSum)
+	{
+		if (Long.bitCount (termsConsumed) != 1) return null;
+		List<T> next = new ArrayList<T> ();
+		next.add (partialSum);
+
+		for (int j = 1; j <= row.size (); j++)
+		{
+			long power = 1L << j;											// (2^j P[j-1] - previous P[j-1]) / (2^j - 1)
+			T scaled = manager.multiply (scalar (power), next.get (j - 1));
+			next.add (divide (subtract (scaled, row.get (j - 1)), scalar (power - 1)));
+		}
+
+		row = next;
+		return next.get (next.size () - 1);
+	}
+
+	/* (non-Javadoc)
+	 * @see net.myorb.math.computational.SeriesAcceleration#isSaturated()
+	 */
+	protected boolean isSaturated () { return row.size () >= MAXIMUM_LEVELS; }
+	static final int MAXIMUM_LEVELS = 27;
+
+	/* (non-Javadoc)
+	 * @see java.lang.Object#toString()
+	 */
+	public String toString () { return "RICHARDSON"; }
+
+}
@@ -0,0 +1,301 @@
+package net.myorb.math.computational;
+
+import net.myorb.data.abstractions.Function;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.ForkJoinPool;
+
+import java.util.Arrays;
+
+/**
+ * tanh-sinh quadrature with node tables generated on demand.
+ *  the levels are those of TanhSinhQuadratureTables (trapezoid steps on t in [-3,3]
+ *  halved at each level) but are computed from x = tanh (pi/2 sinh t) rather than read
+ *  from a fixed table, so levels beyond the 7 of the table are available.  each level is
+ *  generated once per JVM and never changes so it is shared by all threads.
+ *  the nodes are held as distances 1-x from the ends of [-1,1] so points near the
+ *  ends of the interval keep full precision.  all nodes of a level are passed to the
+ *  integrand in one array and may be split across the fork/join pool
+ * @author Michael Druckman
+ */
+public class TanhSinhQuadratureEngine
+{
+
+
+	/**
+	 * integrand evaluated for a set of points at once
+	 */
+	public interface VectorIntegrand
+	{
+		/**
+		 * @param x the points of evaluation
+		 * @return the integrand value at each point
+		 */
+		double [] eval (double [] x);
+	}
+
+	/**
+	 * @param f a scalar integrand
+	 * @return a vector integrand that evaluates the points in turn
+	 */
+	public static VectorIntegrand vectorOf (final Function<Double> f)
+	{
+		return new VectorIntegrand ()
+		{
+			public double [] eval (double [] x)
+			{
+				double [] fx = new double [x.length];
+				for (int i = 0; i < x.length; i++) fx[i] = f.eval (x[i]);
+				return fx;
+			}
+		};
+	}
+
+
+	/*
+	 * node tables
+	 */
+
+
+	/**
+	 * the nodes added at one level, t = (2j+1) / 2^level in (0,3]
+	 *  (level 0 holds t = 1, 2, 3 with t = 0 applied separately)
+	 */
+	public static class Level
+	{
+
+		Level (int level)
+		{
+			double h = level == 0 ? 1 : Math.pow (2, -level), start = level == 0 ? 1 : h, step = level == 0 ? 1 : 2 * h;
+			int count = level == 0 ? 3 : 3 << (level - 1);
+			this.complements = new double [count]; this.weights = new double [count];
+
+			for (int j = 0; j < count; j++)
+			{
+				double t = start + j * step, u = HALF_PI * Math.sinh (t), coshU = Math.cosh (u);
+				complements[j] = 2 / (1 + Math.exp (2 * u));						// 1 - tanh (u) without cancellation
+				weights[j] = HALF_PI * Math.cosh (t) / (coshU * coshU);
+			}
+		}
+		final double [] complements, weights;
+
+		/**
+		 * @return count of nodes on each side of the center
+		 */
+		public int size () { return weights.length; }
+
+		/**
+		 * @param j index of a node
+		 * @return the abscissa x of the node on [-1,1]
+		 */
+		public double abscissa (int j) { return 1 - complements[j]; }
+
+		/**
+		 * @param j index of a node
+		 * @return the weight of the node
+		 */
+		public double weight (int j) { return weights[j]; }
+
+	}
+	static final double HALF_PI = Math.PI / 2;
+
+	/**
+	 * @param level the level number
+	 * @return the nodes of the level, generated on first use
+	 */
+	public static Level getLevel (int level)
+	{
+		if (level < 0 || level > MAXIMUM_LEVEL) throw new RuntimeException ("Tanh-Sinh level out of range: " + level);
+		Level nodes = LEVELS.get (level);
+		if (nodes == null)
+		{
+			LEVELS.compareAndSet (level, null, new Level (level));
+			nodes = LEVELS.get (level);
+		}
+		return nodes;
+	}
+	public static final int MAXIMUM_LEVEL = 16, DEFAULT_LEVEL = 10;
+	static final AtomicReferenceArray<Level> LEVELS = new AtomicReferenceArray<Level> (MAXIMUM_LEVEL + 1);
+
+
+	/*
+	 * engine configuration
+	 */
+
+
+	/**
+	 * @param targetAbsoluteError limit of acceptable error
+	 */
+	public TanhSinhQuadratureEngine (double targetAbsoluteError)
+	{
+		this.targetAbsoluteError = targetAbsoluteError;
+	}
+	protected double targetAbsoluteError;
+
+	/**
+	 * @param highestLevel the last level applied when convergence is not seen
+	 */
+	public void setHighestLevel (int highestLevel)
+	{
+		if (highestLevel < 1 || highestLevel > MAXIMUM_LEVEL)
+			throw new RuntimeException ("Tanh-Sinh level out of range: " + highestLevel);
+		this.highestLevel = highestLevel;
+	}
+	protected int highestLevel = DEFAULT_LEVEL;
+
+	/**
+	 * @param parallel TRUE to split the nodes of a level across the fork/join pool,
+	 *  the integrand must then allow concurrent calls
+	 */
+	public void setParallel (boolean parallel) { this.parallel = parallel; }
+	protected boolean parallel = false;
+	public static final int PARALLEL_NODES = 64;
+
+
+	/*
+	 * integration
+	 */
+
+
+	/**
+	 * @param f the function to be integrated over interval
+	 * @param lo the lo bound of the interval of integration
+	 * @param hi the hi bound of the interval of integration
+	 * @param error output structure for computed error, may be null
+	 * @return the computed integral
+	 */
+	public double integrate (Function<Double> f, double lo, double hi, TanhSinhQuadratureTables.ErrorEvaluation error)
+	{
+		return integrate (vectorOf (f), lo, hi, error);
+	}
+
+	/**
+	 * level by level evaluation with the convergence test of TanhSinhQuadratureAlgorithms
+	 * @param f the vector integrand
+	 * @param lo the lo bound of the interval of integration
+	 * @param hi the hi bound of the interval of integration
+	 * @param error output structure for computed error, may be null
+	 * @return the computed integral
+	 */
+	public double integrate (VectorIntegrand f, double lo, double hi, TanhSinhQuadratureTables.ErrorEvaluation error)
+	{
+		if (error == null) error = new TanhSinhQuadratureTables.ErrorEvaluation ();
+		if (lo == hi) { error.errorEstimate = 0; error.numFunctionEvaluations = 0; return 0; }
+		double c = (hi - lo) / 2, d = (hi + lo) / 2;
+		double errorToBeObserved = targetAbsoluteError * 0.1 / Math.abs (c);
+
+		double integral = HALF_PI * f.eval (new double[]{d})[0] + levelSum (f, getLevel (0), lo, hi, c);
+		double previousDelta, currentDelta = Double.MAX_VALUE, h = 1;
+		int evaluations = 1 + 2 * getLevel (0).size ();
+		error.errorEstimate = Double.MAX_VALUE;
+
+		for (int level = 1; level <= highestLevel; level++)
+		{
+			Level nodes = getLevel (level);
+			double newContribution = levelSum (f, nodes, lo, hi, c) * (h *= 0.5);
+			evaluations += 2 * nodes.size ();
+
+			previousDelta = currentDelta; currentDelta = Math.abs (0.5 * integral - newContribution);
+			integral = 0.5 * integral + newContribution;
+			if (level == 1) continue;											// previous delta meaningless
+
+			if (currentDelta == 0.0) break;
+			double r = Math.log (currentDelta) / Math.log (previousDelta);
+			error.errorEstimate = r > 1.9 && r < 2.1 ? currentDelta * currentDelta : currentDelta;
+			if (error.errorEstimate < errorToBeObserved) break;
+		}
+
+		error.numFunctionEvaluations = evaluations;
+		error.errorEstimate *= Math.abs (c);
+		return integral * c;
+	}
+
+	/**
+	 * weighted sum of the integrand at both images of the nodes of a level
+	 * @param f the vector integrand
+	 * @param nodes the nodes of the level
+	 * @param lo the lo bound of the interval of integration
+	 * @param hi the hi bound of the interval of integration
+	 * @param c the half width of the interval
+	 * @return SIGMA w#j * ( f (lo + c (1-x#j)) + f (hi - c (1-x#j)) )
+	 */
+	double levelSum (VectorIntegrand f, Level nodes, double lo, double hi, double c)
+	{
+		int m = nodes.size ();
+		double [] x = new double [2 * m];
+		for (int j = 0; j < m; j++)
+		{
+			double offset = c * nodes.complements[j];
+			x[j] = lo + offset; x[m + j] = hi - offset;
+		}
+
+		double [] fx = evaluate (f, x);
+		CompensatedSum sum = new CompensatedSum ();
+		for (int j = 0; j < m; j++) sum.add (nodes.weights[j] * (fx[j] + fx[m + j]));
+		return sum.value ();
+	}
+
+	/**
+	 * @param f the vector integrand
+	 * @param x the points of evaluation
+	 * @return the integrand values
+	 */
+	double [] evaluate (VectorIntegrand f, double [] x)
+	{
+		if (!parallel || x.length < 2 * PARALLEL_NODES) return f.eval (x);
+		double [] fx = new double [x.length];
+		ForkJoinPool.commonPool ().invoke (new Nodes (f, x, fx, 0, x.length));
+		return fx;
+	}
+
+	/**
+	 * range of nodes split until small enough for one task
+	 */
+	static class Nodes extends RecursiveAction
+	{
+
+		Nodes (VectorIntegrand f, double [] x, double [] fx, int lo, int hi)
+		{ this.f = f; this.x = x; this.fx = fx; this.lo = lo; this.hi = hi; }
+		protected double [] x, fx; protected int lo, hi;
+		protected VectorIntegrand f;
+
+		/* (non-Javadoc)
+		 * @see java.util.concurrent.RecursiveAction#compute()
+		 */
+		protected void compute ()
+		{
+			if (hi - lo <= PARALLEL_NODES)
+			{
+				System.arraycopy (f.eval (Arrays.copyOfRange (x, lo, hi)), 0, fx, lo, hi - lo);
+				return;
+			}
+			int mid = (lo + hi) >>> 1;
+			invokeAll (new Nodes (f, x, fx, lo, mid), new Nodes (f, x, fx, mid, hi));
+		}
+
+		private static final long serialVersionUID = 4518862170457218743L;
+	}
+
+
+	/**
+	 * compute integral of function over interval at the default level limit
+	 * @param f the function to be integrated over interval
+	 * @param lo the lo bound of the interval of integration
+	 * @param hi the hi bound of the interval of integration
+	 * @param targetAbsoluteError limit of acceptable error
+	 * @param error output structure for computed error, may be null
+	 * @return the computed integral
+	 */
+	public static double Integrate
+		(
+			VectorIntegrand f,
+			double lo, double hi, double targetAbsoluteError,
+			TanhSinhQuadratureTables.ErrorEvaluation error
+		)
+	{
+		return new TanhSinhQuadratureEngine (targetAbsoluteError).integrate (f, lo, hi, error);
+	}
+
+
+}
@@ -2,6 +2,7 @@
 package net.myorb.math.computational.dct;
 
 import net.myorb.math.computational.ChebyshevRecursiveCosineMultiples;
+import net.myorb.math.computational.FFTEngine;
 
 import net.myorb.data.abstractions.DataSequence2D;
 import net.myorb.data.abstractions.DataSequence;
@@ -87,10 +88,40 @@ public class CoefficientCalculator extends ChebyshevRecursiveCosineMultiples
 	 */
 	protected double coefficientOffsetFor (int k)
 	{
+		if (harCount >= FFT_THRESHOLD)
+		{
+			if (offsets == null) offsets = cosineSums ();
+			return offsets [k];
+		}
+
 		List<Double> cosPiKN = multiplesOfCos (cosParameters.get (k), harCount);
 		// SIGMA [ 1 <= n <= N-1 ] ( f(cos(n*pi/N)) * cos(n*k*pi/N) )
 		return dot (functionEvaluations, cosPiKN, 1, harCount);
 	}
+	protected double [] offsets;
+
+	/**
+	 * harmonic count at which the sums for all multipliers
+	 *  are computed by one FFT rather than a dot product for each
+	 */
+	public static final int FFT_THRESHOLD = 16;
+
+	/**
+	 * the sums for all multipliers as the real transform of the even extension.
+	 *  with N the segments of PI in the cosine parameters and y of length 2N
+	 *  holding f#n at n and 2N-n, Re Y#k = 2 * SIGMA [ 1 <= n <= harCount ] ( f#n * cos(n*k*pi/N) )
+	 * @return the sums indexed by multiplier 0 .. N
+	 */
+	protected double [] cosineSums ()
+	{
+		int N = cosParameters.size () - 1;
+		double [] y = new double [2 * N], re = new double [N + 1], im = new double [N + 1];
+		for (int n = 1; n <= harCount; n++) { y [n] = y [2 * N - n] = functionEvaluations.get (n); }
+
+		FFTEngine.realForward (y, re, im);
+		for (int k = 0; k <= N; k++) re [k] /= 2;
+		return re;
+	}
 
 	/**
 	 * compute coefficient for specified multiplier
@@ -5,7 +5,7 @@ package net.myorb.math.computational.integration;
  * common base for Integral object
  * @author Michael Druckman
  */
-public class CommonQuadrature implements Quadrature.Integral
+public class CommonQuadrature implements Quadrature.Integral, Quadrature.MetadataAvailability
 {
 
 	public CommonQuadrature
@@ -44,4 +44,14 @@ public class CommonQuadrature implements Quadrature.Integral
 		throw new RuntimeException ("Evaluation count not available");
 	}
 
+	/* (non-Javadoc)
+	 * @see net.myorb.math.computational.integration.Quadrature.MetadataAvailability#providesErrorEstimate()
+	 */
+	public boolean providesErrorEstimate () { return false; }
+
+	/* (non-Javadoc)
+	 * @see net.myorb.math.computational.integration.Quadrature.MetadataAvailability#providesEvaluationCount()
+	 */
+	public boolean providesEvaluationCount () { return false; }
+
 }
@@ -8,7 +8,7 @@ package net.myorb.math.computational.integration;
 public class GaussQuadrature
 {
 
-	public enum GaussTypes {LAGRANGE, LAGUERRE}
+	public enum GaussTypes {LAGRANGE, LAGUERRE, LEGENDRE, HERMITE, JACOBI}
 
 	/**
 	 * @param parameters Configuration parameters for the algorithm
@@ -29,6 +29,7 @@ public class GaussQuadrature
 		{
 			case LAGRANGE: integral = new LagrangeQuadrature (integrand, parameters); break;
 			case LAGUERRE: integral = new LaguerreQuadrature (integrand, parameters); break;
+			default: integral = new GaussRuleQuadrature (integrand, parameters); break;
 		}
 	}
 
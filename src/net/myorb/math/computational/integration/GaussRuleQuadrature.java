@@ -0,0 +1,60 @@
+package net.myorb.math.computational.integration;
+
+import net.myorb.math.computational.GaussRules;
+
+/**
+ * configuration object for Gauss quadratures served from the shared Golub-Welsch rules.
+ *  LEGENDRE integrates f over [lo,hi]; JACOBI integrates f against the weight
+ *  (1-t)^alpha * (1+t)^beta with t the position mapped onto [-1,1];
+ *  HERMITE integrates f against exp(-x^2) over the real line and ignores lo and hi
+ * @author Michael Druckman
+ */
+public class GaussRuleQuadrature extends CommonQuadrature
+{
+
+	public GaussRuleQuadrature
+		(
+			RealIntegrandFunctionBase integrand,
+			Configuration parameters
+		)
+	{
+		super (integrand, parameters);
+		configureRule ();
+	}
+
+	public void configureRule ()
+	{
+		this.type = GaussQuadrature.getType (parameters);
+		int order = parameters.getValue ("order").intValue ();
+		double alpha = parameters.getValue ("alpha", 0).doubleValue (),
+			beta = parameters.getValue ("beta", 0).doubleValue ();
+		this.rule = GaussRules.ruleFor (type.name (), order, alpha, beta);
+	}
+	protected GaussQuadrature.GaussTypes type;
+	protected GaussRules.Rule rule;
+
+	/* (non-Javadoc)
+	 * @see net.myorb.math.computational.integration.Quadrature.Integral#eval(double, double, double)
+	 */
+	public double eval (double x, double lo, double hi)
+	{
+		integrand.setParameter (x);
+		double [] nodes = rule.getNodes (), weights = rule.getWeights ();
+		if (type == GaussQuadrature.GaussTypes.HERMITE) return rule.integrate (integrand);
+
+		double center = (hi + lo) / 2, half = (hi - lo) / 2, sum = 0.0;
+		for (int i = 0; i < nodes.length; i++) sum += weights[i] * integrand.eval (center + half * nodes[i]);
+		return half * sum;
+	}
+
+	/* (non-Javadoc)
+	 * @see net.myorb.math.computational.integration.CommonQuadrature#getEvaluationCount()
+	 */
+	public int getEvaluationCount () { return rule.getOrder (); }
+
+	/* (non-Javadoc)
+	 * @see net.myorb.math.computational.integration.CommonQuadrature#providesEvaluationCount()
+	 */
+	public boolean providesEvaluationCount () { return true; }
+
+}
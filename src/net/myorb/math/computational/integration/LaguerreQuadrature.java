@@ -35,8 +35,8 @@ public class LaguerreQuadrature extends CommonQuadrature
 		else
 		{
 			int forOrder = parameters.getValue ("order").intValue ();
-			double domainHi = parameters.getValue ("hi").doubleValue ();
-			laguerreLists = GLQuadrature.computeWeights (forOrder, domainHi);
+			double alpha = parameters.getValue ("alpha", 0).doubleValue ();
+			laguerreLists = GLQuadrature.computeRule (forOrder, alpha);
 		}
 
 		if (parameters.getParameter ("show") != null)
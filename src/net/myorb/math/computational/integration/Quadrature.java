@@ -1,6 +1,7 @@
 
 package net.myorb.math.computational.integration;
 
+import net.myorb.math.computational.ConcurrentEvaluation;
 import net.myorb.math.computational.Parameterization;
 import net.myorb.math.computational.integration.Configuration;
 
@@ -8,6 +9,14 @@ import net.myorb.math.expressions.symbols.AbstractVectorReduction.Range;
 import net.myorb.math.expressions.gui.rendering.NodeFormatting;
 import net.myorb.math.expressions.tree.RangeNodeDigest;
 
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -149,6 +158,192 @@ public class Quadrature
 		throw new RuntimeException ("No support for method");
 	}
 
+	/*
+	 * batch evaluation
+	 */
+
+	/**
+	 * integrals whose algorithm may not provide the meta-data,
+	 *  integrals not implementing this provide both
+	 */
+	public interface MetadataAvailability
+	{
+		/**
+		 * @return TRUE when getErrorEstimate returns an estimate
+		 */
+		boolean providesErrorEstimate ();
+
+		/**
+		 * @return TRUE when getEvaluationCount returns a count
+		 */
+		boolean providesEvaluationCount ();
+	}
+
+	/**
+	 * source of integrand objects for a batch.
+	 *  integrands hold their parameter so each task of a batch uses its own
+	 */
+	public interface IntegrandFactory
+	{
+		/**
+		 * @return a new integrand object
+		 */
+		RealIntegrandFunctionBase newIntegrand ();
+	}
+
+	/**
+	 * results of a batch as primitive arrays, one entry for each item of the batch.
+	 *  NaN error and -1 count where the algorithm does not provide them
+	 */
+	public static class BatchResults
+	{
+		BatchResults (int size)
+		{
+			this.values = new double [size]; this.errors = new double [size];
+			this.evaluations = new int [size];
+		}
+		public final double [] values, errors;
+		public final int [] evaluations;
+	}
+
+	/**
+	 * @param executor the executor that runs the tasks of a batch
+	 */
+	public void setExecutor (ExecutorService executor) { this.executor = executor; }
+	protected ExecutorService executor = ForkJoinPool.commonPool ();
+
+	/**
+	 * the same integral for many parameter values
+	 * @param integrands source of the integrand, one is used for each task
+	 * @param parameters the parameter value for each integral
+	 * @param lo the low end of the interval
+	 * @param hi the high end of the interval
+	 * @return the results for each parameter
+	 */
+	public BatchResults evalBatch
+	(IntegrandFactory integrands, double [] parameters, double lo, double hi)
+	{
+		int n = parameters.length;
+		return evalBatch (integrands, parameters, fill (lo, n), fill (hi, n));
+	}
+
+	/**
+	 * one parameter value over many intervals
+	 * @param integrands source of the integrand, one is used for each task
+	 * @param parameter the parameter value for all integrals
+	 * @param lo the low end of each interval
+	 * @param hi the high end of each interval
+	 * @return the results for each interval
+	 */
+	public BatchResults evalBatch
+	(IntegrandFactory integrands, double parameter, double [] lo, double [] hi)
+	{
+		return evalBatch (integrands, fill (parameter, lo.length), lo, hi);
+	}
+
+	/**
+	 * integrals for parallel arrays of parameters and intervals.
+	 *  the batch is cut into contiguous ranges, each range is run by one
+	 *  task with one Integral object so node tables and coordinate
+	 *  transforms built by the algorithm are reused across the range.
+	 *  integrands that do not allow concurrent evaluation (see ConcurrentEvaluation)
+	 *  share interpreter state so the whole batch is then run on the calling thread
+	 * @param integrands source of the integrand, one is used for each task
+	 * @param parameters the parameter value for each integral
+	 * @param lo the low end of each interval
+	 * @param hi the high end of each interval
+	 * @return the results for each item
+	 */
+	public BatchResults evalBatch
+	(final IntegrandFactory integrands, final double [] parameters, final double [] lo, final double [] hi)
+	{
+		final int n = parameters.length;
+		if (lo.length != n || hi.length != n) throw new RuntimeException ("Batch array lengths do not agree");
+		final BatchResults results = new BatchResults (n);
+
+		RealIntegrandFunctionBase integrand = integrands.newIntegrand ();
+		if (!ConcurrentEvaluation.isAllowed (integrand))
+		{
+			evalRange (getIntegral (integrand), 0, n, parameters, lo, hi, results);
+			return results;
+		}
+
+		int tasks = Math.max (1, Math.min (n, BATCH_TASKS_PER_THREAD * threadsOf (executor)));
+		List<Callable<Void>> ranges = new ArrayList<Callable<Void>> (tasks);
+
+		for (int t = 0; t < tasks; t++)
+		{
+			final int first = (int) ((long) n * t / tasks), last = (int) ((long) n * (t + 1) / tasks);
+			ranges.add
+			(
+				new Callable<Void> ()
+				{
+					public Void call ()
+					{
+						evalRange (getIntegral (integrands.newIntegrand ()), first, last, parameters, lo, hi, results);
+						return null;
+					}
+				}
+			);
+		}
+
+		try
+		{
+			for (Future<Void> f : executor.invokeAll (ranges)) f.get ();
+		}
+		catch (Exception e) { throw new RuntimeException ("Batch quadrature failed", e); }
+
+		return results;
+	}
+	public static final int BATCH_TASKS_PER_THREAD = 4;
+
+	/**
+	 * @param integral the integral object of the task
+	 * @param first the index of the first item of the range
+	 * @param last the index after the last item of the range
+	 * @param x the parameter of each item
+	 * @param lo the low end of each interval
+	 * @param hi the high end of each interval
+	 * @param results the arrays receiving the result
+	 */
+	static void evalRange
+		(
+			Integral integral, int first, int last,
+			double [] x, double [] lo, double [] hi, BatchResults results
+		)
+	{
+		boolean errors = true, counts = true;
+		if (integral instanceof MetadataAvailability)
+		{
+			errors = ((MetadataAvailability) integral).providesErrorEstimate ();
+			counts = ((MetadataAvailability) integral).providesEvaluationCount ();
+		}
+
+		for (int i = first; i < last; i++)
+		{
+			results.values[i] = integral.eval (x[i], lo[i], hi[i]);
+			results.errors[i] = errors ? integral.getErrorEstimate () : Double.NaN;
+			results.evaluations[i] = counts ? integral.getEvaluationCount () : -1;
+		}
+	}
+
+	/**
+	 * @param executor the executor of a batch
+	 * @return the count of threads expected to run tasks
+	 */
+	static int threadsOf (ExecutorService executor)
+	{
+		if (executor instanceof ForkJoinPool) return ((ForkJoinPool) executor).getParallelism ();
+		return Runtime.getRuntime ().availableProcessors ();
+	}
+
+	static double [] fill (double value, int n)
+	{
+		double [] a = new double [n];
+		Arrays.fill (a, value);
+		return a;
+	}
+
 	/**
 	 * format a special case portion of a render
 	 * @param range the range descriptor that introduced the integral
@@ -1,11 +1,15 @@
 
 package net.myorb.math.computational.integration;
 
-import net.myorb.math.computational.TanhSinhQuadratureAlgorithms;
+import net.myorb.math.computational.TanhSinhQuadratureEngine;
 import net.myorb.math.computational.TanhSinhQuadratureTables;
 
 /**
- * quadrature using Tanh-Sinh algorithm
+ * quadrature using Tanh-Sinh algorithm.
+ *  configuration may name "levels" for the highest level applied and
+ *  "parallel" (non-zero) to evaluate the nodes of a level on the fork/join pool.
+ *  integrands implementing TanhSinhQuadratureEngine.VectorIntegrand
+ *  receive all nodes of a level in one call
  * @author Michael Druckman
  */
 public class TSQuadrature extends CommonQuadrature
@@ -19,10 +23,10 @@ public class TSQuadrature extends CommonQuadrature
 	public double eval (double x, double lo, double hi)
 	{
 		integrand.setParameter (x);
-		return TanhSinhQuadratureAlgorithms.Integrate
-		(integrand, lo, hi, targetAbsoluteError, stats);
+		return engine.integrate (vectorIntegrand, lo, hi, stats);
 	}
-	protected double targetAbsoluteError;
+	protected TanhSinhQuadratureEngine.VectorIntegrand vectorIntegrand;
+	protected TanhSinhQuadratureEngine engine;
 
 
 	/* (non-Javadoc)
@@ -44,6 +48,17 @@ public class TSQuadrature extends CommonQuadrature
 	protected TanhSinhQuadratureTables.ErrorEvaluation stats;
 
 
+	/* (non-Javadoc)
+	 * @see net.myorb.math.computational.integration.CommonQuadrature#providesErrorEstimate()
+	 */
+	public boolean providesErrorEstimate () { return true; }
+
+	/* (non-Javadoc)
+	 * @see net.myorb.math.computational.integration.CommonQuadrature#providesEvaluationCount()
+	 */
+	public boolean providesEvaluationCount () { return true; }
+
+
 	public TSQuadrature
 		(
 			RealIntegrandFunctionBase integrand,
@@ -51,8 +66,12 @@ public class TSQuadrature extends CommonQuadrature
 		)
 	{
 		super (integrand, parameters);
-		this.targetAbsoluteError = parameters.getPrecision ();
+		this.engine = new TanhSinhQuadratureEngine (parameters.getPrecision ());
+		this.engine.setHighestLevel (parameters.getValue ("levels", TanhSinhQuadratureEngine.DEFAULT_LEVEL).intValue ());
+		this.engine.setParallel (parameters.getValue ("parallel", 0).intValue () != 0);
 		this.stats = new TanhSinhQuadratureTables.ErrorEvaluation ();
+		this.vectorIntegrand = integrand instanceof TanhSinhQuadratureEngine.VectorIntegrand ?
+			(TanhSinhQuadratureEngine.VectorIntegrand) integrand : TanhSinhQuadratureEngine.vectorOf (integrand);
 	}
 
 
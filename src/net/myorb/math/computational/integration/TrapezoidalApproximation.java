@@ -7,7 +7,7 @@ import net.myorb.math.computational.TrapezoidIntegration;
  * integration by Trapezoidal Approximation
  * @author Michael Druckman
  */
-public class TrapezoidalApproximation implements Quadrature.Integral
+public class TrapezoidalApproximation implements Quadrature.Integral, Quadrature.MetadataAvailability
 {
 
 	/* (non-Javadoc)
@@ -35,6 +35,16 @@ public class TrapezoidalApproximation implements Quadrature.Integral
 		throw new RuntimeException ("Evaluation count not available");
 	}
 
+	/* (non-Javadoc)
+	 * @see net.myorb.math.computational.integration.Quadrature.MetadataAvailability#providesErrorEstimate()
+	 */
+	public boolean providesErrorEstimate () { return false; }
+
+	/* (non-Javadoc)
+	 * @see net.myorb.math.computational.integration.Quadrature.MetadataAvailability#providesEvaluationCount()
+	 */
+	public boolean providesEvaluationCount () { return false; }
+
 	public TrapezoidalApproximation
 		(
 			RealIntegrandFunctionBase integrand,
@@ -85,9 +85,16 @@ public class NucleusCore<T> implements Function<T>
 	 */
 	public T getU ()
 	{
+		if (u != null) return u;
 		return vm.toDiscrete (transformVariable.getValue ());
 	}
 
+	/**
+	 * @param u a value of the transform variable used in place of the symbol, NULL to use the symbol
+	 */
+	public void setU (T u) { this.u = u; }
+	protected T u = null;
+
 
 	/**
 	 * prepare the transform variable
@@ -0,0 +1,393 @@
+package net.myorb.math.computational.splines;
+
+import net.myorb.math.realnumbers.RealFunctionWrapper;
+import net.myorb.math.expressions.ColumnarStorage;
+
+import net.myorb.data.abstractions.SimpleStreamIO;
+import net.myorb.data.abstractions.SpaceDescription;
+
+import net.myorb.data.notations.json.JsonPrettyPrinter;
+import net.myorb.data.notations.json.JsonSemantics;
+import net.myorb.data.notations.json.JsonLowLevel;
+import net.myorb.data.notations.json.JsonReader;
+
+import net.myorb.math.SpaceManager;
+import net.myorb.math.Function;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import java.io.File;
+
+/**
+ * opt-in cache of piecewise Chebyshev approximants for expensive real functions.
+ *  the first request for a function over an interval samples the function at Chebyshev
+ *  nodes of each piece, bisecting pieces until the tail of the series falls below the
+ *  target error; later requests are served by a CompiledSpline of the pieces.
+ *  fits are keyed by function name and parameters and may be kept in a directory in the
+ *  spline JSON format (ChebyshevNodes interpreter) or in the columnar spline container,
+ *  so a restart reads rather than refits
+ * @author Michael Druckman
+ */
+public class ChebyshevApproximantCache
+{
+
+
+	/**
+	 * the function to be approximated
+	 */
+	public interface Source
+	{
+		/**
+		 * @param x the parameter
+		 * @return the function value
+		 */
+		double eval (double x);
+	}
+
+
+	/**
+	 * @param name the name of the function
+	 * @param parameters values of the function parameters that are held fixed
+	 * @return the key identifying the function in the cache
+	 */
+	public static String keyFor (String name, double... parameters)
+	{
+		StringBuffer key = new StringBuffer (name).append ("(");
+		for (int i = 0; i < parameters.length; i++)
+		{ key.append (i == 0 ? "" : ",").append (Double.toString (parameters[i])); }
+		return key.append (")").toString ();
+	}
+
+
+	/*
+	 * the approximant
+	 */
+
+
+	/**
+	 * a piecewise fit of one function over one interval
+	 */
+	public static class Approximant implements Representation
+	{
+
+		Approximant (String key, List <SegmentRepresentation> segments)
+		{
+			this.key = key; this.segments = segments;
+			this.lo = segments.get (0).getSegmentLo (); this.hi = segments.get (segments.size () - 1).getSegmentHi ();
+			for (SegmentRepresentation s : segments) error = Math.max (error, s.getSegmentError ());
+			this.compiled = new CompiledSpline (segments, MECHANISMS);
+		}
+		protected List <SegmentRepresentation> segments;
+		protected CompiledSpline compiled;
+		protected double lo, hi, error;
+		protected String key;
+
+		/**
+		 * @param x the parameter
+		 * @return the value of the fit
+		 */
+		public double eval (double x) { return compiled.eval (x); }
+
+		/**
+		 * @param xs the parameters
+		 * @param out the values of the fit
+		 */
+		public void evalMany (double [] xs, double [] out) { compiled.evalMany (xs, out); }
+
+		/**
+		 * @param lo the lo end of an interval
+		 * @param hi the hi end of an interval
+		 * @return TRUE when the fit covers the interval
+		 */
+		public boolean covers (double lo, double hi) { return lo >= this.lo && hi <= this.hi; }
+
+		/**
+		 * @return the largest error estimate of the pieces
+		 */
+		public double getErrorEstimate () { return error; }
+		public String getKey () { return key; }
+
+		/* (non-Javadoc)
+		 * @see net.myorb.math.computational.splines.Representation#getSegmentList()
+		 */
+		public List <SegmentRepresentation> getSegmentList () { return segments; }
+
+		/* (non-Javadoc)
+		 * @see net.myorb.math.computational.splines.Representation#getInterpretation()
+		 */
+		public String getInterpretation () { return MECHANISMS.getInterpreterPath (); }
+
+	}
+	static final ChebyshevNodes MECHANISMS = new ChebyshevNodes ();
+
+
+	/*
+	 * cache configuration
+	 */
+
+
+	/**
+	 * @param targetError the absolute error allowed in the fits
+	 */
+	public ChebyshevApproximantCache (double targetError)
+	{
+		this.targetError = targetError;
+	}
+	protected double targetError;
+
+	/**
+	 * @param directory the directory holding persisted fits, NULL for none
+	 */
+	public void setDirectory (File directory) { this.directory = directory; }
+	protected File directory = null;
+
+	/**
+	 * @param compression the compression of columnar containers, NULL keeps fits as spline JSON
+	 */
+	public void setColumnar (ColumnarStorage.Compression compression) { this.compression = compression; }
+	protected ColumnarStorage.Compression compression = null;
+
+	/**
+	 * @param maximumSegments the limit on pieces in one fit
+	 */
+	public void setMaximumSegments (int maximumSegments) { this.maximumSegments = maximumSegments; }
+	protected int maximumSegments = DEFAULT_MAXIMUM_SEGMENTS;
+	public static final int NODES = 33, DEFAULT_MAXIMUM_SEGMENTS = 4096, MINIMUM_COEFFICIENTS = 3;
+
+
+	/*
+	 * cache access
+	 */
+
+
+	/**
+	 * find or build the fit of a function
+	 * @param key the key identifying the function and its parameters
+	 * @param f the function to fit when no fit is held
+	 * @param lo the lo end of the interval that must be covered
+	 * @param hi the hi end of the interval that must be covered
+	 * @return the approximant covering the interval
+	 */
+	public Approximant approximantFor (String key, Source f, double lo, double hi)
+	{
+		Approximant a = approximants.get (key);
+		if (a != null && a.covers (lo, hi)) return a;
+
+		if ((a = load (key)) == null || !a.covers (lo, hi))
+		{ save (a = new Approximant (key, fit (f, lo, hi))); }
+		approximants.put (key, a);
+		return a;
+	}
+	protected Map <String, Approximant> approximants = new ConcurrentHashMap <> ();
+
+	/**
+	 * @param key the key identifying the function and its parameters
+	 * @param f the function being approximated
+	 * @param lo the lo end of the declared interval
+	 * @param hi the hi end of the declared interval
+	 * @param x the parameter
+	 * @return the fit value inside the interval, the function value outside
+	 */
+	public double eval (String key, Source f, double lo, double hi, double x)
+	{
+		if (x < lo || x > hi) return f.eval (x);
+		return approximantFor (key, f, lo, hi).eval (x);
+	}
+
+	/**
+	 * @param key the key identifying the function and its parameters
+	 * @param f the function being approximated
+	 * @param lo the lo end of the declared interval
+	 * @param hi the hi end of the declared interval
+	 * @return a real function served from the cache inside the interval
+	 */
+	public Function <Double> cached (final String key, final Source f, final double lo, final double hi)
+	{
+		return new Function <Double> ()
+		{
+			public Double eval (Double x) { return ChebyshevApproximantCache.this.eval (key, f, lo, hi, x); }
+			public SpaceDescription <Double> getSpaceDescription () { return RealFunctionWrapper.manager; }
+			public SpaceManager <Double> getSpaceManager () { return RealFunctionWrapper.manager; }
+		};
+	}
+
+	/**
+	 * @param key the key of a fit to drop from memory
+	 */
+	public void forget (String key) { approximants.remove (key); }
+
+
+	/*
+	 * fitting
+	 */
+
+
+	/**
+	 * bisect the interval until each piece meets the target error
+	 * @param f the function to fit
+	 * @param lo the lo end of the interval
+	 * @param hi the hi end of the interval
+	 * @return the pieces in ascending order
+	 */
+	public List <SegmentRepresentation> fit (Source f, double lo, double hi)
+	{
+		if (!(hi > lo)) throw new RuntimeException ("Approximant interval is empty");
+		List <SegmentRepresentation> done = new ArrayList <> ();
+		List <SegmentParameters> pending = new ArrayList <> ();
+		pending.add (fitSegment (f, lo, hi));
+
+		while (!pending.isEmpty ())
+		{
+			SegmentParameters s = pending.remove (pending.size () - 1);
+			double mid = (s.lo + s.hi) / 2;
+			if (s.error <= targetError || done.size () + pending.size () + 2 > maximumSegments || mid <= s.lo || mid >= s.hi)
+			{ done.add (s); continue; }
+			pending.add (fitSegment (f, mid, s.hi));							// lo half is taken next
+			pending.add (fitSegment (f, s.lo, mid));
+		}
+
+		return done;
+	}
+
+	/**
+	 * interpolate at Chebyshev nodes of one piece
+	 * @param f the function to fit
+	 * @param lo the lo end of the piece
+	 * @param hi the hi end of the piece
+	 * @return the segment description with its error estimate
+	 */
+	public SegmentParameters fitSegment (Source f, double lo, double hi)
+	{
+		double [] fx = new double [NODES], c = new double [NODES];
+		double center = (hi + lo) / 2, half = (hi - lo) / 2;
+
+		for (int j = 0; j < NODES; j++)
+		{
+			double x = center + half * Math.cos (Math.PI * (j + 0.5) / NODES);
+			if (Double.isNaN (fx[j] = f.eval (x)) || Double.isInfinite (fx[j]))
+			{ throw new RuntimeException ("Approximant source not finite at " + x); }
+		}
+
+		for (int k = 0; k < NODES; k++)											// c#k = 2/N SIGMA f#j T#k (x#j)
+		{
+			double sum = 0;
+			for (int j = 0; j < NODES; j++) sum += fx[j] * Math.cos (Math.PI * k * (j + 0.5) / NODES);
+			c[k] = 2 * sum / NODES;
+		}
+		c[0] /= 2;
+
+		double tail = Math.abs (c[NODES-1]) + Math.abs (c[NODES-2]) + Math.abs (c[NODES-3]);
+		int count = NODES;
+		while (count > MINIMUM_COEFFICIENTS && Math.abs (c[count-1]) < targetError / NODES) count--;
+
+		List <Double> coefficients = new ArrayList <> ();
+		for (int k = 0; k < count; k++) coefficients.add (c[k]);
+		List < List <Double> > components = new ArrayList <> ();
+		components.add (coefficients);
+
+		SegmentParameters segment = new SegmentParameters ();
+		segment.lo = lo; segment.hi = hi; segment.error = tail;
+		segment.unit = ChebyshevNodes.SPLINE_RANGE / (hi - lo); segment.slope = 1 / segment.unit;
+		segment.delta = (hi - lo) / NODES;
+		segment.setCoefficients (components);
+		return segment;
+	}
+
+
+	/*
+	 * persistence in spline JSON format or columnar container
+	 */
+
+
+	/**
+	 * @param key the key identifying the function and its parameters
+	 * @return the file holding the fit, NULL when no directory is set
+	 */
+	public File fileFor (String key)
+	{
+		if (directory == null) return null;
+		String extension = compression == null ? ".json" : ColumnarStorage.EXTENSION;
+		return new File (directory, key.replaceAll ("[^A-Za-z0-9._,-]", "_") + extension);
+	}
+
+	/**
+	 * @param a a fit to be written
+	 */
+	public void save (Approximant a)
+	{
+		File file = fileFor (a.getKey ());
+		if (file == null) return;
+
+		try
+		{
+			if (compression != null)
+			{
+				StorageFormat.express (a.getKey (), "x", DESCRIPTION + targetError, a, compression).write (file);
+				return;
+			}
+			JsonSemantics.JsonValue json = StorageFormat.express
+				(a.getKey (), "x", DESCRIPTION + targetError, a);
+			JsonPrettyPrinter.sinkTo (json, new SimpleStreamIO.TextSink (file));
+		}
+		catch (Exception e)
+		{
+			throw new RuntimeException ("Approximant save failed", e);
+		}
+	}
+	static final String DESCRIPTION = "Chebyshev approximant, target error ";
+
+	/**
+	 * @param key the key identifying the function and its parameters
+	 * @return the fit held in the directory, NULL when absent, unreadable or less accurate than the target
+	 */
+	public Approximant load (String key)
+	{
+		File file = fileFor (key);
+		if (file == null || !file.exists ()) return null;
+
+		try
+		{
+			List <SegmentRepresentation> segments = compression == null ? readJson (file) : readColumnar (file);
+			if (segments.isEmpty ()) return null;
+
+			Approximant a = new Approximant (key, segments);
+			return a.getErrorEstimate () <= targetError ? a : null;
+		}
+		catch (Exception e)
+		{
+			return null;											// refit, the save overwrites the file
+		}
+	}
+
+	/**
+	 * @param file a fit in spline JSON format
+	 * @return the segments of the fit
+	 * @throws Exception for errors reading the file
+	 */
+	List <SegmentRepresentation> readJson (File file) throws Exception
+	{
+		List <SegmentRepresentation> segments = new ArrayList <> ();
+		JsonSemantics.JsonObject profile = (JsonSemantics.JsonObject)
+			JsonReader.readFrom (SimpleStreamIO.getFileSource (file));
+		JsonSemantics.JsonArray sections = (JsonSemantics.JsonArray) profile.getMemberCalled ("Sections");
+		for (JsonLowLevel.JsonValue section : sections)
+		{ segments.add (CompiledSpline.segmentFrom ((JsonSemantics.JsonObject) section)); }
+		return segments;
+	}
+
+	/**
+	 * @param file a fit in a columnar container
+	 * @return the segments of the fit
+	 * @throws Exception for errors reading the file
+	 */
+	List <SegmentRepresentation> readColumnar (File file) throws Exception
+	{
+		try (ColumnarStorage.Reader reader = new ColumnarStorage.Reader (file))
+		{ return StorageFormat.segmentsFrom (reader); }
+	}
+
+
+}
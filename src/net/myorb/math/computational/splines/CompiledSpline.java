@@ -0,0 +1,289 @@
+package net.myorb.math.computational.splines;
+
+import net.myorb.data.notations.json.JsonLowLevel;
+import net.myorb.data.notations.json.JsonSemantics;
+import net.myorb.data.notations.json.JsonTools;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * primitive evaluator for a spline in the storage format.
+ *  the coefficients of all segments are packed into one array and each segment keeps
+ *  only the affine map from function coordinates to spline coordinates, so an evaluation
+ *  is a segment lookup followed by Clenshaw (Chebyshev basis) or Horner (power basis)
+ *  summation with no objects allocated
+ * @author Michael Druckman
+ */
+public class CompiledSpline
+{
+
+
+	/**
+	 * the polynomial families a spline may be expressed in
+	 */
+	public enum Basis
+	{
+		CHEBYSHEV,	// Chebyshev T-polynomial series evaluated with Clenshaw recurrence
+		POWER		// ordinary power series evaluated with Horner rule
+	}
+
+	/**
+	 * @param mechanisms the interpreter of the spline
+	 * @return the basis of the coefficients, NULL when not recognized
+	 */
+	public static Basis basisOf (SplineMechanisms mechanisms)
+	{
+		if (mechanisms instanceof ChebyshevCoreFunctionality) return Basis.CHEBYSHEV;
+		if (mechanisms instanceof CubicSplineInterpreter) return Basis.POWER;
+		return null;
+	}
+
+
+	/**
+	 * @param segments the descriptions of the segments of the spline
+	 * @param mechanisms the interpreter the segments were built for
+	 * @throws RuntimeException for an interpreter with no primitive form
+	 */
+	public CompiledSpline
+		(
+			List <? extends SegmentRepresentation> segments,
+			SplineMechanisms mechanisms
+		)
+	throws RuntimeException
+	{
+		if ((this.basis = basisOf (mechanisms)) == null)
+		{ throw new RuntimeException ("Spline interpreter has no compiled form"); }
+		this.index = new SegmentIndex (segments);
+		this.pack (segments, mechanisms.getSplineOptimalLo ());
+	}
+	protected SegmentIndex index;
+	protected Basis basis;
+
+
+	/**
+	 * copy segment properties and coefficients into primitive arrays
+	 * @param segments the descriptions of the segments of the spline
+	 * @param optimalLo the lo of the spline standard domain
+	 */
+	void pack (List <? extends SegmentRepresentation> segments, double optimalLo)
+	{
+		int n = segments.size (), cells = 0;
+		this.components = n == 0 ? 0 : segments.get (0).getComponentCount ();
+		this.origin = new double [n]; this.base = new double [n]; this.scale = new double [n];
+		this.lo = new double [n]; this.hi = new double [n]; this.delta = new double [n];
+		this.offset = new int [n * components + 1];
+
+		for (SegmentRepresentation s : segments)
+			for (int c = 0; c < components; c++) cells += sizeOf (s.getCoefficientsFor (c));
+		this.slab = new double [cells];
+
+		for (int i = 0, cell = 0; i < n; i++)
+		{
+			SegmentRepresentation s = segments.get (i);
+			boolean flat = s.getUnitSlope () == 0.0;						// as SegmentFunction.translate
+			origin[i] = flat ? 0 : s.getSegmentLo (); base[i] = flat ? 0 : optimalLo;
+			scale[i] = flat ? 1 : s.getUnitSlope ();
+
+			lo[i] = s.getSegmentLo (); hi[i] = s.getSegmentHi (); delta[i] = s.getSegmentDelta ();
+
+			for (int c = 0; c < components; c++)
+			{
+				offset[i * components + c] = cell;
+				List <Double> a = s.getCoefficientsFor (c);
+				for (int k = 0; k < sizeOf (a); k++) slab[cell++] = a.get (k);
+			}
+			offset[(i + 1) * components] = cell;
+		}
+	}
+	static int sizeOf (List <Double> a) { return a == null ? 0 : a.size (); }
+	protected double [] origin, base, scale, lo, hi, delta, slab;
+	protected int [] offset;
+	protected int components;
+
+
+	/**
+	 * @return count of segments in the spline
+	 */
+	public int getSegmentCount () { return lo.length; }
+
+	/**
+	 * @return count of components in each segment
+	 */
+	public int getComponentCount () { return components; }
+
+	/**
+	 * @return the basis of the coefficients
+	 */
+	public Basis getBasis () { return basis; }
+
+
+	/*
+	 * evaluation
+	 */
+
+
+	/**
+	 * find the segment covering a parameter,
+	 *  widening ranges by multiples of delta as SegmentOperations does
+	 * @param x the parameter in function coordinates
+	 * @return the number of the segment
+	 * @throws RuntimeException failed segment search
+	 */
+	public int segmentFor (double x) throws RuntimeException
+	{
+		int found = index.find (x);
+		if (found >= 0) return found;
+
+		for (int margin = 1; margin < SegmentOperations.MARGINS; margin++)
+		{
+			for (int i = 0; i < lo.length; i++)
+			{ if (x >= lo[i] - margin * delta[i] && x <= hi[i] + margin * delta[i]) return i; }
+		}
+		throw new RuntimeException ("Segment error");
+	}
+
+
+	/**
+	 * @param x the parameter in function coordinates
+	 * @return the value of the first component of the spline
+	 */
+	public double eval (double x) { return eval (x, 0); }
+
+	/**
+	 * @param x the parameter in function coordinates
+	 * @param component the component to evaluate
+	 * @return the value of the component of the spline
+	 */
+	public double eval (double x, int component)
+	{
+		return evalSegment (segmentFor (x), component, x);
+	}
+
+	/**
+	 * @param x the parameter in function coordinates
+	 * @param results the value of each component of the spline
+	 */
+	public void evalComponents (double x, double [] results)
+	{
+		int segment = segmentFor (x);
+		for (int c = 0; c < results.length; c++) results[c] = evalSegment (segment, c, x);
+	}
+
+
+	/**
+	 * evaluate the first component of the spline at a set of points
+	 * @param xs the parameters in function coordinates
+	 * @param out the values of the spline at the parameters
+	 */
+	public void evalMany (double [] xs, double [] out) { evalMany (xs, out, 0); }
+
+	/**
+	 * evaluate one component of the spline at a set of points,
+	 *  a run of points within one segment is evaluated without search
+	 * @param xs the parameters in function coordinates
+	 * @param out the values of the spline at the parameters
+	 * @param component the component to evaluate
+	 */
+	public void evalMany (double [] xs, double [] out, int component)
+	{
+		int segment = -1;
+		for (int j = 0; j < xs.length; j++)
+		{
+			double x = xs[j];
+			if (segment < 0 || x < lo[segment] || x > hi[segment]) segment = segmentFor (x);
+			out[j] = evalSegment (segment, component, x);
+		}
+	}
+
+
+	/**
+	 * @param segment the number of the segment
+	 * @param component the component to evaluate
+	 * @param x the parameter in function coordinates
+	 * @return the value computed from the coefficients of the segment
+	 */
+	public double evalSegment (int segment, int component, double x)
+	{
+		int block = segment * components + component;
+		double s = base[segment] + scale[segment] * (x - origin[segment]);
+		if (basis == Basis.CHEBYSHEV) return clenshaw (slab, offset[block], offset[block + 1], s);
+		else return horner (slab, offset[block], offset[block + 1], s);
+	}
+
+
+	/**
+	 * @param a array holding the coefficients
+	 * @param from index of the coefficient of T#0
+	 * @param to index following the last coefficient
+	 * @param x the parameter in spline coordinates
+	 * @return SIGMA a#k * T#k (x)
+	 */
+	public static double clenshaw (double [] a, int from, int to, double x)
+	{
+		if (to == from) return 0;
+		double twoX = 2 * x, b1 = 0, b2 = 0, b0;
+		for (int k = to - 1; k > from; k--)
+		{
+			b0 = a[k] + twoX * b1 - b2;										// b(k) = a(k) + 2*x*b(k+1) - b(k+2)
+			b2 = b1; b1 = b0;
+		}
+		return a[from] + x * b1 - b2;										// P(n) = a(0) + x*b(1) - b(2)
+	}
+
+	/**
+	 * @param a array holding the coefficients
+	 * @param from index of the constant coefficient
+	 * @param to index following the last coefficient
+	 * @param x the parameter in spline coordinates
+	 * @return SIGMA a#k * x^k
+	 */
+	public static double horner (double [] a, int from, int to, double x)
+	{
+		double result = 0;
+		for (int k = to - 1; k >= from; k--) result = result * x + a[k];
+		return result;
+	}
+
+
+	/*
+	 * construction from the storage format
+	 */
+
+
+	/**
+	 * @param profile the JSON tree of a spline as written by StorageFormat.express
+	 * @return the compiled form of the spline
+	 */
+	public static CompiledSpline compile (JsonSemantics.JsonObject profile)
+	{
+		List <SegmentRepresentation> segments = new ArrayList <> ();
+		JsonSemantics.JsonArray sections = (JsonSemantics.JsonArray) profile.getMemberCalled ("Sections");
+		for (JsonLowLevel.JsonValue section : sections) segments.add (segmentFrom ((JsonSemantics.JsonObject) section));
+		return new CompiledSpline (segments, SplineTool.getSplineMechanisms (profile));
+	}
+
+	/**
+	 * @param descriptor JSON object as written by StorageFormat.describeSplineSegment
+	 * @return the segment properties held in the object
+	 */
+	public static SegmentParameters segmentFrom (JsonSemantics.JsonObject descriptor)
+	{
+		SegmentParameters segment = new SegmentParameters ();
+		segment.lo = JsonTools.getValueFrom (descriptor, "lo");
+		segment.hi = JsonTools.getValueFrom (descriptor, "hi");
+		segment.unit = JsonTools.getValueFrom (descriptor, "unit");
+		segment.slope = JsonTools.getValueFrom (descriptor, "slope");
+		segment.delta = JsonTools.getValueFrom (descriptor, "delta");
+		segment.error = JsonTools.getValueFrom (descriptor, "error");
+
+		List < List <Double> > coefficients = new ArrayList <> ();
+		JsonSemantics.JsonArray components = JsonTools.getArrayFrom (descriptor, "coefficients");
+		for (int i = 0; i < components.size (); i++)
+		{ coefficients.add (JsonTools.toFloatList (JsonTools.toArray (components.get (i)))); }
+		segment.setCoefficients (coefficients);
+		return segment;
+	}
+
+
+}
@@ -220,9 +220,34 @@ class Spline <T> extends DerivativeApproximation <T>
 	 */
 	public Knot <T> locateSegmentFor (T x) throws RuntimeException
 	{
-		for (Knot <T> k : knots) { if (k.isInRange (x)) return k; }
+		int [] last = lastHit.get ();
+		if (last[0] < knots.size () && knots.get (last[0]).isInRange (x)) return knots.get (last[0]);
+
+		int found = searchFor (x);
+		if (found > 0 && knots.get (found).isInRange (x))
+		{ last[0] = found; return knots.get (found); }
+
+		for (Knot <T> k : knots) { if (k.isInRange (x)) return k; }		// knots not in ascending order
 		throw new RuntimeException ("Parameter falls above spline high limit");
 	}
+	final ThreadLocal <int[]> lastHit = ThreadLocal.withInitial (() -> new int[]{0});
+
+	/**
+	 * binary search of the knot list assumed in ascending order
+	 * @param x parameter to function
+	 * @return index of first knot with x &lt;= t#i, 0 when none
+	 */
+	int searchFor (T x)
+	{
+		int lo = 1, hi = knots.size () - 1, found = 0;
+		while (lo <= hi)
+		{
+			int mid = (lo + hi) >>> 1;
+			if (sm.lessThan (knots.get (mid).t (), x)) lo = mid + 1;
+			else { found = mid; hi = mid - 1; }
+		}
+		return found;
+	}
 
 
 	/* (non-Javadoc)
@@ -0,0 +1,124 @@
+package net.myorb.math.computational.splines;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * sorted breakpoint table resolving a parameter to the segment that covers it.
+ *  segments of equal width laid end to end are resolved by division, others by
+ *  binary search of the segment LO values; the last segment found by each thread
+ *  is tried first so monotone sweeps (plots) rarely search at all.
+ *  the answer matches a scan of the segments in list order for closed ranges
+ *  that meet only at their end points
+ * @author Michael Druckman
+ */
+public class SegmentIndex
+{
+
+
+	/**
+	 * @param segments the segment descriptions in list order
+	 */
+	public SegmentIndex (List <? extends SegmentRepresentation> segments)
+	{
+		int n = segments.size ();
+		Integer [] order = new Integer [n];
+		final double [] los = new double [n];
+
+		for (int i = 0; i < n; i++) { order[i] = i; los[i] = segments.get (i).getSegmentLo (); }
+		Arrays.sort (order, (a, b) -> los[a] != los[b] ? Double.compare (los[a], los[b]) : Integer.compare (a, b));
+
+		this.lo = new double [n]; this.hi = new double [n]; this.position = new int [n];
+		for (int k = 0; k < n; k++)
+		{
+			SegmentRepresentation s = segments.get (order[k]);
+			lo[k] = s.getSegmentLo (); hi[k] = s.getSegmentHi (); position[k] = order[k];
+		}
+
+		this.uniform = isUniform ();
+		this.width = n == 0 ? 0 : (hi[n-1] - lo[0]) / n;
+	}
+	protected double [] lo, hi;
+	protected int [] position;			// list position of each sorted entry
+	protected boolean uniform;
+	protected double width;
+
+
+	/**
+	 * @return TRUE when segments are contiguous and of equal width
+	 */
+	boolean isUniform ()
+	{
+		int n = lo.length;
+		if (n < 2) return false;
+		double w = hi[0] - lo[0], tolerance = Math.abs (w) * UNIFORM_TOLERANCE;
+		if (w <= 0) return false;
+		for (int k = 0; k < n; k++)
+		{
+			if (Math.abs ((hi[k] - lo[k]) - w) > tolerance) return false;
+			if (k > 0 && Math.abs (lo[k] - hi[k-1]) > tolerance) return false;
+		}
+		return true;
+	}
+	public static final double UNIFORM_TOLERANCE = 1E-9;
+
+
+	/**
+	 * @return count of segments in the index
+	 */
+	public int size () { return lo.length; }
+
+
+	/**
+	 * @param x the parameter to locate
+	 * @return the list position of the segment covering x, -1 for none
+	 */
+	public int find (double x)
+	{
+		int n = lo.length;
+		if (n == 0 || Double.isNaN (x)) return -1;
+
+		int [] last = lastHit.get ();
+		int k = last[0];
+		if (covers (k, x) && !covers (k - 1, x) && !covers (k + 1, x)) return position[k];
+
+		if (uniform)
+		{
+			k = (int) Math.floor ((x - lo[0]) / width);
+			k = Math.max (0, Math.min (n - 1, k));
+			while (k > 0 && x < lo[k]) k--;								// correct rounding of the division
+			while (k < n - 1 && x > hi[k]) k++;
+		}
+		else
+		{
+			int l = 0, h = n - 1; k = -1;								// last entry with lo <= x
+			while (l <= h)
+			{
+				int m = (l + h) >>> 1;
+				if (lo[m] <= x) { k = m; l = m + 1; } else h = m - 1;
+			}
+			if (k < 0) return -1;
+		}
+
+		while (covers (k - 1, x)) k--;										// entries sharing an end point
+		if (!covers (k, x)) return -1;
+		last[0] = k;
+
+		int first = k;														// list order decides shared ends
+		while (covers (++k, x)) if (position[k] < position[first]) first = k;
+		return position[first];
+	}
+	final ThreadLocal <int[]> lastHit = ThreadLocal.withInitial (() -> new int[]{0});
+
+	/**
+	 * @param k a sorted entry number
+	 * @param x the parameter to check
+	 * @return TRUE when the entry exists and its closed range holds x
+	 */
+	boolean covers (int k, double x)
+	{
+		return k >= 0 && k < lo.length && x >= lo[k] && x <= hi[k];
+	}
+
+
+}
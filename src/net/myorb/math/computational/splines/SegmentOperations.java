@@ -41,10 +41,29 @@ public class SegmentOperations <T> extends SegmentProperties <T> implements Spli
 	 */
 	public T eval (T x)
 	{
-		return findSegment (x).eval (x);
+		CompiledSpline compiled = getCompiledSpline ();
+		if (compiled == null) return findSegment (x).eval (x);
+		double[] results = new double[mgr.getComponentCount ()];
+		compiled.evalComponents (mgr.component (x, 0), results);
+		return mgr.construct (results);
 	}
 
 
+	/**
+	 * primitive form of the segments, rebuilt when segments are added
+	 * @return the compiled spline, NULL when the mechanisms have no primitive form
+	 */
+	public CompiledSpline getCompiledSpline ()
+	{
+		if (CompiledSpline.basisOf (spline) == null || segments.isEmpty ()) return null;
+		CompiledSpline current = compiled;
+		if (current == null || current.getSegmentCount () != segments.size ())
+		{ compiled = current = new CompiledSpline (segments, spline); }
+		return current;
+	}
+	protected volatile CompiledSpline compiled = null;
+
+
 	/**
 	 * find a segment descriptor that covers the parameter
 	 * @param x the parameter value to find a segment function for
@@ -56,7 +75,10 @@ public class SegmentOperations <T> extends SegmentProperties <T> implements Spli
 	{
 		SegmentFunction<T> f;
 		double p = mgr.component (x, 0);
-		for (int margin=0; margin<MARGINS; margin++)
+		int found = getSegmentIndex ().find (p);
+		if (found >= 0) return segments.get (found).getSegmentFunction ();
+
+		for (int margin=1; margin<MARGINS; margin++)
 		{
 			for (SegmentAbilities <T> segment : segments)
 			{ if ((f = segment.checkFor (p, margin)) != null) return f; }
@@ -65,6 +87,20 @@ public class SegmentOperations <T> extends SegmentProperties <T> implements Spli
 	}
 
 
+	/**
+	 * breakpoint index of the segment list, rebuilt when segments are added
+	 * @return the index for the current segment list
+	 */
+	public SegmentIndex getSegmentIndex ()
+	{
+		SegmentIndex current = index;
+		if (current == null || current.size () != segments.size ())
+		{ index = current = new SegmentIndex (segments); }
+		return current;
+	}
+	protected volatile SegmentIndex index = null;
+
+
 	/**
 	 * use the spline to compute the integral over a range
 	 * @param lo the lo end of integral range in function coordinates
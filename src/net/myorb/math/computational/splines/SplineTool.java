@@ -196,11 +196,23 @@ public class SplineTool <T>
 	 * @return a SplineMechanisms object constructed from the path
 	 */
 	public static SplineMechanisms getSplineMechanisms (JsonSemantics.JsonObject profile)
+	{
+		return getSplineMechanisms
+		(
+			JsonSemantics.getStringOrNull
+				(profile.getMemberCalled ("Interpreter"))
+		);
+	}
+
+
+	/**
+	 * @param path the class-path of the interpreter, NULL for the default
+	 * @return a SplineMechanisms object constructed from the path
+	 */
+	public static SplineMechanisms getSplineMechanisms (String path)
 	{
 		try
 		{
-			String path = JsonSemantics.getStringOrNull
-				(profile.getMemberCalled ("Interpreter"));
 			if (path == null) return new ChebyshevNodes ();
 			SplineMechanisms mechanisms = (SplineMechanisms)
 				Class.forName (path).newInstance ();
@@ -1,13 +1,19 @@
 
 package net.myorb.math.computational.splines;
 
+import net.myorb.math.expressions.ColumnarStorage;
 import net.myorb.math.expressions.tree.JsonBinding;
 import net.myorb.data.notations.json.JsonSemantics;
 
+import java.io.IOException;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+
+import java.util.ArrayList;
 import java.util.List;
 
 /**
- * provide JSON representation for a function spline
+ * provide JSON and columnar representations for a function spline
  * @author Michael Druckman
  */
 public class StorageFormat
@@ -85,7 +91,7 @@ public class StorageFormat
 		tree.addMemberNamed ("Parameter", new JsonSemantics.JsonString (parameter));
 		tree.addMemberNamed ("Description", new JsonSemantics.JsonString (description));
 		tree.addMemberNamed ("NodeType", new JsonSemantics.JsonString (JsonBinding.NodeTypes.Sectioned.toString ()));
-		tree.addMemberNamed ("Interpreter", new JsonSemantics.JsonString (segments.getInterpretation ()));
+		tree.addMemberNamed ("Interpreter", JsonSemantics.stringOrNull (segments.getInterpretation ()));
 		tree.addMemberNamed ("Sections", describe (segments));
 		tree.setOrderedMembersList (EXPRESS_MEMBERS);
 		return tree;
@@ -93,5 +99,123 @@ public class StorageFormat
 	public static final String[] EXPRESS_MEMBERS = {"Name", "Parameter", "Description", "Interpreter", "NodeType", "Sections"};
 
 
+	/*
+	 * columnar form: profile members are attributes, segment properties are
+	 * columns with one element per segment, and the coefficients of all segments
+	 * are one slab indexed by an offsets column (segment * components + component)
+	 */
+
+
+	/**
+	 * @param name the name to give to the spline function
+	 * @param parameter the name for the parameter to the function (indicative of type)
+	 * @param description the text of a description for the defined function
+	 * @param segments a representation for the elements of the spline
+	 * @param compression the compression applied to the offsets and coefficients columns
+	 * @return a container writer holding the spline
+	 */
+	public static ColumnarStorage.Writer express
+		(
+			String name, String parameter, String description,
+			Representation segments, ColumnarStorage.Compression compression
+		)
+	{
+		List <SegmentRepresentation> list = segments.getSegmentList ();
+		int n = list == null ? 0 : list.size (), components = n == 0 ? 0 : list.get (0).getComponentCount ();
+
+		double [][] properties = new double [SEGMENT_COLUMNS.length][n];
+		int [] offsets = new int [n * components + 1]; List <Double> slab = new ArrayList <> ();
+		for (int i = 0; i < n; i++)
+		{
+			SegmentRepresentation s = list.get (i);
+			properties[0][i] = s.getSegmentLo (); properties[1][i] = s.getSegmentHi ();
+			properties[2][i] = s.getSegmentDelta (); properties[3][i] = s.getSegmentError ();
+			properties[4][i] = s.getSegmentSlope (); properties[5][i] = s.getUnitSlope ();
+
+			for (int c = 0; c < components; c++)
+			{
+				offsets[i * components + c] = slab.size ();
+				List <Double> a = s.getCoefficientsFor (c);
+				if (a != null) slab.addAll (a);
+			}
+		}
+		offsets[n * components] = slab.size ();
+
+		double [] coefficients = new double [slab.size ()];
+		for (int k = 0; k < coefficients.length; k++) coefficients[k] = slab.get (k);
+
+		ColumnarStorage.Writer writer = new ColumnarStorage.Writer ().setAttribute (KIND, SPLINE)
+			.setAttribute ("Name", name).setAttribute ("Parameter", parameter)
+			.setAttribute ("Description", description).setAttribute ("Interpreter", segments.getInterpretation ())
+			.setAttribute ("NodeType", JsonBinding.NodeTypes.Sectioned).setAttribute ("Components", components);
+		for (int p = 0; p < SEGMENT_COLUMNS.length; p++) writer.addDoubles (SEGMENT_COLUMNS[p], properties[p]);
+		writer.addIntegers ("offsets", offsets, compression);
+		writer.addDoubles ("coefficients", coefficients, compression);
+		return writer;
+	}
+	public static final String[] SEGMENT_COLUMNS = {"lo", "hi", "delta", "error", "slope", "unit"};
+	public static final String KIND = "Kind", SPLINE = "Spline";
+
+
+	/**
+	 * @param container a container written from the columnar form
+	 * @return the segments of the spline
+	 * @throws IOException for errors reading the container
+	 * @throws RuntimeException when the container does not hold a spline
+	 */
+	public static List <SegmentRepresentation> segmentsFrom (ColumnarStorage.Reader container) throws IOException
+	{
+		if (!SPLINE.equals (container.getAttribute (KIND)))
+		{ throw new RuntimeException ("Container does not hold a spline"); }
+		int components = container.getIntegerAttribute ("Components");
+		DoubleBuffer [] properties = new DoubleBuffer [SEGMENT_COLUMNS.length];
+		for (int p = 0; p < SEGMENT_COLUMNS.length; p++) properties[p] = container.doubles (SEGMENT_COLUMNS[p]);
+		DoubleBuffer slab = container.doubles ("coefficients");
+		IntBuffer offsets = container.integers ("offsets");
+
+		List <SegmentRepresentation> segments = new ArrayList <> ();
+		for (int i = 0; i < properties[0].limit (); i++)
+		{
+			SegmentParameters segment = new SegmentParameters ();
+			segment.lo = properties[0].get (i); segment.hi = properties[1].get (i);
+			segment.delta = properties[2].get (i); segment.error = properties[3].get (i);
+			segment.slope = properties[4].get (i); segment.unit = properties[5].get (i);
+
+			List < List <Double> > coefficients = new ArrayList <> ();
+			for (int c = 0; c < components; c++)
+			{
+				List <Double> a = new ArrayList <> ();
+				int from = offsets.get (i * components + c), to = offsets.get (i * components + c + 1);
+				for (int k = from; k < to; k++) a.add (slab.get (k));
+				coefficients.add (a);
+			}
+			segment.setCoefficients (coefficients);
+			segments.add (segment);
+		}
+		return segments;
+	}
+
+
+	/**
+	 * @param container a container written from the columnar form
+	 * @return JSON expression tree representation of the spline
+	 * @throws IOException for errors reading the container
+	 */
+	public static JsonSemantics.JsonValue express (ColumnarStorage.Reader container) throws IOException
+	{
+		final List <SegmentRepresentation> segments = segmentsFrom (container);
+		final String interpreter = container.getAttribute ("Interpreter");
+		return express
+		(
+			container.getAttribute ("Name"), container.getAttribute ("Parameter"), container.getAttribute ("Description"),
+			new Representation ()
+			{
+				public List <SegmentRepresentation> getSegmentList () { return segments; }
+				public String getInterpretation () { return interpreter; }
+			}
+		);
+	}
+
+
 }
 
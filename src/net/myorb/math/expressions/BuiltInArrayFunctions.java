@@ -271,6 +271,24 @@ public class BuiltInArrayFunctions<T> extends BuiltInFunctions<T>
 	}
 
 
+	/**
+	 * accelerated sum of series terms held in an array
+	 * @param values the terms of the series in order
+	 * @param method the acceleration transform to apply
+	 * @return the accelerated sum
+	 */
+	public ValueManager.GenericValue accelerate (ValueManager.GenericValue values, SeriesAcceleration.Method method)
+	{
+		SeriesAcceleration<T> accelerator = SeriesAcceleration.forMethod (method, spaceManager);
+		for (T item : valueManager.toArray (values))
+		{
+			accelerator.accept (item);
+			if (accelerator.isComplete ()) break;
+		}
+		return valueManager.newDiscreteValue (accelerator.getEstimate ());
+	}
+
+
 	/**
 	 * get the length of an array
 	 * @param values the parameter passed to the function
@@ -289,11 +307,12 @@ public class BuiltInArrayFunctions<T> extends BuiltInFunctions<T>
 	 */
 	public static abstract class AbstractParameterizedConsumer
 			extends AbstractParameterizedFunction
-			implements IterationConsumer
+			implements IterationConsumer, IterationConsumer.Delegating
 	{
 
 		protected AbstractParameterizedConsumer (String name)
 		{ super (name); iterationConsumer = getIterationConsumer (); }
+		public IterationConsumer getDelegate () { return iterationConsumer; }
 		public void accept (GenericValue value) { iterationConsumer.accept (value); }
 		public void setIterationValue (GenericValue value) { iterationConsumer.setIterationValue (value); }
 		public GenericValue getCalculatedResult () { return iterationConsumer.getCalculatedResult (); }
@@ -365,6 +384,33 @@ public class BuiltInArrayFunctions<T> extends BuiltInFunctions<T>
 			"Product of items of an array, traditional capital PI notation"
 		);
 		into.add
+		(
+			new AbstractParameterizedConsumer (WYNN_OPERATOR)
+			{
+				public ValueManager.GenericValue execute (ValueManager.GenericValue parameters) { return accelerate (parameters, SeriesAcceleration.Method.WYNN); }
+				public IterationConsumer getIterationConsumer () { return IterationConsumerImplementations.getAcceleratedIterationConsumer (SeriesAcceleration.Method.WYNN, spaceManager); }
+			},
+			"Sum of series terms accelerated by the Wynn epsilon algorithm, range ends at convergence"
+		);
+		into.add
+		(
+			new AbstractParameterizedConsumer (LEVIN_OPERATOR)
+			{
+				public ValueManager.GenericValue execute (ValueManager.GenericValue parameters) { return accelerate (parameters, SeriesAcceleration.Method.LEVIN); }
+				public IterationConsumer getIterationConsumer () { return IterationConsumerImplementations.getAcceleratedIterationConsumer (SeriesAcceleration.Method.LEVIN, spaceManager); }
+			},
+			"Sum of series terms accelerated by the Levin u transform, range ends at convergence"
+		);
+		into.add
+		(
+			new AbstractParameterizedConsumer (RICHARDSON_OPERATOR)
+			{
+				public ValueManager.GenericValue execute (ValueManager.GenericValue parameters) { return accelerate (parameters, SeriesAcceleration.Method.RICHARDSON); }
+				public IterationConsumer getIterationConsumer () { return IterationConsumerImplementations.getAcceleratedIterationConsumer (SeriesAcceleration.Method.RICHARDSON, spaceManager); }
+			},
+			"Sum of series terms accelerated by Richardson extrapolation at doubling term counts, range ends at convergence"
+		);
+		into.add
 		(
 			new AbstractParameterizedFunction (MAX_FUNCTION)
 			{
@@ -0,0 +1,539 @@
+package net.myorb.math.expressions;
+
+import java.io.File;
+import java.io.Closeable;
+import java.io.IOException;
+
+import java.nio.ByteOrder;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.DoubleBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+import java.util.LinkedHashMap;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * binary container of typed columns.
+ *  a header of named string attributes and a column directory is followed by the columns,
+ *  each a little endian array of one type starting on an 8 byte boundary.  a column may be
+ *  deflated; other columns are mapped on first access and read in place, so a reader pays
+ *  only for the columns it touches and large tables load at the speed of the file system
+ *
+ *		MAGIC, VERSION, attribute count, column count, header length
+ *		attributes:	name, value
+ *		directory:	name, type, compression, element count, offset, stored length
+ *		columns
+ *
+ * @author Michael Druckman
+ */
+public class ColumnarStorage
+{
+
+
+	/**
+	 * the element types of columns with the width of an element in bytes
+	 */
+	public enum ColumnType
+	{
+		DOUBLE (8),		// IEEE double
+		COMPLEX (16),	// real and imaginary parts interleaved
+		INTEGER (4),	// 32 bit signed
+		TEXT (1);		// UTF-8 bytes
+
+		ColumnType (int width) { this.width = width; }
+		public int getWidth () { return width; }
+		int width;
+	}
+
+	/**
+	 * the encodings of column data
+	 */
+	public enum Compression {NONE, DEFLATE}
+
+
+	/**
+	 * file name extension identifying the container
+	 */
+	public static final String EXTENSION = ".mcol";
+
+	/**
+	 * @param file a file to be read or written
+	 * @return TRUE when the name identifies a container
+	 */
+	public static boolean isColumnar (File file) { return file.getName ().toLowerCase ().endsWith (EXTENSION); }
+
+	static final long MAGIC = 0x314E49424C4F434DL;			// MCOLBIN1 as little endian bytes
+	static final int VERSION = 1, PREFIX = 8 + 4 * 4, BLOCK = 1 << 16;
+
+
+	/**
+	 * directory entry of a column
+	 */
+	public static class Column
+	{
+		Column (String name, ColumnType type, Compression compression, long elements)
+		{
+			this.name = name; this.type = type;
+			this.compression = compression; this.elements = elements;
+		}
+		protected ColumnType type; protected Compression compression;
+		protected long elements, offset, stored;
+		protected String name;
+
+		public String getName () { return name; }
+		public ColumnType getType () { return type; }
+		public Compression getCompression () { return compression; }
+		public long getElementCount () { return elements; }
+		public long getSize () { return elements * type.width; }
+	}
+
+
+	/*
+	 * writer
+	 */
+
+
+	/**
+	 * collect attributes and columns then write the container
+	 */
+	public static class Writer
+	{
+
+		/**
+		 * @param name the name of the attribute
+		 * @param value the value of the attribute, NULL leaves the attribute absent
+		 * @return THIS writer
+		 */
+		public Writer setAttribute (String name, Object value)
+		{
+			if (value == null) attributes.remove (name);
+			else attributes.put (name, value.toString ());
+			return this;
+		}
+		protected Map <String, String> attributes = new LinkedHashMap <> ();
+
+		/**
+		 * @param name the name of the column
+		 * @param values the elements of the column
+		 * @param compression the encoding of the column data
+		 * @return THIS writer
+		 */
+		public Writer addDoubles (String name, double [] values, Compression compression)
+		{
+			return add (name, ColumnType.DOUBLE, compression, values.length, (b, i) -> b.putDouble (values[(int) i]));
+		}
+		public Writer addDoubles (String name, double [] values) { return addDoubles (name, values, Compression.NONE); }
+
+		/**
+		 * @param name the name of the column
+		 * @param re the real parts of the elements
+		 * @param im the imaginary parts of the elements, same length as re
+		 * @param compression the encoding of the column data
+		 * @return THIS writer
+		 */
+		public Writer addComplex (String name, double [] re, double [] im, Compression compression)
+		{
+			if (re.length != im.length) throw new RuntimeException ("Complex parts differ in length");
+			return add (name, ColumnType.COMPLEX, compression, re.length, (b, i) -> b.putDouble (re[(int) i]).putDouble (im[(int) i]));
+		}
+
+		/**
+		 * @param name the name of the column
+		 * @param values the elements of the column
+		 * @param compression the encoding of the column data
+		 * @return THIS writer
+		 */
+		public Writer addIntegers (String name, int [] values, Compression compression)
+		{
+			return add (name, ColumnType.INTEGER, compression, values.length, (b, i) -> b.putInt (values[(int) i]));
+		}
+
+		/**
+		 * @param name the name of the column
+		 * @param text the text held by the column
+		 * @param compression the encoding of the column data
+		 * @return THIS writer
+		 */
+		public Writer addText (String name, String text, Compression compression)
+		{
+			byte [] bytes = text.getBytes (StandardCharsets.UTF_8);
+			return add (name, ColumnType.TEXT, compression, bytes.length, (b, i) -> b.put (bytes[(int) i]));
+		}
+
+		Writer add (String name, ColumnType type, Compression compression, long elements, Element element)
+		{
+			for (Column c : columns) if (c.name.equals (name)) throw new RuntimeException ("Duplicate column: " + name);
+			columns.add (new Column (name, type, compression, elements)); sources.add (element);
+			return this;
+		}
+		protected List <Column> columns = new ArrayList <> ();
+		protected List <Element> sources = new ArrayList <> ();
+
+
+		/**
+		 * @param file the file to be written
+		 * @throws IOException for errors writing the file
+		 */
+		public void write (File file) throws IOException
+		{
+			List <byte[]> deflated = new ArrayList <> ();
+			for (int i = 0; i < columns.size (); i++)
+			{
+				Column c = columns.get (i);
+				byte [] packed = c.compression == Compression.DEFLATE ? deflate (c, sources.get (i)) : null;
+				c.stored = packed == null ? c.getSize () : packed.length;
+				deflated.add (packed);
+			}
+
+			ByteBuffer header = header ();
+			try (FileChannel channel = FileChannel.open
+					(
+						file.toPath (), StandardOpenOption.CREATE,
+						StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING
+					)
+				)
+			{
+				drain (header, channel);
+				for (int i = 0; i < columns.size (); i++)
+				{
+					Column c = columns.get (i);
+					channel.position (c.offset);
+					if (deflated.get (i) != null) drain (ByteBuffer.wrap (deflated.get (i)), channel);
+					else stream (c, sources.get (i), channel);
+				}
+			}
+		}
+
+		/**
+		 * lay out the columns and encode the header
+		 * @return the header ready to be written
+		 */
+		ByteBuffer header ()
+		{
+			List <byte[]> names = new ArrayList <> ();
+			int length = PREFIX;
+			for (Map.Entry <String, String> a : attributes.entrySet ())
+			{
+				byte [] n = utf (a.getKey ()), v = utf (a.getValue ());
+				names.add (n); names.add (v); length += 8 + n.length + v.length;
+			}
+			for (Column c : columns)
+			{
+				byte [] n = utf (c.name);
+				names.add (n); length += 4 + n.length + 2 + 3 * 8;
+			}
+			length = align (length);
+
+			long offset = length;
+			for (Column c : columns) { c.offset = offset; offset = align (offset + c.stored); }
+
+			ByteBuffer header = ByteBuffer.allocate (length).order (ByteOrder.LITTLE_ENDIAN);
+			header.putLong (MAGIC).putInt (VERSION).putInt (attributes.size ()).putInt (columns.size ()).putInt (length);
+			int next = 0;
+			for (int i = 0; i < attributes.size (); i++) { putUTF (header, names.get (next++)); putUTF (header, names.get (next++)); }
+			for (Column c : columns)
+			{
+				putUTF (header, names.get (next++));
+				header.put ((byte) c.type.ordinal ()).put ((byte) c.compression.ordinal ());
+				header.putLong (c.elements).putLong (c.offset).putLong (c.stored);
+			}
+			header.position (0);
+			return header;
+		}
+
+		/**
+		 * encode a column through a block buffer
+		 * @param column the column to be written
+		 * @param source the elements of the column
+		 * @param channel the destination
+		 * @throws IOException for errors writing the file
+		 */
+		void stream (Column column, Element source, FileChannel channel) throws IOException
+		{
+			ByteBuffer buffer = ByteBuffer.allocate (BLOCK).order (ByteOrder.LITTLE_ENDIAN);
+			for (long i = 0; i < column.elements; i++)
+			{
+				if (buffer.remaining () < column.type.width) { buffer.flip (); drain (buffer, channel); buffer.clear (); }
+				source.put (buffer, i);
+			}
+			buffer.flip (); drain (buffer, channel);
+		}
+
+		/**
+		 * @param column the column to be compressed
+		 * @param source the elements of the column
+		 * @return the deflated encoding of the column
+		 */
+		byte [] deflate (Column column, Element source)
+		{
+			ByteBuffer raw = ByteBuffer.allocate ((int) column.getSize ()).order (ByteOrder.LITTLE_ENDIAN);
+			for (long i = 0; i < column.elements; i++) source.put (raw, i);
+
+			Deflater deflater = new Deflater ();
+			deflater.setInput (raw.array ()); deflater.finish ();
+			ByteBuffer packed = ByteBuffer.allocate (Math.max (64, raw.capacity () / 2));
+			byte [] block = new byte [BLOCK];
+			while (!deflater.finished ())
+			{
+				int n = deflater.deflate (block);
+				if (packed.remaining () < n) packed = grow (packed, n);
+				packed.put (block, 0, n);
+			}
+			deflater.end ();
+
+			byte [] result = new byte [packed.position ()];
+			packed.flip (); packed.get (result);
+			return result;
+		}
+
+	}
+
+	/**
+	 * encoder of the element at an index
+	 */
+	interface Element { void put (ByteBuffer buffer, long index); }
+
+
+	/*
+	 * reader
+	 */
+
+
+	/**
+	 * lazy access to the columns of a container
+	 */
+	public static class Reader implements Closeable
+	{
+
+		/**
+		 * @param file the container to be read
+		 * @throws IOException for errors reading the file or a file that is not a container
+		 */
+		public Reader (File file) throws IOException
+		{
+			this.channel = FileChannel.open (file.toPath (), StandardOpenOption.READ);
+			try { readHeader (file); }
+			catch (IOException | RuntimeException e) { channel.close (); throw e; }
+		}
+		protected FileChannel channel;
+
+		void readHeader (File file) throws IOException
+		{
+			ByteBuffer prefix = read (0, PREFIX);
+			if (prefix.getLong () != MAGIC || prefix.getInt () != VERSION)
+			{ throw new IOException ("Not a columnar container: " + file); }
+			int attributeCount = prefix.getInt (), columnCount = prefix.getInt (), length = prefix.getInt ();
+
+			ByteBuffer header = read (PREFIX, length - PREFIX);
+			for (int i = 0; i < attributeCount; i++) attributes.put (getUTF (header), getUTF (header));
+			for (int i = 0; i < columnCount; i++)
+			{
+				String name = getUTF (header);
+				ColumnType type = ColumnType.values () [header.get ()];
+				Compression compression = Compression.values () [header.get ()];
+				Column c = new Column (name, type, compression, header.getLong ());
+				c.offset = header.getLong (); c.stored = header.getLong ();
+				if (c.offset + c.stored > channel.size ()) throw new IOException ("Truncated container: " + file);
+				columns.put (name, c);
+			}
+		}
+		protected Map <String, String> attributes = new LinkedHashMap <> ();
+		protected Map <String, Column> columns = new LinkedHashMap <> ();
+
+		ByteBuffer read (long position, int length) throws IOException
+		{
+			ByteBuffer buffer = ByteBuffer.allocate (length).order (ByteOrder.LITTLE_ENDIAN);
+			while (buffer.hasRemaining ())
+			{ if (channel.read (buffer, position + buffer.position ()) < 0) throw new IOException ("Truncated container"); }
+			buffer.flip ();
+			return buffer;
+		}
+
+
+		/**
+		 * @param name the name of an attribute
+		 * @return the value of the attribute, NULL when absent
+		 */
+		public String getAttribute (String name) { return attributes.get (name); }
+
+		/**
+		 * @param name the name of an attribute
+		 * @return the value of the attribute as an integer
+		 * @throws RuntimeException when the attribute is absent
+		 */
+		public int getIntegerAttribute (String name)
+		{
+			String value = attributes.get (name);
+			if (value == null) throw new RuntimeException ("Container attribute missing: " + name);
+			return Integer.parseInt (value);
+		}
+
+		/**
+		 * @return the attributes of the container in order written
+		 */
+		public Map <String, String> getAttributes () { return attributes; }
+
+		/**
+		 * @return the names of the columns in order written
+		 */
+		public List <String> getColumnNames () { return new ArrayList <> (columns.keySet ()); }
+
+		/**
+		 * @param name the name of a column
+		 * @return the directory entry for the column
+		 * @throws RuntimeException when the column is absent
+		 */
+		public Column getColumn (String name)
+		{
+			Column c = columns.get (name);
+			if (c == null) throw new RuntimeException ("Container column missing: " + name);
+			return c;
+		}
+
+
+		/**
+		 * @param name the name of a DOUBLE column
+		 * @return random access to the elements
+		 * @throws IOException for errors reading the file
+		 */
+		public DoubleBuffer doubles (String name) throws IOException
+		{ return bytesOf (name, ColumnType.DOUBLE).asDoubleBuffer (); }
+
+		/**
+		 * @param name the name of a COMPLEX column
+		 * @return random access to real and imaginary parts, element k at 2k and 2k+1
+		 * @throws IOException for errors reading the file
+		 */
+		public DoubleBuffer complex (String name) throws IOException
+		{ return bytesOf (name, ColumnType.COMPLEX).asDoubleBuffer (); }
+
+		/**
+		 * @param name the name of an INTEGER column
+		 * @return random access to the elements
+		 * @throws IOException for errors reading the file
+		 */
+		public IntBuffer integers (String name) throws IOException
+		{ return bytesOf (name, ColumnType.INTEGER).asIntBuffer (); }
+
+		/**
+		 * @param name the name of a TEXT column
+		 * @return the text held by the column
+		 * @throws IOException for errors reading the file
+		 */
+		public String text (String name) throws IOException
+		{
+			ByteBuffer bytes = bytesOf (name, ColumnType.TEXT);
+			byte [] text = new byte [bytes.remaining ()]; bytes.get (text);
+			return new String (text, StandardCharsets.UTF_8);
+		}
+
+		/**
+		 * @param name the name of a DOUBLE column
+		 * @return a copy of the elements
+		 * @throws IOException for errors reading the file
+		 */
+		public double [] toArray (String name) throws IOException
+		{
+			DoubleBuffer b = doubles (name);
+			double [] values = new double [b.remaining ()]; b.get (values);
+			return values;
+		}
+
+
+		/**
+		 * map a column on first access, inflate a compressed column
+		 * @param name the name of the column
+		 * @param type the type expected for the column
+		 * @return a little endian view of the column data
+		 * @throws IOException for errors reading the file
+		 */
+		ByteBuffer bytesOf (String name, ColumnType type) throws IOException
+		{
+			Column c = getColumn (name);
+			if (c.type != type) throw new RuntimeException ("Column " + name + " holds " + c.type + " not " + type);
+			if (c.getSize () > Integer.MAX_VALUE) throw new IOException ("Column too large to map: " + name);
+
+			ByteBuffer data = loaded.get (name);
+			if (data == null)
+			{
+				ByteBuffer stored = c.stored == 0 ? ByteBuffer.allocate (0) :
+					channel.map (FileChannel.MapMode.READ_ONLY, c.offset, c.stored);
+				data = c.compression == Compression.DEFLATE ? inflate (c, stored) : stored;
+				loaded.put (name, data);
+			}
+			return data.duplicate ().order (ByteOrder.LITTLE_ENDIAN);
+		}
+		protected Map <String, ByteBuffer> loaded = new HashMap <> ();
+
+		ByteBuffer inflate (Column column, ByteBuffer stored) throws IOException
+		{
+			byte [] packed = new byte [stored.remaining ()]; stored.get (packed);
+			byte [] raw = new byte [(int) column.getSize ()];
+			Inflater inflater = new Inflater ();
+
+			try
+			{
+				inflater.setInput (packed);
+				for (int n = 0; n < raw.length && !inflater.finished (); )
+				{
+					int k = inflater.inflate (raw, n, raw.length - n);
+					if (k == 0 && (inflater.needsInput () || inflater.needsDictionary ())) break;
+					n += k;
+				}
+				if (inflater.getTotalOut () != raw.length) throw new IOException ("Corrupt column: " + column.name);
+			}
+			catch (DataFormatException e) { throw new IOException ("Corrupt column: " + column.name, e); }
+			finally { inflater.end (); }
+
+			return ByteBuffer.wrap (raw);
+		}
+
+
+		/* (non-Javadoc)
+		 * @see java.io.Closeable#close()
+		 */
+		public void close () throws IOException { channel.close (); }
+
+	}
+
+
+	/*
+	 * encoding helpers
+	 */
+
+
+	static byte [] utf (String s) { return s.getBytes (StandardCharsets.UTF_8); }
+	static void putUTF (ByteBuffer b, byte [] s) { b.putInt (s.length).put (s); }
+	static String getUTF (ByteBuffer b)
+	{
+		byte [] s = new byte [b.getInt ()]; b.get (s);
+		return new String (s, StandardCharsets.UTF_8);
+	}
+
+	static int align (int n) { return (n + 7) & ~7; }
+	static long align (long n) { return (n + 7) & ~7L; }
+
+	static ByteBuffer grow (ByteBuffer b, int needed)
+	{
+		ByteBuffer larger = ByteBuffer.allocate (Math.max (2 * b.capacity (), b.position () + needed));
+		b.flip (); larger.put (b);
+		return larger;
+	}
+
+	static void drain (ByteBuffer b, FileChannel channel) throws IOException
+	{
+		while (b.hasRemaining ()) channel.write (b);
+	}
+
+
+}
@@ -2,17 +2,22 @@
 package net.myorb.math.expressions;
 
 import net.myorb.math.expressions.evaluationstates.Environment;
+import net.myorb.math.expressions.managers.ExpressionFloatingFieldManager;
+import net.myorb.math.expressions.managers.ExpressionComplexFieldManager;
+import net.myorb.math.complexnumbers.ComplexValue;
 import net.myorb.math.matrices.*;
+import net.myorb.math.SpaceManager;
 
 import java.io.FileWriter;
 import java.io.IOException;
-import java.io.BufferedReader;
 import java.io.PrintStream;
-import java.io.FileReader;
 import java.io.File;
 
+import java.nio.DoubleBuffer;
+
 import java.util.StringTokenizer;
 import java.util.ArrayList;
+import java.util.List;
 
 /**
  * provide data import mechanisms
@@ -47,6 +52,7 @@ public class DataIO<T>
 		try
 		{
 			File destination = new File ("data/" + filepath);
+			if (ColumnarStorage.isColumnar (destination)) { writeColumns (destination, m); return; }
 			FileWriter writer = new FileWriter (destination);
 
 			for (int r = 1; r <= m.rowCount(); r++)
@@ -89,9 +95,12 @@ public class DataIO<T>
 		out.println ("Import from file:  " + source.getAbsolutePath ());
 		out.println ("Import to matrix:  " + matrixName);
 
-		Matrix<T> data = read (source);
+		NumericTableReader<T> reader = new NumericTableReader<T> (spaceManager);
+		boolean columnar = ColumnarStorage.isColumnar (source);
+		Matrix<T> data = columnar ? readColumns (source) : read (source, reader);
 		out.println (" Columns per row:  " + data.columnCount ());
 		out.println ("       Rows read:  " + data.rowCount ());
+		if (!columnar) out.println (" Rows per second:  " + reader.getRowsPerSecond () + (reader.isFromCache () ? " (binary sidecar)" : ""));
 
 		environment.setSymbol (matrixName, new ValueManager<T>().newMatrix (data));
 
@@ -108,40 +117,125 @@ public class DataIO<T>
 	 * @param f the file to be read
 	 * @return the matrix read
 	 */
-	@SuppressWarnings("resource")
 	public Matrix<T> read (File f)
 	{
-		String line; int rows = 1, cols;
-		ArrayList<T> list = new ArrayList<T>();
-		BufferedReader reader = null;
+		return read (f, new NumericTableReader<T> (spaceManager));
+	}
 
+	/**
+	 * read data from tab delimited file
+	 * @param f the file to be read
+	 * @param reader the reader that will hold statistics of the read
+	 * @return the matrix read
+	 */
+	public Matrix<T> read (File f, NumericTableReader<T> reader)
+	{
 		try
 		{
-			reader = new BufferedReader (new FileReader (f));
-			if ((line = reader.readLine ()) == null)
-			{ throw new RuntimeException ("File is empty"); }
-			else cols = parse (line, list);
-
-			int c;
-			while ((line = reader.readLine ()) != null)
-			{
-				if ((c = parse (line, list)) == 0) continue;
-				if (c != cols) throw new RuntimeException ("Inconsistant row size");
-				rows++;
-			}
-			reader.close ();
+			return reader.read (f);
 		}
 		catch (Exception e)
 		{
 			e.printStackTrace();
-			try { reader.close (); } catch (IOException x) { }
 			throw new RuntimeException ("File reader failed");
 		}
-		
-		return new Matrix<T> (rows, cols, list, spaceManager);
 	}
 
 
+	/*
+	 * columnar container, one container column per matrix column
+	 */
+
+
+	/**
+	 * write matrix to a columnar container
+	 * @param destination the container file
+	 * @param m the matrix to write
+	 * @throws IOException for errors writing the file
+	 */
+	public void writeColumns (File destination, Matrix<T> m) throws IOException
+	{
+		boolean complex = isComplex ();
+		int rows = m.rowCount (), cols = m.columnCount ();
+
+		ColumnarStorage.Writer writer = new ColumnarStorage.Writer ()
+			.setAttribute (KIND, MATRIX).setAttribute (FIELD, complex ? COMPLEX : REAL)
+			.setAttribute (ROWS, rows).setAttribute (COLUMNS, cols);
+
+		for (int c = 1; c <= cols; c++)
+		{
+			double [] re = new double [rows], im = new double [complex ? rows : 0];
+			for (int r = 1; r <= rows; r++)
+			{
+				T value = m.get (r, c);
+				if (!complex) { re[r-1] = spaceManager.convertToDouble (value); continue; }
+				ComplexValue<?> z = (ComplexValue<?>) value;
+				re[r-1] = ((Number) z.Re ()).doubleValue (); im[r-1] = ((Number) z.Im ()).doubleValue ();
+			}
+			if (complex) writer.addComplex (Integer.toString (c), re, im, ColumnarStorage.Compression.NONE);
+			else writer.addDoubles (Integer.toString (c), re);
+		}
+
+		writer.write (destination);
+	}
+
+	/**
+	 * read matrix from a columnar container
+	 * @param source the container file
+	 * @return the matrix read
+	 */
+	@SuppressWarnings("unchecked")
+	public Matrix<T> readColumns (File source)
+	{
+		boolean complex = isComplex ();
+		try (ColumnarStorage.Reader reader = new ColumnarStorage.Reader (source))
+		{
+			if (!MATRIX.equals (reader.getAttribute (KIND)) || !(complex ? COMPLEX : REAL).equals (reader.getAttribute (FIELD)))
+			{ throw new RuntimeException ("Container does not hold a matrix of " + (complex ? COMPLEX : REAL)); }
+			int rows = reader.getIntegerAttribute (ROWS), cols = reader.getIntegerAttribute (COLUMNS);
+
+			if (!complex)
+			{
+				double [] cells = new double [rows * cols];
+				for (int c = 0; c < cols; c++)
+				{
+					DoubleBuffer column = reader.doubles (Integer.toString (c + 1));
+					for (int r = 0; r < rows; r++) cells[r * cols + c] = column.get (r);
+				}
+				return (Matrix<T>) (Object) new DoubleMatrix (rows, cols, cells, (SpaceManager<Double>) (Object) spaceManager);
+			}
+
+			SpaceManager<Double> parts = (SpaceManager<Double>) spaceManager.getComponentManager ();
+			List<T> cells = new ArrayList<T> (rows * cols);
+			for (int i = rows * cols; i > 0; i--) cells.add (null);
+			for (int c = 0; c < cols; c++)
+			{
+				DoubleBuffer column = reader.complex (Integer.toString (c + 1));
+				for (int r = 0; r < rows; r++)
+				{ cells.set (r * cols + c, (T) new ComplexValue<Double> (column.get (2*r), column.get (2*r + 1), parts)); }
+			}
+			return new Matrix<T> (rows, cols, cells, spaceManager);
+		}
+		catch (IOException e)
+		{
+			throw new RuntimeException ("Container read failed", e);
+		}
+	}
+
+	/**
+	 * @return TRUE for the Complex field, FALSE for the Real field
+	 * @throws RuntimeException for fields without a columnar form
+	 */
+	boolean isComplex ()
+	{
+		if (spaceManager instanceof ExpressionComplexFieldManager) return true;
+		if (spaceManager instanceof ExpressionFloatingFieldManager) return false;
+		throw new RuntimeException ("Columnar containers hold Real and Complex matrices only");
+	}
+	public static final String KIND = "Kind", MATRIX = "Matrix", FIELD = "Field",
+			REAL = "Real", COMPLEX = "Complex", ROWS = "Rows", COLUMNS = "Columns";
+
+
 	/**
 	 * parse column value from a text line
 	 * @param line the line of text to be parsed
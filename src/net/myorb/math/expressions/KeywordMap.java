@@ -998,6 +998,40 @@ public class KeywordMap<T> extends EnvironmentalUtilities<T>
 	}
 
 
+	/**
+	 * select execution engine for function
+	 * @return a keyword command for the ENGINE keyword
+	 */
+	public KeywordCommand constructEngineKeywordCommand ()
+	{
+		return new KeywordCommand ()
+		{
+			public String describe ()
+			{ return "Select execution engine (INTERPRETER, TREE, PROGRAM, BYTECODE) for function"; }
+
+			public void execute (CommandSequence tokens)
+			{ selectExecutionEngine (tokens); }
+		};
+	}
+
+
+	/**
+	 * select multi-dimensional integration engine
+	 * @return a keyword command for the CUBATURE keyword
+	 */
+	public KeywordCommand constructCubatureKeywordCommand ()
+	{
+		return new KeywordCommand ()
+		{
+			public String describe ()
+			{ return "Select multi-dimensional integration (ADAPTIVE, GRID)"; }
+
+			public void execute (CommandSequence tokens)
+			{ selectCubature (tokens); }
+		};
+	}
+
+
 	/**
 	 * save Expression Tree to JSON file
 	 * @return a keyword command for the SAVEJSON keyword
@@ -1468,6 +1502,8 @@ public class KeywordMap<T> extends EnvironmentalUtilities<T>
 		addAsLowerCase (OperatorNomenclature.DOCS_KEYWORD, constructDocsKeywordCommand ());
 		addAsLowerCase (OperatorNomenclature.ENCODE_KEYWORD, constructEncodeKeywordCommand ());
 		addAsLowerCase (OperatorNomenclature.EXPRESS_KEYWORD, constructExpressKeywordCommand ());
+		addAsLowerCase (OperatorNomenclature.ENGINE_KEYWORD, constructEngineKeywordCommand ());
+		addAsLowerCase (OperatorNomenclature.CUBATURE_KEYWORD, constructCubatureKeywordCommand ());
 		addAsLowerCase (OperatorNomenclature.SAVEJSON_KEYWORD, constructSaveJsonKeywordCommand ());
 		addAsLowerCase (OperatorNomenclature.LOADJSON_KEYWORD, constructLoadJsonKeywordCommand ());
 		addAsLowerCase (OperatorNomenclature.SPLINE_KEYWORD, constructSplineKeywordCommand ());
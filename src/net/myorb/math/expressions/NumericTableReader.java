@@ -0,0 +1,330 @@
+package net.myorb.math.expressions;
+
+import net.myorb.math.expressions.managers.ExpressionFloatingFieldManager;
+import net.myorb.math.expressions.managers.ExpressionComplexFieldManager;
+import net.myorb.math.matrices.DoubleMatrix;
+import net.myorb.math.matrices.Matrix;
+
+import net.myorb.math.SpaceManager;
+
+import java.io.File;
+import java.io.IOException;
+
+import java.nio.ByteBuffer;
+import java.nio.DoubleBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * streaming reader for tab delimited data files (TDF).
+ *  the file is read through a channel in blocks and split into cells without building
+ *  lines or tokenizer objects; in the Real and Complex fields plain decimal literals are
+ *  converted by a hand written parser and only other cells are evaluated as expressions.
+ *  tables of the Real field are collected in a primitive buffer that becomes the cells
+ *  of a DoubleMatrix, and when the sidecar cache is enabled the buffer is saved beside the
+ *  source so later loads skip parsing
+ * @param <T> type on which operations are to be executed
+ * @author Michael Druckman
+ */
+public class NumericTableReader<T>
+{
+
+
+	public NumericTableReader (ExpressionSpaceManager<T> spaceManager)
+	{
+		this.spaceManager = spaceManager;
+		this.real = spaceManager instanceof ExpressionFloatingFieldManager;
+		this.literals = real || spaceManager instanceof ExpressionComplexFieldManager;
+	}
+	protected ExpressionSpaceManager<T> spaceManager;
+	protected boolean real, literals;			// literals convert exactly from double
+
+
+	/**
+	 * @param enabled TRUE = load from and save to binary sidecar files of Real tables
+	 */
+	public static void setSidecarCache (boolean enabled) { NumericTableReader.sidecarCache = enabled; }
+	static volatile boolean sidecarCache = false;
+
+	/**
+	 * @param source the data file
+	 * @return the binary sidecar of the file
+	 */
+	public static File sidecarFor (File source) { return new File (source.getPath () + ".bin"); }
+
+
+	/**
+	 * read data from tab delimited file
+	 * @param source the file to be read
+	 * @return the matrix read
+	 * @throws IOException for errors reading the file
+	 */
+	@SuppressWarnings("unchecked")
+	public Matrix<T> read (File source) throws IOException
+	{
+		long started = System.nanoTime ();
+		fromCache = false; rows = cols = columnsInRow = 0;
+
+		if (real && sidecarCache && loadSidecar (source)) fromCache = true;
+		else
+		{
+			values = new double [1024]; count = 0; generic = real ? null : new ArrayList<T> ();
+			scan (source);
+			if (rows == 0) throw new RuntimeException ("File is empty");
+			if (real && sidecarCache) saveSidecar (source);
+		}
+
+		elapsed = System.nanoTime () - started;
+		if (!real) return new Matrix<T> (rows, cols, generic, spaceManager);
+		return (Matrix<T>) (Object) new DoubleMatrix (rows, cols, Arrays.copyOf (values, count), (SpaceManager<Double>) (Object) spaceManager);
+	}
+	protected double [] values; protected int count;
+	protected List<T> generic;
+
+
+	/*
+	 * statistics of the most recent read
+	 */
+
+	public int getRowsRead () { return rows; }
+	public int getColumnsPerRow () { return cols; }
+	public boolean isFromCache () { return fromCache; }
+	public double getSeconds () { return elapsed * 1E-9; }
+	public long getRowsPerSecond () { return elapsed == 0 ? rows : Math.round (rows / getSeconds ()); }
+	protected int rows, cols, columnsInRow;
+	protected boolean fromCache;
+	protected long elapsed;
+
+
+	/*
+	 * cell scanner
+	 */
+
+
+	/**
+	 * split the file into cells; tabs separate cells, empty cells are ignored,
+	 *  CR, LF and CR-LF end rows, and rows without cells are ignored
+	 * @param source the file to be read
+	 * @throws IOException for errors reading the file
+	 */
+	void scan (File source) throws IOException
+	{
+		ByteBuffer buffer = ByteBuffer.allocate (BLOCK);
+		byte [] block = buffer.array (), cell = new byte [64];
+		boolean afterCR = false; int length = 0, n;
+
+		try (FileChannel channel = FileChannel.open (source.toPath (), StandardOpenOption.READ))
+		{
+			while ((n = channel.read (buffer)) >= 0)
+			{
+				for (int i = 0; i < n; i++)
+				{
+					byte b = block[i];
+					if (b == '\t' || b == '\r' || b == '\n')
+					{
+						if (length > 0) { cell (cell, length); length = 0; }
+						if (b == '\n' && afterCR) { afterCR = false; continue; }
+						if (b != '\t') endRow ();
+						afterCR = b == '\r';
+						continue;
+					}
+					if (length == cell.length) cell = Arrays.copyOf (cell, 2 * length);
+					cell[length++] = b; afterCR = false;
+				}
+				buffer.clear ();
+			}
+		}
+
+		if (length > 0) cell (cell, length);
+		endRow ();
+	}
+	static final int BLOCK = 1 << 16;
+
+	/**
+	 * @param text the bytes of the cell
+	 * @param length the number of bytes in the cell
+	 */
+	void cell (byte [] text, int length)
+	{
+		if (isBlank (text, length)) return;
+
+		if (literals && parseLiteral (text, 0, length))
+		{
+			if (real) add (literal);
+			else generic.add (spaceManager.convertFromDouble (literal));
+		}
+		else
+		{
+			T value = spaceManager.evaluate (new String (text, 0, length));
+			if (value == null) throw new RuntimeException ("Cell not evaluated: " + new String (text, 0, length));
+			if (real) add (spaceManager.convertToDouble (value));
+			else generic.add (value);
+		}
+
+		columnsInRow++;
+	}
+	boolean isBlank (byte [] text, int length)
+	{
+		for (int i = 0; i < length; i++) if (text[i] > ' ') return false;
+		return true;
+	}
+	void add (double value)
+	{
+		if (count == values.length) values = Arrays.copyOf (values, 2 * count);
+		values[count++] = value;
+	}
+
+	/**
+	 * check the row against the column count of the first row
+	 */
+	void endRow ()
+	{
+		if (columnsInRow == 0) return;
+		if (rows == 0) cols = columnsInRow;
+		else if (columnsInRow != cols) throw new RuntimeException ("Inconsistant row size");
+		columnsInRow = 0; rows++;
+	}
+
+
+	/*
+	 * literal parser
+	 */
+
+
+	/**
+	 * recognize [+-] digits [. digits] [e [+-] digits] with surrounding blanks,
+	 *  the value is left in the literal field.  conversion is exact when the digits
+	 *  and the power of ten are both representable (one correctly rounded operation),
+	 *  other literals go to the library parser
+	 * @param text the bytes holding the cell
+	 * @param from index of the first byte
+	 * @param to index after the last byte
+	 * @return TRUE when the cell is a plain decimal literal
+	 */
+	boolean parseLiteral (byte [] text, int from, int to)
+	{
+		while (from < to && text[from] <= ' ') from++;
+		while (to > from && text[to-1] <= ' ') to--;
+
+		int i = from, digits = 0, significant = 0, scale = 0;
+		boolean negative = false; long mantissa = 0;
+		if (i < to && (text[i] == '-' || text[i] == '+')) negative = text[i++] == '-';
+
+		for (boolean point = false; i < to; i++)
+		{
+			int d = text[i] - '0';
+			if (d >= 0 && d <= 9)
+			{
+				digits++;
+				if (significant > 0 || d != 0) significant++;
+				if (significant <= 18) mantissa = mantissa * 10 + d; else scale++;
+				if (point) scale--;
+			}
+			else if (text[i] == '.' && !point) point = true;
+			else break;
+		}
+		if (digits == 0) return false;
+
+		if (i < to && (text[i] == 'e' || text[i] == 'E'))
+		{
+			int exponent = 0, exponentDigits = 0; boolean negativeExponent = false;
+			if (++i < to && (text[i] == '-' || text[i] == '+')) negativeExponent = text[i++] == '-';
+			for ( ; i < to && text[i] >= '0' && text[i] <= '9'; i++, exponentDigits++)
+			{ if (exponent < 100000) exponent = exponent * 10 + text[i] - '0'; }
+			if (exponentDigits == 0) return false;
+			scale += negativeExponent ? -exponent : exponent;
+		}
+		if (i != to) return false;
+
+		if (mantissa == 0) literal = 0;
+		else if (significant <= 18 && mantissa < EXACT && scale >= -22 && scale <= 22)
+		{ literal = scale < 0 ? mantissa / POWERS[-scale] : mantissa * POWERS[scale]; }
+		else literal = Math.abs (Double.parseDouble (new String (text, from, to - from)));
+		if (negative) literal = -literal;
+		return true;
+	}
+	protected double literal;
+	static final long EXACT = 1L << 53;
+	static final double [] POWERS = new double [23];
+	static { POWERS[0] = 1; for (int i = 1; i < POWERS.length; i++) POWERS[i] = POWERS[i-1] * 10; }
+
+
+	/*
+	 * binary sidecar
+	 */
+
+
+	/**
+	 * a sidecar that cannot be read is treated as absent and the source is parsed
+	 * @param source the data file
+	 * @return TRUE when a sidecar matching the file was loaded
+	 */
+	boolean loadSidecar (File source)
+	{
+		File sidecar = sidecarFor (source);
+		if (!sidecar.exists ()) return false;
+
+		try (FileChannel channel = FileChannel.open (sidecar.toPath (), StandardOpenOption.READ))
+		{
+			ByteBuffer header = ByteBuffer.allocate (HEADER_SIZE);
+			while (header.hasRemaining () && channel.read (header) >= 0);
+			if (header.hasRemaining ()) return false;
+			header.flip ();
+
+			if (header.getLong () != MAGIC) return false;
+			if (header.getLong () != source.length () || header.getLong () != source.lastModified ()) return false;
+			int r = header.getInt (), c = header.getInt ();
+			long bytes = 8L * r * c;
+			if (channel.size () != HEADER_SIZE + bytes || bytes > Integer.MAX_VALUE) return false;
+
+			DoubleBuffer cells = channel.map (FileChannel.MapMode.READ_ONLY, HEADER_SIZE, bytes).asDoubleBuffer ();
+			values = new double [count = r * c]; cells.get (values);
+			rows = r; cols = c;
+			return true;
+		}
+		catch (IOException e) { return false; }						// saveSidecar rewrites it after the parse
+	}
+
+	/**
+	 * write the parsed values beside the source,
+	 *  a sidecar that cannot be written is not an error of the read
+	 * @param source the data file
+	 */
+	void saveSidecar (File source)
+	{
+		File sidecar = sidecarFor (source);
+
+		try (FileChannel channel = FileChannel.open
+				(
+					sidecar.toPath (), StandardOpenOption.CREATE,
+					StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING
+				)
+			)
+		{
+			ByteBuffer buffer = ByteBuffer.allocate (BLOCK);
+			buffer.putLong (MAGIC).putLong (source.length ()).putLong (source.lastModified ());
+			buffer.putInt (rows).putInt (cols);
+
+			for (int i = 0; i < count; )
+			{
+				DoubleBuffer cells = buffer.asDoubleBuffer ();
+				int n = Math.min (cells.remaining (), count - i);
+				cells.put (values, i, n); i += n;
+				buffer.position (buffer.position () + 8 * n);
+				buffer.flip (); while (buffer.hasRemaining ()) channel.write (buffer);
+				buffer.clear ();
+			}
+
+			buffer.flip (); while (buffer.hasRemaining ()) channel.write (buffer);
+		}
+		catch (IOException e) { sidecar.delete (); }
+	}
+	static final long MAGIC = 0x5444465369646531L;			// TDFSide1
+	static final int HEADER_SIZE = 3 * 8 + 2 * 4;
+
+
+}
@@ -40,6 +40,7 @@ public class OperatorNomenclature
 	SAVE_INPUT_KEYWORD = "SAVE",				// SAVE file-path		save a text file for source as input alternative
 	READ_INPUT_KEYWORD = "READ",				// READ file-path		read a text file source as input alternative
 	RUNSIEVE_KEYWORD = "RUNSIEVE",				// RUNSIEVE 100			populate the prime factorization table
+	WHEELSIEVE_KEYWORD = "WHEELSIEVE",			// WHEELSIEVE 1E9 file	extend prime queries with a cached compressed prime table
 	DUMPING_KEYWORD = "DUMPING",				// let DUMPING=1		trace enable flag (show value stack changes)
 	FAMILY_KEYWORD = "FAMILY",					// FAMILY name count	load polynomial power function of named family
 	REQUIRES_KEYWORD = "REQUIRES",				// REQUIRES name		verify support for the named data type
@@ -56,6 +57,8 @@ public class OperatorNomenclature
 	INIT_KEYWORD = "INIT",						// INIT path parameters	initialize an object imported from an external JAR source
 	APPLY_KEYWORD = "APPLY",					// APPLY tool function	apply Spline tool fit to a user defined function
 	EXPRESS_KEYWORD = "EXPRESS",				// EXPRESS function		generate Expression Tree for a user defined function
+	ENGINE_KEYWORD = "ENGINE",					// ENGINE function mode	select interpreter, tree, program or bytecode execution of a function
+	CUBATURE_KEYWORD = "CUBATURE",				// CUBATURE mode		select ADAPTIVE or GRID multi-dimensional integration
 	SAVEJSON_KEYWORD = "SAVEJSON",				// SAVEJSON function	save Expression Tree to JSON file for later restore using load
 	LOADJSON_KEYWORD = "LOADJSON",				// LOADJSON function	load Expression Tree for a user defined function from JSON file
 	LOADSPLINE_KEYWORD = "LOADSPLINE",			// LOADSPLINE function	load Spline description for a user defined function from JSON file
@@ -140,6 +143,9 @@ public class OperatorNomenclature
 	SUMMATION_OPERATOR = "SUMMATION",			// SUMMATION(1,2,3)		mathematical (sum of array values) as unary operation
 	SIGMA_OPERATOR = "SIGMA",					// SIGMA(1,2,3)			mathematical (sum of array values) as unary operation with sigma notation
 	INTEGRAL_OPERATOR = "INTEGRAL",				// INTEGRAL(1,2,3)		mathematical (sum of array values) as unary operation with integral notation
+	WYNN_OPERATOR = "WYNN",						// WYNN(1,2,3)			mathematical (sum of series terms) accelerated by Wynn epsilon algorithm
+	LEVIN_OPERATOR = "LEVIN",					// LEVIN(1,2,3)			mathematical (sum of series terms) accelerated by Levin u transform
+	RICHARDSON_OPERATOR = "RICHARDSON",			// RICHARDSON(1,2,3)	mathematical (sum of series terms) accelerated by Richardson extrapolation
 	INTERPOLATE_FUNCTION = "INTERPOLATE",		// INTERPOLATE(A1)		build Lagrange polynomial interpolation of function values found in an array
 	CHEBINTERP_FUNCTION = "CHEBINTERP",			// CHEBINTERP(A1)		build Chebyshev polynomial interpolation of function values found in an array
 	CLENQUAD_FUNCTION = "CLENQUAD",				// CLENQUAD(A1,x)		compute Clenshaw quadrature (numerical integration) on Chebyshev Polynomial
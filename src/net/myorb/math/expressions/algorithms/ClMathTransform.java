@@ -187,6 +187,44 @@ public class ClMathTransform<T>
 			return vm.newDiscreteValue (result);
 		}
 
+		/**
+		 * the transform at many values of the transform variable as one quadrature batch.
+		 *  the kernel and the target share the symbol table so the batch runs on the calling thread
+		 * @param digest the range description holding the target function and integration bounds
+		 * @param u the values of the transform variable
+		 * @return the transform and the quadrature meta-data for each value
+		 */
+		public Quadrature.BatchResults transformAt (RangeNodeDigest<T> digest, double [] u)
+		{
+			if (parameters.getParameter ("method") == null)
+			{ throw new RuntimeException ("Batch transform requires a quadrature method"); }
+
+			digest.initializeLocalVariable (); setKernel ();
+			final ExpressionSpaceManager<T> sm = environment.getSpaceManager ();
+			final Function<T> integrand = getIntegrand (digest);
+			double lo = sm.convertToDouble (vm.toDiscrete (digest.getLoBnd ())),
+				hi = sm.convertToDouble (vm.toDiscrete (digest.getHiBnd ()));
+
+			try
+			{
+				return new Quadrature (options).evalBatch
+				(
+					new Quadrature.IntegrandFactory ()
+					{
+						public RealIntegrandFunctionBase newIntegrand ()
+						{
+							return new QuadIntegrandWrapper<T> (integrand, sm)
+							{
+								public void setParameter (double x) { kernel.setU (sm.convertFromDouble (x)); }
+							};
+						}
+					},
+					u, lo, hi
+				);
+			}
+			finally { kernel.setU (null); }
+		}
+
 		/**
 		 * approximation of integral using real-number Quadrature
 		 * @param integral the Quadrature approximation object based on Double data type
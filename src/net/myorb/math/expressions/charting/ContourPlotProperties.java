@@ -180,6 +180,54 @@ public class ContourPlotProperties extends CommonDataStructures.SymbolicMap <Obj
 	public Object evaluateGeneric (double x, double y) { return equation.evaluateGeneric (x, y); }
 
 
+	/**
+	 * evaluation of the transform confined to a single worker thread
+	 */
+	public interface EvaluationContext
+	{
+		/**
+		 * @param x the X-axis coordinate
+		 * @param y the Y-axis coordinate
+		 * @return the contour value of the transform
+		 */
+		int evaluate (double x, double y);
+
+		/**
+		 * @param x the X-axis coordinate
+		 * @param y the Y-axis coordinate
+		 * @return the real value of the transform
+		 */
+		double evaluateReal (double x, double y);
+	}
+
+	/**
+	 * interpreted equations bind parameters in a shared symbol table
+	 *  so no thread confined context is available by default
+	 * @return a context for use by one worker thread, NULL when not available
+	 */
+	public EvaluationContext newEvaluationContext () { return null; }
+
+	/**
+	 * @return a context evaluating the transform directly on the calling thread
+	 */
+	public EvaluationContext newSerialEvaluationContext ()
+	{
+		final ContourPlotProperties transform = this;
+		return new EvaluationContext ()
+		{
+			public int evaluate (double x, double y) { return transform.evaluate (x, y); }
+			public double evaluateReal (double x, double y) { return transform.evaluateReal (x, y); }
+		};
+	}
+
+	/**
+	 * @param parallel TRUE = computers partition the plot across worker threads
+	 */
+	public void setParallelComputation (boolean parallel) { put (PARALLEL, parallel); }
+	public boolean isParallelComputation () { return containsKey (PARALLEL) && Boolean.parseBoolean (get (PARALLEL).toString ()); }
+	public static String PARALLEL = "ParallelComputation";
+
+
 	// constructors 
 
 	public ContourPlotProperties (int rootIdentifier)
@@ -57,7 +57,7 @@ public class DisplayGraph3D extends DisplayGraph
 	}
 	static PlotComputers.TransformResultsCollection getPoints (ContourPlotProperties proprties)
 	{
-		return PlotComputers.getSerialCalculationProcessing (proprties).executeTransform ();
+		return PlotComputers.getCalculationProcessing (proprties).executeTransform ();
 	}
 	static void describePlot (Activity activity, String description)
 	{
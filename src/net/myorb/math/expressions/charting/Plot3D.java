@@ -2,6 +2,7 @@
 package net.myorb.math.expressions.charting;
 
 import net.myorb.math.expressions.evaluationstates.Subroutine;
+import net.myorb.math.expressions.tree.RealProgram;
 import net.myorb.math.expressions.ExpressionSpaceManager;
 
 import net.myorb.math.expressions.ContourRendering;
@@ -149,6 +150,39 @@ public class Plot3D <T> extends ContourPlotProperties
 	{ return this.cvt ( DV.getValue () ); }
 
 
+	// evaluation by parallel plot computers
+
+	/**
+	 * a Real subroutine of two parameters lowered to a primitive
+	 *  program keeps parameters in per-thread storage, so needs no lock
+	 * @see net.myorb.math.expressions.charting.ContourPlotProperties#newEvaluationContext()
+	 */
+	public EvaluationContext newEvaluationContext ()
+	{
+		final RealProgram program = getRealProgram ();
+		if (program == null) return null;
+
+		return new EvaluationContext ()
+		{
+			public int evaluate (double x, double y)
+			{ return (int) evaluateReal (x, y); }
+			public double evaluateReal (double x, double y)
+			{ args [0] = x; args [1] = y; return multiplier * program.eval (args); }
+			double [] args = new double [2];
+		};
+	}
+
+	/**
+	 * @return the program compiled from the equation, NULL when not available
+	 */
+	protected RealProgram getRealProgram ()
+	{
+		if ( ! (equation instanceof Subroutine) ) return null;
+		RealProgram program = ( (Subroutine <T>) equation ).getRealProgram ();
+		return program != null && program.getParameterCount () == 2 ? program : null;
+	}
+
+
 	// plot scheduled for execution in background
 
 	/**
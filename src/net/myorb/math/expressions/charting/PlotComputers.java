@@ -54,6 +54,20 @@ public class PlotComputers
 					Histogram histogram
 				)
 			{
+				if (proprties.isParallelComputation ())
+				{
+					new ParallelCalculationComputer
+						(
+							proprties
+						)
+					.compute
+						(
+							descriptor, pointsPerAxis,
+							points, range, histogram
+						);
+					return;
+				}
+
 				new BruteForcePlotComputer
 					(
 						proprties
@@ -190,5 +204,35 @@ public class PlotComputers
 	}
 
 
+	/**
+	 * get a processor for Parallel Calculation
+	 * @param descriptor a Plot Properties object describing the plot
+	 * @return the Transform Processing object partitioning rows across threads
+	 */
+	public static TransformProcessing getParallelCalculationProcessing
+		(
+			ContourPlotProperties descriptor
+		)
+	{
+		return new ParallelCalculationComputer (descriptor);
+	}
+
+
+	/**
+	 * get a processor as selected by the plot properties
+	 * @param descriptor a Plot Properties object describing the plot
+	 * @return parallel or serial Transform Processing object
+	 */
+	public static TransformProcessing getCalculationProcessing
+		(
+			ContourPlotProperties descriptor
+		)
+	{
+		return descriptor.isParallelComputation () ?
+			getParallelCalculationProcessing (descriptor) :
+			getSerialCalculationProcessing (descriptor);
+	}
+
+
 }
 
@@ -82,6 +82,35 @@ public class Fractal extends ContourPlotProperties
 	public int computeIterationsFor (double x, double y) { throw new RuntimeException ("Not implemented"); }
 
 
+	/**
+	 * iteration count computation on primitive doubles.
+	 *  a kernel captures the limits of the fractal when built
+	 *  and holds no mutable state, so one kernel is shared by all tiles
+	 */
+	public interface Kernel
+	{
+		/**
+		 * @param x the X coordinate of the point
+		 * @param y the Y coordinate of the point
+		 * @return the iteration count
+		 */
+		int iterate (double x, double y);
+	}
+
+
+	/**
+	 * @return a kernel equivalent to computeIterationsFor, NULL for none
+	 */
+	public Kernel getKernel () { return null; }
+
+
+	/**
+	 * areas enclosed by a boundary of uniform count have that count throughout
+	 * @return TRUE when tiles may be filled from their boundary
+	 */
+	public boolean allowsBoundaryFill () { return false; }
+
+
 	/**
 	 * specify the view area
 	 * @param x the x-axis coordinate of the low corner
@@ -207,6 +236,7 @@ public class Fractal extends ContourPlotProperties
 		super (-1);
 		floatManager = new DoubleFloatingFieldManager ();
 		complexManager = new ExpressionComplexFieldManager ();
+		setPlotComputer (new TiledFractalComputer (this));
 	}
 	protected final ExpressionComplexFieldManager complexManager;
 	protected final DoubleFloatingFieldManager floatManager;
@@ -5,8 +5,6 @@ import net.myorb.math.expressions.charting.DisplayGraph3D;
 import net.myorb.math.expressions.charting.colormappings.ContourColorSchemeRequest;
 import net.myorb.charting.ColorSelection;
 
-import net.myorb.math.complexnumbers.ComplexValue;
-
 import java.util.HashSet;
 import java.util.Set;
 
@@ -52,23 +50,53 @@ public class Julia extends Fractal implements Fractal.Descriptor
 	 * @return the iteration count
 	 */
 	public int computeIterationsFor (double x0, double y0)
+	{
+		return iterationsFor (x0, y0, c.Re (), c.Im (), getMaxResult (), currentLimit);
+	}
+
+
+	/**
+	 * compute the iteration count on primitives
+	 * @param x0 the X coordinate of the point
+	 * @param y0 the Y coordinate of the point
+	 * @param cr the real part of the iteration constant
+	 * @param ci the imaginary part of the iteration constant
+	 * @param max the iteration limit
+	 * @param limit the divergence threshold for the squared modulus
+	 * @return the iteration count
+	 */
+	public static int iterationsFor (double x0, double y0, double cr, double ci, int max, double limit)
 	{
 		int iteration = 0;
-		ComplexValue<Double> z = new ComplexConstant (x0, y0);
+		double x = x0, y = y0, xn, yn;
 
-		while (iteration < getMaxResult ())
+		while (iteration < max)
 		{
 			// z[n+1] = z[n]^2 + c
-			ComplexValue<Double> zNplus1 = z.squared ().plus (c);
-			double zNplus1Magnitude = zNplus1.modSquared ();
-			if (zNplus1Magnitude > currentLimit) break;
-			z = zNplus1; iteration++;
+			xn = x*x - y*y + cr; yn = 2*x*y + ci;
+			if (xn*xn + yn*yn > limit) break;
+			x = xn; y = yn; iteration++;
 		}
 
 		return iteration;
 	}
 
 
+	/* (non-Javadoc)
+	 * @see net.myorb.math.expressions.charting.fractals.Fractal#getKernel()
+	 */
+	public Kernel getKernel ()
+	{
+		final double cr = c.Re (), ci = c.Im (), limit = currentLimit;
+		final int max = getMaxResult ();
+
+		return new Kernel ()
+		{
+			public int iterate (double x, double y) { return iterationsFor (x, y, cr, ci, max, limit); }
+		};
+	}
+
+
 	/*
 	 * set the constant term of the iteration
 	 */
@@ -77,6 +77,65 @@ public class Mandelbrot extends Fractal implements Fractal.Descriptor
 	}
 
 
+	/* (non-Javadoc)
+	 * @see net.myorb.math.expressions.charting.fractals.Fractal#getKernel()
+	 */
+	public Kernel getKernel ()
+	{
+		// the cycle detector keeps a cache per plot so must run serially
+		if (CycleDectionEnabled) return null;
+		final int max = getMaxResult (); final double limit = currentLimit;
+
+		return new Kernel ()
+		{
+			public int iterate (double x, double y) { return iterationsFor (x, y, max, limit); }
+		};
+	}
+
+
+	/* (non-Javadoc)
+	 * @see net.myorb.math.expressions.charting.fractals.Fractal#allowsBoundaryFill()
+	 */
+	public boolean allowsBoundaryFill () { return true; }
+
+
+	/**
+	 * compute the iteration count on primitives.
+	 *  points of the main cardioid and the period-2 bulb are known
+	 *  not to escape, as are orbits returning exactly to a saved point
+	 *  (saved at power of 2 iterations following Brent)
+	 * @param x0 the X coordinate
+	 * @param y0 the Y coordinate
+	 * @param max the iteration limit
+	 * @param limit the divergence threshold for the squared modulus
+	 * @return the iteration count
+	 */
+	public static int iterationsFor (double x0, double y0, int max, double limit)
+	{
+		if (limit >= 4)
+		{
+			double xq = x0 - 0.25, y2 = y0*y0, q = xq*xq + y2, xb = x0 + 1;
+			if (q * (q + xq) <= 0.25 * y2 || xb*xb + y2 <= 0.0625) return max;
+		}
+
+		int iteration = 0, saved = 2;
+		double x = 0, y = 0, xx = 0, yy = 0, xs = 0, ys = 0;
+
+		while (iteration < max)
+		{
+			xx = x*x; yy = y*y;
+			if (xx + yy > limit) break;
+			y = 2*x*y + y0; x = xx - yy + x0;
+			iteration++;
+
+			if (x == xs && y == ys) return max;
+			if (iteration == saved) { xs = x; ys = y; saved <<= 1; }
+		}
+
+		return iteration;
+	}
+
+
 	/**
 	 * @return a cycle detector with recycle set
 	 */
@@ -98,6 +98,61 @@ public class Newton extends Fractal implements Fractal.Descriptor
 	protected ComplexConstant a;
 
 
+	/* (non-Javadoc)
+	 * @see net.myorb.math.expressions.charting.fractals.Fractal#getKernel()
+	 */
+	public Kernel getKernel ()
+	{
+		if (degree < 2) return null;
+		final int n = degree, max = getMaxResult ();
+		final double ar = a == null ? 1 : a.Re (), ai = a == null ? 0 : a.Im ();
+
+		return new Kernel ()
+		{
+			public int iterate (double x, double y) { return iterationsFor (x, y, n, ar, ai, max); }
+		};
+	}
+	protected int degree = 0;
+
+
+	/**
+	 * compute the iteration count on primitives for f(z) = z^n - 1
+	 * @param x0 the X coordinate of the point
+	 * @param y0 the Y coordinate of the point
+	 * @param n the degree of the polynomial
+	 * @param ar the real part of the multiplier
+	 * @param ai the imaginary part of the multiplier
+	 * @param max the iteration limit
+	 * @return the iteration count
+	 */
+	public static int iterationsFor (double x0, double y0, int n, double ar, double ai, int max)
+	{
+		int iteration = 0;
+		double x = x0, y = y0;
+
+		while (iteration < max)
+		{
+			// p = z^(n-1), f(z) = z*p - 1, f'(z) = n*p
+			double pr = x, pi = y, t;
+			for (int k = 2; k < n; k++) { t = pr*x - pi*y; pi = pr*y + pi*x; pr = t; }
+			double fr = pr*x - pi*y - 1, fi = pr*y + pi*x, dr = n*pr, di = n*pi;
+
+			// offset = a * f(z) / f'(z)
+			double m = 1 / (dr*dr + di*di);
+			double wr = (fr*dr + fi*di) * m, wi = (fi*dr - fr*di) * m;
+			double ox = ar*wr - ai*wi, oy = ar*wi + ai*wr;
+			if (ox*ox + oy*oy < CONVERGENCE_LIMIT) break;
+
+			double xn = x - ox, yn = y - oy;
+			if (xn*xn + yn*yn > DIVERGENCE_LIMIT) break;
+
+			x = xn; y = yn; iteration++;
+		}
+
+		return iteration;
+	}
+
+
 	/**
 	 * get collection of Newton fractals
 	 * @return map of included fractals
@@ -289,6 +344,7 @@ class NewtonFunctions extends Newton
 	 */
 	protected ComplexFunction zSquaredMinus1 ()
 	{
+		degree = 2;
 		return usingCalculus?
 			new ZsquaredMinus1UsingCalculus ():
 			new ZsquaredMinus1NonCalculus ();
@@ -300,6 +356,7 @@ class NewtonFunctions extends Newton
 	 */
 	protected ComplexFunction zCubedMinus1 ()
 	{
+		degree = 3;
 		return usingCalculus?
 			new ZcubedMinus1UsingCalculus ():
 			new ZcubedMinus1NonCalculus ();
@@ -0,0 +1,216 @@
+
+package net.myorb.math.expressions.charting.fractals;
+
+import net.myorb.math.expressions.charting.PlotComputers;
+
+import net.myorb.charting.DisplayGraphTypes;
+import net.myorb.charting.Histogram;
+
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.ForkJoinPool;
+
+import java.util.Arrays;
+
+/**
+ * a PlotComputer that splits the view into tiles computed on a fork-join pool.
+ *  iteration counts come from the primitive kernel of the fractal;
+ *  fractals with no kernel are passed to the brute force computer
+ * @author Michael Druckman
+ */
+public class TiledFractalComputer implements DisplayGraphTypes.PlotComputer
+{
+
+
+	/**
+	 * tiles larger than TILE_EDGE are split,
+	 *  rectangles smaller than FILL_EDGE are computed point by point
+	 */
+	public static final int TILE_EDGE = 64, FILL_EDGE = 6;
+
+
+	/**
+	 * @param fractal the fractal providing the kernel
+	 */
+	public TiledFractalComputer (Fractal fractal) { this.fractal = fractal; }
+	protected Fractal fractal;
+
+
+	/* (non-Javadoc)
+	 * @see net.myorb.charting.DisplayGraphTypes.PlotComputer#computeRange(net.myorb.charting.DisplayGraphTypes.ContourPlotDescriptor, int, net.myorb.charting.DisplayGraphTypes.Point[], java.lang.Object[], net.myorb.charting.Histogram)
+	 */
+	public void computeRange
+		(
+			DisplayGraphTypes.ContourPlotDescriptor descriptor, int pointsPerAxis,
+			DisplayGraphTypes.Point [] points, Object [] range, Histogram histogram
+		)
+	{
+		Fractal.Kernel kernel = fractal.getKernel ();
+
+		if (kernel == null)
+		{
+			PlotComputers.getBruteForcePlotComputer (fractal).computeRange
+				(descriptor, pointsPerAxis, points, range, histogram);
+			return;
+		}
+
+		DisplayGraphTypes.Point lowCorner = descriptor.getLowCorner ();
+		double increment = descriptor.getEdgeSize () / pointsPerAxis;
+		Grid grid = new Grid (kernel, pointsPerAxis, lowCorner.x, lowCorner.y, increment);
+
+		fractal.getActivityDescriptor ().setMechanism ("TiledFractalComputer.computeRange");
+		fractal.setRemaining (pointsPerAxis * pointsPerAxis);
+		POOL.invoke (new Tile (grid, 0, 0, pointsPerAxis, pointsPerAxis));
+
+		// collected in the order of the brute force traversal, x-axis outer loop
+		for (int i = 0, k = 0; i < pointsPerAxis; i++)
+		{
+			for (int j = 0; j < pointsPerAxis; j++, k++)
+			{
+				int n = grid.counts [k];
+				points [k] = new DisplayGraphTypes.Point (grid.x (i), grid.y (j));
+				histogram.increase (n); range [k] = n;
+			}
+		}
+
+		descriptor.buildLegendWidgetsFor (histogram);
+	}
+	static final ForkJoinPool POOL = ForkJoinPool.commonPool ();
+
+
+	/**
+	 * the iteration counts of the plot,
+	 *  indexed x-axis major to match the brute force traversal
+	 */
+	class Grid
+	{
+
+		Grid (Fractal.Kernel kernel, int pointsPerAxis, double x0, double y0, double increment)
+		{
+			this.counts = new int [pointsPerAxis * pointsPerAxis];
+			this.x0 = x0; this.y0 = y0; this.increment = increment;
+			this.fill = fractal.allowsBoundaryFill ();
+			this.pointsPerAxis = pointsPerAxis;
+			this.kernel = kernel;
+		}
+		protected double x0, y0, increment;
+		protected Fractal.Kernel kernel;
+		protected int pointsPerAxis;
+		protected boolean fill;
+		protected int [] counts;
+
+		double x (int i) { return x0 + i * increment; }
+		double y (int j) { return y0 + j * increment; }
+
+		/**
+		 * @param i x-axis index
+		 * @param j y-axis index
+		 * @return the count for the point, computed on first reference
+		 */
+		int at (int i, int j)
+		{
+			int k = i * pointsPerAxis + j;
+			if (counts [k] < 0) counts [k] = kernel.iterate (x (i), y (j));
+			return counts [k];
+		}
+
+		/**
+		 * compute a tile, indices are exclusive of the high bound
+		 * @param i0 x-axis index of the low corner
+		 * @param j0 y-axis index of the low corner
+		 * @param i1 x-axis index past the high corner
+		 * @param j1 y-axis index past the high corner
+		 */
+		void render (int i0, int j0, int i1, int j1)
+		{
+			for (int i = i0; i < i1; i++)
+			{
+				int k = i * pointsPerAxis + j0;
+				Arrays.fill (counts, k, k + j1 - j0, -1);
+			}
+			if (fill) refine (i0, j0, i1 - 1, j1 - 1);
+			else for (int i = i0; i < i1; i++) for (int j = j0; j < j1; j++) at (i, j);
+		}
+
+		/**
+		 * coarse pass computes the boundary of a rectangle,
+		 *  a uniform boundary fills the interior, otherwise the
+		 *  rectangle is quartered and each quarter refined in turn.
+		 *  indices are inclusive; quarters share edges already computed
+		 * @param i0 x-axis index of the low corner
+		 * @param j0 y-axis index of the low corner
+		 * @param i1 x-axis index of the high corner
+		 * @param j1 y-axis index of the high corner
+		 */
+		void refine (int i0, int j0, int i1, int j1)
+		{
+			if (i1 - i0 < FILL_EDGE || j1 - j0 < FILL_EDGE)
+			{
+				for (int i = i0; i <= i1; i++) for (int j = j0; j <= j1; j++) at (i, j);
+				return;
+			}
+
+			int n = at (i0, j0);
+			boolean uniform = true;
+			for (int i = i0; i <= i1; i++)
+			{ uniform &= at (i, j0) == n; uniform &= at (i, j1) == n; }
+			for (int j = j0 + 1; j < j1; j++)
+			{ uniform &= at (i0, j) == n; uniform &= at (i1, j) == n; }
+
+			if (uniform)
+			{
+				for (int i = i0 + 1; i < i1; i++)
+				{
+					int k = i * pointsPerAxis;
+					Arrays.fill (counts, k + j0 + 1, k + j1, n);
+				}
+				return;
+			}
+
+			int im = (i0 + i1) / 2, jm = (j0 + j1) / 2;
+			refine (i0, j0, im, jm); refine (im, j0, i1, jm);
+			refine (i0, jm, im, j1); refine (im, jm, i1, j1);
+		}
+
+	}
+
+
+	/**
+	 * a rectangle of the grid, split until small enough to compute
+	 */
+	class Tile extends RecursiveAction
+	{
+
+		Tile (Grid grid, int i0, int j0, int i1, int j1)
+		{ this.grid = grid; this.i0 = i0; this.j0 = j0; this.i1 = i1; this.j1 = j1; }
+		protected int i0, j0, i1, j1;
+		protected Grid grid;
+
+		/* (non-Javadoc)
+		 * @see java.util.concurrent.RecursiveAction#compute()
+		 */
+		protected void compute ()
+		{
+			int w = i1 - i0, h = j1 - j0;
+
+			if (w > TILE_EDGE && w >= h)
+			{
+				int im = i0 + w / 2;
+				invokeAll (new Tile (grid, i0, j0, im, j1), new Tile (grid, im, j0, i1, j1));
+			}
+			else if (h > TILE_EDGE)
+			{
+				int jm = j0 + h / 2;
+				invokeAll (new Tile (grid, i0, j0, i1, jm), new Tile (grid, i0, jm, i1, j1));
+			}
+			else
+			{
+				grid.render (i0, j0, i1, j1);
+				synchronized (fractal) { fractal.reduceRemaining (w * h); }
+			}
+		}
+
+		private static final long serialVersionUID = 3877420218526431760L;
+	}
+
+
+}
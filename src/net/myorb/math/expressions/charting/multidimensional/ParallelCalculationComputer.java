@@ -0,0 +1,270 @@
+
+package net.myorb.math.expressions.charting.multidimensional;
+
+import net.myorb.math.expressions.charting.ContourPlotProperties;
+
+import net.myorb.charting.DisplayGraphTypes;
+import net.myorb.charting.Histogram;
+
+import net.myorb.sitstat.Activity;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * computer for function evaluation with rows of the plot matrix
+ *  partitioned across worker threads. each worker evaluates through its
+ *  own context and results are merged when all workers have completed
+ * @author Michael Druckman
+ */
+public class ParallelCalculationComputer extends ResultCollector
+{
+
+
+	public ParallelCalculationComputer (ContourPlotProperties proprties)
+	{
+		super (proprties);
+		this.workers = Runtime.getRuntime ().availableProcessors ();
+		proprties.getActivityDescriptor ().setProducer ("ParallelCalculationComputer");
+		proprties.getActivityDescriptor ().setDescription ("Parallel 3D Plot");
+	}
+
+
+	/**
+	 * @param workers the number of threads to use
+	 */
+	public void setWorkerCount (int workers) { this.workers = Math.max (1, workers); }
+	public int getWorkerCount () { return workers; }
+	protected int workers;
+
+
+	/**
+	 * computation of one row of the matrix
+	 */
+	interface RowComputation
+	{
+		/**
+		 * @param context the evaluation context of the worker
+		 * @param row the index of the row along the x-axis
+		 */
+		void computeRow (ContourPlotProperties.EvaluationContext context, int row);
+	}
+
+
+	/*
+	 * surface protocol, results collected in X/Y/Z matrices
+	 */
+
+
+	/* (non-Javadoc)
+	 * @see net.myorb.math.expressions.charting.multidimensional.ResultCollector#compute()
+	 */
+	public void compute ()
+	{
+		allocate ();
+
+		DisplayGraphTypes.Point lowCorner = proprties.getLowCorner ();
+		final double x0 = lowCorner.x, y0 = lowCorner.y,
+			incrementX = proprties.getEdgeSize () / pointsPerAxis,
+			incrementY = proprties.getAltEdgeSize () / pointsPerAxis;
+
+		runWorkers
+		(
+			new RowComputation ()
+			{
+				public void computeRow (ContourPlotProperties.EvaluationContext context, int i)
+				{
+					double x = x0 + i * incrementX, y;
+					for (int j = 0; j < pointsPerAxis; j++)
+					{
+						y = y0 + j * incrementY;
+						X[i][j] = x; Y[i][j] = y;
+						Z[i][j] = evalReal (context, x, y);
+					}
+				}
+			}
+		);
+	}
+
+
+	/*
+	 * contour protocol, results collected as points and range
+	 */
+
+
+	/**
+	 * compute value for each domain point
+	 * @param descriptor the descriptor for the transform
+	 * @param pointsPerAxis the resolution of the transform
+	 * @param points the domain points collection as evaluated
+	 * @param range collection of mapped values for the domain
+	 * @param histogram data collected about the range
+	 */
+	public void compute
+		(
+			DisplayGraphTypes.ContourPlotDescriptor descriptor, int pointsPerAxis,
+			DisplayGraphTypes.Point[] points, Object[] range, Histogram histogram
+		)
+	{
+		this.pointsPerAxis = pointsPerAxis;
+		proprties.setEdgeSize (descriptor.getEdgeSize ());
+		proprties.setAltEdgeSize (descriptor.getEdgeSize ());
+		proprties.setLowCorner (descriptor.getLowCorner ());
+
+		DisplayGraphTypes.Point lowCorner = descriptor.getLowCorner ();
+		final double x0 = lowCorner.x, y0 = lowCorner.y,
+			increment = descriptor.getEdgeSize () / pointsPerAxis;
+		final int [] values = new int [pointsPerAxis * pointsPerAxis];
+		final int size = pointsPerAxis;
+
+		runWorkers
+		(
+			new RowComputation ()
+			{
+				public void computeRow (ContourPlotProperties.EvaluationContext context, int i)
+				{
+					double x = x0 + i * increment;
+					for (int j = 0, k = i * size; j < size; j++, k++)
+					{ values [k] = eval (context, x, y0 + j * increment); }
+				}
+			}
+		);
+
+		// merge in the order of the serial traversal
+		for (int i = 0, k = 0; i < pointsPerAxis; i++)
+		{
+			for (int j = 0; j < pointsPerAxis; j++, k++)
+			{
+				points [k] = new DisplayGraphTypes.Point (x0 + i * increment, y0 + j * increment);
+				histogram.increase (values [k]); range [k] = values [k];
+			}
+		}
+
+		descriptor.buildLegendWidgetsFor (histogram);
+	}
+
+
+	/*
+	 * evaluation with errors mapped to zero as in the serial computers
+	 */
+
+	int eval (ContourPlotProperties.EvaluationContext context, double x, double y)
+	{
+		try { return context.evaluate (x, y); }
+		catch (Exception e) { return 0; }
+	}
+
+	double evalReal (ContourPlotProperties.EvaluationContext context, double x, double y)
+	{
+		try { return context.evaluateReal (x, y); }
+		catch (Exception e) { return 0; }
+	}
+
+
+	/*
+	 * worker threads
+	 */
+
+
+	/**
+	 * rows are taken from a shared counter so faster workers take more rows.
+	 *  contexts are built before the threads start since compilation of the
+	 *  equation is cached on the function and not guarded for concurrent use.
+	 *  an equation with no thread confined context is computed serially
+	 * @param computation the computation applied to each row
+	 */
+	void runWorkers (final RowComputation computation)
+	{
+		Activity activity = proprties.getActivityDescriptor ();
+		activity.setMechanism ("ParallelCalculationComputer.runWorkers");
+		proprties.setRemaining (pointsPerAxis * pointsPerAxis);
+
+		ContourPlotProperties.EvaluationContext [] contexts = new ContourPlotProperties.EvaluationContext [workers];
+		for (int w = 0; w < workers; w++)
+		{
+			if ((contexts [w] = proprties.newEvaluationContext ()) == null)
+			{ runSerial (computation); return; }
+		}
+
+		final AtomicInteger nextRow = new AtomicInteger ();
+		final long [] elapsed = new long [workers];
+		final int [] rows = new int [workers];
+
+		Thread [] threads = new Thread [workers];
+		for (int w = 0; w < workers; w++)
+		{
+			final int worker = w;
+			final ContourPlotProperties.EvaluationContext context = contexts [w];
+			threads [w] = new Thread
+			(
+				new Runnable ()
+				{
+					public void run ()
+					{
+						long start = System.nanoTime ();
+						for (int row; (row = nextRow.getAndIncrement ()) < pointsPerAxis; rows [worker]++)
+						{
+							computation.computeRow (context, row);
+							synchronized (proprties) { proprties.reduceRemaining (pointsPerAxis); }
+						}
+						elapsed [worker] = System.nanoTime () - start;
+					}
+				},
+				"PlotWorker-" + w
+			);
+			threads [w].start ();
+		}
+
+		try { for (Thread t : threads) t.join (); }
+		catch (InterruptedException e)
+		{
+			Thread.currentThread ().interrupt ();
+			throw new RuntimeException ("Plot computation interrupted", e);
+		}
+
+		activity.setDescription (describeTimings (elapsed, rows));
+	}
+
+
+	/**
+	 * all rows on the calling thread, the equation binds
+	 *  its parameters in the shared symbol table
+	 * @param computation the computation applied to each row
+	 */
+	void runSerial (RowComputation computation)
+	{
+		long start = System.nanoTime ();
+		ContourPlotProperties.EvaluationContext context = proprties.newSerialEvaluationContext ();
+
+		for (int row = 0; row < pointsPerAxis; row++)
+		{
+			computation.computeRow (context, row);
+			proprties.reduceRemaining (pointsPerAxis);
+		}
+
+		proprties.getActivityDescriptor ().setDescription
+		(
+			"Serial 3D Plot, parallel computation not available for interpreted equation : " +
+			pointsPerAxis + " rows " + (System.nanoTime () - start) / 1000000 + "ms"
+		);
+	}
+
+
+	/**
+	 * @param elapsed the nanoseconds used by each worker
+	 * @param rows the number of rows computed by each worker
+	 * @return text describing the workers
+	 */
+	String describeTimings (long [] elapsed, int [] rows)
+	{
+		StringBuffer text = new StringBuffer ("Parallel 3D Plot");
+		for (int w = 0; w < elapsed.length; w++)
+		{
+			text.append (w == 0 ? " : " : ", ")
+				.append (rows [w]).append (" rows ")
+				.append (elapsed [w] / 1000000).append ("ms");
+		}
+		return text.toString ();
+	}
+
+
+}
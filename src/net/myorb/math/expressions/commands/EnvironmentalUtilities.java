@@ -23,11 +23,17 @@ import net.myorb.math.expressions.gui.editor.CalcLibSnipTool;
 import net.myorb.math.expressions.evaluationstates.Environment;
 import net.myorb.math.expressions.evaluationstates.Subroutine;
 
+// CalcLib multi-dimensional integration
+import net.myorb.math.computational.MultiDimensionalRealIntegral;
+import net.myorb.math.computational.AdaptiveCubatureIntegration;
+import net.myorb.math.computational.ADSplineReal2DSegmentManager;
+
 // IOlib utilities
 import net.myorb.data.abstractions.SimpleUtilities;
 
 // JRE 
 import java.util.HashMap;
+import java.util.Arrays;
 import java.util.Map;
 
 /**
@@ -175,6 +181,7 @@ public class EnvironmentalUtilities<T> extends CommandAdministration<T>
 	{
 		PrimeNumbers<T> primes = new PrimeNumbers<T>(environment);
 		addAsLowerCase (OperatorNomenclature.RUNSIEVE_KEYWORD, primes.constructRunsieveKeywordCommand ());
+		addAsLowerCase (OperatorNomenclature.WHEELSIEVE_KEYWORD, primes.constructWheelsieveKeywordCommand ());
 		addAsLowerCase (OperatorNomenclature.PRIMETABLE_KEYWORD, primes.constructPrimetableKeywordCommand ());
 		addAsLowerCase (OperatorNomenclature.PRIMEGAPS_KEYWORD, primes.constructPrimegapsKeywordCommand ());
 	}
@@ -204,6 +211,74 @@ public class EnvironmentalUtilities<T> extends CommandAdministration<T>
 	}
 
 
+	/**
+	 * select the execution engine for a function and report the compile time
+	 * @param tokens the command tokens holding function name and optional mode
+	 */
+	public void selectExecutionEngine (CommandSequence tokens)
+	{
+		StringBuffer name = new StringBuffer ();
+		int pos = getFunctionName (0, tokens, name);
+		Subroutine<T> s = Subroutine.cast (environment.getSymbolMap ().get (name.toString ()));
+		if (s == null) throw new RuntimeException ("Symbol is not a user defined function: " + name);
+
+		if (pos < tokens.size ())
+		{
+			String mode = tokens.get (pos).getTokenImage ().toUpperCase ();
+			try { s.setExecutionMode (Subroutine.ExecutionMode.valueOf (mode)); }
+			catch (IllegalArgumentException e)
+			{
+				throw new RuntimeException
+				(
+					"Unrecognized execution mode: " + mode + ", expected one of " +
+					Arrays.toString (Subroutine.ExecutionMode.values ())
+				);
+			}
+		}
+
+		long start = System.nanoTime ();
+		Subroutine.ExecutionMode effective = s.getEffectiveExecutionMode ();
+		double elapsed = (System.nanoTime () - start) / 1E6;
+
+		environment.getOutStream ().println
+		(
+			name + ": selected " + s.getExecutionMode () + ", running " + effective +
+			", compile time " + elapsed + " ms"
+		);
+	}
+
+
+	/**
+	 * select adaptive cubature or the uniform grid for multi-dimensional integrals,
+	 *  both the generic integral and the 2D spline segments follow the selection
+	 * @param tokens the command tokens holding the optional mode
+	 */
+	public void selectCubature (CommandSequence tokens)
+	{
+		if (tokens.size () > 1)
+		{
+			String mode = tokens.get (1).getTokenImage ().toUpperCase ();
+			if (ADAPTIVE_CUBATURE.equals (mode))
+			{
+				ADSplineReal2DSegmentManager.setIntegrationEngineFactory (AdaptiveCubatureIntegration.newFactoryInstance ());
+				MultiDimensionalRealIntegral.setAdaptiveDefault (true);
+			}
+			else if (GRID_CUBATURE.equals (mode))
+			{
+				ADSplineReal2DSegmentManager.setIntegrationEngineFactory (ADSplineReal2DSegmentManager.getDefaultIntegrationEngineFactory ());
+				MultiDimensionalRealIntegral.setAdaptiveDefault (false);
+			}
+			else throw new RuntimeException ("Unrecognized cubature: " + mode + ", expected " + ADAPTIVE_CUBATURE + " or " + GRID_CUBATURE);
+		}
+
+		environment.getOutStream ().println
+		(
+			"Cubature: " + (MultiDimensionalRealIntegral.isAdaptiveDefault () ? ADAPTIVE_CUBATURE : GRID_CUBATURE)
+		);
+	}
+	static final String ADAPTIVE_CUBATURE = "ADAPTIVE", GRID_CUBATURE = "GRID";
+
+
 	/**
 	 * create a spline tool
 	 * @param tokens the source tokens from the command
@@ -4,10 +4,13 @@ package net.myorb.math.expressions.commands;
 import net.myorb.math.primenumbers.Factorization;
 import net.myorb.math.primenumbers.ReportGenerators;
 import net.myorb.math.primenumbers.sieves.SieveOfEratosthenes;
+import net.myorb.math.primenumbers.sieves.SegmentedWheelSieve;
+import net.myorb.math.primenumbers.sieves.PrimeTable;
 import net.myorb.math.expressions.controls.FactorizedEvaluationControl;
 import net.myorb.math.expressions.evaluationstates.Environment;
 
 import java.io.PrintStream;
+import java.io.File;
 
 /**
  * support for commands using prime numbers
@@ -61,6 +64,39 @@ public class PrimeNumbers<T> extends Utilities<T>
 	}
 
 
+	/**
+	 * attach a compressed prime table to the factorization implementation
+	 * @return a keyword command for the WHEELSIEVE keyword
+	 */
+	public PrimeCommand constructWheelsieveKeywordCommand ()
+	{
+		return new PrimeCommand ()
+		{
+			/* (non-Javadoc)
+			 * @see net.myorb.math.expressions.KeywordMap.KeywordCommand#describe()
+			 */
+			public String describe ()
+			{ return "Extend prime queries with a cached compressed prime table"; }
+
+			/* (non-Javadoc)
+			 * @see net.myorb.math.expressions.KeywordMap.KeywordCommand#execute(java.util.List)
+			 */
+			public void execute (CommandSequence tokens)
+			{
+				long limit = (long) Double.parseDouble (tokens.get (1).getTokenImage ());
+				File cache = new File (tokens.get (2).getTokenImage ());
+
+				PrimeTable table;
+				try { table = SegmentedWheelSieve.tableFor (limit, cache); }
+				catch (Exception e) { throw new RuntimeException ("Prime table not available: " + cache, e); }
+
+				getReportGenerators ().usePrimeTable (table);
+				out.println (table.getPrimeCount () + " primes to " + table.getLimit () + " from " + cache);
+			}
+		};
+	}
+
+
 	/**
 	 * compute data for Prime Table
 	 * @return a keyword command for the PRIMETABLE keyword
@@ -4,12 +4,17 @@ package net.myorb.math.expressions.evaluationstates;
 // representation of expression tree
 import net.myorb.math.expressions.tree.Gardener;
 import net.myorb.math.expressions.tree.Expression;
+import net.myorb.math.expressions.tree.CompiledExpression;
+import net.myorb.math.expressions.tree.RealProgram;
+import net.myorb.math.expressions.tree.RealBytecode;
+import net.myorb.math.expressions.tree.CompiledRealFunction;
 
 // representation of commands and symbols
 import net.myorb.math.expressions.commands.CommandSequence;
 import net.myorb.math.expressions.symbols.AssignedVariableStorage;
 
 // representation of expression components
+import net.myorb.math.expressions.managers.ExpressionFloatingFieldManager;
 import net.myorb.math.expressions.ExpressionSpaceManager;
 import net.myorb.math.expressions.ConventionalNotations;
 import net.myorb.math.expressions.EvaluationEngine;
@@ -25,6 +30,7 @@ import net.myorb.math.Function;
 
 // computation algorithms related to splines and integration
 import net.myorb.math.computational.integration.RealDomainIntegration;
+import net.myorb.math.computational.ConcurrentEvaluation;
 import net.myorb.math.computational.Spline.Operations;
 
 // data abstractions from IO library
@@ -45,7 +51,7 @@ import java.util.List;
  * @author Michael Druckman
  */
 public class Subroutine<T>
-	implements MultiDimensional.Function<T>, RealDomainIntegration<T>
+	implements MultiDimensional.Function<T>, RealDomainIntegration<T>, ConcurrentEvaluation
 {
 
 
@@ -123,6 +129,7 @@ public class Subroutine<T>
 	{
 		this.gardener = gardener;
 		this.useExpressionTree = true;
+		discardCompiledExpression ();
 	}
 	protected Gardener<T> gardener = null;
 
@@ -148,6 +155,7 @@ public class Subroutine<T>
 	{
 		useExpressionTree = true;
 		newExpressionTree (reducedSequence ());
+		discardCompiledExpression ();
 	}
 	protected boolean useExpressionTree = false; // allow use of tree
 
@@ -216,7 +224,12 @@ public class Subroutine<T>
 	 * @param symbols the complete set of symbols
 	 */
 	public void updateSymbolTable (SymbolMap symbols)
-	{ lookupTokenSymbols (symbols, false); }
+	{
+		int known = this.symbols.size ();
+		lookupTokenSymbols (symbols, false);
+		// newly found symbols may allow compilation that failed earlier
+		if (this.symbols.size () != known) discardCompiledExpression ();
+	}
 
 
 	/**
@@ -321,6 +334,149 @@ public class Subroutine<T>
 	protected Expression<T> expression = null;
 
 
+	/*
+	 * compiled execution
+	 */
+
+
+	/**
+	 * lower the function body to a closure tree, the result is cached on the subroutine
+	 * @return the compiled body, NULL when the body requires the interpreter
+	 */
+	public CompiledExpression<T> getCompiledExpression ()
+	{
+		if (compilationAttempted) return compiledExpression;
+		compilationAttempted = true;
+
+		if (executionMode == ExecutionMode.INTERPRETER) return null;
+		if (symbols == null || spaceManager == null) return null;
+
+		try
+		{
+			if (useExpressionTree) { enableExpression (); compiledTree = expression; }
+			else compiledTree = compileTree (reducedSequence ());
+			compiledExpression = new CompiledExpression<T> (compiledTree, parameterNames, spaceManager);
+		}
+		catch (Exception e) { compiledExpression = null; }
+
+		return compiledExpression;
+	}
+	protected CompiledExpression<T> compiledExpression = null;
+	protected boolean compilationAttempted = false;
+	protected Expression<T> compiledTree = null;
+
+
+	/**
+	 * lower a scalar real body to a primitive program, available only in the Real field
+	 * @return the program, NULL when the body is not provably scalar and real
+	 */
+	@SuppressWarnings ("unchecked")
+	public RealProgram getRealProgram ()
+	{
+		if (realProgramAttempted) return realProgram;
+		realProgramAttempted = true;
+
+		if (executionMode.compareTo (ExecutionMode.PROGRAM) < 0) return null;
+		if ( ! (spaceManager instanceof ExpressionFloatingFieldManager) ) return null;
+		if (getCompiledExpression () == null) return null;
+
+		try { realProgram = new RealProgram ((Expression<Double>) compiledTree, parameterNames); }
+		catch (Exception e) { realProgram = null; }
+
+		return realProgram;
+	}
+	protected boolean realProgramAttempted = false;
+	protected RealProgram realProgram = null;
+
+
+	/**
+	 * build a private tree for compilation, the token stream remains the definition
+	 * @param tokens the tokens of the function body
+	 * @return the attributed and reduced tree
+	 * @throws Exception for lexical or semantic errors
+	 */
+	Expression<T> compileTree (List<TokenParser.TokenDescriptor> tokens) throws Exception
+	{
+		Gardener<T> compiler = new Gardener<T> ();
+		compiler.completeLexicalAnalysis (tokens);
+		compiler.completeSemanticAnalysis (symbols, spaceManager);
+		return compiler.getExpression ();
+	}
+
+
+	/**
+	 * force compilation to be repeated on next use
+	 */
+	public void discardCompiledExpression ()
+	{
+		compilationAttempted = realProgramAttempted = bytecodeAttempted = false;
+		compiledExpression = null; compiledTree = null;
+		realProgram = null; bytecodeFunction = null;
+	}
+
+
+	/**
+	 * select compiled or interpreted execution
+	 * @param compiling TRUE = use compiled body when available
+	 */
+	public void setCompiling (boolean compiling)
+	{ setExecutionMode (compiling ? ExecutionMode.PROGRAM : ExecutionMode.INTERPRETER); }
+	public boolean isCompiling () { return executionMode != ExecutionMode.INTERPRETER; }
+
+
+	/**
+	 * execution engines for a function, each falls back to the one before it.
+	 *  INTERPRETER runs the token stream, TREE runs the closure tree,
+	 *  PROGRAM runs the primitive Real program, BYTECODE runs a generated class
+	 */
+	public enum ExecutionMode {INTERPRETER, TREE, PROGRAM, BYTECODE}
+
+
+	/**
+	 * @param executionMode the most compiled engine to allow
+	 */
+	public void setExecutionMode (ExecutionMode executionMode)
+	{ this.executionMode = executionMode; discardCompiledExpression (); }
+	public ExecutionMode getExecutionMode () { return executionMode; }
+	protected ExecutionMode executionMode = ExecutionMode.PROGRAM;
+
+
+	/**
+	 * compile as allowed by the selected mode
+	 * @return the engine that will be used for execution
+	 */
+	public ExecutionMode getEffectiveExecutionMode ()
+	{
+		if (getBytecodeFunction () != null) return ExecutionMode.BYTECODE;
+		if (getRealProgram () != null) return ExecutionMode.PROGRAM;
+		if (getCompiledExpression () != null) return ExecutionMode.TREE;
+		return ExecutionMode.INTERPRETER;
+	}
+
+
+	/**
+	 * generate a class from the primitive Real program
+	 * @return the generated function, NULL when not selected or not possible
+	 */
+	@SuppressWarnings ("unchecked")
+	public CompiledRealFunction getBytecodeFunction ()
+	{
+		if (bytecodeAttempted) return bytecodeFunction;
+		bytecodeAttempted = true;
+
+		if (executionMode != ExecutionMode.BYTECODE) return null;
+		RealProgram program = getRealProgram ();
+		if (program == null) return null;
+
+		try { bytecodeFunction = RealBytecode.generate (program, (SpaceManager<Double>) (Object) spaceManager); }
+		catch (Exception e) { bytecodeFunction = null; }
+
+		return bytecodeFunction;
+	}
+	protected CompiledRealFunction bytecodeFunction = null;
+	protected boolean bytecodeAttempted = false;
+
+
 	/**
 	 * @param splineFunctions the exported functionality from the spline generator
 	 */
@@ -508,7 +664,15 @@ public class Subroutine<T>
 	 */
 	public ValueManager.GenericValue evaluateFunctionAt ( List <T> parameters )
 	{
-		try  {  doCall (parameters);  }  catch (Exception e)
+		CompiledExpression<T> compiled = getCompiledExpression ();
+
+		try
+		{
+			if (compiled != null)
+			{ return compiled.evaluate (compiled.frameFor (parameters)); }
+			doCall (parameters);
+		}
+		catch (Exception e)
 		{
 			if (supressingErrorMessages) return null;
 			throw new ErrorHandling.Terminator ( e.getMessage (), e );
@@ -529,10 +693,37 @@ public class Subroutine<T>
 	 */
 	public T f ( List <T> parameterValues )
 	{
+		RealProgram program;
+		if ((program = getRealProgram ()) != null)
+		{ return evaluate (program, parameterValues); }
 		return valueManager.toDiscrete ( evaluateFunctionAt (parameterValues) );
 	}
 
 
+	/**
+	 * evaluate through the primitive program, boxing happens only at the interface
+	 * @param program the program compiled from the body of this function
+	 * @param parameterValues the parameters to be used by the function
+	 * @return the function result
+	 */
+	@SuppressWarnings ("unchecked")
+	T evaluate (RealProgram program, List <T> parameterValues)
+	{
+		double [] args = new double [parameterValues.size ()];
+		for (int i = 0; i < args.length; i++) args[i] = ((Number) parameterValues.get (i)).doubleValue ();
+		return (T) Double.valueOf (program.eval (args));
+	}
+
+
+	/* (non-Javadoc)
+	 * @see net.myorb.math.computational.ConcurrentEvaluation#allowsConcurrentEvaluation()
+	 */
+	public boolean allowsConcurrentEvaluation ()
+	{
+		return getRealProgram () != null;							// the interpreter shares one stack
+	}
+
+
 	/* (non-Javadoc)
 	 * @see net.myorb.math.MultiDimensional.Function#f(T[])
 	 */
@@ -563,6 +754,17 @@ public class Subroutine<T>
 
 		if (splineFunctions != null) return splineFunctions;
 
+		CompiledRealFunction generated;
+		if ((generated = getBytecodeFunction ()) != null)
+		{
+			@SuppressWarnings ("unchecked") Function<T> f = (Function<T>) (Object) generated;
+			return f;
+		}
+
+		RealProgram program;
+		if ((program = getRealProgram ()) != null)
+		{ return toSimpleFunction (program); }
+
 		return new Function<T>()
 		{
 			public SpaceManager<T> getSpaceManager () { return spaceManager; }
@@ -572,6 +774,27 @@ public class Subroutine<T>
 	}
 
 
+	/**
+	 * wrap a primitive program, boxing happens only at the interface
+	 * @param program the program compiled from the body of this function
+	 * @return Function object evaluated by the program
+	 */
+	public Function<T> toSimpleFunction (final RealProgram program)
+	{
+		return new ProgramFunction (program);
+	}
+	class ProgramFunction implements Function<T>, ConcurrentEvaluation
+	{
+		ProgramFunction (RealProgram program) { this.program = program; }
+		public SpaceManager<T> getSpaceManager () { return spaceManager; }
+		public SpaceManager<T> getSpaceDescription () { return spaceManager; }
+		@SuppressWarnings ("unchecked") public T eval (T x)
+		{ return (T) Double.valueOf (program.eval (((Number) x).doubleValue ())); }
+		public boolean allowsConcurrentEvaluation () { return true; }
+		protected RealProgram program;
+	}
+
+
 	/*
 	 * formal profile specification formatting
 	 */
@@ -629,6 +852,7 @@ public class Subroutine<T>
 	public void setDescription (String description)
 	{
 		functionTokens = TokenParser.parse (new StringBuffer (description));
+		discardCompiledExpression ();
 	}
 
 
@@ -3,6 +3,7 @@ package net.myorb.math.expressions.symbols;
 
 import net.myorb.math.expressions.evaluationstates.Subroutine;
 import net.myorb.math.expressions.evaluationstates.Environment;
+import net.myorb.math.expressions.tree.CompiledExpression;
 
 import net.myorb.math.expressions.ExpressionSpaceManager;
 import net.myorb.math.expressions.EvaluationEngine;
@@ -45,6 +46,10 @@ public class DefinedFunction <T> extends AbstractFunction <T>
 	 */
 	public ValueManager.GenericValue execute (ValueManager.GenericValue parameters)
 	{
+		CompiledExpression <T> compiled;
+		// a compiled body carries parameters in a frame rather than the symbol table
+		if (parameters != null && (compiled = getCompiledExpression ()) != null)
+		{ return compiled.evaluate (compiledCallFrame (compiled, parameters)); }
 		if (parameters != null) establishCallFrame (parameters);
 		// determine if an expression tree has been built for this function
 		if ( ! useExpressionTree ) return tokenStreamInterpretation (constructEngine ());
@@ -88,6 +93,23 @@ public class DefinedFunction <T> extends AbstractFunction <T>
 	}
 
 
+	/**
+	 * build a frame for the compiled body following the rules of establishCallFrame
+	 * @param compiled the compiled body of the function
+	 * @param parameters the values of the parameters to this call
+	 * @return the frame of parameter values
+	 */
+	public ValueManager.GenericValue [] compiledCallFrame
+		(CompiledExpression <T> compiled, ValueManager.GenericValue parameters)
+	{
+		if (parameters instanceof ValueManager.ValueList)
+		{ return compiled.frameFor ( ((ValueManager.ValueList) parameters).getValues () ); }
+		else if (valueManager.isMatrix (parameters) )
+		{ return new ValueManager.GenericValue [] { parameters }; }
+		else return compiled.frameFor (valueManager.toArray (parameters));
+	}
+
+
 	/**
 	 * verify function is user defined
 	 * @param <T> type of data processed in function
@@ -10,6 +10,57 @@ import net.myorb.math.expressions.ValueManager.GenericValue;
 public interface IterationConsumer
 {
 
+	/**
+	 * consumers whose aggregate is an associative reduction of the iteration values,
+	 *  such ranges may be evaluated in parallel
+	 */
+	public interface Reduction
+	{
+		enum Kind {SUM, PRODUCT}
+
+		/**
+		 * @return the operation combining iteration values
+		 */
+		Kind getReductionKind ();
+	}
+
+	/**
+	 * consumers that may find the aggregate before the range is exhausted
+	 */
+	public interface Completion
+	{
+		/**
+		 * @return TRUE when further iterations will not change the aggregate
+		 */
+		boolean isComplete ();
+
+		/**
+		 * @param iterations the number of iterations in the range, negative when not known
+		 */
+		void setIterationsRequested (long iterations);
+	}
+
+	/**
+	 * wrappers that pass iterations through to a consumer algorithm
+	 */
+	public interface Delegating
+	{
+		/**
+		 * @return the consumer receiving the iterations
+		 */
+		IterationConsumer getDelegate ();
+	}
+
+	/**
+	 * @param consumer a consumer that may be a wrapper
+	 * @return the consumer algorithm behind any wrapper
+	 */
+	public static IterationConsumer algorithmOf (IterationConsumer consumer)
+	{
+		while (consumer instanceof Delegating) consumer = ((Delegating) consumer).getDelegate ();
+		return consumer;
+	}
+
 	/**
 	 * establish initial value
 	 */
@@ -12,6 +12,7 @@ import net.myorb.data.abstractions.DataSequence2D;
 import net.myorb.math.matrices.VectorAccess;
 import net.myorb.math.matrices.Matrix;
 
+import net.myorb.math.computational.SeriesAcceleration;
 import net.myorb.math.SpaceManager;
 
 import java.util.ArrayList;
@@ -30,7 +31,8 @@ public class IterationConsumerImplementations
 	public enum Names
 	{
 		AggregateConsumer, ConcatConsumer, StackConsumer, SummationConsumer,
-		IntegralConsumer, QuadratureConsumer, ProductConsumer, PlotConsumer
+		IntegralConsumer, QuadratureConsumer, ProductConsumer, PlotConsumer,
+		WynnConsumer, LevinConsumer, RichardsonConsumer
 	}
 
 
@@ -53,6 +55,9 @@ public class IterationConsumerImplementations
 			case ProductConsumer:		return getProductIterationConsumer (using);
 			case IntegralConsumer:		return getIntegralIterationConsumer (using);
 			case QuadratureConsumer:	return getQuadratureConsumer ();
+			case WynnConsumer:			return getAcceleratedIterationConsumer (SeriesAcceleration.Method.WYNN, using);
+			case LevinConsumer:			return getAcceleratedIterationConsumer (SeriesAcceleration.Method.LEVIN, using);
+			case RichardsonConsumer:	return getAcceleratedIterationConsumer (SeriesAcceleration.Method.RICHARDSON, using);
 			default: throw new RuntimeException ("Internal Error");
 		}
 	}
@@ -137,6 +142,23 @@ public class IterationConsumerImplementations
 	getPlotIterationConsumer (SpaceManager<T> manager)
 	{ return new PlotConsumer<T>(manager); }
 
+	/**
+	 * result of iterations is accelerated sum of series terms,
+	 *  the range ends when the acceleration has converged
+	 * @param method the acceleration transform to apply
+	 * @param manager the type manager for the discrete data type
+	 * @return the new consumer object
+	 * @param <T> data type
+	 */
+	public static <T> IterationConsumer
+	getAcceleratedIterationConsumer (SeriesAcceleration.Method method, SpaceManager<T> manager)
+	{ return new AcceleratedSummationConsumer<T>(method, manager); }
+
+	/**
+	 * @param report TRUE = print terms consumed against terms requested as accelerated ranges end
+	 */
+	public static void setAccelerationReport (boolean report) { AcceleratedSummationConsumer.report = report; }
+
 }
 
 
@@ -194,6 +216,7 @@ abstract class AbstractConsumer<T> implements IterationConsumer
  * @param <T> data type
  */
 class SummationConsumer<T> extends AbstractConsumer<T>
+	implements IterationConsumer.Reduction
 {
 
 	SummationConsumer (SpaceManager<T> manager) { super (manager); }
@@ -213,6 +236,11 @@ class SummationConsumer<T> extends AbstractConsumer<T>
 	 */
 	public String toString () { return "SIGMA"; }
 
+	/* (non-Javadoc)
+	 * @see net.myorb.math.expressions.symbols.IterationConsumer.Reduction#getReductionKind()
+	 */
+	public Kind getReductionKind () { return Kind.SUM; }
+
 }
 
 
@@ -221,6 +249,7 @@ class SummationConsumer<T> extends AbstractConsumer<T>
  * @param <T> data type
  */
 class IntegralConsumer<T> extends AbstractConsumer<T>
+	implements IterationConsumer.Reduction
 {
 
 	IntegralConsumer (SpaceManager<T> manager) { super (manager); }
@@ -240,6 +269,11 @@ class IntegralConsumer<T> extends AbstractConsumer<T>
 	 */
 	public String toString () { return "INTEGRAL"; }
 
+	/* (non-Javadoc)
+	 * @see net.myorb.math.expressions.symbols.IterationConsumer.Reduction#getReductionKind()
+	 */
+	public Kind getReductionKind () { return Kind.SUM; }
+
 }
 
 
@@ -293,6 +327,7 @@ class QuadratureConsumer<T> extends AbstractConsumer<T>
  * @param <T> data type
  */
 class ProductConsumer<T> extends AbstractConsumer<T>
+	implements IterationConsumer.Reduction
 {
 
 	ProductConsumer (SpaceManager<T> manager) { super (manager); }
@@ -312,6 +347,64 @@ class ProductConsumer<T> extends AbstractConsumer<T>
 	 */
 	public String toString () { return "PI"; }
 
+	/* (non-Javadoc)
+	 * @see net.myorb.math.expressions.symbols.IterationConsumer.Reduction#getReductionKind()
+	 */
+	public Kind getReductionKind () { return Kind.PRODUCT; }
+
+}
+
+
+/**
+ * accelerated sum of iteration values (WYNN, LEVIN and RICHARDSON operators)
+ * @param <T> data type
+ */
+class AcceleratedSummationConsumer<T> extends AbstractConsumer<T>
+	implements IterationConsumer.Completion
+{
+
+	AcceleratedSummationConsumer (SeriesAcceleration.Method method, SpaceManager<T> manager)
+	{ super (manager); this.accelerator = SeriesAcceleration.forMethod (method, manager); }
+	protected SeriesAcceleration<T> accelerator;
+
+	/* (non-Javadoc)
+	 * @see net.myorb.math.expressions.symbols.IterationConsumer#accept(net.myorb.math.expressions.ValueManager.GenericValue)
+	 */
+	public void accept (GenericValue value) { accelerator.accept (v = valueManager.toDiscrete (value)); aggregateValue = accelerator.getEstimate (); dump (); }
+
+	/* (non-Javadoc)
+	 * @see net.myorb.math.expressions.symbols.IterationConsumer#init()
+	 */
+	public void init () { accelerator.reset (); init (manager.getZero ()); requested = -1; }
+
+	/* (non-Javadoc)
+	 * @see net.myorb.math.expressions.symbols.IterationConsumer.Completion#isComplete()
+	 */
+	public boolean isComplete () { return accelerator.isComplete (); }
+
+	/* (non-Javadoc)
+	 * @see net.myorb.math.expressions.symbols.IterationConsumer.Completion#setIterationsRequested(long)
+	 */
+	public void setIterationsRequested (long iterations)
+	{ requested = iterations; if (report) System.out.println (getReport ()); }
+	protected long requested;
+	static boolean report = false;
+
+	/**
+	 * @return terms consumed against terms requested with the outcome of the acceleration
+	 */
+	public String getReport () { return accelerator.getReport (requested); }
+
+	/**
+	 * @return the accelerator holding the state of the series
+	 */
+	public SeriesAcceleration<T> getAccelerator () { return accelerator; }
+
+	/* (non-Javadoc)
+	 * @see java.lang.Object#toString()
+	 */
+	public String toString () { return accelerator.toString (); }
+
 }
 
 
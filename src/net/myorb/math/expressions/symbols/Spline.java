@@ -267,16 +267,20 @@ public class Spline<T> extends SplineDescriptor<T>
 	/**
 	 * identify the segment that has a domain match for the parameter
 	 * @param x the value of x at which the function is to be evaluated
+	 * - binary search of the LO constraints which are in ascending order
 	 * @return the ordinal value of the segment table entry that matches
 	 */
 	private int getSegmentNumber (T x)
 	{
 		List<T> lo = getSegmentLoConstraints ();
-		for (int i = lo.size () - 1; i > 0; i--)
+		int first = 1, last = lo.size () - 1, found = 0;
+		while (first <= last)
 		{
-			if (!sm.lessThan (x, lo.get (i))) return i;
+			int mid = (first + last) >>> 1;
+			if (sm.lessThan (x, lo.get (mid))) last = mid - 1;
+			else { found = mid; first = mid + 1; }
 		}
-		return 0;
+		return found;
 	}
 
 
@@ -0,0 +1,331 @@
+package net.myorb.math.expressions.tree;
+
+import net.myorb.math.expressions.SymbolMap;
+import net.myorb.math.expressions.ValueManager;
+import net.myorb.math.expressions.ExpressionSpaceManager;
+import net.myorb.math.expressions.ValueManager.GenericValue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * an expression tree lowered to a tree of closures.
+ *  symbol references are resolved once at compile time,
+ *  parameters are carried in a frame supplied to each evaluation
+ * @param <T> data type used in expressions
+ * @author Michael Druckman
+ */
+public class CompiledExpression<T>
+{
+
+
+	/**
+	 * a node of the compiled tree
+	 */
+	public interface Closure
+	{
+		/**
+		 * @param frame the values of the parameters for this call
+		 * @return the value computed by the node
+		 */
+		GenericValue eval (GenericValue [] frame);
+	}
+
+
+	/**
+	 * tree content that has no compiled equivalent
+	 */
+	public static class Unsupported extends Exception
+	{
+		public Unsupported (String message) { super (message); }
+		private static final long serialVersionUID = 4316843727203561098L;
+	}
+
+
+	/**
+	 * lower an attributed and reduced tree
+	 * @param expression the expression tree after semantic analysis
+	 * @param parameterNames the formal parameter names, positions give frame slots
+	 * @param spaceManager manager for the data type
+	 * @throws Unsupported for tree content that must be interpreted
+	 */
+	public CompiledExpression
+		(
+			Expression<T> expression, List<String> parameterNames,
+			ExpressionSpaceManager<T> spaceManager
+		)
+	throws Unsupported
+	{
+		this.valueManager = new ValueManager<T> ();
+		this.parameterNames = new ArrayList<String> (parameterNames);
+		this.spaceManager = spaceManager;
+		this.root = lower (expression);
+	}
+	protected ExpressionSpaceManager<T> spaceManager;
+	protected ValueManager<T> valueManager;
+	protected List<String> parameterNames;
+	protected Closure root;
+
+
+	/**
+	 * @return the number of frame slots expected by evaluate
+	 */
+	public int getFrameSize () { return parameterNames.size (); }
+
+
+	/**
+	 * compute the value of the expression
+	 * @param frame the values of the parameters for this call
+	 * @return the computed value
+	 */
+	public GenericValue evaluate (GenericValue [] frame) { return root.eval (frame); }
+
+
+	/**
+	 * build a frame from discrete parameter values
+	 * @param parameters the parameter values in positional order
+	 * @return the frame holding the values
+	 */
+	public GenericValue [] frameFor (List<T> parameters)
+	{
+		GenericValue [] frame = new GenericValue [parameterNames.size ()];
+		for (int n = 0; n < frame.length && n < parameters.size (); n++)
+		{ frame [n] = valueManager.newDiscreteValue (parameters.get (n)); }
+		return frame;
+	}
+
+
+	/**
+	 * build a frame from generic parameter values
+	 * @param parameters the parameter values in positional order
+	 * @return the frame holding the values
+	 */
+	public GenericValue [] frameFor (ValueManager.GenericValueList parameters)
+	{
+		GenericValue [] frame = new GenericValue [parameterNames.size ()];
+		for (int n = 0; n < frame.length && n < parameters.size (); n++) frame [n] = parameters.get (n);
+		return frame;
+	}
+
+
+	/*
+	 * lowering of tree nodes
+	 */
+
+
+	/**
+	 * lower a non-specific node
+	 * @param element the node of the tree
+	 * @return the closure computing the node
+	 * @throws Unsupported for nodes that must be interpreted
+	 */
+	@SuppressWarnings ("unchecked")
+	public Closure lower (Element element) throws Unsupported
+	{
+		switch (element.getElementType ())
+		{
+			case TEXT:					return lowerText ((LexicalAnalysis.TextLiteral) element);
+			case CONSTANT:				return lowerConstant ((LexicalAnalysis.NumericConstant<T>) element);
+			case LITERAL:				return lowerLiteral ((LexicalAnalysis.NumericLiteral<T>) element);
+			case IDENTIFIER:			return lowerIdentifier ((LexicalAnalysis.Identifier<T>) element);
+			case INVOCATION:			return lowerInvocation ((SemanticAnalysis.Invocation<T>) element);
+			case AGGREGATE:				return lowerAggregate ((SemanticAnalysis.AggregateLiteral<T>) element);
+			case BINARY_OPERATION:		return lowerBinaryOperation ((SemanticAnalysis.BinaryOperatorNode<T>) element);
+			case SUBEXPRESSION:			return lowerSubExpression ((SubExpression<T>) element);
+			default:					break;
+		}
+		// range and calculus descriptors maintain state in the symbol table
+		throw new Unsupported ("Node requires interpretation: " + element.getElementType ());
+	}
+
+
+	/**
+	 * @param expression a wrapper node
+	 * @return closure for the single child, or empty list
+	 * @throws Unsupported for nodes that must be interpreted
+	 */
+	Closure lowerSubExpression (SubExpression<T> expression) throws Unsupported
+	{
+		int size = expression.size ();
+		if (size > 1) throw new Unsupported ("Expression not reduced: " + expression);
+		if (size == 1) return lower (expression.get (0));
+
+		return new Closure ()
+		{
+			public GenericValue eval (GenericValue [] frame)
+			{ return valueManager.newValueList (); }
+		};
+	}
+
+
+	/**
+	 * @param element a text literal
+	 * @return closure producing the text
+	 */
+	Closure lowerText (LexicalAnalysis.TextLiteral element)
+	{
+		final String text = element.getValue ();
+
+		return new Closure ()
+		{
+			public GenericValue eval (GenericValue [] frame)
+			{ return valueManager.newText (text); }
+		};
+	}
+
+
+	/**
+	 * @param element an integer constant
+	 * @return closure producing the converted constant
+	 */
+	Closure lowerConstant (LexicalAnalysis.NumericConstant<T> element)
+	{
+		return discrete (spaceManager.newScalar (element.value));
+	}
+
+
+	/**
+	 * @param element a numeric literal
+	 * @return closure producing the literal
+	 */
+	Closure lowerLiteral (LexicalAnalysis.NumericLiteral<T> element)
+	{
+		return discrete (element.getValue ());
+	}
+
+
+	/**
+	 * values are wrapped per evaluation since consumers may name them
+	 * @param value the pre-converted value
+	 * @return closure producing a fresh wrapper of the value
+	 */
+	Closure discrete (final T value)
+	{
+		return new Closure ()
+		{
+			public GenericValue eval (GenericValue [] frame)
+			{ return valueManager.newDiscreteValue (value); }
+		};
+	}
+
+
+	/**
+	 * parameters resolve to frame slots, variables to the symbol table entry
+	 * @param element an identifier node
+	 * @return closure producing the value of the identifier
+	 * @throws Unsupported for identifiers with no value
+	 */
+	Closure lowerIdentifier (LexicalAnalysis.Identifier<T> element) throws Unsupported
+	{
+		final String name = element.getSymbolProperties ().getName ();
+		final int slot = parameterNames.indexOf (name);
+
+		if (slot >= 0)
+		{
+			return new Closure ()
+			{
+				public GenericValue eval (GenericValue [] frame)
+				{
+					GenericValue value = frame [slot];
+					if (value == null) throw new RuntimeException ("Parameter not supplied: " + name);
+					value.setName (name); return value;
+				}
+			};
+		}
+
+		SymbolMap.Named symbol = element.getSymbolProperties ().getSymbolReference ();
+		if ( ! (symbol instanceof SymbolMap.VariableLookup) )
+		{ throw new Unsupported ("Identifier has no value: " + name); }
+		final SymbolMap.VariableLookup variable = (SymbolMap.VariableLookup) symbol;
+
+		return new Closure ()
+		{
+			public GenericValue eval (GenericValue [] frame)
+			{ GenericValue value = variable.getValue (); value.setName (name); return value; }
+		};
+	}
+
+
+	/**
+	 * functions and unary operators share the executable protocol
+	 * @param element an invocation node
+	 * @return closure executing the operator on the lowered parameter
+	 * @throws Unsupported for parameters that must be interpreted
+	 */
+	Closure lowerInvocation (SemanticAnalysis.Invocation<T> element) throws Unsupported
+	{
+		final SymbolMap.ExecutableUnaryOperator executable =
+			resolve (element.identifier, SymbolMap.ExecutableUnaryOperator.class);
+		final Closure parameter = lower (element.parameter);
+
+		return new Closure ()
+		{
+			public GenericValue eval (GenericValue [] frame)
+			{ return executable.execute (parameter.eval (frame)); }
+		};
+	}
+
+
+	/**
+	 * @param element a binary operator node
+	 * @return closure executing the operator on the lowered operands
+	 * @throws Unsupported for operands that must be interpreted
+	 */
+	Closure lowerBinaryOperation (SemanticAnalysis.BinaryOperatorNode<T> element) throws Unsupported
+	{
+		final SymbolMap.BinaryOperator executable =
+			resolve (element.op, SymbolMap.BinaryOperator.class);
+		final Closure left = lower (element.left), right = lower (element.right);
+
+		return new Closure ()
+		{
+			public GenericValue eval (GenericValue [] frame)
+			{
+				GenericValue l = left.eval (frame), r = right.eval (frame);
+				return executable.execute (l, r);
+			}
+		};
+	}
+
+
+	/**
+	 * @param element an aggregate node
+	 * @return closure building the dimensioned value
+	 * @throws Unsupported for members that must be interpreted
+	 */
+	Closure lowerAggregate (SemanticAnalysis.AggregateLiteral<T> element) throws Unsupported
+	{
+		final List<Closure> members = new ArrayList<Closure> ();
+		for (Element e : element.expression) members.add (lower (e));
+
+		return new Closure ()
+		{
+			public GenericValue eval (GenericValue [] frame)
+			{
+				ValueManager.RawValueList<T> raw = new ValueManager.RawValueList<T> ();
+				for (Closure c : members) raw.add (valueManager.toDiscrete (c.eval (frame)));
+				return valueManager.newDimensionedValue (raw);
+			}
+		};
+	}
+
+
+	/**
+	 * find the symbol table entry bound to an operator node
+	 * @param element the node naming the operator
+	 * @param operatorClass the expected class of the operator
+	 * @return the operator found by semantic analysis
+	 * @throws Unsupported when the symbol is missing or of the wrong class
+	 * @param <C> type of operator
+	 */
+	<C> C resolve (Element element, Class<C> operatorClass) throws Unsupported
+	{
+		SymbolMap.Named symbol = null;
+		if (element instanceof LexicalAnalysis.NamedSymbol)
+		{ symbol = ((LexicalAnalysis.NamedSymbol) element).getSymbolProperties ().getSymbolReference (); }
+		if ( ! operatorClass.isInstance (symbol) ) throw new Unsupported ("Operator not resolved: " + element);
+		return operatorClass.cast (symbol);
+	}
+
+
+}
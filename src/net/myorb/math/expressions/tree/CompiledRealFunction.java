@@ -0,0 +1,134 @@
+package net.myorb.math.expressions.tree;
+
+import net.myorb.math.expressions.SymbolMap;
+
+import net.myorb.math.computational.ConcurrentEvaluation;
+
+import net.myorb.math.SpaceManager;
+import net.myorb.math.Function;
+
+import java.util.function.DoubleUnaryOperator;
+
+/**
+ * base for classes generated from a RealProgram.
+ *  generated classes override applyAsDouble for single parameter functions
+ *  or evalAt for functions of several parameters, the body being straight-line
+ *  byte code the JIT can inline into hot loops
+ * @author Michael Druckman
+ */
+public abstract class CompiledRealFunction
+	implements Function<Double>, DoubleUnaryOperator, ConcurrentEvaluation
+{
+
+
+	protected CompiledRealFunction () {}
+
+
+	/**
+	 * connect the generated body to the program context
+	 * @param program the program the body was generated from
+	 * @param manager the manager for the Real field
+	 */
+	void bind (RealProgram program, SpaceManager<Double> manager)
+	{
+		this.variables = program.variables;
+		this.calls = program.calls;
+		this.program = program;
+		this.manager = manager;
+	}
+	protected SymbolMap.VariableLookup [] variables;
+	protected SpaceManager<Double> manager;
+	protected RealProgram [] calls;
+	protected RealProgram program;
+
+
+	/**
+	 * @return the program the body was generated from
+	 */
+	public RealProgram getProgram () { return program; }
+
+
+	/* (non-Javadoc)
+	 * @see net.myorb.math.computational.ConcurrentEvaluation#allowsConcurrentEvaluation()
+	 */
+	public boolean allowsConcurrentEvaluation () { return true; }
+
+
+	/* (non-Javadoc)
+	 * @see java.util.function.DoubleUnaryOperator#applyAsDouble(double)
+	 */
+	public double applyAsDouble (double x)
+	{
+		return evalAt (new double [] { x });
+	}
+
+
+	/**
+	 * evaluate a function of several parameters
+	 * @param args the values of the parameters
+	 * @return the computed value
+	 */
+	public double evalAt (double [] args)
+	{
+		if (args.length != 1) throw new RuntimeException ("Parameter count mismatch");
+		return applyAsDouble (args [0]);
+	}
+
+
+	/* (non-Javadoc)
+	 * @see net.myorb.data.abstractions.Function#eval(java.lang.Object)
+	 */
+	public Double eval (Double x) { return applyAsDouble (x); }
+
+
+	/* (non-Javadoc)
+	 * @see net.myorb.math.Function#getSpaceManager()
+	 */
+	public SpaceManager<Double> getSpaceManager () { return manager; }
+	public SpaceManager<Double> getSpaceDescription () { return manager; }
+
+
+	/*
+	 * helpers called from generated code
+	 */
+
+
+	/**
+	 * @param slot the variable slot of the program
+	 * @return the current value of the variable
+	 */
+	protected final double var (int slot) { return program.valueOf (variables [slot]); }
+
+
+	/**
+	 * @param x the parameter to the called function
+	 * @param slot the call slot of the program
+	 * @return the value computed by the called function
+	 */
+	protected final double call (double x, int slot) { return calls [slot].eval (x); }
+
+
+	/**
+	 * @param x the base
+	 * @param y the exponent
+	 * @return x^y following the conventions of the POW operator
+	 */
+	public static double pow (double x, double y) { return RealProgram.pow (x, y); }
+
+
+	/**
+	 * @param x the base
+	 * @param y the exponent
+	 * @return exp (y * ln (x)), zero for a zero base
+	 */
+	public static double exponentiate (double x, double y) { return RealProgram.exponentiate (x, y); }
+
+
+	/**
+	 * @param x the value to check
+	 * @return -1 for negative values otherwise 1
+	 */
+	public static double sgn (double x) { return x < 0 ? -1 : 1; }
+
+
+}
@@ -15,11 +15,13 @@ import net.myorb.math.expressions.symbols.AbstractFunction;
 import net.myorb.math.expressions.symbols.DefinedFunction;
 
 import net.myorb.math.expressions.ExpressionSpaceManager;
+import net.myorb.math.expressions.ColumnarStorage;
 import net.myorb.math.expressions.TokenParser;
 import net.myorb.math.expressions.SymbolMap;
 
 import net.myorb.math.computational.CommonSplineDescription;
 import net.myorb.math.computational.splines.Representation;
+import net.myorb.math.computational.splines.StorageFormat;
 import net.myorb.math.computational.Spline.Operations;
 
 import net.myorb.math.GeneratingFunctions.Coefficients;
@@ -500,7 +502,7 @@ public class Gardener<T>
 
 
 	/**
-	 * load spline description from JSON
+	 * load spline description from JSON, or from a columnar container when one is present
 	 * @param functionName the name of the source file
 	 * @param environment access to utility methods
 	 * @return a gardener for the tree restored from the source
@@ -514,11 +516,34 @@ public class Gardener<T>
 		)
 	throws Exception
 	{
+		File columnar = new File (EXPRESSION_DIRECTORY, functionName + ColumnarStorage.EXTENSION);
+		if (columnar.exists ()) return loadColumnarSpline (columnar, environment);
 		File file = fileCalled (functionName, SINGLE_TREE_EXTENSION);
 		return loadJsonSpline (file, environment);
 	}
 
 
+	/**
+	 * load spline description from a columnar container
+	 * @param container a file written from StorageFormat columnar form
+	 * @param environment access to utility methods
+	 * @return a gardener for the tree restored from the source
+	 * @throws Exception for errors found
+	 * @param <T> data type used
+	 */
+	public static <T> Gardener <T> loadColumnarSpline
+		(
+			File container, Environment <T> environment
+		)
+	throws Exception
+	{
+		Gardener <T> g;
+		(g = new Gardener <T> (environment)).parseColumnarSpline (container);
+		g.defineSectionedFunction (environment.getSymbolMap ());
+		return g;
+	}
+
+
 	/**
 	 * load spline description from JSON source
 	 * @param json a JSON source file for import
@@ -565,6 +590,20 @@ public class Gardener<T>
 	}
 
 
+	/**
+	 * read the spline of a columnar container through its JSON expression
+	 * @param container reference to the container file
+	 * @throws Exception for errors found
+	 */
+	public void parseColumnarSpline (File container) throws Exception
+	{
+		JsonSemantics.JsonValue v;
+		try (ColumnarStorage.Reader reader = new ColumnarStorage.Reader (container))
+		{ v = doRestore (StorageFormat.express (reader)); }
+		setSpline (restore.getSectionedSpline (v));
+	}
+
+
 	/*
 	 * JSON expression processing
 	 */
@@ -679,9 +718,20 @@ public class Gardener<T>
 	 * @throws Exception for any errors
 	 */
 	public JsonSemantics.JsonValue doRestore (SimpleStreamIO.TextSource source) throws Exception
+	{
+		return doRestore (JsonReader.readFrom (source));
+	}
+
+
+	/**
+	 * verify pattern of a JSON tree
+	 * @param value the tree representation to be restored
+	 * @return the tree representation
+	 * @throws Exception for any errors
+	 */
+	public JsonSemantics.JsonValue doRestore (JsonSemantics.JsonValue value) throws Exception
 	{
 		restore = new JsonRestore<T> (spaceManager, environment.getSymbolMap ());
-		JsonSemantics.JsonValue value = JsonReader.readFrom (source);
 
 		if ( ! (value instanceof JsonSemantics.JsonObject) )
 		{ throw new RuntimeException ("JSON representation error"); }
@@ -0,0 +1,258 @@
+package net.myorb.math.expressions.tree;
+
+import net.myorb.math.expressions.ValueManager;
+import net.myorb.math.expressions.ValueManager.GenericValue;
+import net.myorb.math.expressions.symbols.IterationConsumer;
+import net.myorb.math.expressions.managers.ExpressionFloatingFieldManager;
+
+import net.myorb.math.computational.CompensatedSum;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.Arrays;
+
+/**
+ * parallel evaluation of SIGMA and PI ranges in the Real field.
+ *  a range qualifies when its target lowers to a RealProgram (proof that the body is
+ *  scalar, real and free of side effects) and its bounds step by an integer delta,
+ *  so the value of the local variable at any iteration is computed exactly from its
+ *  index.  the index range is cut into chunks evaluated on the fork/join pool, each
+ *  with its own program workspace as the local-variable frame; sums are combined with
+ *  Neumaier compensation and products carry their binary exponent apart from the
+ *  mantissa so partial products neither overflow nor underflow.
+ *  all other ranges are left to the serial loop
+ * @author Michael Druckman
+ */
+public class ParallelRangeReduction
+{
+
+
+	/**
+	 * @param enabled FALSE forces serial evaluation of all ranges
+	 */
+	public static void setEnabled (boolean enabled) { ParallelRangeReduction.enabled = enabled; }
+	static volatile boolean enabled = true;
+
+	public static int MINIMUM_ITERATIONS = 1 << 14, CHUNK = 1 << 12;
+	static final double EXACT_LIMIT = 0x1p53;
+
+
+	/**
+	 * evaluate the range when it qualifies
+	 * @param digest the digest of the range with the local variable at its first value
+	 * @param wrapper the consumer of the range, possibly wrapping the algorithm
+	 * @return TRUE when the consumer holds the result, FALSE for serial evaluation
+	 * @param <T> data type of expressions
+	 */
+	static <T> boolean reduce (RangeNodeDigest<T> digest, IterationConsumer wrapper)
+	{
+		IterationConsumer consumer = IterationConsumer.algorithmOf (wrapper);
+		if (!enabled || !(consumer instanceof IterationConsumer.Reduction)) return false;
+		if ( ! (digest.calculator.spaceManager instanceof ExpressionFloatingFieldManager) ) return false;
+
+		double start, delta;
+		try
+		{
+			start = realValue (digest.getLocalVariableValue ());
+			delta = realValue (digest.getDelta ());
+		}
+		catch (RuntimeException e) { return false; }
+		if (!isInteger (start) || !isInteger (delta) || delta <= 0) return false;
+
+		long count = countOf (digest, start, delta);
+		if (count < MINIMUM_ITERATIONS || Math.abs (start) + count * delta >= EXACT_LIMIT) return false;
+
+		RealProgram program = programFor (digest);
+		if (program == null) return false;
+
+		double [] partial = ForkJoinPool.commonPool ().invoke
+			(
+				new Chunk (program, ((IterationConsumer.Reduction) consumer).getReductionKind (), start, delta, 0, count)
+			);
+
+		ValueManager<Double> values = new ValueManager<Double> ();
+		digest.setLocalVariableValue (values.newDiscreteValue (start + count * delta));
+		consumer.setCurrentValue (values.newDiscreteValue (resultOf (consumer, partial)));
+		return true;
+	}
+
+
+	/**
+	 * @param value a generic value
+	 * @return the value as a primitive
+	 * @throws RuntimeException for values that are not scalar
+	 */
+	static double realValue (GenericValue value) throws RuntimeException
+	{
+		if ( ! (value instanceof ValueManager.DiscreteValue) ) throw new RuntimeException ("Scalar expected");
+		return ((Number) ((ValueManager.DiscreteValue<?>) value).getValue ()).doubleValue ();
+	}
+	static boolean isInteger (double x) { return x == Math.rint (x) && Math.abs (x) < EXACT_LIMIT; }
+
+
+	/**
+	 * count iterations using the hi bound operator of the range
+	 * @param digest the digest of the range
+	 * @param start the first value of the local variable
+	 * @param delta the increment of the local variable
+	 * @return the number of iterations the serial loop would run
+	 * @param <T> data type of expressions
+	 */
+	static <T> long countOf (RangeNodeDigest<T> digest, double start, double delta)
+	{
+		double hi;
+		try { hi = realValue (digest.getHiBnd ()); }
+		catch (RuntimeException e) { return 0; }
+		if (Double.isNaN (hi) || Math.abs (hi) >= EXACT_LIMIT) return 0;
+
+		ValueManager<Double> values = new ValueManager<Double> ();
+		long count = Math.max (0, (long) Math.floor ((hi - start) / delta) + 1);
+		while (count > 0 && !digest.inRange (values.newDiscreteValue (start + (count - 1) * delta))) count--;
+		while (digest.inRange (values.newDiscreteValue (start + count * delta))) count++;
+		return count;
+	}
+
+
+	/**
+	 * @param digest the digest of a range part way through its iterations, still in range
+	 * @return the number of iterations left, negative when the count is not known
+	 * @param <T> data type of expressions
+	 */
+	static <T> long countRemaining (RangeNodeDigest<T> digest)
+	{
+		if ( ! (digest.calculator.spaceManager instanceof ExpressionFloatingFieldManager) ) return -1;
+		try
+		{
+			double delta = realValue (digest.getDelta ());
+			if (delta <= 0 || Double.isNaN (delta)) return -1;
+			long count = countOf (digest, realValue (digest.getLocalVariableValue ()), delta);
+			return count > 0 ? count : -1;
+		}
+		catch (RuntimeException e) { return -1; }
+	}
+
+
+	/**
+	 * lower the target with the local variable as the only parameter
+	 * @param digest the digest of the range
+	 * @return the program, NULL when the target is not provably scalar and real
+	 * @param <T> data type of expressions
+	 */
+	@SuppressWarnings ("unchecked")
+	static <T> RealProgram programFor (RangeNodeDigest<T> digest)
+	{
+		try
+		{
+			return new RealProgram
+			(
+				(Expression<Double>) digest.getTargetExpression (),
+				Arrays.asList (digest.variableName)
+			);
+		}
+		catch (Exception e) { return null; }
+	}
+
+
+	/*
+	 * accumulation
+	 */
+
+
+	/**
+	 * @param consumer the consumer of the range
+	 * @param partial the combined accumulator of all chunks
+	 * @return the value of the reduction
+	 */
+	static double resultOf (IterationConsumer consumer, double [] partial)
+	{
+		switch (((IterationConsumer.Reduction) consumer).getReductionKind ())
+		{
+			case SUM:		return partial[0] + partial[1];
+			case PRODUCT:	return Math.scalb (partial[0], (int) Math.max (Integer.MIN_VALUE, Math.min (Integer.MAX_VALUE, partial[1])));
+			default:		throw new RuntimeException ("Internal error: reduction kind");
+		}
+	}
+
+
+	/**
+	 * evaluation of a contiguous block of iterations,
+	 *  the result is {sum, compensation} or {mantissa, binary exponent}
+	 */
+	static class Chunk extends RecursiveTask<double[]>
+	{
+
+		Chunk
+			(
+				RealProgram program, IterationConsumer.Reduction.Kind kind,
+				double start, double delta, long lo, long hi
+			)
+		{
+			this.program = program; this.kind = kind;
+			this.start = start; this.delta = delta;
+			this.lo = lo; this.hi = hi;
+		}
+		protected IterationConsumer.Reduction.Kind kind;
+		protected RealProgram program;
+		protected double start, delta;
+		protected long lo, hi;
+
+		/* (non-Javadoc)
+		 * @see java.util.concurrent.RecursiveTask#compute()
+		 */
+		protected double[] compute ()
+		{
+			if (hi - lo <= CHUNK) return kind == IterationConsumer.Reduction.Kind.SUM ? sum () : product ();
+
+			long mid = (lo + hi) >>> 1;
+			Chunk left = new Chunk (program, kind, start, delta, lo, mid);
+			left.fork ();
+			double [] r = new Chunk (program, kind, start, delta, mid, hi).compute (), l = left.join ();
+			return kind == IterationConsumer.Reduction.Kind.SUM ? combineSums (l, r) : combineProducts (l, r);
+		}
+
+		double [] sum ()
+		{
+			CompensatedSum s = new CompensatedSum ();
+			for (long k = lo; k < hi; k++) s.add (program.eval (start + k * delta));
+			return new double [] { s.value (), 0 };
+		}
+
+		double [] product ()
+		{
+			double mantissa = 1, exponent = 0;
+			for (long k = lo; k < hi; k++)
+			{
+				mantissa *= program.eval (start + k * delta);
+				int e = Math.getExponent (mantissa);
+				if (e > RENORMALIZE || e < -RENORMALIZE)
+				{
+					if (mantissa == 0 || Double.isNaN (mantissa) || Double.isInfinite (mantissa)) continue;
+					mantissa = Math.scalb (mantissa, -e); exponent += e;
+				}
+			}
+			return new double [] { mantissa, exponent };
+		}
+
+		private static final long serialVersionUID = -6017382446815072301L;
+	}
+	static final int RENORMALIZE = 256;
+
+	static double [] combineSums (double [] l, double [] r)
+	{
+		double s = l[0] + r[0], b = s - l[0];										// two-sum keeps the rounding error
+		if (Double.isInfinite (s) || Double.isNaN (s)) return new double [] { s, 0 };	// no rounding error to keep, Inf - Inf is NaN
+		double low = (l[0] - (s - b)) + (r[0] - b) + l[1] + r[1], high = s + low;
+		return new double [] { high, low - (high - s) };
+	}
+
+	static double [] combineProducts (double [] l, double [] r)
+	{
+		double mantissa = l[0] * r[0], exponent = l[1] + r[1];
+		int e = Math.getExponent (mantissa);
+		if (mantissa != 0 && !Double.isNaN (mantissa) && !Double.isInfinite (mantissa))
+		{ mantissa = Math.scalb (mantissa, -e); exponent += e; }
+		return new double [] { mantissa, exponent };
+	}
+
+
+}
@@ -57,7 +57,9 @@ public class RangeEvaluator<T>
 
 
 	/**
-	 * standard delta iterative loop
+	 * standard delta iterative loop,
+	 *  SIGMA and PI ranges with a scalar real body are handed to ParallelRangeReduction,
+	 *  consumers implementing Completion may end the loop early
 	 * @param consumer the object used to digest the iteration results
 	 */
 	public void doIterativeLoopEvaluation (IterationConsumer consumer)
@@ -66,15 +68,36 @@ public class RangeEvaluator<T>
 		initializeLocalVariable ();
 
 		if (digest.incrementLoBound ()) { digest.increment (); }
+		if (ParallelRangeReduction.reduce (digest, consumer)) return;
+
+		IterationConsumer.Completion completion = completionOf (consumer);
+		long iterations = 0, remaining = 0;
 
 		while (inRange ())
 		{
 			consumer.setIterationValue
 				(iterator = digest.getLocalVariableValue ());
 			showIteration (iterator, result = digest.evaluateTarget ());
-			consumer.accept (result);
+			consumer.accept (result); iterations++;
 			digest.increment ();
+
+			if (completion != null && completion.isComplete ())
+			{ remaining = inRange () ? ParallelRangeReduction.countRemaining (digest) : 0; break; }
 		}
+
+		if (completion != null)
+		{ completion.setIterationsRequested (remaining < 0 ? -1 : iterations + remaining); }
+	}
+
+	/**
+	 * @param consumer the object used to digest the iteration results
+	 * @return the consumer as Completion, NULL when it always takes the full range
+	 */
+	static IterationConsumer.Completion completionOf (IterationConsumer consumer)
+	{
+		IterationConsumer algorithm = IterationConsumer.algorithmOf (consumer);
+		if (algorithm instanceof IterationConsumer.Completion) return (IterationConsumer.Completion) algorithm;
+		return null;
 	}
 
 
@@ -181,7 +181,15 @@ public class RangeNodeDigest<T>
 	 */
 	public boolean inRange ()
 	{
-		GenericValue varValue = getLocalVariableValue ();
+		return inRange (getLocalVariableValue ());
+	}
+
+	/**
+	 * @param varValue a candidate value of the local variable
+	 * @return TRUE = value is within the hi bound
+	 */
+	public boolean inRange (GenericValue varValue)
+	{
 		GenericValue comparison = hiCompare.execute (varValue, hiBnd);
 		return ! calculator.isZero (comparison);
 	}
@@ -0,0 +1,304 @@
+package net.myorb.math.expressions.tree;
+
+import net.myorb.math.SpaceManager;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * generation of JVM byte code from a RealProgram.
+ *  the program stack maps directly onto the operand stack so each op-code
+ *  translates to a short straight-line sequence; the result is a class extending
+ *  CompiledRealFunction defined by a class loader of its own
+ * @author Michael Druckman
+ */
+public class RealBytecode
+{
+
+
+	/**
+	 * generate and load the class for a program
+	 * @param program a program lowered from a scalar real expression
+	 * @param manager the manager for the Real field
+	 * @return an instance of the generated class
+	 * @throws Exception for programs with no byte code equivalent
+	 */
+	public static CompiledRealFunction generate
+		(RealProgram program, SpaceManager<Double> manager)
+	throws Exception
+	{
+		byte [] classFile = new RealBytecode (program).assemble ();
+		Class<?> generated = new GeneratedClassLoader ().define (classFile);
+		CompiledRealFunction f = (CompiledRealFunction) generated.getDeclaredConstructor ().newInstance ();
+		f.bind (program, manager);
+		return f;
+	}
+
+
+	/**
+	 * each generated class gets its own loader so the one class name can be
+	 *  reused, and the class is collected with the function that holds it
+	 */
+	static class GeneratedClassLoader extends ClassLoader
+	{
+		GeneratedClassLoader () { super (CompiledRealFunction.class.getClassLoader ()); }
+		Class<?> define (byte [] classFile) { return defineClass (NAME.replace ('/', '.'), classFile, 0, classFile.length); }
+	}
+
+
+	RealBytecode (RealProgram program) { this.program = program; }
+	protected RealProgram program;
+
+
+	/*
+	 * class file layout
+	 */
+
+
+	static final String
+	BASE = "net/myorb/math/expressions/tree/CompiledRealFunction",
+	NAME = "net/myorb/math/expressions/tree/CompiledRealFunction$Generated",
+	MATH = "java/lang/Math";
+
+	static final int
+	ALOAD_0 = 0x2A, ALOAD_1 = 0x2B, DLOAD_1 = 0x27, DALOAD = 0x31,
+	BIPUSH = 0x10, SIPUSH = 0x11, LDC2_W = 0x14, ICONST_0 = 0x03,
+	DADD = 0x63, DSUB = 0x67, DMUL = 0x6B, DDIV = 0x6F, DNEG = 0x77,
+	POP = 0x57, DUP_X2 = 0x5B, DRETURN = 0xAF, RETURN = 0xB1,
+	INVOKEVIRTUAL = 0xB6, INVOKESPECIAL = 0xB7, INVOKESTATIC = 0xB8;
+
+
+	/**
+	 * @return the bytes of the class file
+	 * @throws IOException for stream errors
+	 */
+	byte [] assemble () throws IOException
+	{
+		boolean single = program.getParameterCount () == 1;
+		int thisClass = pool.classRef (NAME), superClass = pool.classRef (BASE);
+		int constructorName = pool.utf8 ("<init>"), constructorType = pool.utf8 ("()V");
+		int superConstructor = pool.methodRef (BASE, "<init>", "()V");
+		int methodName = pool.utf8 (single ? "applyAsDouble" : "evalAt");
+		int methodType = pool.utf8 (single ? "(D)D" : "([D)D");
+		byte [] body = translate (single);
+		int codeAttribute = pool.utf8 ("Code");
+
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream ();
+		DataOutputStream out = new DataOutputStream (bytes);
+		out.writeInt (0xCAFEBABE); out.writeShort (0); out.writeShort (52);
+		pool.writeTo (out);
+		out.writeShort (0x0031); out.writeShort (thisClass); out.writeShort (superClass);
+		out.writeShort (0); out.writeShort (0); out.writeShort (2);
+
+		byte [] constructor = { (byte) ALOAD_0, (byte) INVOKESPECIAL,
+			(byte) (superConstructor >> 8), (byte) superConstructor, (byte) RETURN };
+		writeMethod (out, 0x0001, constructorName, constructorType, codeAttribute, 1, 1, constructor);
+
+		int maxStack = 2 * program.maxDepth + 4, maxLocals = single ? 3 : 2;
+		writeMethod (out, 0x0011, methodName, methodType, codeAttribute, maxStack, maxLocals, body);
+
+		out.writeShort (0); out.flush ();
+		return bytes.toByteArray ();
+	}
+
+
+	/**
+	 * write a method with a single Code attribute
+	 * @param out the class file stream
+	 * @param access the access flags
+	 * @param name the pool index of the name
+	 * @param type the pool index of the descriptor
+	 * @param codeAttribute the pool index of the Code attribute name
+	 * @param maxStack the operand stack size
+	 * @param maxLocals the local variable count
+	 * @param code the byte code of the method
+	 * @throws IOException for stream errors
+	 */
+	void writeMethod
+		(
+			DataOutputStream out, int access, int name, int type,
+			int codeAttribute, int maxStack, int maxLocals, byte [] code
+		)
+	throws IOException
+	{
+		out.writeShort (access); out.writeShort (name); out.writeShort (type);
+		out.writeShort (1); out.writeShort (codeAttribute); out.writeInt (12 + code.length);
+		out.writeShort (maxStack); out.writeShort (maxLocals);
+		out.writeInt (code.length); out.write (code);
+		out.writeShort (0); out.writeShort (0);
+	}
+
+
+	/*
+	 * translation of op-codes
+	 */
+
+
+	/**
+	 * @param single TRUE = parameter is a double in local 1, otherwise array in local 1
+	 * @return the byte code of the evaluation method
+	 */
+	byte [] translate (boolean single)
+	{
+		int [] code = program.code;
+		for (int pc = 0; pc < code.length; pc++)
+		{
+			switch (code [pc])
+			{
+				case RealProgram.CONST:
+					emit (LDC2_W); emitShort (pool.doubleConstant (program.constants [code [++pc]])); break;
+
+				case RealProgram.PARAM:
+					int slot = code [++pc];
+					if (single) emit (DLOAD_1);
+					else { emit (ALOAD_1); pushInt (slot); emit (DALOAD); }
+					break;
+
+				case RealProgram.VAR:
+					emit (ALOAD_0); pushInt (code [++pc]);
+					invoke (INVOKEVIRTUAL, BASE, "var", "(I)D"); break;
+
+				case RealProgram.CALL:
+					int call = code [++pc];
+					if (program.calls [call].getParameterCount () != 1)
+					{ throw new RuntimeException ("Calls of several parameters are not generated"); }
+					// move receiver below the double argument
+					emit (ALOAD_0); emit (DUP_X2); emit (POP); pushInt (call);
+					invoke (INVOKEVIRTUAL, BASE, "call", "(DI)D"); break;
+
+				case RealProgram.ADD:		emit (DADD); break;
+				case RealProgram.SUB:		emit (DSUB); break;
+				case RealProgram.MUL:		emit (DMUL); break;
+				case RealProgram.DIV:		emit (DDIV); break;
+				case RealProgram.NEG:		emit (DNEG); break;
+
+				case RealProgram.POW:		invoke (INVOKESTATIC, BASE, "pow", "(DD)D"); break;
+				case RealProgram.EXP_OP:	invoke (INVOKESTATIC, BASE, "exponentiate", "(DD)D"); break;
+				case RealProgram.SGN:		invoke (INVOKESTATIC, BASE, "sgn", "(D)D"); break;
+
+				case RealProgram.SIN:		invoke (INVOKESTATIC, MATH, "sin", "(D)D"); break;
+				case RealProgram.COS:		invoke (INVOKESTATIC, MATH, "cos", "(D)D"); break;
+				case RealProgram.TAN:		invoke (INVOKESTATIC, MATH, "tan", "(D)D"); break;
+				case RealProgram.ASIN:		invoke (INVOKESTATIC, MATH, "asin", "(D)D"); break;
+				case RealProgram.ATAN:		invoke (INVOKESTATIC, MATH, "atan", "(D)D"); break;
+				case RealProgram.SQRT:		invoke (INVOKESTATIC, MATH, "sqrt", "(D)D"); break;
+				case RealProgram.EXP:		invoke (INVOKESTATIC, MATH, "exp", "(D)D"); break;
+				case RealProgram.LN:		invoke (INVOKESTATIC, MATH, "log", "(D)D"); break;
+				case RealProgram.ABS:		invoke (INVOKESTATIC, MATH, "abs", "(D)D"); break;
+
+				default: throw new RuntimeException ("Internal error: invalid op-code " + code [pc]);
+			}
+		}
+		emit (DRETURN);
+		return body.toByteArray ();
+	}
+	protected ByteArrayOutputStream body = new ByteArrayOutputStream ();
+
+
+	void emit (int b) { body.write (b); }
+	void emitShort (int s) { body.write (s >> 8); body.write (s); }
+
+
+	/**
+	 * @param value an integer operand to push
+	 */
+	void pushInt (int value)
+	{
+		if (value <= 5) emit (ICONST_0 + value);
+		else if (value < 128) { emit (BIPUSH); emit (value); }
+		else { emit (SIPUSH); emitShort (value); }
+	}
+
+
+	/**
+	 * @param op the invoke instruction
+	 * @param owner the class holding the method
+	 * @param name the name of the method
+	 * @param type the descriptor of the method
+	 */
+	void invoke (int op, String owner, String name, String type)
+	{
+		emit (op); emitShort (pool.methodRef (owner, name, type));
+	}
+
+
+	/*
+	 * constant pool
+	 */
+
+
+	/**
+	 * constant pool with duplicate elimination
+	 */
+	static class ConstantPool
+	{
+
+		int utf8 (String text)
+		{
+			return entry ("U" + text, 1, 1, new Object [] { text });
+		}
+
+		int classRef (String name)
+		{
+			return entry ("C" + name, 7, 1, new Object [] { utf8 (name) });
+		}
+
+		int methodRef (String owner, String name, String type)
+		{
+			int c = classRef (owner), nt = entry ("N" + name + type, 12, 1, new Object [] { utf8 (name), utf8 (type) });
+			return entry ("M" + owner + "." + name + type, 10, 1, new Object [] { c, nt });
+		}
+
+		int doubleConstant (double value)
+		{
+			return entry ("D" + Double.doubleToRawLongBits (value), 6, 2, new Object [] { value });
+		}
+
+		/**
+		 * @param key unique identification of the entry
+		 * @param tag the constant pool tag
+		 * @param width the number of slots taken
+		 * @param content the operands of the entry
+		 * @return the index of the entry
+		 */
+		int entry (String key, int tag, int width, Object [] content)
+		{
+			Integer index = indices.get (key);
+			if (index != null) return index;
+			indices.put (key, index = next); next += width;
+
+			try
+			{
+				out.writeByte (tag);
+				switch (tag)
+				{
+					case 1: out.writeUTF ((String) content [0]); break;
+					case 6: out.writeDouble ((Double) content [0]); break;
+					case 7: out.writeShort ((Integer) content [0]); break;
+					default: out.writeShort ((Integer) content [0]); out.writeShort ((Integer) content [1]);
+				}
+			}
+			catch (IOException e) { throw new RuntimeException (e); }
+
+			return index;
+		}
+
+		void writeTo (DataOutputStream stream) throws IOException
+		{
+			out.flush (); stream.writeShort (next); bytes.writeTo (stream);
+		}
+
+		Map<String,Integer> indices = new HashMap<String,Integer> ();
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream ();
+		DataOutputStream out = new DataOutputStream (bytes);
+		int next = 1;
+
+	}
+	protected ConstantPool pool = new ConstantPool ();
+
+
+}
@@ -0,0 +1,406 @@
+package net.myorb.math.expressions.tree;
+
+import net.myorb.math.expressions.SymbolMap;
+import net.myorb.math.expressions.ValueManager;
+import net.myorb.math.expressions.OperatorNomenclature;
+import net.myorb.math.expressions.evaluationstates.Subroutine;
+import net.myorb.math.expressions.symbols.AbstractFunction;
+import net.myorb.math.expressions.tree.CompiledExpression.Unsupported;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * an expression tree proven to be scalar and real lowered to a flat program.
+ *  the program is a sequence of op-codes with in-line operands referring to
+ *  constant, parameter, variable and call slots; evaluation runs on a
+ *  primitive stack with no allocation per node
+ * @author Michael Druckman
+ */
+public class RealProgram
+{
+
+
+	/*
+	 * op-codes of the program, slot operands follow in-line
+	 */
+
+	public static final int
+	CONST = 0, PARAM = 1, VAR = 2, CALL = 3,
+	ADD = 10, SUB = 11, MUL = 12, DIV = 13, POW = 14, EXP_OP = 15,
+	NEG = 20, SIN = 21, COS = 22, TAN = 23, ASIN = 24, ATAN = 25,
+	SQRT = 26, EXP = 27, LN = 28, ABS = 29, SGN = 30;
+
+
+	/**
+	 * binary operators with primitive equivalents
+	 */
+	static final Map<String,Integer> BINARY = new HashMap<String,Integer>();
+	static
+	{
+		BINARY.put (OperatorNomenclature.ADDITION_OPERATOR, ADD);
+		BINARY.put (OperatorNomenclature.SUBTRACTION_OPERATOR, SUB);
+		BINARY.put (OperatorNomenclature.MULTIPLICATION_OPERATOR, MUL);
+		BINARY.put (OperatorNomenclature.DIVISION_OPERATOR, DIV);
+		BINARY.put (OperatorNomenclature.POW_OPERATOR, POW);
+		BINARY.put (OperatorNomenclature.EXPONENTIATION_OPERATOR, EXP_OP);
+	}
+
+
+	/**
+	 * unary operators and functions with primitive equivalents
+	 */
+	static final Map<String,Integer> UNARY = new HashMap<String,Integer>();
+	static
+	{
+		UNARY.put (OperatorNomenclature.NEGATE_OPERATOR, NEG);
+		UNARY.put (OperatorNomenclature.SUBTRACTION_OPERATOR, NEG);
+		UNARY.put (OperatorNomenclature.SIN_FUNCTION, SIN);
+		UNARY.put (OperatorNomenclature.COS_FUNCTION, COS);
+		UNARY.put (OperatorNomenclature.TAN_FUNCTION, TAN);
+		UNARY.put (OperatorNomenclature.ASIN_FUNCTION, ASIN);
+		UNARY.put (OperatorNomenclature.ATAN_FUNCTION, ATAN);
+		UNARY.put (OperatorNomenclature.SQRT_FUNCTION, SQRT);
+		UNARY.put (OperatorNomenclature.EXP_FUNCTION, EXP);
+		UNARY.put (OperatorNomenclature.LOG_FUNCTION, LN);
+		UNARY.put (OperatorNomenclature.ABSOLUTE_VALUE_FUNCTION, ABS);
+		UNARY.put (OperatorNomenclature.SIGN_FUNCTION, SGN);
+	}
+
+
+	/**
+	 * lower an attributed and reduced tree
+	 * @param expression the expression tree after semantic analysis
+	 * @param parameterNames the formal parameter names, positions give argument slots
+	 * @throws Unsupported for any node that is not provably scalar and real
+	 */
+	public RealProgram
+		(
+			Expression<Double> expression, List<String> parameterNames
+		)
+	throws Unsupported
+	{
+		this.parameterNames = new ArrayList<String> (parameterNames);
+		lower (expression);
+		this.code = new int [codeList.size ()];
+		for (int i = 0; i < code.length; i++) code [i] = codeList.get (i);
+		this.constants = new double [constantList.size ()];
+		for (int i = 0; i < constants.length; i++) constants [i] = constantList.get (i);
+		this.variables = variableList.toArray (new SymbolMap.VariableLookup [variableList.size ()]);
+		this.calls = callList.toArray (new RealProgram [callList.size ()]);
+		this.codeList = null; this.constantList = null; this.variableList = null; this.callList = null;
+	}
+	protected List<String> parameterNames;
+
+
+	/**
+	 * @return the number of parameters of the program
+	 */
+	public int getParameterCount () { return parameterNames.size (); }
+
+
+	/*
+	 * evaluation
+	 */
+
+
+	/**
+	 * evaluate a single parameter program
+	 * @param x the value of the parameter
+	 * @return the computed value
+	 */
+	public double eval (double x)
+	{
+		Workspace w = workspace.get ();
+		w.args [0] = x;
+		return run (w.args, w.stack);
+	}
+
+
+	/**
+	 * evaluate a program with any number of parameters
+	 * @param args the values of the parameters
+	 * @return the computed value
+	 */
+	public double eval (double [] args)
+	{
+		return run (args, workspace.get ().stack);
+	}
+
+
+	/**
+	 * evaluation scratch areas, one per thread
+	 */
+	class Workspace
+	{
+		double [] stack = new double [maxDepth];
+		double [] args = new double [Math.max (1, parameterNames.size ())];
+	}
+	protected ThreadLocal<Workspace> workspace = new ThreadLocal<Workspace> ()
+	{ protected Workspace initialValue () { return new Workspace (); } };
+
+
+	/**
+	 * interpret the program
+	 * @param args the values of the parameters
+	 * @param stack the primitive evaluation stack
+	 * @return the value left on the stack
+	 */
+	double run (double [] args, double [] stack)
+	{
+		int sp = -1; double y;
+		for (int pc = 0; pc < code.length; pc++)
+		{
+			switch (code [pc])
+			{
+				case CONST:		stack [++sp] = constants [code [++pc]]; break;
+				case PARAM:		stack [++sp] = args [code [++pc]]; break;
+				case VAR:		stack [++sp] = valueOf (variables [code [++pc]]); break;
+
+				case CALL:
+					RealProgram callee = calls [code [++pc]];
+					Workspace calleeWorkspace = callee.workspace.get ();
+					for (int i = callee.parameterNames.size () - 1; i >= 0; i--)
+					{ calleeWorkspace.args [i] = stack [sp--]; }
+					stack [++sp] = callee.run (calleeWorkspace.args, calleeWorkspace.stack);
+					break;
+
+				case ADD:		y = stack [sp--]; stack [sp] += y; break;
+				case SUB:		y = stack [sp--]; stack [sp] -= y; break;
+				case MUL:		y = stack [sp--]; stack [sp] *= y; break;
+				case DIV:		y = stack [sp--]; stack [sp] /= y; break;
+				case POW:		y = stack [sp--]; stack [sp] = pow (stack [sp], y); break;
+				case EXP_OP:	y = stack [sp--]; stack [sp] = exponentiate (stack [sp], y); break;
+
+				case NEG:		stack [sp] = - stack [sp]; break;
+				case SIN:		stack [sp] = Math.sin (stack [sp]); break;
+				case COS:		stack [sp] = Math.cos (stack [sp]); break;
+				case TAN:		stack [sp] = Math.tan (stack [sp]); break;
+				case ASIN:		stack [sp] = Math.asin (stack [sp]); break;
+				case ATAN:		stack [sp] = Math.atan (stack [sp]); break;
+				case SQRT:		stack [sp] = Math.sqrt (stack [sp]); break;
+				case EXP:		stack [sp] = Math.exp (stack [sp]); break;
+				case LN:		stack [sp] = Math.log (stack [sp]); break;
+				case ABS:		stack [sp] = Math.abs (stack [sp]); break;
+				case SGN:		stack [sp] = stack [sp] < 0 ? -1 : 1; break;
+
+				default: throw new RuntimeException ("Internal error: invalid op-code " + code [pc]);
+			}
+		}
+		return stack [sp];
+	}
+
+
+	/**
+	 * integer exponents follow the conventional power, others use exp (y * ln (x))
+	 * @param x the base
+	 * @param y the exponent
+	 * @return x^y
+	 */
+	static double pow (double x, double y)
+	{
+		if (y == Math.rint (y) && Math.abs (y) <= Integer.MAX_VALUE) return Math.pow (x, y);
+		return exponentiate (x, y);
+	}
+
+
+	/**
+	 * exp (y * ln (x)) with a zero base giving zero as PowerPrimitives.computeXtoY does
+	 * @param x the base
+	 * @param y the exponent
+	 * @return x^y
+	 */
+	static double exponentiate (double x, double y)
+	{
+		if (x == 0) return 0;
+		return Math.exp (y * Math.log (x));
+	}
+
+
+	/**
+	 * variables may be reassigned but must remain scalar
+	 * @param variable the symbol table entry for the variable
+	 * @return the current value
+	 */
+	double valueOf (SymbolMap.VariableLookup variable)
+	{
+		ValueManager.GenericValue value = variable.getValue ();
+		if ( ! (value instanceof ValueManager.DiscreteValue) )
+		{ throw new RuntimeException ("Scalar value expected: " + variable.getName ()); }
+		return ((Number) ((ValueManager.DiscreteValue<?>) value).getValue ()).doubleValue ();
+	}
+
+
+	protected int [] code;
+	protected double [] constants;
+	protected SymbolMap.VariableLookup [] variables;
+	protected RealProgram [] calls;
+	protected int maxDepth = 1;
+
+
+	/*
+	 * lowering of tree nodes
+	 */
+
+
+	protected List<Integer> codeList = new ArrayList<Integer> ();
+	protected List<Double> constantList = new ArrayList<Double> ();
+	protected List<SymbolMap.VariableLookup> variableList = new ArrayList<SymbolMap.VariableLookup> ();
+	protected List<RealProgram> callList = new ArrayList<RealProgram> ();
+	protected int depth = 0;
+
+
+	/**
+	 * @param opCode an op-code to append
+	 * @param stackEffect change of stack depth caused by the op-code
+	 */
+	void emit (int opCode, int stackEffect)
+	{
+		codeList.add (opCode);
+		depth += stackEffect;
+		maxDepth = Math.max (maxDepth, depth);
+	}
+	void emit (int opCode, int slot, int stackEffect) { emit (opCode, stackEffect); codeList.add (slot); }
+
+
+	/**
+	 * lower a non-specific node
+	 * @param element the node of the tree
+	 * @throws Unsupported for nodes not provably scalar and real
+	 */
+	@SuppressWarnings ("unchecked")
+	void lower (Element element) throws Unsupported
+	{
+		switch (element.getElementType ())
+		{
+			case CONSTANT:
+				constantList.add ((double) ((LexicalAnalysis.NumericConstant<Double>) element).value);
+				emit (CONST, constantList.size () - 1, 1); return;
+
+			case LITERAL:
+				constantList.add (((LexicalAnalysis.NumericLiteral<Double>) element).getValue ());
+				emit (CONST, constantList.size () - 1, 1); return;
+
+			case IDENTIFIER:
+				lowerIdentifier ((LexicalAnalysis.Identifier<Double>) element); return;
+
+			case INVOCATION:
+				lowerInvocation ((SemanticAnalysis.Invocation<Double>) element); return;
+
+			case BINARY_OPERATION:
+				lowerBinaryOperation ((SemanticAnalysis.BinaryOperatorNode<Double>) element); return;
+
+			case SUBEXPRESSION:
+				SubExpression<Double> sub = (SubExpression<Double>) element;
+				if (sub.size () != 1) throw new Unsupported ("Scalar expression expected: " + sub);
+				lower (sub.get (0)); return;
+
+			default: break;
+		}
+		throw new Unsupported ("Node is not scalar real: " + element.getElementType ());
+	}
+
+
+	/**
+	 * @param element an identifier node
+	 * @throws Unsupported for identifiers not holding scalar values
+	 */
+	void lowerIdentifier (LexicalAnalysis.Identifier<Double> element) throws Unsupported
+	{
+		String name = element.getSymbolProperties ().getName ();
+		int slot = parameterNames.indexOf (name);
+		if (slot >= 0) { emit (PARAM, slot, 1); return; }
+
+		SymbolMap.Named symbol = element.getSymbolProperties ().getSymbolReference ();
+		if ( ! (symbol instanceof SymbolMap.VariableLookup) )
+		{ throw new Unsupported ("Identifier has no value: " + name); }
+		SymbolMap.VariableLookup variable = (SymbolMap.VariableLookup) symbol;
+
+		if ( ! (variable.getValue () instanceof ValueManager.DiscreteValue) )
+		{ throw new Unsupported ("Identifier is not scalar: " + name); }
+		variableList.add (variable); emit (VAR, variableList.size () - 1, 1);
+	}
+
+
+	/**
+	 * @param element an invocation node
+	 * @throws Unsupported for operators with no primitive equivalent
+	 */
+	void lowerInvocation (SemanticAnalysis.Invocation<Double> element) throws Unsupported
+	{
+		SymbolMap.Named symbol = symbolFor (element.identifier);
+
+		if (symbol instanceof Subroutine)
+		{
+			Subroutine<Double> s = Subroutine.cast (symbol);
+			RealProgram callee = s.getRealProgram ();
+			if (callee == null) throw new Unsupported ("Function is not scalar real: " + element.getName ());
+			int n = lowerArguments (element.parameter, callee.getParameterCount ());
+			callList.add (callee); emit (CALL, callList.size () - 1, 1 - n);
+			return;
+		}
+
+		if (symbol instanceof AbstractFunction)
+		{ throw new Unsupported ("User function is not scalar real: " + element.getName ()); }
+
+		Integer opCode = UNARY.get (element.getName ());
+		if (opCode == null) throw new Unsupported ("Operator has no primitive form: " + element.getName ());
+		lowerArguments (element.parameter, 1); emit (opCode, 0);
+	}
+
+
+	/**
+	 * @param parameter the parameter node of an invocation
+	 * @param expected the count of parameters required
+	 * @return the number of values pushed
+	 * @throws Unsupported for count mismatch
+	 */
+	@SuppressWarnings ("unchecked")
+	int lowerArguments (Element parameter, int expected) throws Unsupported
+	{
+		if (parameter.getElementType () == Element.Types.AGGREGATE)
+		{
+			SubExpression<Double> members = ((SemanticAnalysis.AggregateLiteral<Double>) parameter).expression;
+			if (members.size () != expected) throw new Unsupported ("Parameter count mismatch");
+			for (Element e : members) lower (e);
+			return expected;
+		}
+		if (expected != 1) throw new Unsupported ("Parameter count mismatch");
+		lower (parameter);
+		return 1;
+	}
+
+
+	/**
+	 * @param element a binary operator node
+	 * @throws Unsupported for operators with no primitive equivalent
+	 */
+	void lowerBinaryOperation (SemanticAnalysis.BinaryOperatorNode<Double> element) throws Unsupported
+	{
+		if (symbolFor (element.op) instanceof AbstractFunction)
+		{ throw new Unsupported ("User operator is not scalar real: " + element.getopName ()); }
+		Integer opCode = BINARY.get (element.getopName ());
+		if (opCode == null) throw new Unsupported ("Operator has no primitive form: " + element.getopName ());
+		lower (element.left); lower (element.right); emit (opCode, -1);
+	}
+
+
+	/**
+	 * operators redefined by user functions can not be lowered by name
+	 * @param element the node naming the operator
+	 * @return the symbol bound by semantic analysis
+	 * @throws Unsupported for unbound symbols
+	 */
+	SymbolMap.Named symbolFor (Element element) throws Unsupported
+	{
+		SymbolMap.Named symbol = null;
+		if (element instanceof LexicalAnalysis.NamedSymbol)
+		{ symbol = ((LexicalAnalysis.NamedSymbol) element).getSymbolProperties ().getSymbolReference (); }
+		if (symbol == null) throw new Unsupported ("Operator not resolved: " + element);
+		return symbol;
+	}
+
+
+}
@@ -0,0 +1,295 @@
+package net.myorb.math.matrices;
+
+import net.myorb.math.SpaceManager;
+import net.myorb.math.realnumbers.DoubleFloatingFieldManager;
+
+import java.util.AbstractList;
+import java.util.Collection;
+import java.util.RandomAccess;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * matrix of the Real field with cells held in a row-major double array.
+ *  the cell list seen by the generic algorithms is a view of the array
+ *  so all Matrix functionality remains available, while the operations
+ *  in this class work directly on the array in blocks sized for the cache
+ * @author Michael Druckman
+ */
+public class DoubleMatrix extends Matrix<Double>
+{
+
+
+	/**
+	 * edge of the square blocks used by multiply and transpose
+	 */
+	public static final int BLOCK = 64;
+
+
+	/**
+	 * @param manager a manager for the data type of a matrix
+	 * @return TRUE when the manager is for the Real field
+	 */
+	public static boolean isPrimitive (SpaceManager<?> manager)
+	{
+		return manager instanceof DoubleFloatingFieldManager;
+	}
+
+
+	/**
+	 * construct a zero filled matrix
+	 * @param rows the count of rows in the the matrix
+	 * @param columns the count of columns in the the matrix
+	 * @param manager the manager for the Real field
+	 */
+	public DoubleMatrix (int rows, int columns, SpaceManager<Double> manager)
+	{
+		this (rows, columns, new double [rows * columns], manager);
+	}
+
+	/**
+	 * construct around an array of cells
+	 * @param rows the count of rows in the the matrix
+	 * @param columns the count of columns in the the matrix
+	 * @param values the row-major cells, used without copy
+	 * @param manager the manager for the Real field
+	 */
+	public DoubleMatrix (int rows, int columns, double [] values, SpaceManager<Double> manager)
+	{
+		super (manager);
+		if (values.length != rows * columns) throw new RuntimeException (INIT_ERROR);
+		this.rows = rows; this.cols = columns;
+		useValues (values);
+	}
+
+	/**
+	 * @return the row-major cells of the matrix
+	 */
+	public double [] getValues () { return values; }
+	protected double [] values;
+
+
+	/**
+	 * primitive representation of any Real matrix
+	 * @param m the matrix to be represented
+	 * @param manager the manager for the Real field
+	 * @return the matrix itself when already primitive, otherwise a copy
+	 */
+	public static DoubleMatrix from (MatrixAccess<Double> m, SpaceManager<Double> manager)
+	{
+		if (m instanceof DoubleMatrix) return (DoubleMatrix) m;
+		int rows = m.rowCount (), cols = m.columnCount ();
+		DoubleMatrix result = new DoubleMatrix (rows, cols, manager);
+
+		for (int r = 1, k = 0; r <= rows; r++)
+		{
+			VectorAccess<Double> row = m.getRowAccess (r);
+			for (int c = 1; c <= cols; c++) result.values [k++] = row.get (c);
+		}
+
+		return result;
+	}
+
+	/**
+	 * @return a copy of this matrix
+	 */
+	public DoubleMatrix copy ()
+	{
+		return new DoubleMatrix (rows, cols, values.clone (), manager);
+	}
+
+
+	/*
+	 * cell access
+	 */
+
+	/* (non-Javadoc)
+	 * @see net.myorb.math.matrices.Matrix#get(int, int)
+	 */
+	public Double get (int row, int col) { return values [cellNumber (row, col)]; }
+
+	/* (non-Javadoc)
+	 * @see net.myorb.math.matrices.Matrix#set(int, int, java.lang.Object)
+	 */
+	public void set (int row, int col, Double value) { values [cellNumber (row, col)] = primitive (value); }
+
+	/**
+	 * @param value a cell value
+	 * @return the primitive value
+	 * @throws RuntimeException for NULL, which has no primitive form
+	 */
+	static double primitive (Double value) throws RuntimeException
+	{
+		if (value == null) throw new RuntimeException (INIT_ERROR);
+		return value;
+	}
+
+	/* (non-Javadoc)
+	 * @see net.myorb.math.matrices.Matrix#save(java.util.List, int)
+	 */
+	public void save (List<Double> cells, int size)
+	{
+		if (cells.size () == 1) { save (cells.get (0), size); return; }
+		if (cells.size () != size) throw new RuntimeException (INIT_ERROR);
+		double [] copy = new double [size];
+		for (int k = 0; k < size; k++) copy [k] = primitive (cells.get (k));
+		useValues (copy);
+	}
+
+	/* (non-Javadoc)
+	 * @see net.myorb.math.matrices.Matrix#save(java.lang.Object, int)
+	 */
+	public void save (Double init, int size)
+	{
+		double [] copy = new double [size];
+		Arrays.fill (copy, primitive (init));
+		useValues (copy);
+	}
+
+	/**
+	 * @param values replacement for the array of cells
+	 */
+	void useValues (double [] values)
+	{
+		this.values = values; this.size = values.length;
+		this.cells = new Cells ();
+	}
+
+	/**
+	 * list view of the array for the generic algorithms,
+	 *  insertion and removal replace the array with one of the new length
+	 */
+	class Cells extends AbstractList<Double> implements RandomAccess
+	{
+		public Double get (int index) { return values [index]; }
+		public Double set (int index, Double value)
+		{ double prior = values [index]; values [index] = primitive (value); return prior; }
+		public int size () { return values.length; }
+
+		public void add (int index, Double value)
+		{
+			if (index < 0 || index > values.length) throw new IndexOutOfBoundsException ("Cell " + index);
+			double [] grown = new double [values.length + 1];
+			System.arraycopy (values, 0, grown, 0, index); grown [index] = primitive (value);
+			System.arraycopy (values, index, grown, index + 1, values.length - index);
+			replace (grown);
+		}
+
+		public boolean addAll (Collection<? extends Double> appended)
+		{
+			double [] grown = Arrays.copyOf (values, values.length + appended.size ());
+			int k = values.length; for (Double value : appended) grown [k++] = primitive (value);
+			replace (grown); return !appended.isEmpty ();
+		}
+
+		public Double remove (int index)
+		{
+			double prior = values [index], shrunk [] = new double [values.length - 1];
+			System.arraycopy (values, 0, shrunk, 0, index);
+			System.arraycopy (values, index + 1, shrunk, index, shrunk.length - index);
+			replace (shrunk); return prior;
+		}
+
+		void replace (double [] cells) { values = cells; size = cells.length; modCount++; }
+	}
+
+
+	/*
+	 * operations
+	 */
+
+	/**
+	 * @param right the matrix to add, of the same dimensions
+	 * @return the sum of the matrices
+	 */
+	public DoubleMatrix plus (DoubleMatrix right)
+	{
+		if (right.rows != rows || right.cols != cols)
+			throw new RuntimeException ("Matrix dimensions do not agree");
+		double [] sum = new double [size], r = right.values;
+		for (int k = 0; k < size; k++) sum [k] = values [k] + r [k];
+		return new DoubleMatrix (rows, cols, sum, manager);
+	}
+
+	/**
+	 * blocked product so each block of the right
+	 *  side is reused from the cache for a block of rows
+	 * @param right the right side of the product
+	 * @return the product of this matrix with the right side
+	 */
+	public DoubleMatrix times (DoubleMatrix right)
+	{
+		if (right.rows != cols)
+			throw new RuntimeException ("Matrix dimensions do not agree");
+		int n = rows, m = cols, p = right.cols;
+		double [] a = values, b = right.values, c = new double [n * p];
+
+		for (int ii = 0; ii < n; ii += BLOCK)
+		{
+			int iEnd = Math.min (ii + BLOCK, n);
+			for (int kk = 0; kk < m; kk += BLOCK)
+			{
+				int kEnd = Math.min (kk + BLOCK, m);
+				for (int jj = 0; jj < p; jj += BLOCK)
+				{
+					int jEnd = Math.min (jj + BLOCK, p);
+					for (int i = ii; i < iEnd; i++)
+					{
+						int ci = i * p;
+						for (int k = kk; k < kEnd; k++)
+						{
+							double aik = a [i * m + k]; int bk = k * p;
+							for (int j = jj; j < jEnd; j++) c [ci + j] += aik * b [bk + j];
+						}
+					}
+				}
+			}
+		}
+
+		return new DoubleMatrix (n, p, c, manager);
+	}
+
+	/**
+	 * @return the transpose of this matrix
+	 */
+	public DoubleMatrix transpose ()
+	{
+		return new DoubleMatrix (cols, rows, transpose (values, rows, cols), manager);
+	}
+
+	/**
+	 * blocked transpose of row-major cells
+	 * @param a the cells of the source
+	 * @param rows the count of rows in the source
+	 * @param cols the count of columns in the source
+	 * @return the row-major cells of the transpose
+	 */
+	public static double [] transpose (double [] a, int rows, int cols)
+	{
+		double [] t = new double [a.length];
+		for (int ii = 0; ii < rows; ii += BLOCK)
+		{
+			int iEnd = Math.min (ii + BLOCK, rows);
+			for (int jj = 0; jj < cols; jj += BLOCK)
+			{
+				int jEnd = Math.min (jj + BLOCK, cols);
+				for (int i = ii; i < iEnd; i++)
+				{ for (int j = jj; j < jEnd; j++) t [j * rows + i] = a [i * cols + j]; }
+			}
+		}
+		return t;
+	}
+
+	/* (non-Javadoc)
+	 * @see net.myorb.math.matrices.Matrix#toRawCells()
+	 */
+	public double[][] toRawCells ()
+	{
+		double[][] raw = new double[rows][];
+		for (int r = 0; r < rows; r++)
+		{ raw[r] = Arrays.copyOfRange (values, r * cols, (r + 1) * cols); }
+		return raw;
+	}
+
+
+}
@@ -80,6 +80,15 @@ public class Matrix<T> extends ListOperations<T> implements MatrixAccess<T>
 		save (rows, columns, cells);
 	}
 
+	/**
+	 * construct with cells to be provided by a subclass
+	 * @param manager the manager for the type being manipulated
+	 */
+	protected Matrix (SpaceManager<T> manager)
+	{
+		super (manager);
+	}
+
 	/**
 	 * allocate and zero fill
 	 * @param rows the count of rows in the the matrix
@@ -48,6 +48,32 @@ public class MatrixOperations <T> extends ListOperations <T>
 	protected VectorOperations<T> vectorOperations;
 	protected Triangular<T> triangular;
 
+	/**
+	 * construct a zero filled matrix, primitive for the Real field
+	 * @param rows the count of rows in the the matrix
+	 * @param columns the count of columns in the the matrix
+	 * @return the new matrix
+	 */
+	public Matrix<T> newMatrix (int rows, int columns)
+	{
+		if (isPrimitive ()) return generic (new DoubleMatrix (rows, columns, primitiveManager ()));
+		return new Matrix<T> (rows, columns, manager);
+	}
+
+	/**
+	 * @return TRUE when matrices of the manager type are held as DoubleMatrix
+	 */
+	public boolean isPrimitive () { return DoubleMatrix.isPrimitive (manager); }
+
+	@SuppressWarnings("unchecked")
+	SpaceManager<Double> primitiveManager () { return (SpaceManager<Double>) manager; }
+
+	@SuppressWarnings("unchecked")
+	DoubleMatrix primitive (MatrixAccess<T> m) { return DoubleMatrix.from ((MatrixAccess<Double>) m, primitiveManager ()); }
+
+	@SuppressWarnings("unchecked")
+	Matrix<T> generic (DoubleMatrix m) { return (Matrix<T>) (Matrix<?>) m; }
+
 	/**
 	 * set a row of a matrix
 	 * @param rowNumber the row number to be changed
@@ -87,6 +113,11 @@ public class MatrixOperations <T> extends ListOperations <T>
 	 */
 	public Matrix<T> copy (MatrixAccess<T> m)
 	{
+		if (isPrimitive ())
+		{
+			DoubleMatrix p = primitive (m);
+			return generic (p == m ? p.copy () : p);
+		}
 		Matrix<T> result = new Matrix<T> (m.rowCount (), m.columnCount (), manager);
 		copyColumns (m, result);
 		return result;
@@ -315,6 +346,7 @@ public class MatrixOperations <T> extends ListOperations <T>
 	 */
 	public Matrix<T> transpose (MatrixAccess<T> m)
 	{
+		if (isPrimitive ()) return generic (primitive (m).transpose ());
 		int rows = m.rowCount (), cols = m.columnCount ();
 		Matrix<T> result = new Matrix<T> (cols, rows, manager);
 		VectorAccess<T> row = m.getRowAccess (1);
@@ -524,6 +556,8 @@ public class MatrixOperations <T> extends ListOperations <T>
 	@SuppressWarnings("unchecked")
 	public Matrix<T> sum (MatrixAccess<T> left, MatrixAccess<T> right)
 	{
+		if (isPrimitive () && left.rowCount () == right.rowCount () && left.columnCount () == right.columnCount ())
+		{ return generic (primitive (left).plus (primitive (right))); }
 		int rows = left.rowCount (), cols = right.columnCount ();
 		Matrix<T> result = new Matrix<T> (rows, cols, manager);
 
@@ -612,6 +646,7 @@ public class MatrixOperations <T> extends ListOperations <T>
 	 */
 	public Matrix<T> product (MatrixAccess<T> left, MatrixAccess<T> right)
 	{
+		if (isPrimitive ()) return generic (primitive (left).times (primitive (right)));
 		int rows = left.rowCount (), cols = right.columnCount ();
 		Matrix<T> result = new Matrix<T> (rows, cols, manager);
 		VectorAccess<T> row = left.getRowAccess (1);
@@ -21,6 +21,34 @@ public class MatrixOperationsAccelerated<T> extends MatrixOperations<T>
 	 */
 	public static final boolean THREADED = true;
 
+	/**
+	 * comatrix and cofactor expansion use the work-stealing engine
+	 *  when selected, otherwise the cofactor computation pool
+	 * @param workStealing TRUE to select the ForkJoinCofactorEngine
+	 */
+	public void setWorkStealing (boolean workStealing) { this.workStealing = workStealing; }
+	public boolean isWorkStealing () { return workStealing; }
+	protected boolean workStealing = true;
+
+	/**
+	 * @param m the matrix to be evaluated
+	 * @return TRUE when the engine is selected and supports the matrix
+	 */
+	public boolean useEngine (MatrixAccess<T> m)
+	{
+		return workStealing && ForkJoinCofactorEngine.supports (m);
+	}
+
+	/**
+	 * @return an engine sharing the type manager of this object
+	 */
+	public ForkJoinCofactorEngine<T> getCofactorEngine ()
+	{
+		if (engine == null) engine = new ForkJoinCofactorEngine<T> (manager);
+		return engine;
+	}
+	protected ForkJoinCofactorEngine<T> engine = null;
+
 	/**
 	 * threaded super class is chosen for threaded execution pattern selected
 	 * @return computation pool, threaded or sequential on option
@@ -64,6 +92,7 @@ public class MatrixOperationsAccelerated<T> extends MatrixOperations<T>
 	 */
 	public Matrix<T> comatrix (MatrixAccess<T> m)
 	{
+		if (useEngine (m)) return getCofactorEngine ().comatrix (m);
 		int rows = m.rowCount (), cols = m.columnCount ();
 		Matrix<T> result = new Matrix<T> (rows, cols, manager);
 		CofactorComputationPool<T> pool = constructCofactorComputationPool ();
@@ -100,6 +129,7 @@ public class MatrixOperationsAccelerated<T> extends MatrixOperations<T>
 	 */
 	public T cofactorExpansion (MatrixAccess<T> m)
 	{
+		if (useEngine (m)) return getCofactorEngine ().det (m);
 		return vectorOperations.dotProduct (computeCofactors (m, 1), m.getColAccess (1));
 	}
 
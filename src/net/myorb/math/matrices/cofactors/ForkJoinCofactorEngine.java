@@ -0,0 +1,249 @@
+package net.myorb.math.matrices.cofactors;
+
+import net.myorb.math.matrices.*;
+import net.myorb.math.SpaceManager;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.ForkJoinPool;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * cofactor and determinant computation on a work-stealing pool.
+ *  a minor is identified by bit masks of the rows and columns it keeps
+ *  and is expanded along its first column; the determinants of minors
+ *  are memoized so sub-minors shared by different cofactors are computed once.
+ *  the thread count is that of the pool and no task waits other than by join
+ * @param <T> type on which operations are to be executed
+ * @author Michael Druckman
+ */
+public class ForkJoinCofactorEngine<T>
+{
+
+
+	/**
+	 * minors at or below this edge are computed within the task,
+	 *  minors at or below MEMO_EDGE are computed without the memo
+	 */
+	public static final int SEQUENTIAL_EDGE = 5, MEMO_EDGE = 2;
+
+	/**
+	 * the memo holds a minor for each subset of rows with each column that
+	 *  can be removed, about N 2^N entries, one million at 16 and a billion at 26,
+	 *  larger matrices are left to the cofactor computation pool
+	 */
+	public static final int MAXIMUM_EDGE = 16;
+
+
+	/**
+	 * @param manager the type manager for T
+	 */
+	public ForkJoinCofactorEngine (SpaceManager<T> manager)
+	{
+		this (manager, ForkJoinPool.commonPool ());
+	}
+
+	/**
+	 * @param manager the type manager for T
+	 * @param pool the pool that will run the tasks
+	 */
+	public ForkJoinCofactorEngine (SpaceManager<T> manager, ForkJoinPool pool)
+	{
+		this.manager = manager;
+		this.pool = pool;
+	}
+	protected SpaceManager<T> manager;
+	protected ForkJoinPool pool;
+
+
+	/**
+	 * @param m a square matrix
+	 * @return TRUE when the matrix can be described by the masks
+	 */
+	public static boolean supports (MatrixAccess<?> m)
+	{
+		int N = m.rowCount ();
+		return N == m.columnCount () && N > 1 && N <= MAXIMUM_EDGE;
+	}
+
+
+	/*
+	 * entry points
+	 */
+
+
+	/**
+	 * @param m the matrix to use for computation
+	 * @return the determinant of the matrix
+	 */
+	public T det (MatrixAccess<T> m)
+	{
+		Expansion expansion = new Expansion (m);
+		int all = (1 << expansion.N) - 1;
+		return pool.invoke (expansion.new Minor (all, all));
+	}
+
+	/**
+	 * @param m the matrix to use for computation
+	 * @return the matrix of cofactors
+	 */
+	public Matrix<T> comatrix (MatrixAccess<T> m)
+	{
+		final Expansion expansion = new Expansion (m);
+		final int N = expansion.N, all = (1 << N) - 1;
+		final Matrix<T> result = new Matrix<T> (N, N, manager);
+
+		pool.invoke
+		(
+			new RecursiveTask<Void> ()
+			{
+				protected Void compute ()
+				{
+					List<Expansion.Minor> minors = new ArrayList<Expansion.Minor> ();
+					for (int i = 0; i < N; i++)
+					{
+						for (int j = 0; j < N; j++)
+						{ minors.add (expansion.new Minor (all & ~(1 << i), all & ~(1 << j))); }
+					}
+					invokeAll (minors);
+
+					for (int i = 0, k = 0; i < N; i++)
+					{
+						for (int j = 0; j < N; j++)
+						{
+							T minor = minors.get (k++).join ();
+							result.set (i + 1, j + 1, (i + j) % 2 == 0 ? minor : manager.negate (minor));
+						}
+					}
+					return null;
+				}
+				private static final long serialVersionUID = 1L;
+			}
+		);
+
+		return result;
+	}
+
+
+	/*
+	 * expansion of one matrix
+	 */
+
+
+	/**
+	 * the cells of a matrix with the memo of its minors
+	 */
+	class Expansion
+	{
+
+		Expansion (MatrixAccess<T> m)
+		{
+			if (!supports (m)) throw new RuntimeException ("Matrix not supported for cofactor engine");
+			this.N = m.rowCount (); this.cells = new ArrayList<T> (N * N);
+			for (int r = 1; r <= N; r++) for (int c = 1; c <= N; c++) cells.add (m.get (r, c));
+			this.memo = new ConcurrentHashMap<Long, T> ();
+		}
+		protected ConcurrentHashMap<Long, T> memo;
+		protected List<T> cells;
+		protected int N;
+
+		T cell (int row, int col) { return cells.get (row * N + col); }
+
+		/**
+		 * determinant of the minor computed within the current task
+		 * @param rows the mask of rows kept
+		 * @param cols the mask of columns kept
+		 * @return the determinant of the minor
+		 */
+		T det (int rows, int cols)
+		{
+			int edge = Integer.bitCount (rows);
+			if (edge <= MEMO_EDGE) return direct (rows, cols, edge);
+
+			Long key = key (rows, cols);
+			T value = memo.get (key);
+			if (value != null) return value;
+
+			int col = Integer.numberOfTrailingZeros (cols), remaining = cols & ~(1 << col);
+			T sum = manager.getZero ();
+
+			for (int r = rows, t = 0; r != 0; r &= r - 1, t++)
+			{
+				int row = Integer.numberOfTrailingZeros (r);
+				T term = manager.multiply (cell (row, col), det (rows & ~(1 << row), remaining));
+				sum = manager.add (sum, t % 2 == 0 ? term : manager.negate (term));
+			}
+
+			memo.putIfAbsent (key, sum);
+			return sum;
+		}
+
+		/**
+		 * @param rows the mask of rows kept
+		 * @param cols the mask of columns kept
+		 * @param edge the count of rows kept
+		 * @return the determinant of a minor of edge 1 or 2
+		 */
+		T direct (int rows, int cols, int edge)
+		{
+			int r0 = Integer.numberOfTrailingZeros (rows), c0 = Integer.numberOfTrailingZeros (cols);
+			if (edge == 1) return cell (r0, c0);
+			int r1 = Integer.numberOfTrailingZeros (rows & ~(1 << r0)),
+				c1 = Integer.numberOfTrailingZeros (cols & ~(1 << c0));
+			T product = manager.multiply (cell (r0, c0), cell (r1, c1));
+			return manager.add (product, manager.negate (manager.multiply (cell (r0, c1), cell (r1, c0))));
+		}
+
+		Long key (int rows, int cols) { return ((long) rows << 32) | (cols & 0xFFFFFFFFL); }
+
+		/**
+		 * a minor computed as a task, the sub-minors of large minors are forked
+		 */
+		class Minor extends RecursiveTask<T>
+		{
+
+			Minor (int rows, int cols) { this.rows = rows; this.cols = cols; }
+			protected int rows, cols;
+
+			/* (non-Javadoc)
+			 * @see java.util.concurrent.RecursiveTask#compute()
+			 */
+			protected T compute ()
+			{
+				int edge = Integer.bitCount (rows);
+				if (edge <= SEQUENTIAL_EDGE) return det (rows, cols);
+
+				Long key = key (rows, cols);
+				T value = memo.get (key);
+				if (value != null) return value;
+
+				int col = Integer.numberOfTrailingZeros (cols), remaining = cols & ~(1 << col);
+				List<Minor> minors = new ArrayList<Minor> (edge);
+				for (int r = rows; r != 0; r &= r - 1)
+				{
+					int row = Integer.numberOfTrailingZeros (r);
+					minors.add (new Minor (rows & ~(1 << row), remaining));
+				}
+				invokeAll (minors);
+
+				T sum = manager.getZero (); int t = 0;
+				for (int r = rows; r != 0; r &= r - 1, t++)
+				{
+					int row = Integer.numberOfTrailingZeros (r);
+					T term = manager.multiply (cell (row, col), minors.get (t).join ());
+					sum = manager.add (sum, t % 2 == 0 ? term : manager.negate (term));
+				}
+
+				memo.putIfAbsent (key, sum);
+				return sum;
+			}
+
+			private static final long serialVersionUID = 1L;
+		}
+
+	}
+
+
+}
@@ -2,6 +2,7 @@
 package net.myorb.math.matrices.decomposition;
 
 import net.myorb.math.matrices.Matrix;
+import net.myorb.math.matrices.DoubleMatrix;
 import net.myorb.math.matrices.VectorAccess;
 import net.myorb.math.structures.loaders.DecomposedMatrix;
 import net.myorb.math.expressions.ExpressionSpaceManager;
@@ -37,13 +38,23 @@ public class CommonLUD <T> extends GenericSupport <T>
 		public void copySourceMatrix (Matrix <T> A)
 		{
 			this.N = A.getEdgeCount ();
-			this.A = new Matrix <T> (N, N, mgr);
-			copyRows (N, A, this.A);
+			this.A = matOps.copy (A);
 		}
 		protected Matrix <T> A;
 		protected int N;
 
 
+		/**
+		 * matrices of the Real field are copied to a DoubleMatrix
+		 *  and decomposed by the DoubleLUD kernels
+		 * @return the cells of a primitive decomposition, null for generic
+		 */
+		public double [] primitiveCells ()
+		{
+			return A instanceof DoubleMatrix ? ((DoubleMatrix) A).getValues () : null;
+		}
+
+
 		/*
 		 * Unit permutation matrix management
 		 */
@@ -145,6 +156,9 @@ public class CommonLUD <T> extends GenericSupport <T>
 		 */
 		public Matrix <T> inv ()
 		{
+			double [] cells = primitiveCells ();
+			if (cells != null) return toMatrix (DoubleLUD.inv (cells, N, P), N);
+
 			Matrix <T> IA = new Matrix <T> (N, N, mgr);
 
 			for (int j = 1; j <= N; j++)
@@ -0,0 +1,134 @@
+package net.myorb.math.matrices.decomposition;
+
+/**
+ * LU decomposition kernels on the row-major cells of a DoubleMatrix.
+ *  the steps are those of GenericLUD in the same order so results agree,
+ *  row operations run along contiguous memory of the cell array
+ * @author Michael Druckman
+ */
+public class DoubleLUD
+{
+
+
+	/**
+	 * Doolittle decomposition in place with partial pivoting
+	 * @param A the row-major cells of an NxN matrix, replaced by L and U
+	 * @param N the edge size of the matrix
+	 * @param P the permutation, indexed from 1, updated by pivots
+	 * @return the count of pivots executed
+	 * @throws RuntimeException for a singular matrix
+	 */
+	public static int decompose (double [] A, int N, int [] P) throws RuntimeException
+	{
+		int pivots = 0;
+
+		for (int i = 0; i < N; i++)
+		{
+			int max = maxRow (A, N, i);
+			if (max != i)
+			{
+				int p = P[i+1]; P[i+1] = P[max+1]; P[max+1] = p;
+				interchange (A, N, i, max);
+				pivots++;
+			}
+
+			int ri = i * N; double inverse = 1 / A[ri + i];
+
+			for (int j = i + 1; j < N; j++)
+			{
+				int rj = j * N; double factor = A[rj + i] *= inverse;
+				for (int k = i + 1; k < N; k++) A[rj + k] -= factor * A[ri + k];
+			}
+		}
+
+		return pivots;
+	}
+
+
+	/**
+	 * @param A the cells of the matrix
+	 * @param N the edge size of the matrix
+	 * @param starting the row and column of the search
+	 * @return the row with the largest magnitude in the column
+	 * @throws RuntimeException when the column is zero
+	 */
+	static int maxRow (double [] A, int N, int starting) throws RuntimeException
+	{
+		double max = 0, abs; int imax = starting;
+		for (int k = starting; k < N; k++)
+		{
+			abs = Math.abs (A[k * N + starting]);
+			if (max < abs) { max = abs; imax = k; }
+		}
+		if (max == 0) throw new RuntimeException ("Singular matrix");
+		return imax;
+	}
+
+
+	/**
+	 * @param A the cells of the matrix
+	 * @param N the edge size of the matrix
+	 * @param row1 first row to exchange
+	 * @param row2 second row to exchange
+	 */
+	static void interchange (double [] A, int N, int row1, int row2)
+	{
+		for (int k = 0, r1 = row1 * N, r2 = row2 * N; k < N; k++)
+		{ double t = A[r1 + k]; A[r1 + k] = A[r2 + k]; A[r2 + k] = t; }
+	}
+
+
+	/**
+	 * forward and back substitution for L U x = P b
+	 * @param A the decomposed cells
+	 * @param N the edge size of the matrix
+	 * @param P the permutation, indexed from 1
+	 * @param b the requested vector, indexed from 0
+	 * @return the solution x, indexed from 0
+	 */
+	public static double [] solve (double [] A, int N, int [] P, double [] b)
+	{
+		double [] x = new double [N];
+
+		for (int i = 0; i < N; i++)
+		{
+			double sum = 0; int ri = i * N;
+			for (int k = 0; k < i; k++) sum += A[ri + k] * x[k];
+			x[i] = b[P[i+1] - 1] - sum;
+		}
+
+		for (int i = N - 1; i >= 0; i--)
+		{
+			double sum = 0; int ri = i * N;
+			for (int k = i + 1; k < N; k++) sum += A[ri + k] * x[k];
+			x[i] = (x[i] - sum) * (1 / A[ri + i]);
+		}
+
+		return x;
+	}
+
+
+	/**
+	 * inverse from the decomposition, a solution for each unit column
+	 * @param A the decomposed cells
+	 * @param N the edge size of the matrix
+	 * @param P the permutation, indexed from 1
+	 * @return the row-major cells of the inverse
+	 */
+	public static double [] inv (double [] A, int N, int [] P)
+	{
+		double [] IA = new double [N * N], e = new double [N];
+
+		for (int j = 0; j < N; j++)
+		{
+			e[j] = 1;
+			double [] x = solve (A, N, P, e);
+			for (int i = 0; i < N; i++) IA[i * N + j] = x[i];
+			e[j] = 0;
+		}
+
+		return IA;
+	}
+
+
+}
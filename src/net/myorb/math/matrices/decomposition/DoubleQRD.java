@@ -0,0 +1,127 @@
+package net.myorb.math.matrices.decomposition;
+
+import net.myorb.math.matrices.DoubleMatrix;
+
+/**
+ * QR decomposition kernels on the row-major cells of a DoubleMatrix.
+ *  the Householder steps are those of GenericQRD; the reflections work
+ *  on columns so the decomposition runs on a column-major copy of the cells
+ * @author Michael Druckman
+ */
+public class DoubleQRD
+{
+
+
+	/**
+	 * Householder decomposition in place
+	 * @param A the row-major cells of an NxN matrix, replaced by the decomposition
+	 * @param N the edge size of the matrix
+	 * @param C the reflection normalizations, indexed from 0
+	 * @param D the diagonal of R, indexed from 0
+	 * @throws RuntimeException for a singular matrix
+	 */
+	public static void decompose (double [] A, int N, double [] C, double [] D) throws RuntimeException
+	{
+		double [] Q = DoubleMatrix.transpose (A, N, N);				// column k of A is at Q [k*N]
+
+		for (int k = 0; k < N - 1; k++)
+		{
+			int ck = k * N;
+			double scale = Q[ck + maxRow (Q, N, k)];
+
+			double sum = 0, inverse = 1 / scale;
+			for (int i = k; i < N; i++)
+			{
+				double Aik = Q[ck + i] *= inverse;
+				sum += Aik * Aik;
+			}
+
+			double sigma = Math.sqrt (sum);
+			if (Q[ck + k] < 0) sigma = -sigma;
+			D[k] = - (scale * sigma);
+
+			double Akk = Q[ck + k] += sigma;
+			C[k] = sigma * Akk;
+
+			for (int j = k + 1; j < N; j++)
+			{ reduceByTauProduct (Q, j * N, Q, ck, k, N, C[k]); }
+		}
+
+		D[N-1] = Q[(N-1) * N + N-1];
+		System.arraycopy (DoubleMatrix.transpose (Q, N, N), 0, A, 0, A.length);
+	}
+
+
+	/**
+	 * @param Q the column-major cells
+	 * @param N the edge size of the matrix
+	 * @param k the column being searched from the diagonal
+	 * @return the row with the largest magnitude in the column
+	 * @throws RuntimeException when the column is zero
+	 */
+	static int maxRow (double [] Q, int N, int k) throws RuntimeException
+	{
+		double max = 0, abs; int imax = k;
+		for (int i = k, ck = k * N; i < N; i++)
+		{
+			abs = Math.abs (Q[ck + i]);
+			if (max < abs) { max = abs; imax = i; }
+		}
+		if (max == 0) throw new RuntimeException ("Singular matrix");
+		return imax;
+	}
+
+
+	/**
+	 * apply the reflection held in one column to a vector
+	 * @param v the array holding the vector
+	 * @param vOffset the position of element 0 of the vector
+	 * @param Q the array holding the reflection column
+	 * @param qOffset the position of element 0 of the column
+	 * @param k the first element of the reflection
+	 * @param N the length of the vectors
+	 * @param C the normalization of the reflection
+	 */
+	static void reduceByTauProduct (double [] v, int vOffset, double [] Q, int qOffset, int k, int N, double C)
+	{
+		double product = 0;
+		for (int i = k; i < N; i++) product += v[vOffset + i] * Q[qOffset + i];
+		double tau = product * (1 / C);
+		for (int i = k; i < N; i++) v[vOffset + i] -= tau * Q[qOffset + i];
+	}
+
+
+	/**
+	 * full solution A x = b
+	 * @param A the decomposed row-major cells
+	 * @param N the edge size of the matrix
+	 * @param C the reflection normalizations
+	 * @param D the diagonal of R
+	 * @param b the requested vector, indexed from 0
+	 * @return the solution x, indexed from 0
+	 */
+	public static double [] solve (double [] A, int N, double [] C, double [] D, double [] b)
+	{
+		double [] x = b.clone ();
+
+		for (int j = 0; j < N - 1; j++)
+		{
+			double product = 0;
+			for (int i = j; i < N; i++) product += x[i] * A[i * N + j];
+			double tau = product * (1 / C[j]);
+			for (int i = j; i < N; i++) x[i] -= tau * A[i * N + j];
+		}
+
+		x[N-1] *= 1 / D[N-1];
+		for (int i = N - 2; i >= 0; i--)
+		{
+			double dp = 0; int ri = i * N;
+			for (int k = i + 1; k < N; k++) dp += x[k] * A[ri + k];
+			x[i] = (x[i] - dp) * (1 / D[i]);
+		}
+
+		return x;
+	}
+
+
+}
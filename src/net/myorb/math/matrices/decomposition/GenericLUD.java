@@ -75,6 +75,13 @@ public class GenericLUD <T> extends CommonLUD <T>
 	{
 		int N = D.N;
 
+		double [] cells = D.primitiveCells ();
+		if (cells != null)
+		{
+			D.pivotCount = DoubleLUD.decompose (cells, N, D.P);
+			return;
+		}
+
 		for (int i = 1; i <= N; i++)
 		{
 	        D.prepNextRow (i);
@@ -128,6 +135,14 @@ public class GenericLUD <T> extends CommonLUD <T>
 		int N = D.N;
 		SolutionPrimitives.Content <T> x =
 			new SolutionPrimitives.Content <T> (b.size (), mgr);
+
+		double [] cells = D.primitiveCells ();
+		if (cells != null)
+		{
+			copyDoubles (DoubleLUD.solve (cells, N, D.P, toDoubles (b)), x);
+			return x;
+		}
+
 		D.reduceInSolution (b, x);
 
 		for (int i = N; i > 0; i--)
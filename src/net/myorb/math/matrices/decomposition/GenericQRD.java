@@ -44,7 +44,7 @@ public class GenericQRD <T> extends GenericSupport <T>
 	{
 
 		public QRDecomposition (Matrix <T> A)
-		{ this (A.getEdgeCount ()); this.A = copyOf (A); }
+		{ this (A.getEdgeCount ()); this.A = matOps.copy (A); }
 		public QRDecomposition (SimpleStreamIO.TextSource source) { load (source); }
 		public QRDecomposition (JsonSemantics.JsonValue source) { load (source); }
 
@@ -173,6 +173,16 @@ public class GenericQRD <T> extends GenericSupport <T>
 			}
 		}
 
+		/**
+		 * matrices of the Real field are copied to a DoubleMatrix
+		 *  and decomposed by the DoubleQRD kernels
+		 * @return the cells of a primitive decomposition, null for generic
+		 */
+		public double [] primitiveCells ()
+		{
+			return A instanceof DoubleMatrix ? ((DoubleMatrix) A).getValues () : null;
+		}
+
 		public VectorAccess <T> getRow (int row) { return A.getRowAccess (row); }
 		public VectorAccess <T> getCol (int col) { return A.getColAccess (col); }
 
@@ -207,6 +217,15 @@ public class GenericQRD <T> extends GenericSupport <T>
 	{
 		int N = QRD.N;
 
+		double [] cells = QRD.primitiveCells ();
+		if (cells != null)
+		{
+			double [] C = new double [N], D = new double [N];
+			DoubleQRD.decompose (cells, N, C, D);
+			copyDoubles (C, QRD.C); copyDoubles (D, QRD.D);
+			return;
+		}
+
 		for (int k = 1; k < N; k++)
 		{
 			int maxRowNum = maxRow (k, QRD.A);
@@ -269,6 +288,16 @@ public class GenericQRD <T> extends GenericSupport <T>
 	{
 		SolutionPrimitives.Content <T> x =
 				new SolutionPrimitives.Content <T> (b.size (), mgr);
+
+		double [] cells = D.primitiveCells ();
+		if (cells != null)
+		{
+			double [] solution = DoubleQRD.solve
+				(cells, D.N, toDoubles (D.C), toDoubles (D.D), toDoubles (b));
+			copyDoubles (solution, x);
+			return x;
+		}
+
 		copyCells (b, x);
 
 		for (int j = 1; j < D.N; j++)
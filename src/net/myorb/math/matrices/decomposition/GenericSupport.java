@@ -181,6 +181,49 @@ public class GenericSupport <T> extends CellSequencePrimitives
 	}
 
 
+	/*
+	 * conversions for the primitive kernels
+	 */
+
+
+	/**
+	 * @param v a vector of values
+	 * @return the values as a zero based double array
+	 */
+	public double [] toDoubles (VectorAccess <T> v)
+	{
+		double [] values = new double [v.size ()];
+		for (int i = 0; i < values.length; i++) values [i] = mgr.convertToDouble (v.get (i+1));
+		return values;
+	}
+
+
+	/**
+	 * @param values a zero based double array
+	 * @param v the vector to receive the values
+	 */
+	public void copyDoubles (double [] values, VectorAccess <T> v)
+	{
+		for (int i = 0; i < values.length; i++) v.set (i+1, mgr.convertFromDouble (values [i]));
+	}
+
+
+	/**
+	 * @param cells the row-major cells of a square matrix
+	 * @param N the edge size of the matrix
+	 * @return a matrix holding the cells
+	 */
+	public Matrix <T> toMatrix (double [] cells, int N)
+	{
+		Matrix <T> M = matOps.newMatrix (N, N);
+		if (M instanceof DoubleMatrix)
+			System.arraycopy (cells, 0, ((DoubleMatrix) M).getValues (), 0, cells.length);
+		else for (int r = 1, k = 0; r <= N; r++)
+			for (int c = 1; c <= N; c++) M.set (r, c, mgr.convertFromDouble (cells [k++]));
+		return M;
+	}
+
+
 	/*
 	 * common methods for linear algebra algorithms
 	 */
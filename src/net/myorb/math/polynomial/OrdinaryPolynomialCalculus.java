@@ -125,6 +125,9 @@ public class OrdinaryPolynomialCalculus<T> extends PolynomialCalculus<T>
 	 */
 	public T evaluatePolynomialDerivative (Coefficients<T> a, T atX)
 	{
+		List<T> primitive;
+		if (usesPowerBasis () && (primitive = PrimitivePolynomial.valueAndDerivatives (a, atX, 1)) != null)
+		{ return primitive.get (1); }
 		return evaluatePolynomial (computeDerivativeCoefficients (a), atX);
 	}
 
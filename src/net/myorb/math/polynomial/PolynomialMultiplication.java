@@ -0,0 +1,368 @@
+package net.myorb.math.polynomial;
+
+import net.myorb.math.complexnumbers.ComplexValue;
+import net.myorb.math.computational.FFTEngine;
+import net.myorb.math.SpaceManager;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * products of polynomials with primitive coefficients.
+ *  Integer and BigInteger coefficients use number theoretic transforms modulo three primes
+ *  recombined by CRT, which is exact while the product coefficients stay within the
+ *  range of the recombination.  Double coefficients may use Karatsuba for medium and
+ *  FFT convolution for long operands, ComplexValue of Double may use FFT; these lose
+ *  accuracy in the small coefficients when magnitudes differ widely (Taylor series and
+ *  generating functions) so the generic entry point uses them only when asked.
+ *  the generic entry point returns FALSE for other types so the caller keeps
+ *  SpaceManager arithmetic
+ * @author Michael Druckman
+ */
+public class PolynomialMultiplication
+{
+
+
+	/**
+	 * shortest operand length for Karatsuba and for transforms
+	 */
+	public static final int KARATSUBA_THRESHOLD = 32, FFT_THRESHOLD = 128;
+
+
+	/*
+	 * real coefficients
+	 */
+
+
+	/**
+	 * @param x coefficients of left operand
+	 * @param y coefficients of right operand
+	 * @return coefficients of the product
+	 */
+	public static double [] multiply (double [] x, double [] y)
+	{
+		int shorter = Math.min (x.length, y.length);
+		if (shorter == 0) return new double [0];
+		if (shorter < KARATSUBA_THRESHOLD) return schoolbook (x, y);
+		if (shorter < FFT_THRESHOLD) return karatsuba (x, y);
+		return convolve (x, y);
+	}
+
+	/**
+	 * terms summed in order of the right operand as PolynomialSpaceManager does
+	 * @param x coefficients of left operand
+	 * @param y coefficients of right operand
+	 * @return coefficients of the product
+	 */
+	public static double [] schoolbook (double [] x, double [] y)
+	{
+		double [] p = new double [x.length + y.length - 1];
+		for (int j = 0; j < y.length; j++)
+		{
+			double c = y[j];
+			for (int i = 0; i < x.length; i++) p[i + j] += c * x[i];
+		}
+		return p;
+	}
+
+	/**
+	 * (x0 + x1 X^h) (y0 + y1 X^h) with three half size products
+	 * @param x coefficients of left operand
+	 * @param y coefficients of right operand
+	 * @return coefficients of the product
+	 */
+	public static double [] karatsuba (double [] x, double [] y)
+	{
+		if (Math.min (x.length, y.length) < KARATSUBA_THRESHOLD) return schoolbook (x, y);
+		int h = (Math.max (x.length, y.length) + 1) / 2;
+
+		double [] x0 = part (x, 0, h), x1 = part (x, h, x.length), y0 = part (y, 0, h), y1 = part (y, h, y.length);
+		double [] z0 = product (x0, y0), z2 = product (x1, y1), z1 = product (sum (x0, x1), sum (y0, y1));
+
+		double [] p = new double [x.length + y.length - 1];
+		for (int i = 0; i < z1.length; i++)
+		{
+			double middle = z1[i] - (i < z0.length ? z0[i] : 0) - (i < z2.length ? z2[i] : 0);
+			if (i + h < p.length) p[i + h] += middle;
+		}
+		for (int i = 0; i < z0.length; i++) p[i] += z0[i];
+		for (int i = 0; i < z2.length && i + 2*h < p.length; i++) p[i + 2*h] += z2[i];
+		return p;
+	}
+	static double [] product (double [] x, double [] y)
+	{ return x.length == 0 || y.length == 0 ? new double [0] : karatsuba (x, y); }
+	static double [] part (double [] x, int from, int to)
+	{ return from >= to ? new double [0] : Arrays.copyOfRange (x, from, to); }
+	static double [] sum (double [] x, double [] y)
+	{
+		double [] s = new double [Math.max (x.length, y.length)];
+		for (int i = 0; i < s.length; i++) s[i] = (i < x.length ? x[i] : 0) + (i < y.length ? y[i] : 0);
+		return s;
+	}
+
+	/**
+	 * one complex transform carries both operands (x real, y imaginary);
+	 *  X#k Y#k = ( Z#k^2 - conj(Z#(N-k))^2 ) / 4i
+	 * @param x coefficients of left operand
+	 * @param y coefficients of right operand
+	 * @return coefficients of the product
+	 */
+	public static double [] convolve (double [] x, double [] y)
+	{
+		int n = x.length + y.length - 1, N = Integer.highestOneBit (Math.max (n - 1, 1)) << 1;
+		double [] re = new double [N], im = new double [N];
+		System.arraycopy (x, 0, re, 0, x.length); System.arraycopy (y, 0, im, 0, y.length);
+		FFTEngine.forward (re, im);
+
+		double [] pr = new double [N], pi = new double [N];
+		for (int k = 0; k < N; k++)
+		{
+			int j = (N - k) & (N - 1);
+			double ar = re[k], ai = im[k], br = re[j], bi = -im[j];
+			double dr = (ar*ar - ai*ai) - (br*br - bi*bi), di = 2 * (ar*ai - br*bi);
+			pr[k] = di / 4; pi[k] = -dr / 4;											// divide by 4i
+		}
+
+		FFTEngine.inverse (pr, pi);
+		return Arrays.copyOf (pr, n);
+	}
+
+
+	/*
+	 * complex coefficients
+	 */
+
+
+	/**
+	 * @param xr real parts of left operand
+	 * @param xi imaginary parts of left operand
+	 * @param yr real parts of right operand
+	 * @param yi imaginary parts of right operand
+	 * @return real and imaginary parts of the product
+	 */
+	public static double [][] multiply (double [] xr, double [] xi, double [] yr, double [] yi)
+	{
+		int shorter = Math.min (xr.length, yr.length);
+		if (shorter == 0) return new double [][] { new double [0], new double [0] };
+		int n = xr.length + yr.length - 1;
+		double [] pr = new double [n], pi = new double [n];
+
+		if (shorter < FFT_THRESHOLD)
+		{
+			for (int j = 0; j < yr.length; j++)
+				for (int i = 0; i < xr.length; i++)
+				{
+					pr[i + j] += yr[j] * xr[i] - yi[j] * xi[i];
+					pi[i + j] += yr[j] * xi[i] + yi[j] * xr[i];
+				}
+			return new double [][] { pr, pi };
+		}
+
+		int N = Integer.highestOneBit (n - 1) << 1;
+		double [] ar = Arrays.copyOf (xr, N), ai = Arrays.copyOf (xi, N);
+		double [] br = Arrays.copyOf (yr, N), bi = Arrays.copyOf (yi, N);
+		FFTEngine.forward (ar, ai); FFTEngine.forward (br, bi);
+		for (int k = 0; k < N; k++)
+		{
+			double r = ar[k] * br[k] - ai[k] * bi[k];
+			ai[k] = ar[k] * bi[k] + ai[k] * br[k]; ar[k] = r;
+		}
+		FFTEngine.inverse (ar, ai);
+		System.arraycopy (ar, 0, pr, 0, n); System.arraycopy (ai, 0, pi, 0, n);
+		return new double [][] { pr, pi };
+	}
+
+
+	/*
+	 * integer coefficients
+	 */
+
+
+	/**
+	 * exact product by NTT modulo three primes
+	 * @param x coefficients of left operand
+	 * @param y coefficients of right operand
+	 * @return coefficients of the product, NULL when outside the exact range
+	 */
+	public static BigInteger [] multiplyExact (long [] x, long [] y)
+	{
+		if (x.length == 0 || y.length == 0) return new BigInteger [0];
+		int n = x.length + y.length - 1, N = Integer.highestOneBit (Math.max (n - 1, 1)) << 1;
+		if (N > MAXIMUM_NTT || bitsOf (x) + bitsOf (y) + bitsOf (Math.min (x.length, y.length)) >= EXACT_BITS) return null;
+
+		long [][] residues = new long [PRIMES.length][];
+		for (int p = 0; p < PRIMES.length; p++)
+		{
+			long [] a = reduce (x, N, PRIMES[p]), b = reduce (y, N, PRIMES[p]);
+			ntt (a, PRIMES[p], false); ntt (b, PRIMES[p], false);
+			for (int k = 0; k < N; k++) a[k] = a[k] * b[k] % PRIMES[p];
+			ntt (a, PRIMES[p], true);
+			residues[p] = a;
+		}
+
+		BigInteger [] result = new BigInteger [n];
+		for (int k = 0; k < n; k++) result[k] = garner (residues[0][k], residues[1][k], residues[2][k]);
+		return result;
+	}
+	static final long [] PRIMES = { 998244353L, 167772161L, 469762049L };				// all with primitive root 3
+	static final int MAXIMUM_NTT = 1 << 23, EXACT_BITS = 85;
+	static final BigInteger
+		P0 = BigInteger.valueOf (PRIMES[0]), P01 = P0.multiply (BigInteger.valueOf (PRIMES[1])),
+		MODULUS = P01.multiply (BigInteger.valueOf (PRIMES[2])), HALF = MODULUS.shiftRight (1);
+	static final long
+		INV_P0_MOD_P1 = power (PRIMES[0] % PRIMES[1], PRIMES[1] - 2, PRIMES[1]),
+		INV_P01_MOD_P2 = power (PRIMES[0] % PRIMES[2] * (PRIMES[1] % PRIMES[2]) % PRIMES[2], PRIMES[2] - 2, PRIMES[2]);
+
+	/**
+	 * @param r0 residue modulo the first prime
+	 * @param r1 residue modulo the second prime
+	 * @param r2 residue modulo the third prime
+	 * @return the signed value with these residues
+	 */
+	static BigInteger garner (long r0, long r1, long r2)
+	{
+		long p1 = PRIMES[1], p2 = PRIMES[2];
+		long t1 = ((r1 - r0 % p1) % p1 + p1) % p1 * INV_P0_MOD_P1 % p1;
+		long v01 = (r0 % p2 + PRIMES[0] % p2 * t1) % p2;										// r0 + p0 t1 modulo p2
+		long t2 = ((r2 - v01) % p2 + p2) % p2 * INV_P01_MOD_P2 % p2;
+		BigInteger v = BigInteger.valueOf (r0).add (P0.multiply (BigInteger.valueOf (t1))).add (P01.multiply (BigInteger.valueOf (t2)));
+		return v.compareTo (HALF) > 0 ? v.subtract (MODULUS) : v;
+	}
+
+	/**
+	 * iterative radix 2 transform in place
+	 * @param a the residues, length a power of 2
+	 * @param p the prime modulus
+	 * @param inverse TRUE for the inverse transform with 1/N scaling
+	 */
+	static void ntt (long [] a, long p, boolean inverse)
+	{
+		int N = a.length;
+		for (int i = 1, j = 0; i < N; i++)
+		{
+			int bit = N >> 1;
+			for (; (j & bit) != 0; bit >>= 1) j ^= bit;
+			j ^= bit;
+			if (i < j) { long t = a[i]; a[i] = a[j]; a[j] = t; }
+		}
+
+		for (int len = 2; len <= N; len <<= 1)
+		{
+			long w = power (3, (p - 1) / len, p);
+			if (inverse) w = power (w, p - 2, p);
+			for (int i = 0; i < N; i += len)
+			{
+				long wk = 1;
+				for (int k = 0; k < len / 2; k++)
+				{
+					long u = a[i + k], v = a[i + k + len/2] * wk % p;
+					a[i + k] = u + v < p ? u + v : u + v - p;
+					a[i + k + len/2] = u - v >= 0 ? u - v : u - v + p;
+					wk = wk * w % p;
+				}
+			}
+		}
+
+		if (!inverse) return;
+		long invN = power (N, p - 2, p);
+		for (int i = 0; i < N; i++) a[i] = a[i] * invN % p;
+	}
+
+	static long power (long b, long e, long p)
+	{
+		long r = 1; b %= p;
+		for (; e > 0; e >>= 1, b = b * b % p) if ((e & 1) == 1) r = r * b % p;
+		return r;
+	}
+	static long [] reduce (long [] x, int N, long p)
+	{
+		long [] a = new long [N];
+		for (int i = 0; i < x.length; i++) a[i] = ((x[i] % p) + p) % p;
+		return a;
+	}
+	static int bitsOf (long [] x)
+	{
+		long max = 0;
+		for (long v : x) max = Math.max (max, Math.abs (v));
+		return bitsOf (max);
+	}
+	static int bitsOf (long v) { return 64 - Long.numberOfLeadingZeros (v); }
+
+
+	/*
+	 * generic entry point
+	 */
+
+
+	/**
+	 * @param x coefficients of left operand
+	 * @param y coefficients of right operand
+	 * @param result list to receive the product coefficients
+	 * @param floating TRUE to allow Karatsuba and FFT products of Double and ComplexValue coefficients
+	 * @return TRUE when a primitive product was computed
+	 * @param <T> data type
+	 */
+	@SuppressWarnings("unchecked")
+	public static <T> boolean multiply (List <T> x, List <T> y, List <T> result, boolean floating)
+	{
+		if (x.isEmpty () || y.isEmpty ()) return false;
+		Object sample = x.get (0);
+
+		if (!floating && ! (sample instanceof BigInteger || sample instanceof Integer))
+		{ return false; }															// schoolbook keeps small terms exact
+
+		if (sample instanceof Double)
+		{
+			double [] a = doubles (x), b = doubles (y);
+			if (a == null || b == null) return false;
+			for (double v : multiply (a, b)) result.add ((T) Double.valueOf (v));
+			return true;
+		}
+
+		if (sample instanceof BigInteger || sample instanceof Integer)
+		{
+			if (Math.min (x.size (), y.size ()) < KARATSUBA_THRESHOLD) return false;	// generic schoolbook is exact
+			long [] a = longs (x), b = longs (y);
+			BigInteger [] p = a == null || b == null ? null : multiplyExact (a, b);
+			if (p == null) return false;
+			boolean big = sample instanceof BigInteger;
+			for (BigInteger v : p) result.add ((T) (big ? v : (Object) Integer.valueOf (v.intValue ())));
+			return true;
+		}
+
+		double [][] a = PrimitivePolynomial.complexParts (x), b = PrimitivePolynomial.complexParts (y);
+		if (a == null || b == null) return false;
+		SpaceManager <Double> components = ((ComplexValue <Double>) sample).getSpaceManager ();
+		double [][] p = multiply (a[0], a[1], b[0], b[1]);
+		for (int k = 0; k < p[0].length; k++) result.add ((T) new ComplexValue <Double> (p[0][k], p[1][k], components));
+		return true;
+	}
+
+	static double [] doubles (List <?> values)
+	{
+		double [] a = new double [values.size ()];
+		for (int i = 0; i < a.length; i++)
+		{
+			Object v = values.get (i);
+			if ( ! (v instanceof Double) ) return null;
+			a[i] = (Double) v;
+		}
+		return a;
+	}
+
+	static long [] longs (List <?> values)
+	{
+		long [] a = new long [values.size ()];
+		for (int i = 0; i < a.length; i++)
+		{
+			Object v = values.get (i);
+			if (v instanceof Integer) a[i] = (Integer) v;
+			else if (v instanceof BigInteger && ((BigInteger) v).bitLength () < 63) a[i] = ((BigInteger) v).longValue ();
+			else return null;
+		}
+		return a;
+	}
+
+
+}
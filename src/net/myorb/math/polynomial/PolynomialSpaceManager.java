@@ -33,6 +33,17 @@ public class PolynomialSpaceManager<T> extends OrdinaryPolynomialCalculus<T>
 	final T ZERO, NEGATIVE_ONE, ONE;
 
 
+	/**
+	 * allow Karatsuba and FFT products for floating coefficients,
+	 *  faster for long operands but inexact in the small terms when
+	 *  coefficient magnitudes differ widely, off by default
+	 * @param fastFloatingProducts TRUE to allow
+	 */
+	public void setFastFloatingProducts (boolean fastFloatingProducts)
+	{ this.fastFloatingProducts = fastFloatingProducts; }
+	protected boolean fastFloatingProducts = false;
+
+
 	/* (non-Javadoc)
 	 * @see net.myorb.math.SpaceManager#getDataType()
 	 */
@@ -99,6 +110,7 @@ public class PolynomialSpaceManager<T> extends OrdinaryPolynomialCalculus<T>
 	public Coefficients<T> multiply (Coefficients<T> x, Coefficients<T> y)
 	{
 		Coefficients<T> intermediate, result = new Coefficients<T> ();
+		if (PolynomialMultiplication.multiply (x, y, result, fastFloatingProducts)) return result;
 		(intermediate = new Coefficients<T> ()).addAll (x);
 
 		for (T c : y)
@@ -121,10 +133,12 @@ public class PolynomialSpaceManager<T> extends OrdinaryPolynomialCalculus<T>
 	{
 		if (exponent == 0)
 			return newCoefficients (ONE);
-		Coefficients<T> results = x;
-		for (int n=exponent-1; n>0; n--)
+		if (exponent < 0) return x;
+		Coefficients<T> results = null, square = x;
+		for (int n = exponent; n > 0; n >>= 1)					// repeated squaring
 		{
-			results = multiply (results, x);
+			if ((n & 1) == 1) results = results == null ? square : multiply (results, square);
+			if (n > 1) square = multiply (square, square);
 		}
 		return results;
 	}
@@ -0,0 +1,343 @@
+package net.myorb.math.polynomial;
+
+import net.myorb.math.complexnumbers.ComplexValue;
+import net.myorb.math.Polynomial;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * power series evaluation over primitive coefficients for the Double and ComplexValue of Double fields.
+ *  real values use Horner rule below ESTRIN_DEGREE and the Estrin scheme above it (shorter dependency chain),
+ *  complex values use Horner rule;
+ *  value and derivatives are produced together by one extended Horner pass.
+ *  the generic entry points return NULL for types without a primitive form so callers fall back
+ *  to SpaceManager arithmetic
+ * @author Michael Druckman
+ */
+public class PrimitivePolynomial
+{
+
+
+	/**
+	 * @param coefficients the coefficients c0, c1, c2, ... of the polynomial
+	 */
+	public PrimitivePolynomial (double [] coefficients)
+	{
+		this.coefficients = coefficients;
+	}
+	protected double [] coefficients;
+
+	/**
+	 * @param coefficients the coefficients c0, c1, c2, ... of the polynomial
+	 * @return the primitive polynomial, NULL when coefficients are not Double
+	 */
+	public static PrimitivePolynomial forCoefficients (List <?> coefficients)
+	{
+		double [] a = new double [coefficients.size ()];
+		for (int i = 0; i < a.length; i++)
+		{
+			Object c = coefficients.get (i);
+			if ( ! (c instanceof Double) ) return null;
+			a[i] = (Double) c;
+		}
+		return new PrimitivePolynomial (a);
+	}
+
+	/**
+	 * @return the degree of the polynomial
+	 */
+	public int getDegree () { return coefficients.length - 1; }
+
+
+	/**
+	 * @param x the parameter
+	 * @return the value of the polynomial at x
+	 */
+	public double evaluate (double x) { return evaluate (coefficients, x); }
+
+	/**
+	 * @param xs the parameters
+	 * @param out the value of the polynomial at each parameter
+	 */
+	public void evaluate (double [] xs, double [] out)
+	{
+		for (int i = 0; i < xs.length; i++) out[i] = evaluate (coefficients, xs[i]);
+	}
+
+	/**
+	 * @param xs the parameters
+	 * @return the value of the polynomial at each parameter
+	 */
+	public double [] evaluate (double [] xs)
+	{
+		double [] out = new double [xs.length];
+		evaluate (xs, out);
+		return out;
+	}
+
+	/**
+	 * @param x the parameter
+	 * @param out p(x), p'(x), p''(x), ... for the length of the array
+	 */
+	public void valueAndDerivatives (double x, double [] out) { derivatives (coefficients, x, out); }
+
+
+	/*
+	 * real algorithms
+	 */
+
+
+	/**
+	 * @param a the coefficients c0, c1, c2, ...
+	 * @param x the parameter
+	 * @return SIGMA a#k * x^k
+	 */
+	public static double evaluate (double [] a, double x)
+	{
+		if (a.length > ESTRIN_DEGREE) return estrin (a, 0, a.length, x);
+		return horner (a, x);
+	}
+	public static final int ESTRIN_DEGREE = 24;
+
+	/**
+	 * @param a the coefficients c0, c1, c2, ...
+	 * @param x the parameter
+	 * @return SIGMA a#k * x^k
+	 */
+	public static double horner (double [] a, double x)
+	{
+		double value = 0;
+		for (int k = a.length - 1; k >= 0; k--) value = value * x + a[k];
+		return value;
+	}
+
+	/**
+	 * split the terms at the largest power of 2 below the count,
+	 *  the two halves are independent and combine with one multiply
+	 * @param a the coefficients c0, c1, c2, ...
+	 * @param from index of the first coefficient of the range
+	 * @param count number of coefficients in the range
+	 * @param x the parameter
+	 * @return SIGMA a#(from+k) * x^k
+	 */
+	public static double estrin (double [] a, int from, int count, double x)
+	{
+		if (count <= 4)
+		{
+			double value = 0;
+			for (int k = from + count - 1; k >= from; k--) value = value * x + a[k];
+			return value;
+		}
+		int split = Integer.highestOneBit (count - 1);
+		double xSplit = x;
+		for (int m = 1; m < split; m <<= 1) xSplit *= xSplit;
+		return estrin (a, from, split, x) + xSplit * estrin (a, from + split, count - split, x);
+	}
+
+	/**
+	 * extended Horner pass for value and derivatives
+	 * @param a the coefficients c0, c1, c2, ...
+	 * @param x the parameter
+	 * @param out p(x), p'(x), p''(x), ... for the length of the array
+	 */
+	public static void derivatives (double [] a, double x, double [] out)
+	{
+		int n = a.length - 1, nd = out.length - 1;
+		Arrays.fill (out, 0);
+		if (n < 0) return;
+		out[0] = a[n];
+
+		for (int i = n - 1; i >= 0; i--)
+		{
+			for (int j = Math.min (nd, n - i); j >= 1; j--) out[j] = out[j] * x + out[j-1];
+			out[0] = out[0] * x + a[i];
+		}
+
+		for (int j = 2, factorial = 1; j <= nd; j++) out[j] *= (factorial *= j);
+	}
+
+
+	/*
+	 * complex algorithms, values held as (re, im) pairs
+	 */
+
+
+	/**
+	 * @param re real parts of the coefficients
+	 * @param im imaginary parts of the coefficients
+	 * @param xRe real part of the parameter
+	 * @param xIm imaginary part of the parameter
+	 * @param out real and imaginary parts of p(x), p'(x), p''(x), ... for the length of the array
+	 */
+	public static void derivatives
+		(
+			double [] re, double [] im,
+			double xRe, double xIm, double [] out
+		)
+	{
+		int n = re.length - 1, nd = out.length / 2 - 1;
+		Arrays.fill (out, 0);
+		if (n < 0) return;
+		out[0] = re[n]; out[1] = im[n];
+
+		for (int i = n - 1; i >= 0; i--)
+		{
+			for (int j = Math.min (nd, n - i); j >= 0; j--)
+			{
+				double r = out[2*j], s = out[2*j+1];
+				out[2*j] = r * xRe - s * xIm + (j == 0 ? re[i] : out[2*j-2]);
+				out[2*j+1] = r * xIm + s * xRe + (j == 0 ? im[i] : out[2*j-1]);
+			}
+		}
+
+		for (int j = 2, factorial = 1; j <= nd; j++)
+		{ factorial *= j; out[2*j] *= factorial; out[2*j+1] *= factorial; }
+	}
+
+
+	/*
+	 * generic entry points
+	 */
+
+
+	/**
+	 * @param polynomial the evaluation object of a power function
+	 * @return TRUE when the coefficients are those of an ordinary power series
+	 */
+	public static boolean isPowerSeries (Polynomial <?> polynomial)
+	{
+		return polynomial != null && polynomial.usesPowerBasis ();
+	}
+
+	/**
+	 * @param coefficients the coefficients c0, c1, c2, ...
+	 * @param x the parameter
+	 * @param order the highest derivative required
+	 * @return p(x), p'(x), ... p[order](x), NULL when no primitive form applies
+	 * @param <T> data type
+	 */
+	@SuppressWarnings("unchecked")
+	public static <T> List <T> valueAndDerivatives (List <T> coefficients, T x, int order)
+	{
+		List <T> results = new ArrayList <T> ();
+
+		if (x instanceof Double)
+		{
+			PrimitivePolynomial p = forCoefficients (coefficients);
+			if (p == null) return null;
+			double [] out = new double [order + 1];
+			p.valueAndDerivatives ((Double) x, out);
+			for (double v : out) results.add ((T) Double.valueOf (v));
+			return results;
+		}
+
+		ComplexValue <Double> z = complexOrNull (x);
+		double [][] parts = z == null ? null : complexParts (coefficients);
+		if (parts == null) return null;
+
+		double [] out = new double [2 * (order + 1)];
+		derivatives (parts[0], parts[1], z.Re (), z.Im (), out);
+		for (int j = 0; j <= order; j++)
+		{ results.add ((T) new ComplexValue <Double> (out[2*j], out[2*j+1], z.getSpaceManager ())); }
+		return results;
+	}
+
+	/**
+	 * @param coefficients the coefficients c0, c1, c2, ...
+	 * @param x the parameter
+	 * @return p(x), NULL when no primitive form applies
+	 * @param <T> data type
+	 */
+	@SuppressWarnings("unchecked")
+	public static <T> T evaluate (List <T> coefficients, T x)
+	{
+		if (x instanceof Double)
+		{
+			if (coefficients.size () > ESTRIN_DEGREE)
+			{
+				PrimitivePolynomial p = forCoefficients (coefficients);
+				return p == null ? null : (T) Double.valueOf (p.evaluate ((Double) x));
+			}
+
+			double v = (Double) x, value = 0;
+			for (int k = coefficients.size () - 1; k >= 0; k--)
+			{
+				Object c = coefficients.get (k);
+				if ( ! (c instanceof Double) ) return null;
+				value = value * v + (Double) c;
+			}
+			return (T) Double.valueOf (value);
+		}
+
+		ComplexValue <Double> z = complexOrNull (x);
+		if (z == null) return null;
+		double zRe = z.Re (), zIm = z.Im (), re = 0, im = 0;
+		for (int k = coefficients.size () - 1; k >= 0; k--)
+		{
+			ComplexValue <Double> c = complexOrNull (coefficients.get (k));
+			if (c == null) return null;
+			double r = re * zRe - im * zIm + c.Re ();
+			im = re * zIm + im * zRe + c.Im (); re = r;
+		}
+		return (T) new ComplexValue <Double> (re, im, z.getSpaceManager ());
+	}
+
+	/**
+	 * @param coefficients the coefficients c0, c1, c2, ...
+	 * @param xs the parameters
+	 * @return p(x) for each parameter, NULL when no primitive form applies
+	 * @param <T> data type
+	 */
+	@SuppressWarnings("unchecked")
+	public static <T> List <T> evaluateAll (List <T> coefficients, List <T> xs)
+	{
+		PrimitivePolynomial p = forCoefficients (coefficients);
+		if (p == null) return null;
+
+		double [] x = new double [xs.size ()];
+		for (int i = 0; i < x.length; i++)
+		{
+			Object v = xs.get (i);
+			if ( ! (v instanceof Double) ) return null;
+			x[i] = (Double) v;
+		}
+
+		List <T> results = new ArrayList <T> ();
+		for (double v : p.evaluate (x)) results.add ((T) Double.valueOf (v));
+		return results;
+	}
+
+
+	/**
+	 * @param value a value of unknown type
+	 * @return the value as complex with Double components, NULL otherwise
+	 */
+	@SuppressWarnings("unchecked")
+	static ComplexValue <Double> complexOrNull (Object value)
+	{
+		if ( ! (value instanceof ComplexValue) ) return null;
+		ComplexValue <?> z = (ComplexValue <?>) value;
+		if ( ! (z.Re () instanceof Double && z.Im () instanceof Double) ) return null;
+		return (ComplexValue <Double>) z;
+	}
+
+	/**
+	 * @param coefficients complex coefficients
+	 * @return arrays of real and imaginary parts, NULL when not complex of Double
+	 */
+	static double [][] complexParts (List <?> coefficients)
+	{
+		double [][] parts = new double [2][coefficients.size ()];
+		for (int i = 0; i < coefficients.size (); i++)
+		{
+			ComplexValue <Double> c = complexOrNull (coefficients.get (i));
+			if (c == null) return null;
+			parts[0][i] = c.Re (); parts[1][i] = c.Im ();
+		}
+		return parts;
+	}
+
+
+}
@@ -0,0 +1,328 @@
+package net.myorb.math.polynomial;
+
+import net.myorb.math.GeneratingFunctions;
+import net.myorb.math.SpaceManager;
+import net.myorb.math.Polynomial;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * memoized three term recurrence tables for the classical orthogonal families.
+ *  each table holds the recurrence coefficients and the power series coefficient rows
+ *  computed so far, growing on request; readers see a published snapshot so tables may be
+ *  shared between threads.  the evaluators run the recurrence directly and produce
+ *  P[0](x) .. P[n](x) in one pass, which stays accurate at orders where the power
+ *  series rows have lost all precision to cancellation
+ * @author Michael Druckman
+ */
+public class RecurrenceTables
+{
+
+
+	/**
+	 * description of a family as a three term recurrence
+	 *
+	 * 		P[n+1](x) = ( a[n] * x + b[n] ) * P[n](x) - c[n] * P[n-1](x)
+	 *
+	 * with P[0](x) = 1 and P[-1](x) = 0
+	 */
+	public interface Recurrence
+	{
+		/**
+		 * @param n the order of the last known term
+		 * @return a[n], b[n], c[n] in a 3 element array
+		 */
+		double [] coefficientsFor (int n);
+	}
+
+
+	/**
+	 * growable table of one family
+	 */
+	public static class Table
+	{
+
+		Table (Recurrence recurrence)
+		{
+			this.recurrence = recurrence;
+		}
+		protected Recurrence recurrence;
+
+
+		/*
+		 * recurrence coefficients
+		 */
+
+		/**
+		 * @param n the highest order required
+		 * @return the a, b, c arrays covering P[0] .. P[n]
+		 */
+		double [][] recurrenceTo (int n)
+		{
+			double [][] abc = this.abc;
+			if (abc[0].length >= n) return abc;
+			synchronized (this)
+			{
+				if ((abc = this.abc)[0].length >= n) return abc;
+				int size = Math.max (n, 2 * abc[0].length);
+				double [][] grown = new double [3][];
+				for (int j = 0; j < 3; j++) grown[j] = Arrays.copyOf (abc[j], size);
+				for (int k = abc[0].length; k < size; k++)
+				{
+					double [] c = recurrence.coefficientsFor (k);
+					grown[0][k] = c[0]; grown[1][k] = c[1]; grown[2][k] = c[2];
+				}
+				return this.abc = grown;
+			}
+		}
+		protected volatile double [][] abc = new double [3][0];
+
+
+		/*
+		 * power series rows
+		 */
+
+		/**
+		 * @param n the order of the polynomial
+		 * @return the power series coefficients c0, c1, ... cn of P[n] (shared, not to be modified)
+		 */
+		public double [] coefficients (int n)
+		{
+			double [][] rows = this.rows;
+			if (rows.length > n) return rows[n];
+			synchronized (this)
+			{
+				if ((rows = this.rows).length > n) return rows[n];
+				int size = Math.max (n + 1, 2 * rows.length);
+				double [][] abc = recurrenceTo (size), grown = Arrays.copyOf (rows, size);
+
+				for (int k = rows.length; k < size; k++)
+				{
+					double [] row = grown[k] = new double [k + 1];
+					if (k == 0) { row[0] = 1; continue; }
+					double a = abc[0][k-1], b = abc[1][k-1], c = abc[2][k-1];
+					double [] p = grown[k-1], q = k > 1 ? grown[k-2] : new double [0];
+					for (int i = 0; i < k; i++)
+					{
+						row[i+1] += a * p[i];
+						row[i] += b * p[i] - (i < q.length ? c * q[i] : 0);
+					}
+				}
+
+				return (this.rows = grown)[n];
+			}
+		}
+		protected volatile double [][] rows = new double [0][];
+
+		/**
+		 * @param upTo the highest order required
+		 * @param manager a manager for the real data type
+		 * @return the power functions P[0] .. P[upTo]
+		 */
+		public PolynomialFamilyManager.PowerFunctionList <Double> functions (int upTo, SpaceManager <Double> manager)
+		{
+			Polynomial <Double> polynomial = new Polynomial <Double> (manager);
+			PolynomialFamilyManager.PowerFunctionList <Double> functions =
+					new PolynomialFamilyManager.PowerFunctionList <Double> ();
+			for (int n = 0; n <= upTo; n++)
+			{
+				GeneratingFunctions.Coefficients <Double> c = new GeneratingFunctions.Coefficients <Double> ();
+				for (double v : coefficients (n)) c.add (v);
+				functions.add (polynomial.getPolynomialFunction (c));
+			}
+			return functions;
+		}
+
+
+		/*
+		 * direct evaluation
+		 */
+
+		/**
+		 * @param x the parameter
+		 * @param out P[0](x) .. P[n](x) for the length of the array
+		 */
+		public void evaluate (double x, double [] out)
+		{
+			int n = out.length - 1;
+			if (n < 0) return;
+			double [][] abc = recurrenceTo (n);
+			double previous = 0, current = 1;
+			out[0] = 1;
+
+			for (int k = 0; k < n; k++)
+			{
+				double next = (abc[0][k] * x + abc[1][k]) * current - abc[2][k] * previous;
+				out[k+1] = next; previous = current; current = next;
+			}
+		}
+
+		/**
+		 * @param x the parameter
+		 * @param n the order of the polynomial
+		 * @return P[n](x)
+		 */
+		public double evaluate (double x, int n)
+		{
+			double [][] abc = recurrenceTo (n);
+			double previous = 0, current = 1;
+
+			for (int k = 0; k < n; k++)
+			{
+				double next = (abc[0][k] * x + abc[1][k]) * current - abc[2][k] * previous;
+				previous = current; current = next;
+			}
+
+			return current;
+		}
+
+		/**
+		 * differentiate the recurrence along with the values
+		 * @param x the parameter
+		 * @param p P[0](x) .. P[n](x) for the length of the array
+		 * @param dp P'[0](x) .. P'[n](x), same length as p
+		 */
+		public void evaluate (double x, double [] p, double [] dp)
+		{
+			int n = p.length - 1;
+			if (n < 0) return;
+			double [][] abc = recurrenceTo (n);
+			p[0] = 1; dp[0] = 0;
+
+			for (int k = 0; k < n; k++)
+			{
+				double a = abc[0][k], linear = a * x + abc[1][k], c = abc[2][k];
+				p[k+1] = linear * p[k] - (k > 0 ? c * p[k-1] : 0);
+				dp[k+1] = linear * dp[k] + a * p[k] - (k > 0 ? c * dp[k-1] : 0);
+			}
+		}
+
+		/**
+		 * @param n the order of the last known term
+		 * @return a[n], b[n], c[n] of the recurrence
+		 */
+		public double [] getRecurrenceCoefficients (int n)
+		{
+			double [][] abc = recurrenceTo (n + 1);
+			return new double [] { abc[0][n], abc[1][n], abc[2][n] };
+		}
+
+	}
+
+
+	/*
+	 * table cache
+	 */
+
+
+	/**
+	 * @param key the name of the family with its parameters
+	 * @param recurrence the recurrence to use when no table is held
+	 * @return the shared table for the family
+	 */
+	public static Table tableFor (String key, Recurrence recurrence)
+	{
+		return tables.computeIfAbsent (key, k -> new Table (recurrence));
+	}
+	static Map <String, Table> tables = new ConcurrentHashMap <> ();
+
+
+	/*
+	 * the classical families in their conventional normalization
+	 */
+
+
+	/**
+	 * T[n+1] = 2x T[n] - T[n-1], T[1] = x
+	 * @return table of Chebyshev polynomials of the first kind
+	 */
+	public static Table chebyshevT ()
+	{
+		return tableFor ("ChebyshevT", (n) -> new double [] { n == 0 ? 1 : 2, 0, 1 });
+	}
+
+	/**
+	 * U[n+1] = 2x U[n] - U[n-1], U[1] = 2x
+	 * @return table of Chebyshev polynomials of the second kind
+	 */
+	public static Table chebyshevU ()
+	{
+		return tableFor ("ChebyshevU", (n) -> new double [] { 2, 0, 1 });
+	}
+
+	/**
+	 * (n+1) P[n+1] = (2n+1) x P[n] - n P[n-1]
+	 * @return table of Legendre polynomials
+	 */
+	public static Table legendre ()
+	{
+		return tableFor ("Legendre", (n) -> new double [] { (2.0*n + 1) / (n + 1), 0, n / (n + 1.0) });
+	}
+
+	/**
+	 * H[n+1] = 2x H[n] - 2n H[n-1] (physicists' convention)
+	 * @return table of Hermite polynomials
+	 */
+	public static Table hermite ()
+	{
+		return tableFor ("Hermite", (n) -> new double [] { 2, 0, 2.0 * n });
+	}
+
+	/**
+	 * (n+1) L[n+1] = (2n+1+alpha-x) L[n] - (n+alpha) L[n-1]
+	 * @param alpha the generalized Laguerre parameter, 0 for the simple family
+	 * @return table of Laguerre polynomials
+	 */
+	public static Table laguerre (double alpha)
+	{
+		return tableFor
+		(
+			"Laguerre(" + alpha + ")",
+			(n) -> new double [] { -1.0 / (n + 1), (2*n + 1 + alpha) / (n + 1), (n + alpha) / (n + 1) }
+		);
+	}
+
+	/**
+	 * (n+1) C[n+1] = 2(n+lambda) x C[n] - (n+2lambda-1) C[n-1];
+	 *  the recurrence degenerates for lambda=0 so Chebyshev T is used as GegenbauerPolynomial does
+	 * @param lambda the Gegenbauer parameter
+	 * @return table of Gegenbauer polynomials
+	 */
+	public static Table gegenbauer (double lambda)
+	{
+		if (lambda == 0) return chebyshevT ();
+		return tableFor
+		(
+			"Gegenbauer(" + lambda + ")",
+			(n) -> new double [] { 2 * (n + lambda) / (n + 1), 0, (n + 2*lambda - 1) / (n + 1) }
+		);
+	}
+
+	/**
+	 * Jacobi polynomials normalized as in Abramowitz and Stegun 22.7.1
+	 * @param alpha the first Jacobi parameter
+	 * @param beta the second Jacobi parameter
+	 * @return table of Jacobi polynomials
+	 */
+	public static Table jacobi (double alpha, double beta)
+	{
+		return tableFor ("Jacobi(" + alpha + "," + beta + ")", (n) -> jacobiCoefficients (n, alpha, beta));
+	}
+	static double [] jacobiCoefficients (int n, double alpha, double beta)
+	{
+		double s = alpha + beta;
+		if (n == 0) return new double [] { (s + 2) / 2, (alpha - beta) / 2, 0 };	// P[1] = ((s+2)x + alpha-beta) / 2
+
+		double m = 2*n + s, d = 2 * (n + 1) * (n + s + 1) * m;
+		return new double []
+		{
+			(m + 1) * (m + 2) * m / d,
+			(m + 1) * (alpha*alpha - beta*beta) / d,
+			2 * (n + alpha) * (n + beta) * (m + 2) / d
+		};
+	}
+
+
+}
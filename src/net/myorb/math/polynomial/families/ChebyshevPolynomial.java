@@ -211,6 +211,12 @@ public class ChebyshevPolynomial<T> extends Polynomial<T>
 	static final String MINIMUM_COEFFICIENTS = "Clenshaw algorithm coded for minimum of 3 coefficients";
 
 
+	/* (non-Javadoc)
+	 * @see net.myorb.math.Polynomial#usesPowerBasis()
+	 */
+	public boolean usesPowerBasis () { return false; }
+
+
 	/* (non-Javadoc)
 	 * @see net.myorb.math.PolynomialFamily#getName()
 	 */
@@ -0,0 +1,297 @@
+package net.myorb.math.primenumbers;
+
+import java.math.BigInteger;
+
+/**
+ * primality tests and divisor search for values beyond the factors table.
+ *  values below 2^63 are handled in primitive arithmetic with Montgomery
+ *  multiplication, Miller-Rabin is deterministic for these using the first 12 primes
+ *  as bases, and Pollard rho with the cycle detection of Brent always finds a divisor.
+ *  larger values use BigInteger, primality is then probable and rho runs to a budget
+ * @author Michael Druckman
+ */
+public class DivisorSearch
+{
+
+
+	/**
+	 * bases of Miller-Rabin, deterministic for all values below 3.3E24
+	 */
+	static final long [] BASES = {2, 3, 5, 7, 11, 13, 17, 19, 23, 29, 31, 37};
+
+	/**
+	 * certainty passed to BigInteger.isProbablePrime for values of 64 bits and more
+	 */
+	public static int PRIME_CERTAINTY = 50;
+
+	/**
+	 * values below this limit use primitive arithmetic
+	 */
+	public static final BigInteger LONG_LIMIT = BigInteger.ONE.shiftLeft (63);
+
+
+	/*
+	 * primality
+	 */
+
+
+	/**
+	 * @param value the value to be checked
+	 * @return TRUE when value is prime (probable for values of 64 bits and more)
+	 */
+	public static boolean isPrime (BigInteger value)
+	{
+		if (value.compareTo (LONG_LIMIT) < 0) return isPrime (value.longValue ());
+		if (!value.testBit (0)) return false;
+		for (long b : BASES) if (value.mod (BigInteger.valueOf (b)).signum () == 0) return false;
+		return value.isProbablePrime (PRIME_CERTAINTY);
+	}
+
+
+	/**
+	 * deterministic Miller-Rabin
+	 * @param n the value to be checked
+	 * @return TRUE when n is prime
+	 */
+	public static boolean isPrime (long n)
+	{
+		if (n < 2) return false;
+		for (long b : BASES) { if (n % b == 0) return n == b; }
+		if (n < 37 * 37) return true;
+
+		Montgomery m = new Montgomery (n);
+		long d = n - 1; int s = Long.numberOfTrailingZeros (d); d >>= s;
+		long one = m.one, minusOne = n - m.one;
+
+		WITNESS: for (long b : BASES)
+		{
+			long x = m.pow (m.toMontgomery (b), d);
+			if (x == one || x == minusOne) continue;
+			for (int r = 1; r < s; r++)
+			{
+				x = m.multiply (x, x);
+				if (x == minusOne) continue WITNESS;
+			}
+			return false;
+		}
+		return true;
+	}
+
+
+	/*
+	 * Pollard rho with Brent cycle detection
+	 */
+
+
+	/**
+	 * @param n an odd composite value
+	 * @return a proper divisor of n
+	 */
+	public static long rhoBrent (long n)
+	{
+		Montgomery m = new Montgomery (n);
+		for (long c = 1; ; c++)
+		{
+			long g = rhoBrent (m, m.toMontgomery (c));
+			if (g != n) return g;
+		}
+	}
+
+	/**
+	 * @param m the arithmetic for the value being split
+	 * @param c the constant of the iteration y^2 + c in Montgomery form
+	 * @return a divisor of n, possibly n itself
+	 */
+	static long rhoBrent (Montgomery m, long c)
+	{
+		long n = m.n, x = 0, y = m.one, ys = y, q = m.one, g = 1;
+
+		for (long r = 1; g == 1; r <<= 1)
+		{
+			x = y;
+			for (long i = 0; i < r; i++) y = m.add (m.multiply (y, y), c);
+			for (long k = 0; k < r && g == 1; k += BATCH)
+			{
+				ys = y;
+				for (long i = 0; i < BATCH && i < r - k; i++)						// products of differences share one gcd
+				{
+					y = m.add (m.multiply (y, y), c);
+					q = m.multiply (q, x > y ? x - y : y - x);
+				}
+				g = gcd (q, n);
+			}
+		}
+
+		if (g == n)																	// the batch passed the divisor, step singly
+		{
+			do { ys = m.add (m.multiply (ys, ys), c); g = gcd (x > ys ? x - ys : ys - x, n); }
+			while (g == 1);
+		}
+		return g;
+	}
+	static final int BATCH = 128;
+
+
+	/**
+	 * @param n an odd composite value
+	 * @param iterations the limit to the number of iterations
+	 * @return a proper divisor of n, NULL when none was found within the limit
+	 */
+	public static BigInteger rhoBrent (BigInteger n, long iterations)
+	{
+		if (n.compareTo (LONG_LIMIT) < 0) return BigInteger.valueOf (rhoBrent (n.longValue ()));
+
+		for (long c = 1, used = 0; used < iterations; c++)
+		{
+			BigInteger C = BigInteger.valueOf (c), x = BigInteger.ZERO, y = BigInteger.valueOf (2), ys = y, q = BigInteger.ONE, g = BigInteger.ONE;
+
+			for (long r = 1; g.equals (BigInteger.ONE) && used < iterations; r <<= 1)
+			{
+				x = y;
+				for (long i = 0; i < r; i++) y = y.multiply (y).add (C).mod (n);
+				for (long k = 0; k < r && g.equals (BigInteger.ONE); k += BATCH)
+				{
+					ys = y;
+					for (long i = 0; i < BATCH && i < r - k; i++)
+					{
+						y = y.multiply (y).add (C).mod (n);
+						q = q.multiply (x.subtract (y).abs ()).mod (n);
+					}
+					g = q.gcd (n);
+				}
+				used += 2 * r;
+			}
+
+			if (g.equals (n))
+			{
+				do { ys = ys.multiply (ys).add (C).mod (n); g = x.subtract (ys).abs ().gcd (n); }
+				while (g.equals (BigInteger.ONE));
+			}
+			if (!g.equals (BigInteger.ONE) && !g.equals (n)) return g;
+		}
+		return null;
+	}
+
+
+	/*
+	 * perfect powers
+	 */
+
+
+	/**
+	 * @param n the value to be checked, greater than 1
+	 * @return the least k for which n is a k-th power (always prime), 0 when n is no perfect power
+	 */
+	public static int powerExponent (BigInteger n)
+	{
+		for (int k = 2; k <= n.bitLength (); k = k == 2 ? 3 : k + 2)
+		{
+			if (root (n, k).pow (k).equals (n)) return k;
+		}
+		return 0;
+	}
+
+	/**
+	 * @param n a positive value
+	 * @param k the degree of the root
+	 * @return the integer part of the k-th root of n
+	 */
+	public static BigInteger root (BigInteger n, int k)
+	{
+		BigInteger K = BigInteger.valueOf (k), K1 = BigInteger.valueOf (k - 1);
+		BigInteger x = BigInteger.ONE.shiftLeft (n.bitLength () / k + 1);			// above the root, Newton steps descend
+		while (true)
+		{
+			BigInteger y = K1.multiply (x).add (n.divide (x.pow (k - 1))).divide (K);
+			if (y.compareTo (x) >= 0) return x;
+			x = y;
+		}
+	}
+
+
+	/*
+	 * primitive arithmetic
+	 */
+
+
+	/**
+	 * @param a a non-negative value
+	 * @param b a non-negative value
+	 * @return the greatest common divisor
+	 */
+	public static long gcd (long a, long b)
+	{
+		if (a == 0 || b == 0) return a | b;
+		int shift = Long.numberOfTrailingZeros (a | b);
+		a >>= Long.numberOfTrailingZeros (a);
+		do
+		{
+			b >>= Long.numberOfTrailingZeros (b);
+			if (a > b) { long t = b; b = a; a = t; }
+			b -= a;
+		} while (b != 0);
+		return a << shift;
+	}
+
+	/**
+	 * @param x first factor (unsigned)
+	 * @param y second factor (unsigned)
+	 * @return the high 64 bits of the unsigned 128 bit product
+	 */
+	static long multiplyHigh (long x, long y)
+	{
+		long x0 = x & MASK, x1 = x >>> 32, y0 = y & MASK, y1 = y >>> 32;
+		long w0 = x0 * y0, t = x1 * y0 + (w0 >>> 32);
+		long w1 = (t & MASK) + x0 * y1;
+		return x1 * y1 + (t >>> 32) + (w1 >>> 32);
+	}
+	static final long MASK = 0xFFFFFFFFL;
+
+
+	/**
+	 * Montgomery multiplication modulo an odd value below 2^63, R = 2^64
+	 */
+	static class Montgomery
+	{
+
+		Montgomery (long n)
+		{
+			long inverse = n;												// correct to 3 bits for odd n
+			for (int i = 0; i < 5; i++) inverse *= 2 - n * inverse;			// each Newton step doubles the bits
+			this.n = n; this.negativeInverse = -inverse;
+			this.one = Long.remainderUnsigned (-n, n);						// R mod n
+			this.r2 = BigInteger.ONE.shiftLeft (128).mod (BigInteger.valueOf (n)).longValue ();
+		}
+		final long n, negativeInverse, one, r2;
+
+		long toMontgomery (long a) { return multiply (a % n, r2); }
+
+		long add (long a, long b)
+		{
+			long s = a + b;													// no overflow, both below 2^63
+			return Long.compareUnsigned (s, n) >= 0 ? s - n : s;
+		}
+
+		long multiply (long a, long b)
+		{
+			long hi = multiplyHigh (a, b), lo = a * b;
+			long m = lo * negativeInverse;									// lo + m n = 0 mod R
+			long t = hi + multiplyHigh (m, n) + (lo != 0 ? 1 : 0);
+			return Long.compareUnsigned (t, n) >= 0 ? t - n : t;
+		}
+
+		long pow (long base, long exponent)
+		{
+			long result = one;
+			for ( ; exponent != 0; exponent >>= 1)
+			{
+				if ((exponent & 1) != 0) result = multiply (result, base);
+				base = multiply (base, base);
+			}
+			return result;
+		}
+
+	}
+
+
+}
@@ -0,0 +1,284 @@
+package net.myorb.math.primenumbers;
+
+import java.math.BigInteger;
+
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.ForkJoinPool;
+
+import java.util.BitSet;
+
+/**
+ * Lenstra elliptic curve method for divisors too large for Pollard rho.
+ *  curves are in Montgomery form By^2 = x^3 + Ax^2 + x with the parameterization of
+ *  Suyama and points are kept as projective (X:Z) so no inverse is needed after setup.
+ *  stage 1 multiplies a point by all prime powers to B1, stage 2 looks for one more prime
+ *  to B2 = 100 B1 with baby steps of odd j coprime to D and giant steps of D.  the curves
+ *  of a level are run on the fork/join pool and the first divisor found ends the level
+ * @author Michael Druckman
+ */
+public class EllipticCurveMethod
+{
+
+
+	/**
+	 * stage 1 bounds and curve counts, each expected to find divisors
+	 *  of 15, 20, 25, 30 and 35 digits in turn
+	 */
+	public static long [][] LEVELS =
+		{
+			{2000, 25}, {11000, 90}, {50000, 300}, {250000, 700}, {1000000, 1800}
+		};
+	static final int STAGE_2_MULTIPLIER = 100;
+
+
+	/**
+	 * @param n an odd composite value which is not a perfect power
+	 * @return a proper divisor of n, NULL when all levels completed without one
+	 */
+	public static BigInteger findDivisor (BigInteger n)
+	{
+		long sigma = 6;
+		for (long [] level : LEVELS)
+		{
+			Curves curves = new Curves (n, level[0], new AtomicReference <BigInteger> (), sigma, sigma + level[1]);
+			BigInteger d = ForkJoinPool.commonPool ().invoke (curves);
+			if (d != null) return d;
+			sigma += level[1];
+		}
+		return null;
+	}
+
+
+	/**
+	 * a range of curves of one level identified by the Suyama parameter
+	 */
+	static class Curves extends RecursiveTask <BigInteger>
+	{
+
+		Curves (BigInteger n, long b1, AtomicReference <BigInteger> found, long lo, long hi)
+		{
+			this.n = n; this.b1 = b1; this.found = found;
+			this.lo = lo; this.hi = hi;
+		}
+		protected AtomicReference <BigInteger> found;
+		protected BigInteger n;
+		protected long b1, lo, hi;
+
+		/* (non-Javadoc)
+		 * @see java.util.concurrent.RecursiveTask#compute()
+		 */
+		protected BigInteger compute ()
+		{
+			if (hi - lo > 1)
+			{
+				long mid = (lo + hi) >>> 1;
+				Curves left = new Curves (n, b1, found, lo, mid);
+				left.fork ();
+				BigInteger r = new Curves (n, b1, found, mid, hi).compute (), l = left.join ();
+				return l != null ? l : r;
+			}
+
+			if (found.get () != null) return found.get ();
+			BigInteger d = new Curve (n, lo).run (b1, b1 * STAGE_2_MULTIPLIER);
+			if (d != null) found.compareAndSet (null, d);
+			return d;
+		}
+
+		private static final long serialVersionUID = 2590178367722845311L;
+	}
+
+
+	/**
+	 * arithmetic on one curve modulo n
+	 */
+	static class Curve
+	{
+
+		/**
+		 * construct the curve and starting point from sigma,
+		 *  u = sigma^2 - 5, v = 4 sigma, P = (u^3 : v^3), (A+2)/4 = (v-u)^3 (3u+v) / 16 u^3 v
+		 * @param n the value to be split
+		 * @param sigma the Suyama parameter, 6 or more
+		 */
+		Curve (BigInteger n, long sigma)
+		{
+			this.n = n;
+			BigInteger s = BigInteger.valueOf (sigma);
+			BigInteger u = s.multiply (s).subtract (BigInteger.valueOf (5)).mod (n), v = s.shiftLeft (2).mod (n);
+			BigInteger u3 = u.pow (3).mod (n), vMinusU = v.subtract (u);
+			x = u3; z = v.pow (3).mod (n);
+
+			BigInteger numerator = vMinusU.pow (3).multiply (u.multiply (BigInteger.valueOf (3)).add (v)).mod (n);
+			BigInteger denominator = u3.multiply (v).shiftLeft (4).mod (n);
+			divisor = denominator.gcd (n);
+			if (divisor.equals (BigInteger.ONE)) a24 = numerator.multiply (denominator.modInverse (n)).mod (n);
+		}
+		protected BigInteger n, a24, x, z, divisor;
+
+
+		/**
+		 * @param b1 the stage 1 bound
+		 * @param b2 the stage 2 bound
+		 * @return a proper divisor of n, NULL when the curve found none
+		 */
+		BigInteger run (long b1, long b2)
+		{
+			if (!divisor.equals (BigInteger.ONE)) return proper (divisor);
+
+			BigInteger [] q = {x, z};
+			BitSet composite = sieve (b2 + D);
+			for (int p = 2; p <= b1; p = composite.nextClearBit (p + 1))
+			{
+				long power = p; while (power * p <= b1) power *= p;
+				q = multiply (q, power);
+			}
+
+			BigInteger g = q[1].gcd (n);
+			if (!g.equals (BigInteger.ONE)) return proper (g);
+			return proper (stage2 (q, b1, b2, composite));
+		}
+
+		/**
+		 * @param g a divisor of n
+		 * @return g when proper, otherwise NULL
+		 */
+		BigInteger proper (BigInteger g)
+		{
+			return g.equals (BigInteger.ONE) || g.equals (n) ? null : g;
+		}
+
+
+		/**
+		 * baby step giant step continuation,
+		 *  for prime p = mD +- j the product collects X[mD] Z[j] - X[j] Z[mD]
+		 * @param q the point after stage 1
+		 * @param b1 the stage 1 bound
+		 * @param b2 the stage 2 bound
+		 * @param composite the sieve covering the stage 2 range
+		 * @return the gcd of the collected product with n
+		 */
+		BigInteger stage2 (BigInteger [] q, long b1, long b2, BitSet composite)
+		{
+			BigInteger [][] baby = new BigInteger [D / 2][];
+			BigInteger [] q2 = doubled (q), previous = q, current = add (q2, q, q);
+			baby[1] = q;
+			for (int j = 5; j < D / 2; j += 2)
+			{
+				BigInteger [] next = add (current, q2, previous);
+				previous = current; current = next;
+				if (gcd (j, D) == 1) baby[j] = next;
+			}
+
+			long m = Math.max (1, b1 / D);
+			BigInteger [] giant = multiply (q, D), r = multiply (q, m * D), rPrevious = multiply (q, (m - 1) * D);
+			BigInteger product = BigInteger.ONE;
+
+			for ( ; m * D - D / 2 <= b2; m++)
+			{
+				for (int j = 1; j < D / 2; j += 2)
+				{
+					if (baby[j] == null) continue;
+					long lo = m * D - j, hi = m * D + j;
+					boolean loPrime = lo > b1 && lo <= b2 && !composite.get ((int) lo);
+					boolean hiPrime = hi > b1 && hi <= b2 && !composite.get ((int) hi);
+					if (!loPrime && !hiPrime) continue;
+					BigInteger difference = r[0].multiply (baby[j][1]).subtract (baby[j][0].multiply (r[1]));
+					product = product.multiply (difference).mod (n);
+				}
+				BigInteger [] next = m == 1 ? doubled (r) : add (r, giant, rPrevious);
+				rPrevious = r; r = next;
+			}
+			return product.gcd (n);
+		}
+		static final int D = 2310;
+
+
+		/*
+		 * Montgomery ladder
+		 */
+
+
+		/**
+		 * @param p a point
+		 * @param k the multiplier, at least 1
+		 * @return the point k p
+		 */
+		BigInteger [] multiply (BigInteger [] p, long k)
+		{
+			if (k == 0) return new BigInteger [] {BigInteger.ZERO, BigInteger.ZERO};
+			BigInteger [] r0 = p, r1 = doubled (p);
+			for (int bit = 62 - Long.numberOfLeadingZeros (k); bit >= 0; bit--)
+			{
+				if (((k >> bit) & 1) != 0) { r0 = add (r1, r0, p); r1 = doubled (r1); }
+				else { r1 = add (r0, r1, p); r0 = doubled (r0); }
+			}
+			return r0;
+		}
+
+		/**
+		 * @param p a point
+		 * @return the point 2 p
+		 */
+		BigInteger [] doubled (BigInteger [] p)
+		{
+			BigInteger s = p[0].add (p[1]), d = p[0].subtract (p[1]);
+			BigInteger s2 = s.multiply (s).mod (n), d2 = d.multiply (d).mod (n), t = s2.subtract (d2);
+			return new BigInteger []
+			{
+				s2.multiply (d2).mod (n),
+				t.multiply (d2.add (a24.multiply (t))).mod (n)
+			};
+		}
+
+		/**
+		 * @param p a point
+		 * @param q a point
+		 * @param difference the point p - q
+		 * @return the point p + q
+		 */
+		BigInteger [] add (BigInteger [] p, BigInteger [] q, BigInteger [] difference)
+		{
+			BigInteger u = p[0].subtract (p[1]).multiply (q[0].add (q[1])).mod (n);
+			BigInteger v = p[0].add (p[1]).multiply (q[0].subtract (q[1])).mod (n);
+			BigInteger s = u.add (v), d = u.subtract (v);
+			return new BigInteger []
+			{
+				difference[1].multiply (s.multiply (s).mod (n)).mod (n),
+				difference[0].multiply (d.multiply (d).mod (n)).mod (n)
+			};
+		}
+
+	}
+
+
+	/*
+	 * primes for the stage bounds
+	 */
+
+
+	/**
+	 * @param limit the largest value needed
+	 * @return a sieve with bits set for composite values, shared by all curves
+	 */
+	static synchronized BitSet sieve (long limit)
+	{
+		if (limit > Integer.MAX_VALUE - 1) throw new RuntimeException ("Stage 2 bound too large");
+		if (composites != null && sieved >= limit) return composites;
+
+		int n = (int) limit + 1;
+		BitSet c = new BitSet (n); c.set (0, 2);
+		for (int p = 2; (long) p * p < n; p = c.nextClearBit (p + 1))
+		{
+			for (int k = p * p; k < n; k += p) c.set (k);
+		}
+		sieved = limit;
+		return composites = c;
+	}
+	static BitSet composites;
+	static long sieved;
+
+	static int gcd (int a, int b) { return b == 0 ? a : gcd (b, a % b); }
+
+
+}
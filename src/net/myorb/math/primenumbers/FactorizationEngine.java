@@ -0,0 +1,176 @@
+package net.myorb.math.primenumbers;
+
+import java.math.BigInteger;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * tiered factorization of values beyond the factors table.
+ *  trial division by the primes of the sieve table up to TRIAL_DIVISION_LIMIT, then
+ *  each cofactor is split recursively: table lookup once it is small enough, primality
+ *  by DivisorSearch, perfect powers by integer roots, Pollard rho (exhaustive below 2^63,
+ *  to a budget above) and finally the elliptic curve method.  a cofactor no tier can split
+ *  is kept as a factor, as the table scan always did with its remainder.  results are
+ *  kept in a least recently used cache
+ * @author Michael Druckman
+ */
+public class FactorizationEngine extends ImplementationAccess
+{
+
+
+	public static int TRIAL_DIVISION_LIMIT = 1 << 16, RHO_ITERATIONS = 1 << 16, CACHE_SIZE = 1 << 12;
+
+
+	/**
+	 * @param value the value to be factored, positive
+	 * @return the factors of the value
+	 */
+	public static Factorization factor (BigInteger value)
+	{
+		Factorization result = lookup (value);
+		if (result != null) return result;
+
+		result = FactorizationManager.onePrime ();
+		split (trialDivision (value, result), 1, result);
+		result.getFactors ().normalize ();
+
+		remember (value, result);
+		return result.duplicate ();
+	}
+
+
+	/*
+	 * tiers
+	 */
+
+
+	/**
+	 * divide out the small primes of the table
+	 * @param value the value being factored
+	 * @param factors the factors collected
+	 * @return the remainder free of the primes checked
+	 */
+	static BigInteger trialDivision (BigInteger value, Factorization factors)
+	{
+		BigInteger remainder = value;
+		for (BigInteger p : trialPrimes ())
+		{
+			if (p.multiply (p).compareTo (remainder) > 0 || isSmallEnough (remainder)) break;
+
+			int count = 0;
+			for (BigInteger [] qr = remainder.divideAndRemainder (p); qr[1].signum () == 0; qr = remainder.divideAndRemainder (p))
+			{ remainder = qr[0]; count++; }
+			factors.addFactor (p, count);
+		}
+		return remainder;
+	}
+
+	/**
+	 * @return the primes of the table used for trial division
+	 */
+	static synchronized List<BigInteger> trialPrimes ()
+	{
+		if (trialPrimes == null || trialPrimesSource != getImplementation ())
+		{
+			trialPrimesSource = getImplementation ();
+			trialPrimes = trialPrimesSource.getPrimesUpTo (Math.min (TRIAL_DIVISION_LIMIT, getFactorizationCount () - 1));
+		}
+		return trialPrimes;
+	}
+	static Factorization.Underlying trialPrimesSource;
+	static List<BigInteger> trialPrimes;
+
+
+	/**
+	 * split a cofactor into primes
+	 * @param n the cofactor, free of small primes
+	 * @param multiplicity the exponent of the cofactor in the value
+	 * @param factors the factors collected
+	 */
+	static void split (BigInteger n, int multiplicity, Factorization factors)
+	{
+		if (n.equals (BigInteger.ONE)) return;
+
+		if (isSmallEnough (n))
+		{
+			Map<BigInteger,Integer> table = factorsFor (n.intValue ()).getFactors ().getFactorMap ();
+			for (BigInteger p : table.keySet ()) factors.addFactor (p, table.get (p) * multiplicity);
+			return;
+		}
+
+		if (DivisorSearch.isPrime (n)) { factors.addFactor (n, multiplicity); return; }
+
+		int k = DivisorSearch.powerExponent (n);
+		if (k > 0) { split (DivisorSearch.root (n, k), multiplicity * k, factors); return; }
+
+		BigInteger d = findDivisor (n);
+		if (d == null) { factors.addFactor (n, multiplicity); return; }					// not split, kept as a factor
+		split (d, multiplicity, factors); split (n.divide (d), multiplicity, factors);
+	}
+
+
+	/**
+	 * @param n a composite that is not a perfect power
+	 * @return a proper divisor, NULL when none was found
+	 */
+	static BigInteger findDivisor (BigInteger n)
+	{
+		if (!n.testBit (0)) return BigInteger.valueOf (2);
+		String method = "rho";
+
+		BigInteger d = DivisorSearch.rhoBrent (n, RHO_ITERATIONS);
+		if (d == null) { d = EllipticCurveMethod.findDivisor (n); method = "ecm"; }
+
+		if (dumpSelected ())
+		{
+			System.out.println ("[ " + method + ": " + n + " = " + (d == null ? "not split" : d + " * " + n.divide (d)) + " ]");
+		}
+
+		return d;
+	}
+
+
+	/*
+	 * cache of values factored
+	 */
+
+
+	/**
+	 * @param value the value being factored
+	 * @return a copy of the cached factors, NULL when not cached
+	 */
+	static synchronized Factorization lookup (BigInteger value)
+	{
+		Factorization cached = cache.get (value);
+		return cached == null ? null : cached.duplicate ();
+	}
+
+	/**
+	 * @param value the value factored
+	 * @param factors the factors found
+	 */
+	static synchronized void remember (BigInteger value, Factorization factors)
+	{
+		cache.put (value, factors);
+	}
+
+	/**
+	 * discard all cached factorizations
+	 */
+	public static synchronized void clearCache () { cache.clear (); }
+
+	/**
+	 * least recently used map bounded by CACHE_SIZE
+	 */
+	static class FactorCache extends LinkedHashMap<BigInteger,Factorization>
+	{
+		FactorCache () { super (16, 0.75f, true); }
+		protected boolean removeEldestEntry (Map.Entry<BigInteger,Factorization> eldest) { return size () > CACHE_SIZE; }
+		private static final long serialVersionUID = -3148811862307554108L;
+	}
+	static final FactorCache cache = new FactorCache ();
+
+
+}
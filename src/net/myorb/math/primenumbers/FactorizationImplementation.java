@@ -279,6 +279,8 @@ public class FactorizationImplementation
 	 */
 	public List<BigInteger> getPrimesUpTo (int limit)
 	{
+		if (primeTable != null && limit >= getTableSize ())
+			return primeTable.getPrimesUpTo (limit);
 		if (primes == null)
 			throw new RuntimeException ("Factors table not initialized");
 		for (int i = 0; i < primes.size (); i++)
@@ -292,7 +294,21 @@ public class FactorizationImplementation
 	/* (non-Javadoc)
 	 * @see net.myorb.math.primenumbers.Factorization.Underlying#getNthPrime(int)
 	 */
-	public Number getNthPrime (int n) { return n == 0 ? BigInteger.ONE : primes.get (n-1); }
+	public Number getNthPrime (int n)
+	{
+		if (primeTable != null && n > primes.size ())
+			return BigInteger.valueOf (primeTable.getNthPrime (n));
+		return n == 0 ? BigInteger.ONE : primes.get (n-1);
+	}
+
+
+	/**
+	 * extend prime queries beyond the factorization table
+	 * @param primeTable a compressed table from SegmentedWheelSieve
+	 */
+	public void usePrimeTable (PrimeTable primeTable) { this.primeTable = primeTable; }
+	public PrimeTable getPrimeTable () { return primeTable; }
+	protected PrimeTable primeTable = null;
 
 	/* (non-Javadoc)
 	 * @see net.myorb.math.primenumbers.Factorization.Underlying#getPrimes(int)
@@ -356,15 +372,21 @@ public class FactorizationImplementation
 	 */
 	public Number piFunction (Number n)
 	{
-		if (n.intValue () < primeCounts.size ())
+		if (n.longValue () < primeCounts.size ())
 			return BigInteger.valueOf ( (long) pi (n.intValue ()) );
+		else if (primeTable != null && n.longValue () <= primeTable.getLimit ())
+			return BigInteger.valueOf ( primeTable.pi (n.longValue ()) );
 		else return (BigInteger) piFunctionApproximation (n);
 	}
 
 	/* (non-Javadoc)
 	 * @see net.myorb.math.primenumbers.Factorization.Underlying#pi()
 	 */
-	public CountingFunction pi () { return (n) -> pi ( n.intValue () ); }
+	public CountingFunction pi ()
+	{
+		if (primeTable == null) return (n) -> pi ( n.intValue () );
+		return (n) -> n.longValue () < primeCounts.size () ? pi ( n.intValue () ) : primeTable.pi ( n.longValue () );
+	}
 	// these implementations of pi give exactly correct counts of the integer parameters
 	// the limitation is it is based on the primeCounts array that contains a limited count of entries
 	// so error conditions come if the parameter is larger that the size of the primeCounts list of values
@@ -67,8 +67,7 @@ public class FactorizationManager extends ImplementationAccess
 			}
 		}
 
-		factors.addFactor (remainder, 1);														// remainder has no recognizable factors, assumed to be prime
-		return factors;
+		return factors.multiplyBy (FactorizationEngine.factor (remainder));					// remainder has no factors in the table, engine splits it
 	}
 
 
@@ -198,7 +197,7 @@ public class FactorizationManager extends ImplementationAccess
 		{
 			result = forValue (remainder).multiplyBy (multiplier);
 		}																		// use simple table lookup for remainder
-		else result = prime (remainder).multiplyBy (multiplier);				// remainder may not be prime but that is OK
+		else result = FactorizationEngine.factor (remainder).multiplyBy (multiplier);	// remainder may not be prime, engine splits it
 		result.getFactors ().normalize ();										// eliminate 1 as a factor, treat empty as 1
 		return result;															// normalized result with all factors
 	}
@@ -225,8 +224,8 @@ public class FactorizationManager extends ImplementationAccess
 	 */
 	public static Factorization findFactorization (BigInteger value)
 	{
-		if (isProbablePrime (value)) return prime (value);						// quick short circuit check for probably prime
-		return new FactorizationManager ().findFactors (value);
+		if (RUNNING_SHORT_CIRCUIT_TEST) return new FactorizationManager ().findFactors (value);
+		return FactorizationEngine.factor (value);								// tiered engine with cache of results
 	}
 
 
@@ -0,0 +1,141 @@
+package net.myorb.math.primenumbers.sieves;
+
+import net.myorb.math.primenumbers.TableManager;
+
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.ForkJoinPool;
+
+import java.util.Arrays;
+
+/**
+ *
+ * segmented Sieve Of Eratosthenes with segments marked in parallel.
+ * every composite in the table has a factor no larger than the SQRT of the table size,
+ * so with the base primes to the SQRT known each segment is independent of the others.
+ * segments mark composites with primes in ascending order leaving the smallest prime
+ * as base exactly as the sequential sieve does; primes and counts are then noted
+ * in a single ascending pass since the table lists must be built in order.
+ * the table manager must allow concurrent marks of distinct values
+ *
+ * @author Michael Druckman
+ *
+ */
+public class ParallelSegmentedSieve extends SievePrimitives implements SieveDriver
+{
+
+	/**
+	 * values in a segment of the table
+	 */
+	public static final int SEGMENT_SIZE = 64 * 1024;
+
+	/**
+	 * construct given a set of table management primitives
+	 * @param tableManager the table manager object being used
+	 */
+	public ParallelSegmentedSieve (TableManager tableManager)
+	{
+		this (tableManager, ForkJoinPool.commonPool ());
+	}
+
+	/**
+	 * @param tableManager the table manager object being used
+	 * @param pool the pool that will run segments
+	 */
+	public ParallelSegmentedSieve (TableManager tableManager, ForkJoinPool pool)
+	{
+		super (tableManager);
+		this.pool = pool;
+	}
+	protected ForkJoinPool pool;
+
+	/* (non-Javadoc)
+	 * @see net.myorb.math.primenumbers.sieves.SieveDriver#getName()
+	 */
+	public String getName ()
+	{
+		return "Parallel Segmented Sieve Of Eratosthenes (" + pool.getParallelism () + " threads)";
+	}
+
+	/* (non-Javadoc)
+	 * @see net.myorb.math.primenumbers.sieves.SieveDriver#generatePrimes()
+	 */
+	public void generatePrimes ()
+	{
+		basePrimes = basePrimes ((int) Math.sqrt ((double) tableSize));
+		pool.invoke (new Segments (2, tableSize));
+
+		markComposite (1, 1, 1);								// set first entry to be consistent
+		for (int value = 1; value < tableSize; value++)
+		{
+			if (value > 1 && !markIsPresent (value))			// no mark from any segment so recognized as prime
+			{ markPrime (value); }
+			noteCount ();										// count for value placed parallel to composites
+		}
+	}
+	protected int [] basePrimes;
+
+	/**
+	 * mark composites of one segment
+	 * @param lo the first value of the segment
+	 * @param hi the value following the segment
+	 */
+	void markSegment (int lo, int hi)
+	{
+		for (int prime : basePrimes)
+		{
+			long square = (long) prime * prime;
+			if (square >= hi) return;							// primes are ascending so no later prime has multiples here
+
+			long first = Math.max (square, (lo + prime - 1L) / prime * prime);
+			for (long multiple = first; multiple < hi; multiple += prime)
+			{
+				int value = (int) multiple;
+				if (!markIsPresent (value))						// smaller primes have already marked their multiples
+				{ markComposite (value, prime, value / prime); }
+			}
+		}
+	}
+
+	/**
+	 * simple sieve for the primes used by all segments
+	 * @param upTo the largest value to check
+	 * @return the primes through the value in ascending order
+	 */
+	static int [] basePrimes (int upTo)
+	{
+		boolean [] composite = new boolean [upTo + 1];
+		int [] primes = new int [upTo + 1]; int found = 0;
+
+		for (int i = 2; i <= upTo; i++)
+		{
+			if (composite [i]) continue;
+			primes [found++] = i;
+			for (long j = (long) i * i; j <= upTo; j += i) composite [(int) j] = true;
+		}
+
+		return Arrays.copyOf (primes, found);
+	}
+
+	/**
+	 * range of segments split until a single segment remains
+	 */
+	class Segments extends RecursiveAction
+	{
+		Segments (int lo, int hi) { this.lo = lo; this.hi = hi; }
+		protected int lo, hi;
+
+		/* (non-Javadoc)
+		 * @see java.util.concurrent.RecursiveAction#compute()
+		 */
+		protected void compute ()
+		{
+			if (hi - lo <= SEGMENT_SIZE) { markSegment (lo, hi); return; }
+			int mid = lo + (hi - lo) / SEGMENT_SIZE / 2 * SEGMENT_SIZE;
+			if (mid == lo) mid += SEGMENT_SIZE;
+			invokeAll (new Segments (lo, mid), new Segments (mid, hi));
+		}
+
+		private static final long serialVersionUID = -2860367361914813407L;
+	}
+
+}
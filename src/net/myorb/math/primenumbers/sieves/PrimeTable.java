@@ -0,0 +1,234 @@
+package net.myorb.math.primenumbers.sieves;
+
+import net.myorb.math.primenumbers.Factorization;
+
+import java.math.BigInteger;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.FileOutputStream;
+import java.io.DataOutputStream;
+import java.io.RandomAccessFile;
+import java.io.BufferedOutputStream;
+
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ *
+ * compressed table of prime numbers.
+ * primes after 3 are kept as half the gap from the previous prime, one byte per prime,
+ * packed eight to a long; every SAMPLE-th prime is kept in full for indexed access.
+ * the limit is held to the range where the packed gaps fit one buffer (2GB) so a
+ * cache file is always mapped in full, the half gap always fits a byte in that range
+ *
+ * @author Michael Druckman
+ *
+ */
+public class PrimeTable
+{
+
+
+	/**
+	 * the largest limit for which the gaps can be mapped as one buffer,
+	 *  pi(4E10) is 1,711,955,433 so the gaps take 1.7GB
+	 */
+	public static final long MAX_LIMIT = 40L * 1000 * 1000 * 1000;
+
+
+	/**
+	 * distance between primes kept in full
+	 */
+	public static final int SAMPLE = 256;
+
+
+	/**
+	 * identification of cache files
+	 */
+	static final long MAGIC = 0x5052494D45474150L, HEADER_SIZE = 4 * 8;
+
+
+	/**
+	 * build a table around packed gaps
+	 * @param limit the value up to which all primes are present
+	 * @param count the number of primes in the table including 2
+	 * @param gaps the packed half gaps of primes after 3
+	 */
+	public PrimeTable (long limit, long count, LongBuffer gaps)
+	{
+		this.limit = limit; this.count = count; this.gaps = gaps;
+		buildSamples ();
+	}
+	protected long limit, count;
+	protected LongBuffer gaps;
+
+
+	/**
+	 * @return the value up to which all primes are present
+	 */
+	public long getLimit () { return limit; }
+
+
+	/**
+	 * @return the number of primes in the table
+	 */
+	public long getPrimeCount () { return count; }
+
+
+	/**
+	 * @param position the index of the gap, 0 being the gap from 3 to 5
+	 * @return the half gap at the position
+	 */
+	int halfGap (long position)
+	{
+		long word = gaps.get ((int) (position >>> 3));
+		return (int) (word >>> ((position & 7) << 3)) & 0xFF;
+	}
+
+
+	/**
+	 * primes after 2 are counted by position, 3 being at position 0
+	 */
+	void buildSamples ()
+	{
+		long positions = Math.max (0, count - 1);
+		samples = new long [(int) ((positions + SAMPLE - 1) / SAMPLE)];
+		long value = 3;
+		for (long m = 0; m < positions; m++)
+		{
+			if (m % SAMPLE == 0) samples [(int) (m / SAMPLE)] = value;
+			if (m + 1 < positions) value += 2 * halfGap (m);
+		}
+	}
+	protected long [] samples;
+
+
+	/*
+	 * queries
+	 */
+
+
+	/**
+	 * @param n the index of the prime, 1 being the index of 2
+	 * @return the Nth prime, 1 for n=0 as with the factorization tables
+	 */
+	public long getNthPrime (long n)
+	{
+		if (n > count) throw new RuntimeException ("Prime index beyond table: " + n);
+		if (n <= 1) return n == 0 ? 1 : 2;
+
+		long m = n - 2, p = m / SAMPLE * SAMPLE;
+		long value = samples [(int) (m / SAMPLE)];
+		while (p < m) value += 2 * halfGap (p++);
+		return value;
+	}
+
+
+	/**
+	 * exact prime counting function
+	 * @param x the value limiting the count
+	 * @return the number of primes less than or equal to x
+	 */
+	public long pi (long x)
+	{
+		if (x > limit) throw new RuntimeException ("Count beyond table limit: " + x);
+		if (x < 3) return x < 2 ? 0 : 1;
+
+		int lo = 0, hi = samples.length - 1;
+		while (lo < hi)
+		{
+			int mid = (lo + hi + 1) >>> 1;
+			if (samples [mid] <= x) lo = mid; else hi = mid - 1;
+		}
+
+		long m = (long) lo * SAMPLE, value = samples [lo], last = count - 2;
+		while (m < last && value + 2 * halfGap (m) <= x) value += 2 * halfGap (m++);
+		return m + 2;
+	}
+
+
+	/**
+	 * @return the counting function for the table
+	 */
+	public Factorization.CountingFunction piFunction ()
+	{
+		return (n) -> BigInteger.valueOf (pi (n.longValue ()));
+	}
+
+
+	/**
+	 * @param upTo the largest value to include
+	 * @return the list of primes up to the value
+	 */
+	public List<BigInteger> getPrimesUpTo (long upTo)
+	{
+		long n = pi (Math.min (upTo, limit));
+		if (n > Integer.MAX_VALUE) throw new RuntimeException ("Prime list too large: " + n);
+		List<BigInteger> primes = new ArrayList<BigInteger> ((int) n);
+		if (n > 0) primes.add (BigInteger.valueOf (2));
+
+		long value = 3;
+		for (long m = 0; m + 2 <= n; m++)
+		{
+			primes.add (BigInteger.valueOf (value));
+			if (m + 2 < n) value += 2 * halfGap (m);
+		}
+		return primes;
+	}
+
+
+	/*
+	 * cache file
+	 */
+
+
+	/**
+	 * write the table to a cache file
+	 * @param file the file to be written
+	 * @throws IOException for errors writing the file
+	 */
+	public void save (File file) throws IOException
+	{
+		int words = gaps.limit ();
+		DataOutputStream out = new DataOutputStream
+			(new BufferedOutputStream (new FileOutputStream (file), 1 << 16));
+
+		try
+		{
+			out.writeLong (MAGIC); out.writeLong (limit);
+			out.writeLong (count); out.writeLong (words);
+			for (int i = 0; i < words; i++) out.writeLong (gaps.get (i));
+		}
+		finally { out.close (); }
+	}
+
+
+	/**
+	 * map a cache file, the gaps are read from the mapping rather than the heap
+	 * @param file the file written by save
+	 * @return the table held in the file
+	 * @throws IOException for errors reading the file
+	 */
+	public static PrimeTable load (File file) throws IOException
+	{
+		RandomAccessFile source = new RandomAccessFile (file, "r");
+
+		try
+		{
+			if (source.readLong () != MAGIC) throw new IOException ("Not a prime table: " + file);
+			long limit = source.readLong (), count = source.readLong (), words = source.readLong ();
+			if (words * 8 > Integer.MAX_VALUE) throw new IOException ("Prime table too large to map: " + file);
+			if (words < 0 || source.length () < HEADER_SIZE + words * 8) throw new IOException ("Prime table truncated: " + file);
+
+			LongBuffer gaps = source.getChannel ().map
+				(FileChannel.MapMode.READ_ONLY, HEADER_SIZE, words * 8).asLongBuffer ();
+			return new PrimeTable (limit, count, gaps);
+		}
+		finally { source.close (); }
+	}
+
+
+}
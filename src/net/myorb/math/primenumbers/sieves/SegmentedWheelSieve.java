@@ -0,0 +1,258 @@
+package net.myorb.math.primenumbers.sieves;
+
+import java.io.File;
+import java.io.IOException;
+
+import java.nio.LongBuffer;
+
+import java.util.Arrays;
+
+/**
+ *
+ * segmented bit sieve over a mod 30 wheel.
+ * each byte of a segment describes 30 consecutive values, one bit for each residue
+ * coprime to 30, so multiples of 2, 3 and 5 take no storage and are never marked.
+ * segments are sized to stay in the data cache and primes found are appended
+ * to a PrimeTable as packed gaps, no factorization table is built
+ *
+ * @author Michael Druckman
+ *
+ */
+public class SegmentedWheelSieve implements SieveDriver
+{
+
+
+	/**
+	 * the residues mod 30 held in each byte, in bit order
+	 */
+	static final int [] RESIDUES = {1, 7, 11, 13, 17, 19, 23, 29};
+
+	/**
+	 * the step from each residue to the next coprime value
+	 */
+	static final int [] STEPS = {6, 4, 2, 4, 2, 4, 6, 2};
+
+	/**
+	 * the bit for each residue mod 30, -1 for residues sharing a factor with 30
+	 */
+	static final int [] BIT_FOR = new int [30];
+
+	static
+	{
+		Arrays.fill (BIT_FOR, -1);
+		for (int i = 0; i < RESIDUES.length; i++) BIT_FOR [RESIDUES [i]] = i;
+	}
+
+
+	/**
+	 * bytes in a segment, sized for the L1 data cache
+	 */
+	public static final int SEGMENT_BYTES = 32 * 1024;
+
+
+	/**
+	 * @param limit the value up to which primes are to be found
+	 */
+	public SegmentedWheelSieve (long limit)
+	{
+		if (limit < 2 || limit > PrimeTable.MAX_LIMIT)
+			throw new RuntimeException ("Sieve limit out of range: " + limit);
+		this.limit = limit;
+	}
+	protected long limit;
+
+
+	/**
+	 * @return the table built by generatePrimes
+	 */
+	public PrimeTable getPrimeTable () { return table; }
+	protected PrimeTable table;
+
+
+	/* (non-Javadoc)
+	 * @see net.myorb.math.primenumbers.sieves.SieveDriver#getName()
+	 */
+	public String getName ()
+	{
+		return "Segmented Wheel Sieve (mod 30)";
+	}
+
+
+	/* (non-Javadoc)
+	 * @see net.myorb.math.primenumbers.sieves.SieveDriver#generatePrimes()
+	 */
+	public void generatePrimes ()
+	{
+		allocateGaps ();
+		for (int p : new int [] {2, 3, 5}) if (p <= limit) append (p);
+
+		int [] basePrimes = basePrimes ((int) Math.sqrt ((double) limit) + 1);
+		long [] next = new long [basePrimes.length];
+		int [] wheel = new int [basePrimes.length];
+
+		for (int k = 0; k < basePrimes.length; k++)
+		{
+			int p = basePrimes [k];
+			next [k] = (long) p * p;						// smaller multiples have a smaller factor
+			wheel [k] = BIT_FOR [p % 30];					// multiplier steps through values coprime to 30 starting at p
+		}
+
+		byte [] segment = new byte [SEGMENT_BYTES];
+		for (long low = 0; low <= limit; low += 30L * SEGMENT_BYTES)
+		{
+			Arrays.fill (segment, (byte) 0xFF);
+			markSegment (segment, low, basePrimes, next, wheel);
+			collectSegment (segment, low);
+		}
+
+		table = new PrimeTable (limit, count, LongBuffer.wrap (Arrays.copyOf (words, (int) ((gapCount + 7) >>> 3))));
+		words = null;
+	}
+
+
+	/**
+	 * clear the bits of multiples of the base primes
+	 * @param segment the bits of the segment
+	 * @param low the value represented by bit 0 of byte 0 less 1
+	 * @param basePrimes primes from 7 through SQRT of the limit
+	 * @param next the next multiple to be marked for each prime
+	 * @param wheel the wheel position of the multiplier of the next multiple
+	 */
+	void markSegment (byte [] segment, long low, int [] basePrimes, long [] next, int [] wheel)
+	{
+		long end = low + 30L * SEGMENT_BYTES;
+
+		for (int k = 0; k < basePrimes.length; k++)
+		{
+			long m = next [k];
+			if (m >= end) continue;
+			int p = basePrimes [k], w = wheel [k], offset;
+
+			while (m < end)
+			{
+				offset = (int) (m - low);
+				segment [offset / 30] &= ~(1 << BIT_FOR [offset % 30]);
+				m += (long) p * STEPS [w]; w = (w + 1) & 7;
+			}
+
+			next [k] = m; wheel [k] = w;
+		}
+	}
+
+
+	/**
+	 * append the primes remaining in a segment
+	 * @param segment the bits of the segment
+	 * @param low the base value of the segment
+	 */
+	void collectSegment (byte [] segment, long low)
+	{
+		for (int b = 0; b < SEGMENT_BYTES; b++)
+		{
+			int bits = segment [b] & 0xFF;
+			while (bits != 0)
+			{
+				long value = low + 30L * b + RESIDUES [Integer.numberOfTrailingZeros (bits)];
+				if (value > limit) return;
+				if (value > 1) append (value);
+				bits &= bits - 1;
+			}
+		}
+	}
+
+
+	/**
+	 * simple sieve for the primes used to mark segments
+	 * @param upTo the largest value to check
+	 * @return the primes from 7 through the value
+	 */
+	static int [] basePrimes (int upTo)
+	{
+		boolean [] composite = new boolean [upTo + 1];
+		int [] primes = new int [upTo + 1]; int found = 0;
+
+		for (int i = 2; i <= upTo; i++)
+		{
+			if (composite [i]) continue;
+			if (i > 5) primes [found++] = i;
+			for (long j = (long) i * i; j <= upTo; j += i) composite [(int) j] = true;
+		}
+
+		return Arrays.copyOf (primes, found);
+	}
+
+
+	/*
+	 * gap collection
+	 */
+
+
+	/**
+	 * size the gap array from the bound pi(x) lt 1.25506 x / ln x
+	 */
+	void allocateGaps ()
+	{
+		double x = Math.max (limit, 17);
+		long bound = (long) (1.25506 * x / Math.log (x)) + 8;
+		words = new long [(int) ((bound + 7) >>> 3)];
+		count = gapCount = 0;
+	}
+	protected long [] words;
+	protected long count, gapCount, previous;
+
+
+	/**
+	 * record the next prime in the table
+	 * @param prime the value of the prime
+	 */
+	void append (long prime)
+	{
+		if (count++ < 2) { previous = prime; return; }
+
+		long halfGap = (prime - previous) / 2;
+		if (halfGap > 0xFF) throw new RuntimeException ("Prime gap exceeds table encoding at " + prime);
+
+		int word = (int) (gapCount >>> 3);
+		if (word >= words.length) words = Arrays.copyOf (words, words.length + words.length / 8 + 1);
+		words [word] |= halfGap << ((gapCount & 7) << 3);
+
+		gapCount++; previous = prime;
+	}
+
+
+	/*
+	 * cached tables
+	 */
+
+
+	/**
+	 * use a cached table when it covers the limit, otherwise sieve, save and map the table.
+	 *  a cache file that cannot be read (empty, truncated or corrupt) is treated as a miss
+	 * @param limit the value up to which primes are required
+	 * @param cache the file holding the cached table
+	 * @return a table covering the limit
+	 * @throws IOException for errors writing or mapping the cache
+	 */
+	public static PrimeTable tableFor (long limit, File cache) throws IOException
+	{
+		if (limit < 2 || limit > PrimeTable.MAX_LIMIT)
+			throw new RuntimeException ("Sieve limit out of range: " + limit);
+		if (cache.exists ())
+		{
+			try
+			{
+				PrimeTable cached = PrimeTable.load (cache);
+				if (cached.getLimit () >= limit) return cached;
+			}
+			catch (IOException e) {}						// re-sieve, the save below overwrites the file
+		}
+
+		SegmentedWheelSieve sieve = new SegmentedWheelSieve (limit);
+		sieve.generatePrimes ();
+
+		sieve.getPrimeTable ().save (cache);
+		return PrimeTable.load (cache);				// gaps are held by the mapping rather than the heap
+	}
+
+
+}
@@ -2,7 +2,7 @@
 package net.myorb.math.specialfunctions;
 
 import net.myorb.math.polynomial.PolynomialFamilyManager;
-import net.myorb.math.polynomial.families.LegendrePolynomial;
+import net.myorb.math.polynomial.RecurrenceTables;
 
 import net.myorb.math.computational.TanhSinhQuadratureAlgorithms;
 import net.myorb.math.expressions.managers.ExpressionFloatingFieldManager;
@@ -147,7 +147,7 @@ public class Legendre
 	public static Polynomial.PowerFunction<Double> getP (int n)
 	{
 		if (P == null || P.size() < n+1)
-		{ P = new LegendrePolynomial<Double> (sm).recurrenceP (n); }
+		{ P = RecurrenceTables.legendre ().functions (n, sm); }
 		return P.get (n);
 	}
 	static PolynomialFamilyManager.PowerFunctionList<Double> P;
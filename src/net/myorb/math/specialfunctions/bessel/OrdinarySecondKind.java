@@ -6,6 +6,7 @@ import net.myorb.math.specialfunctions.SpecialFunctionFamilyManager;
 import net.myorb.math.specialfunctions.bessel.BesselDescription.OrderTypes;
 import net.myorb.math.computational.integration.RealDomainImplementation;
 import net.myorb.math.computational.integration.Configuration;
+import net.myorb.math.computational.splines.ChebyshevApproximantCache;
 
 import net.myorb.math.expressions.ExpressionSpaceManager;
 import net.myorb.math.polynomial.PolynomialSpaceManager;
@@ -20,6 +21,8 @@ import net.myorb.data.abstractions.SpaceDescription;
 
 import java.util.Map;
 
+import java.io.File;
+
 /**
  * support for describing Bessel Y (Ordinary Second Kind) functions
  * @author Michael Druckman
@@ -967,7 +970,10 @@ c2 = [0 <= k <= n-1] ( (n - k - 1)! / ( 4^k * k! ) )
 
 
 /**
- * implement integral form of Yn
+ * implement integral form of Yn.
+ *  the configuration may declare an interval (approximant="lo,hi") over which
+ *  evaluations are served from a Chebyshev fit of the integrals, with optional
+ *  approximantError (default 1E-8) and approximantDirectory to keep the fit
  * @param <T> data type used
  */
 class YnIntegral<T> extends RealDomainImplementation<T>
@@ -988,15 +994,44 @@ class YnIntegral<T> extends RealDomainImplementation<T>
 			new YnPart2Integrand (a),
 			parameters, infinity
 		);
+
+		configureApproximant (a, infinity, parameters);
 	}
 
 	/* (non-Javadoc)
 	 * @see net.myorb.math.computational.integration.RealDomainImplementation#evalReal(double)
 	 */
-	public double evalReal
-	(double parameter) { return algorithm.eval (parameter); }
+	public double evalReal (double parameter)
+	{
+		if (approximants == null) return algorithm.eval (parameter);
+		return approximants.eval (key, (x) -> algorithm.eval (x), lo, hi, parameter);
+	}
 	protected BesselSectionedAlgorithm algorithm;
 
+	/**
+	 * @param a the order of the function
+	 * @param infinity the approximation used for infinity
+	 * @param parameters a hash of name/value pairs passed from configuration
+	 */
+	void configureApproximant (double a, int infinity, Map<String,Object> parameters)
+	{
+		Object interval = parameters.get ("approximant"), error, directory;
+		if (interval == null) return;
+
+		String [] bounds = interval.toString ().split (",");
+		if (bounds.length != 2) throw new RuntimeException ("Approximant interval must be lo,hi");
+		this.lo = Double.parseDouble (bounds[0].trim ()); this.hi = Double.parseDouble (bounds[1].trim ());
+
+		error = parameters.get ("approximantError");
+		approximants = new ChebyshevApproximantCache (error == null ? DEFAULT_ERROR : Double.parseDouble (error.toString ()));
+		if ((directory = parameters.get ("approximantDirectory")) != null) approximants.setDirectory (new File (directory.toString ()));
+		key = ChebyshevApproximantCache.keyFor ("Yn", a, infinity);
+	}
+	protected ChebyshevApproximantCache approximants = null;
+	static final double DEFAULT_ERROR = 1E-8;
+	protected double lo, hi;
+	protected String key;
+
 	// Y#n(z) = 1/pi * INTEGRAL [0 <= theta <= pi] ( sin (x*sin theta - n*theta) * <*> theta ) -
 	//          1/pi * INTEGRAL [0 <= t <= INFINITY] ( exp (-x*sinh t) * ( exp (n*t) + -1^n * exp (-n*t) ) ) * <*> t)
 
@@ -0,0 +1,75 @@
+package net.myorb.testing;
+
+import net.myorb.math.matrices.*;
+import net.myorb.math.realnumbers.*;
+
+import java.util.Random;
+
+/**
+ * compare comatrix and determinant timings of the
+ *  work-stealing cofactor engine with the executor cofactor pool
+ * @author Michael Druckman
+ */
+public class CofactorBenchmark
+{
+
+	static final DoubleFloatingFieldManager manager = new DoubleFloatingFieldManager ();
+	static final MatrixOperationsAccelerated<Double> ops = new MatrixOperationsAccelerated<Double> (manager);
+
+	/**
+	 * @param N edge of the matrix
+	 * @return a matrix of random values
+	 */
+	static Matrix<Double> random (int N)
+	{
+		Random r = new Random (N);
+		Matrix<Double> m = new Matrix<Double> (N, N, manager);
+		for (int i = 1; i <= N; i++) for (int j = 1; j <= N; j++) m.set (i, j, r.nextDouble () - 0.5);
+		return m;
+	}
+
+	/**
+	 * @param m the matrix to evaluate
+	 * @param workStealing select the engine or the executor pool
+	 * @return elapsed milliseconds with the comatrix left in result
+	 */
+	static long time (Matrix<Double> m, boolean workStealing)
+	{
+		ops.setWorkStealing (workStealing);
+		long start = System.nanoTime ();
+		result = ops.comatrix (m); det = ops.det (m);
+		return (System.nanoTime () - start) / 1000000;
+	}
+	static Matrix<Double> result; static Double det;
+
+	public static void main (String... args)
+	{
+		String [] sizes = args.length > 0 ? args : new String [] {"6", "7", "8", "9"};
+		System.out.println ("Processors available " + Runtime.getRuntime ().availableProcessors ());
+
+		for (String size : sizes)
+		{
+			int N = Integer.parseInt (size);
+			Matrix<Double> m = random (N);
+
+			long executor = time (m, false);
+			Matrix<Double> expected = result; Double expectedDet = det;
+			long engine = time (m, true);
+
+			double difference = Math.abs (det - expectedDet);
+			for (int i = 1; i <= N; i++)
+			{
+				for (int j = 1; j <= N; j++)
+				{ difference = Math.max (difference, Math.abs (result.get (i, j) - expected.get (i, j))); }
+			}
+
+			System.out.println
+			(
+				"N=" + N + " executor pool " + executor + "ms, fork/join engine " + engine + "ms, speedup " +
+				(engine == 0 ? "-" : String.format ("%.1f", (double) executor / engine)) +
+				", largest difference " + difference
+			);
+		}
+	}
+
+}
@@ -0,0 +1,89 @@
+package net.myorb.testing;
+
+import net.myorb.math.primenumbers.*;
+import net.myorb.math.primenumbers.sieves.*;
+
+import java.math.BigInteger;
+
+import java.util.Map;
+
+/**
+ *
+ * factor semiprimes of 30 to 40 digits with the tiered engine.
+ * each pair of primes is the next prime after a fixed start so the
+ * values are known in advance, the factors found must be the two primes
+ * and the product of the factorization must reproduce the value
+ *
+ * @author Michael Druckman
+ *
+ */
+public class FactorizationEngineTest
+{
+
+	/**
+	 * starting points of the prime pairs, balanced, unbalanced and one square
+	 */
+	static final String [][] PAIRS =
+	{
+		{ "100000000000000",		"1000000000000000" },			// 30 digits
+		{ "1000000000000000",		"10000000000000000" },			// 32 digits
+		{ "31415926535897",			"271828182845904523536" },		// 34 digits
+		{ "100000000000000000",		"100000000000000000" },			// 35 digits, a square
+		{ "100000000000000000",		"2000000000000000000" },			// 36 digits
+		{ "1000000000000000000",	"3000000000000000000" },			// 37 digits
+		{ "10000000000000000000",	"100000000000000000000" }		// 40 digits
+	};
+
+	/**
+	 * @param args not used
+	 */
+	public static void main (String[] args)
+	{
+		FactorizationImplementation support;
+		Factorization.setImplementation
+		(support = new FactorizationImplementation (1000 * 1000));					// version of implementation that uses table scan
+		support.initFactorizationsWithStats (new SieveOfSundaram (support));
+		System.out.println ();
+
+		int failures = 0;
+		for (String [] pair : PAIRS)
+		{
+			BigInteger p = new BigInteger (pair[0]).nextProbablePrime (), q = new BigInteger (pair[1]).nextProbablePrime ();
+			if (!check (p, q)) failures++;
+		}
+
+		System.out.println ();
+		System.out.println (failures == 0 ? "All factorizations verified" : failures + " factorizations FAILED");
+	}
+
+	/**
+	 * factor p*q and verify the result
+	 * @param p first prime factor
+	 * @param q second prime factor
+	 * @return TRUE when the factors are p and q and their product is the value
+	 */
+	static boolean check (BigInteger p, BigInteger q)
+	{
+		BigInteger value = p.multiply (q);
+		long start = System.nanoTime ();
+		Factorization f = FactorizationEngine.factor (value);
+		double elapsed = (System.nanoTime () - start) / 1E9;
+
+		BigInteger product = BigInteger.ONE;
+		Map<BigInteger,Integer> factors = f.getFactors ().getFactorMap ();
+		for (BigInteger factor : factors.keySet ())
+		{ product = product.multiply (factor.pow (factors.get (factor))); }
+
+		boolean verified = product.equals (value) &&
+			factors.containsKey (p) && factors.containsKey (q) &&
+			(p.equals (q) ? factors.size () == 1 && factors.get (p) == 2 : factors.size () == 2);
+
+		System.out.println
+		(
+			value.toString ().length () + " digits  " + value + " = " + f +
+			"  (" + elapsed + " sec)  " + (verified ? "OK" : "FAILED, product " + product)
+		);
+		return verified;
+	}
+
+}
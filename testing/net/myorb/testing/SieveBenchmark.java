@@ -0,0 +1,96 @@
+
+package net.myorb.testing;
+
+import net.myorb.math.primenumbers.*;
+import net.myorb.math.primenumbers.sieves.*;
+
+/**
+ *
+ * timing of the sieve drivers over tables of increasing size.
+ * each sieve builds a fresh factorization table and the prime count
+ * and the count function at the end of the table are compared.
+ * tables of 10^9 need three int arrays of 4GB each so run with a large heap
+ *
+ * @author Michael Druckman
+ *
+ */
+public class SieveBenchmark
+{
+
+	/**
+	 * a sieve constructed around the table it fills
+	 */
+	interface SieveFactory
+	{
+		SieveDriver newSieve (FactorizationImplementation table);
+	}
+
+	static final SieveFactory [] FACTORIES =
+	{
+		(t) -> new SieveOfEratosthenes (t),
+		(t) -> new SieveOfSundaram (t),
+		(t) -> new ParallelSegmentedSieve (t)
+	};
+
+	/**
+	 * run each of the sieves for a table size
+	 * @param size the number of factorizations to compute
+	 */
+	public static void benchmark (int size)
+	{
+		System.out.println ("Table size " + size);
+		Number expectedPrimes = null, expectedPi = null;
+
+		for (SieveFactory factory : FACTORIES)
+		{
+			try
+			{
+				FactorizationImplementation table = new FactorizationImplementation (size);
+				Factorization.setImplementation (table);
+				SieveDriver sieve = factory.newSieve (table);
+
+				long start = System.currentTimeMillis ();
+				sieve.generatePrimes ();
+				long millis = System.currentTimeMillis () - start;
+
+				Number primes = table.getPrimesUpTo (size).size (), pi = table.piFunction (size - 1);
+				if (expectedPrimes == null) { expectedPrimes = primes; expectedPi = pi; }
+				boolean agrees = primes.equals (expectedPrimes) && pi.equals (expectedPi);
+
+				System.out.println
+				(
+					"   " + sieve.getName () + ": " + millis + "ms, " +
+					primes + " primes" + (agrees ? "" : " *** MISMATCH pi=" + pi)
+				);
+			}
+			catch (OutOfMemoryError e)
+			{
+				System.out.println ("   table does not fit the heap, size skipped");
+				return;
+			}
+		}
+
+		long start = System.currentTimeMillis ();
+		SegmentedWheelSieve wheel = new SegmentedWheelSieve (size - 1);
+		wheel.generatePrimes ();
+		long millis = System.currentTimeMillis () - start;
+		System.out.println
+		(
+			"   " + wheel.getName () + " (primes only): " + millis + "ms, " +
+			wheel.getPrimeTable ().getPrimeCount () + " primes"
+		);
+		System.out.println ();
+	}
+
+	/**
+	 * @param args sizes of tables, default 10^7 10^8 10^9
+	 */
+	public static void main (String[] args)
+	{
+		String [] sizes = args.length > 0 ? args : new String [] {"10000000", "100000000", "1000000000"};
+		System.out.println ("Processors available " + Runtime.getRuntime ().availableProcessors ());
+		System.out.println ();
+		for (String size : sizes) benchmark (Integer.parseInt (size));
+	}
+
+}